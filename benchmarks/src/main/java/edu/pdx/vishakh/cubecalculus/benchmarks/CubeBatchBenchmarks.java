@@ -0,0 +1,137 @@
+package edu.pdx.vishakh.cubecalculus.benchmarks;
+
+import edu.pdx.vishakh.cubecalculus.core.BooleanCube;
+import edu.pdx.vishakh.cubecalculus.core.CubeBatch;
+import edu.pdx.vishakh.cubecalculus.core.PackedCubeList;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.BitSet;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Probing a batch of cubes with one cube, by the Vector API kernels of {@link CubeBatch}, by its scalar kernels, and
+ * by a loop over the cubes as BooleanCubes.  The probes are cubes of the batch with one variable drawn again, walked
+ * in turn, so that each relation holds for some cubes.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "--add-modules=jdk.incubator.vector")
+public class CubeBatchBenchmarks {
+
+    /** Number of probes, a power of 2. */
+    private static final int N_PROBES = 64;
+
+    @Param({"16", "64", "128"})
+    public int nVars;
+
+    @Param({"1024", "65536"})
+    public int nCubes;
+
+    /** "vector" and "scalar" for the kernels of a CubeBatch, "cubes" for a loop over BooleanCubes. */
+    @Param({"vector", "scalar", "cubes"})
+    public String kernels;
+
+    private BooleanCube[] cubes;
+    private CubeBatch batch;
+    private BooleanCube[] probes;
+    private long[][] packedProbes;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(52);
+        cubes = new BooleanCube[nCubes];
+        PackedCubeList packed = new PackedCubeList(nVars, nCubes);
+        for (int k = 0; k < nCubes; ++k) {
+            char[] trits = new char[nVars];
+            for (int i = 0; i < nVars; ++i) {
+                trits[i] = "01**".charAt(random.nextInt(4));
+            }
+            cubes[k] = BooleanCube.fromString(new String(trits));
+            packed.add(cubes[k]);
+        }
+        probes = new BooleanCube[N_PROBES];
+        packedProbes = new long[N_PROBES][];
+        for (int p = 0; p < N_PROBES; ++p) {
+            BooleanCube probe = new BooleanCube(cubes[random.nextInt(nCubes)]);
+            int var = random.nextInt(nVars);
+            switch (random.nextInt(3)) {
+                case 0: probe.makeOffVar(var); break;
+                case 1: probe.makeOnVar(var); break;
+                default: probe.makeDontCareVar(var); break;
+            }
+            probes[p] = probe;
+            packedProbes[p] = PackedCubeList.pack(nVars, probe);
+        }
+        if (!kernels.equals("cubes")) {
+            batch = new CubeBatch(packed, kernels.equals("vector"));
+            if (batch.isVectorized() != kernels.equals("vector")) {
+                throw new IllegalStateException("Vector API kernels are not available.");
+            }
+        }
+    }
+
+    private int nextProbe() {
+        next = (next + 1) & (N_PROBES - 1);
+        return next;
+    }
+
+    @Benchmark
+    public BitSet intersecting() {
+        int p = nextProbe();
+        if (batch != null) {
+            return batch.intersecting(packedProbes[p], 0);
+        }
+        BitSet result = new BitSet(nCubes);
+        for (int k = 0; k < nCubes; ++k) {
+            if (cubes[k].intersection(probes[p]) != null) {
+                result.set(k);
+            }
+        }
+        return result;
+    }
+
+    @Benchmark
+    public BitSet containing() {
+        int p = nextProbe();
+        if (batch != null) {
+            return batch.containing(packedProbes[p], 0);
+        }
+        BitSet result = new BitSet(nCubes);
+        for (int k = 0; k < nCubes; ++k) {
+            if (cubes[k].includes(probes[p])) {
+                result.set(k);
+            }
+        }
+        return result;
+    }
+
+    @Benchmark
+    public BitSet adjacentTo() {
+        int p = nextProbe();
+        if (batch != null) {
+            return batch.adjacentTo(packedProbes[p], 0);
+        }
+        BitSet result = new BitSet(nCubes);
+        for (int k = 0; k < nCubes; ++k) {
+            if (cubes[k].isAdjacentTo(probes[p])) {
+                result.set(k);
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,118 @@
+package edu.pdx.vishakh.cubecalculus.benchmarks;
+
+import edu.pdx.vishakh.cubecalculus.core.BooleanCube;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Operations on pairs of cubes, over a fixed array of pairs walked in turn so that no one pair is all that is
+ * measured.  Each cube has a literal or not for each variable at random, so {@code dontCarePercent} sets its order.
+ * A cube is paired with a cube adjacent to it, for merge and adjacency, and with a cube that has the same values for
+ * most variables, for the others, so that they meet and contain each other now and then.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CubeOperationBenchmarks {
+
+    /** Number of pairs, a power of 2. */
+    private static final int N_PAIRS = 1024;
+
+    @Param({"8", "16", "32", "64"})
+    public int nVars;
+
+    @Param({"0", "25", "50", "75"})
+    public int dontCarePercent;
+
+    private BooleanCube[] cubes;
+    private BooleanCube[] adjacent;
+    private BooleanCube[] partners;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(50);
+        cubes = new BooleanCube[N_PAIRS];
+        adjacent = new BooleanCube[N_PAIRS];
+        partners = new BooleanCube[N_PAIRS];
+        for (int k = 0; k < N_PAIRS; ++k) {
+            char[] trits = new char[nVars];
+            for (int i = 0; i < nVars; ++i) {
+                trits[i] = random.nextInt(100) < dontCarePercent ? '*' : random.nextBoolean() ? '1' : '0';
+            }
+            cubes[k] = BooleanCube.fromString(new String(trits));
+
+            // The same cube with one literal flipped, if it has one.
+            char[] flipped = trits.clone();
+            int start = random.nextInt(nVars);
+            for (int j = 0; j < nVars; ++j) {
+                int i = (start + j) % nVars;
+                if (flipped[i] != '*') {
+                    flipped[i] = flipped[i] == '1' ? '0' : '1';
+                    break;
+                }
+            }
+            adjacent[k] = BooleanCube.fromString(new String(flipped));
+
+            // The same cube with an eighth of the variables drawn again.
+            char[] partner = trits.clone();
+            for (int i = 0; i < nVars; ++i) {
+                if (random.nextInt(8) == 0) {
+                    partner[i] = "01*".charAt(random.nextInt(3));
+                }
+            }
+            partners[k] = BooleanCube.fromString(new String(partner));
+        }
+    }
+
+    private int nextPair() {
+        next = (next + 1) & (N_PAIRS - 1);
+        return next;
+    }
+
+    @Benchmark
+    public BooleanCube merge() {
+        int k = nextPair();
+        return cubes[k].merge(adjacent[k]);
+    }
+
+    @Benchmark
+    public boolean isAdjacentTo() {
+        int k = nextPair();
+        return cubes[k].isAdjacentTo(adjacent[k]);
+    }
+
+    @Benchmark
+    public boolean includes() {
+        int k = nextPair();
+        return cubes[k].includes(partners[k]);
+    }
+
+    @Benchmark
+    public BooleanCube intersection() {
+        int k = nextPair();
+        return cubes[k].intersection(partners[k]);
+    }
+
+    @Benchmark
+    public Set<BooleanCube> disjointSharp() {
+        int k = nextPair();
+        return cubes[k].disjointSharp(partners[k]);
+    }
+}
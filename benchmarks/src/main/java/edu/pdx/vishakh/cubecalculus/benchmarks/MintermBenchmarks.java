@@ -0,0 +1,70 @@
+package edu.pdx.vishakh.cubecalculus.benchmarks;
+
+import edu.pdx.vishakh.cubecalculus.core.BooleanCube;
+import edu.pdx.vishakh.cubecalculus.core.CubeUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Listing the minterms of cubes of a given order, which is what sets the work, since a cube of order {@code n} has
+ * {@code 2^n} minterms.  The free variables are spread at random over the cube.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MintermBenchmarks {
+
+    /** Number of cubes, a power of 2. */
+    private static final int N_CUBES = 64;
+
+    @Param({"8", "16", "32", "64"})
+    public int nVars;
+
+    @Param({"0", "4", "8"})
+    public int order;
+
+    private BooleanCube[] cubes;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(51);
+        cubes = new BooleanCube[N_CUBES];
+        for (int k = 0; k < N_CUBES; ++k) {
+            char[] trits = new char[nVars];
+            for (int i = 0; i < nVars; ++i) {
+                trits[i] = random.nextBoolean() ? '1' : '0';
+            }
+            for (int free = 0; free < order; ) {
+                int i = random.nextInt(nVars);
+                if (trits[i] != '*') {
+                    trits[i] = '*';
+                    ++free;
+                }
+            }
+            cubes[k] = BooleanCube.fromString(new String(trits));
+        }
+    }
+
+    @Benchmark
+    public Set<BooleanCube> getMinterms() {
+        next = (next + 1) & (N_CUBES - 1);
+        return CubeUtils.getMinterms(cubes[next]);
+    }
+}
@@ -0,0 +1,77 @@
+package edu.pdx.vishakh.cubecalculus.core;
+
+import jdk.incubator.vector.LongVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * The kernels of {@link CubeBatch} with the Vector API, as many cubes at a time as the widest vectors of the machine
+ * hold longs, and the cubes left over one at a time.  Needs {@code --add-modules jdk.incubator.vector} both to compile
+ * and to run; {@link CubeBatch} loads it only if the module is there.
+ */
+class VectorCubeKernels implements CubeKernels {
+
+    private static final VectorSpecies<Long> SPECIES = LongVector.SPECIES_PREFERRED;
+
+    @Override
+    public void intersect(long[] plane, long probe, long mask, long[] miss) {
+        int k = 0;
+        for (int bound = SPECIES.loopBound(miss.length); k < bound; k += SPECIES.length()) {
+            LongVector x = LongVector.fromArray(SPECIES, plane, k).and(probe);
+            LongVector empty = x.or(x.lanewise(VectorOperators.LSHR, 1)).not().and(mask);
+            LongVector.fromArray(SPECIES, miss, k).or(empty).intoArray(miss, k);
+        }
+        for (; k < miss.length; ++k) {
+            long x = plane[k] & probe;
+            miss[k] |= mask & ~(x | (x >>> 1));
+        }
+    }
+
+    @Override
+    public void contain(long[] plane, long probe, long[] miss) {
+        int k = 0;
+        for (int bound = SPECIES.loopBound(miss.length); k < bound; k += SPECIES.length()) {
+            LongVector outside = LongVector.fromArray(SPECIES, plane, k).not().and(probe);
+            LongVector.fromArray(SPECIES, miss, k).or(outside).intoArray(miss, k);
+        }
+        for (; k < miss.length; ++k) {
+            miss[k] |= probe & ~plane[k];
+        }
+    }
+
+    @Override
+    public void containedIn(long[] plane, long probe, long[] miss) {
+        int k = 0;
+        for (int bound = SPECIES.loopBound(miss.length); k < bound; k += SPECIES.length()) {
+            LongVector outside = LongVector.fromArray(SPECIES, plane, k).and(~probe);
+            LongVector.fromArray(SPECIES, miss, k).or(outside).intoArray(miss, k);
+        }
+        for (; k < miss.length; ++k) {
+            miss[k] |= plane[k] & ~probe;
+        }
+    }
+
+    @Override
+    public void adjacent(long[] plane, int from, long probe, long mask, long[] bad, long[] opposite) {
+        int k = 0;
+        for (int bound = SPECIES.loopBound(bad.length); k < bound; k += SPECIES.length()) {
+            LongVector d = LongVector.fromArray(SPECIES, plane, from + k).lanewise(VectorOperators.XOR, probe);
+            LongVector shifted = d.lanewise(VectorOperators.LSHR, 1);
+            LongVector both = d.and(shifted).and(mask);
+            LongVector prior = LongVector.fromArray(SPECIES, opposite, k);
+            LongVector flags = d.lanewise(VectorOperators.XOR, shifted).and(mask)
+                    .or(both.and(both.sub(1)))
+                    .or(prior.or(prior.neg()).and(both.or(both.neg())).lanewise(VectorOperators.LSHR, 63));
+            LongVector.fromArray(SPECIES, bad, k).or(flags).intoArray(bad, k);
+            prior.or(both).intoArray(opposite, k);
+        }
+        for (; k < bad.length; ++k) {
+            long d = plane[from + k] ^ probe;
+            long both = d & (d >>> 1) & mask;
+            long prior = opposite[k];
+            bad[k] |= ((d ^ (d >>> 1)) & mask) | (both & (both - 1))
+                    | (((prior | -prior) & (both | -both)) >>> 63);
+            opposite[k] = prior | both;
+        }
+    }
+}
@@ -0,0 +1,332 @@
+package edu.pdx.vishakh.cubecalculus.algorithms;
+
+import edu.pdx.vishakh.cubecalculus.core.BooleanCube;
+import edu.pdx.vishakh.cubecalculus.core.CubeCalculusException;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Minimizes a stream of independent functions on a bounded number of worker threads.
+ *
+ * At most {@code nThreads + queueCapacity} jobs are in flight at any time.  When that limit is reached the thread
+ * feeding the jobs blocks until a result has been handed to the consumer, so a slow consumer or a fast producer
+ * cannot make the engine buffer an unbounded number of jobs or results.
+ *
+ * Each worker thread keeps its own algorithm instance and reuses it for every job it runs, so the maps the
+ * algorithm builds are allocated once per thread rather than once per function.
+ *
+ * Results are always handed to the consumer on the thread that called {@link #minimizeAll}, either in the order the
+ * jobs were submitted or in the order they completed.
+ *
+ * In {@link ExecutionMode#VIRTUAL_THREADS} mode every job runs on its own virtual thread, and only the compute phases
+ * of the algorithm are limited to {@code nThreads} at a time by a {@link ComputeThrottle}.  A small job submitted
+ * behind large ones then starts right away and waits at most for one loop iteration of a large job, instead of waiting
+ * for a pool thread to become free.  Algorithm instances are kept in a shared pool in this mode, since a virtual
+ * thread runs only one job.
+ */
+public class BatchMinimizer implements AutoCloseable {
+
+    /** Order in which results are handed to the consumer. */
+    public enum ResultOrder {
+        /** Same order as the input stream. */
+        SUBMISSION,
+
+        /** As soon as each job completes. */
+        COMPLETION
+    }
+
+    /** How jobs are mapped to threads. */
+    public enum ExecutionMode {
+        /** A fixed pool of {@code nThreads} platform threads. */
+        PLATFORM_THREADS,
+
+        /** One virtual thread per job, with the compute phases throttled to {@code nThreads}. */
+        VIRTUAL_THREADS
+    }
+
+    private final int nThreads;
+    private final int queueCapacity;
+    private final ResultOrder resultOrder;
+    private final ExecutionMode executionMode;
+    private final ExecutorService executor;
+    private final Supplier<? extends MinimizationAlgorithm<BooleanCube>> algorithmFactory;
+
+    /** Algorithm instance owned by each worker thread, in {@link ExecutionMode#PLATFORM_THREADS} mode. */
+    private final ThreadLocal<MinimizationAlgorithm<BooleanCube>> algorithms;
+
+    /** Idle algorithm instances, in {@link ExecutionMode#VIRTUAL_THREADS} mode. */
+    private final Queue<MinimizationAlgorithm<BooleanCube>> idleAlgorithms = new ConcurrentLinkedQueue<>();
+
+    /** Throttle shared by all jobs in {@link ExecutionMode#VIRTUAL_THREADS} mode, {@code null} otherwise. */
+    private final ComputeThrottle computeThrottle;
+
+    /** Cache consulted before running a job.  Can be {@code null}. */
+    private volatile MinimizationCache cache = null;
+
+    /**
+     * Creates a batch minimizer on a fixed pool of platform threads.
+     * @param algorithmFactory Creates one algorithm instance per worker thread.
+     * @param nThreads Number of worker threads.
+     * @param queueCapacity Number of jobs that may wait for a worker, in addition to the ones being run.
+     * @param resultOrder Order in which results are handed to the consumer.
+     */
+    public BatchMinimizer(Supplier<? extends MinimizationAlgorithm<BooleanCube>> algorithmFactory,
+                          int nThreads,
+                          int queueCapacity,
+                          ResultOrder resultOrder) {
+        this(algorithmFactory, nThreads, queueCapacity, resultOrder, ExecutionMode.PLATFORM_THREADS);
+    }
+
+    /**
+     * @param algorithmFactory Creates the algorithm instances.
+     * @param nThreads Number of worker threads, or in {@link ExecutionMode#VIRTUAL_THREADS} mode the number of jobs
+     *                 allowed in their compute phases at once.
+     * @param queueCapacity Number of jobs that may be in flight in addition to {@code nThreads}.
+     * @param resultOrder Order in which results are handed to the consumer.
+     * @param executionMode How jobs are mapped to threads.
+     */
+    public BatchMinimizer(Supplier<? extends MinimizationAlgorithm<BooleanCube>> algorithmFactory,
+                          int nThreads,
+                          int queueCapacity,
+                          ResultOrder resultOrder,
+                          ExecutionMode executionMode) {
+        if (nThreads < 1) {
+            throw new CubeCalculusException("Batch minimizer needs at least one thread.");
+        }
+        if (queueCapacity < 0) {
+            throw new CubeCalculusException("Queue capacity cannot be negative.");
+        }
+        this.nThreads = nThreads;
+        this.queueCapacity = queueCapacity;
+        this.resultOrder = resultOrder;
+        this.executionMode = executionMode;
+        this.algorithmFactory = algorithmFactory;
+        this.algorithms = ThreadLocal.withInitial(algorithmFactory::get);
+
+        if (executionMode == ExecutionMode.VIRTUAL_THREADS) {
+            this.computeThrottle = new ComputeThrottle(nThreads);
+            this.executor = createVirtualThreadExecutor();
+        } else {
+            this.computeThrottle = null;
+            AtomicInteger threadNo = new AtomicInteger();
+            this.executor = Executors.newFixedThreadPool(nThreads, r -> {
+                Thread t = new Thread(r, "cube-calculus-batch-" + threadNo.incrementAndGet());
+                t.setDaemon(true);
+                return t;
+            });
+        }
+    }
+
+    /** Creates a batch minimizer using the Quine-McCluskey algorithm on one thread per available processor. */
+    public static BatchMinimizer createQuineMcCluskeyBatchMinimizer(ResultOrder resultOrder) {
+        return createQuineMcCluskeyBatchMinimizer(resultOrder, ExecutionMode.PLATFORM_THREADS);
+    }
+
+    /**
+     * Creates a batch minimizer using the Quine-McCluskey algorithm, with one thread (or compute permit) per available
+     * processor.
+     */
+    public static BatchMinimizer createQuineMcCluskeyBatchMinimizer(ResultOrder resultOrder,
+                                                                     ExecutionMode executionMode) {
+        int nThreads = Runtime.getRuntime().availableProcessors();
+        return new BatchMinimizer(() -> new QuineMcCluskeyAlgorithm(null, null), nThreads, 4 * nThreads,
+                resultOrder, executionMode);
+    }
+
+    /**
+     * Minimizes every job in the stream.  Blocks until all the results have been handed to {@code consumer}.
+     * A job that throws does not stop the batch; its exception is reported in its {@link BatchResult}.
+     * @param jobs The jobs to run.  The stream is consumed lazily, only as fast as the workers can keep up.
+     * @param consumer Receives each result, on the calling thread.
+     * @return Number of jobs run.
+     */
+    public long minimizeAll(Stream<MinimizationJob> jobs, Consumer<BatchResult> consumer) {
+        Semaphore inFlight = new Semaphore(nThreads + queueCapacity);
+        BlockingQueue<BatchResult> completed = new LinkedBlockingQueue<>();
+        ResultDispatcher dispatcher = new ResultDispatcher(consumer, inFlight);
+
+        long submitted = 0;
+        try {
+            Iterator<MinimizationJob> iterator = jobs.iterator();
+            while (iterator.hasNext()) {
+                MinimizationJob job = iterator.next();
+
+                // Wait for room, handing over finished results while we wait.
+                dispatcher.drain(completed);
+                while (!inFlight.tryAcquire()) {
+                    dispatcher.accept(completed.take());
+                    dispatcher.drain(completed);
+                }
+
+                long sequence = submitted++;
+                executor.execute(() -> completed.add(run(sequence, job)));
+            }
+
+            while (dispatcher.delivered < submitted) {
+                dispatcher.accept(completed.take());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CubeCalculusException("Batch minimization interrupted after " + dispatcher.delivered
+                    + " of " + submitted + " results.");
+        }
+        return submitted;
+    }
+
+    /** Minimizes every job in the stream and returns the results in the configured order. */
+    public List<BatchResult> minimizeAll(Stream<MinimizationJob> jobs) {
+        List<BatchResult> results = new ArrayList<>();
+        minimizeAll(jobs, results::add);
+        return results;
+    }
+
+    /** Stops the worker threads.  Jobs already submitted are allowed to finish. */
+    @Override
+    public void close() {
+        executor.shutdown();
+    }
+
+    public int getNumberOfThreads() {
+        return nThreads;
+    }
+
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    public ResultOrder getResultOrder() {
+        return resultOrder;
+    }
+
+    public ExecutionMode getExecutionMode() {
+        return executionMode;
+    }
+
+    /** Sets a cache of results shared by all the jobs.  {@code null} disables caching. */
+    public void setCache(MinimizationCache cache) {
+        this.cache = cache;
+    }
+
+    public MinimizationCache getCache() {
+        return cache;
+    }
+
+    /** Runs one job on the current worker thread. */
+    private BatchResult run(long sequence, MinimizationJob job) {
+        if (executionMode == ExecutionMode.PLATFORM_THREADS) {
+            return run(sequence, job, algorithms.get());
+        }
+
+        MinimizationAlgorithm<BooleanCube> algorithm = idleAlgorithms.poll();
+        if (algorithm == null) {
+            algorithm = algorithmFactory.get();
+            algorithm.setComputeThrottle(computeThrottle);
+        }
+        try {
+            return run(sequence, job, algorithm);
+        } finally {
+            idleAlgorithms.add(algorithm);
+        }
+    }
+
+    private BatchResult run(long sequence, MinimizationJob job, MinimizationAlgorithm<BooleanCube> algorithm) {
+        StatsCollector stats = new StatsCollector();
+        long start = System.nanoTime();
+        algorithm.setCancellationToken(job.getCancellationToken());
+        try {
+            // A job cancelled while queued is not started.
+            if (job.getCancellationToken() != null) {
+                job.getCancellationToken().throwIfCancelled();
+            }
+            MinimizationCache c = cache;
+            Set<BooleanCube> cover = c == null
+                    ? algorithm.minimize(job.getNumberOfVariables(), job.getOnCubes(), job.getOffCubes(),
+                            job.getDcCubes(), stats, job.isStopAtCyclic())
+                    : c.minimize(algorithm, job.getNumberOfVariables(), job.getOnCubes(), job.getOffCubes(),
+                            job.getDcCubes(), stats, job.isStopAtCyclic());
+            return new BatchResult(sequence, job, cover, stats, null, System.nanoTime() - start);
+        } catch (RuntimeException | Error e) {
+            return new BatchResult(sequence, job, null, stats, e, System.nanoTime() - start);
+        } finally {
+            algorithm.setCancellationToken(null);
+        }
+    }
+
+    /**
+     * Creates an executor that starts a virtual thread per task.  Virtual threads are looked up reflectively so that
+     * the library still runs on JVMs without them; there each task gets a new daemon platform thread instead, which
+     * keeps the same scheduling behaviour at a higher cost per job.
+     */
+    private static ExecutorService createVirtualThreadExecutor() {
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        } catch (ReflectiveOperationException e) {
+            AtomicInteger threadNo = new AtomicInteger();
+            return Executors.newCachedThreadPool(r -> {
+                Thread t = new Thread(r, "cube-calculus-job-" + threadNo.incrementAndGet());
+                t.setDaemon(true);
+                return t;
+            });
+        }
+    }
+
+    /**
+     * Hands results to the consumer in the configured order, and releases one in-flight permit per result handed
+     * over.  In submission order, results that complete early wait here until all earlier ones are delivered; they
+     * still hold their permits, so this buffer is bounded as well.
+     */
+    private class ResultDispatcher {
+        private final Consumer<BatchResult> consumer;
+        private final Semaphore inFlight;
+        private final Map<Long, BatchResult> pending = new HashMap<>();
+        private long delivered = 0;
+
+        ResultDispatcher(Consumer<BatchResult> consumer, Semaphore inFlight) {
+            this.consumer = consumer;
+            this.inFlight = inFlight;
+        }
+
+        void drain(BlockingQueue<BatchResult> completed) {
+            BatchResult result;
+            while ((result = completed.poll()) != null) {
+                accept(result);
+            }
+        }
+
+        void accept(BatchResult result) {
+            if (resultOrder == ResultOrder.COMPLETION) {
+                deliver(result);
+                return;
+            }
+            pending.put(result.getSequence(), result);
+            BatchResult next;
+            while ((next = pending.remove(delivered)) != null) {
+                deliver(next);
+            }
+        }
+
+        private void deliver(BatchResult result) {
+            ++delivered;
+            inFlight.release();
+            consumer.accept(result);
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package edu.pdx.vishakh.cubecalculus.algorithms;
+
+import edu.pdx.vishakh.cubecalculus.core.BooleanCube;
+
+import java.util.Set;
+
+/**
+ * Outcome of one {@link MinimizationJob} run by a {@link BatchMinimizer}.
+ * Exactly one of {@link #getCover()} and {@link #getError()} is non-null.
+ */
+public class BatchResult {
+
+    /** Position of the job in the input stream, starting at 0. */
+    private final long sequence;
+
+    private final MinimizationJob job;
+    private final Set<BooleanCube> cover;
+    private final StatsCollector stats;
+    private final Throwable error;
+
+    /** Wall-clock time spent minimizing, in nanoseconds. */
+    private final long elapsedNanos;
+
+    BatchResult(long sequence, MinimizationJob job, Set<BooleanCube> cover, StatsCollector stats,
+                Throwable error, long elapsedNanos) {
+        this.sequence = sequence;
+        this.job = job;
+        this.cover = cover;
+        this.stats = stats;
+        this.error = error;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    public long getSequence() {
+        return sequence;
+    }
+
+    public MinimizationJob getJob() {
+        return job;
+    }
+
+    /** The minimized cover, or {@code null} if the job failed. */
+    public Set<BooleanCube> getCover() {
+        return cover;
+    }
+
+    public StatsCollector getStats() {
+        return stats;
+    }
+
+    /** The exception thrown by the algorithm, or {@code null} if the job succeeded. */
+    public Throwable getError() {
+        return error;
+    }
+
+    public boolean isSuccessful() {
+        return error == null;
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+}
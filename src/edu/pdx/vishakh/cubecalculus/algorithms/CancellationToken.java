@@ -0,0 +1,43 @@
+package edu.pdx.vishakh.cubecalculus.algorithms;
+
+/**
+ * Lets another thread ask a running minimization to stop.
+ *
+ * Algorithms check the token at the boundaries of their main loops and throw {@link MinimizationCancelledException}
+ * once it is cancelled, so a cancelled minimization stops within one loop iteration.  A token can be shared by any
+ * number of minimizations, for example all the jobs of one client.
+ */
+public class CancellationToken {
+
+    private volatile boolean cancelled = false;
+    private volatile String reason = null;
+
+    /** Asks every minimization using this token to stop. */
+    public void cancel() {
+        cancel("cancelled");
+    }
+
+    /**
+     * Asks every minimization using this token to stop.
+     * @param reason Included in the message of the exception thrown by the algorithms.
+     */
+    public void cancel(String reason) {
+        this.reason = reason;
+        this.cancelled = true;
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    public String getReason() {
+        return reason;
+    }
+
+    /** Throws {@link MinimizationCancelledException} if the token is cancelled. */
+    public void throwIfCancelled() {
+        if (cancelled) {
+            throw new MinimizationCancelledException("Minimization " + reason + ".");
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package edu.pdx.vishakh.cubecalculus.algorithms;
+
+import edu.pdx.vishakh.cubecalculus.core.CubeCalculusException;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Writes {@link MinimizationCheckpoint}s to a file from a background thread.
+ *
+ * The minimization only takes a snapshot of its state when {@link #isDue()} says so and hands it over with
+ * {@link #submit}, which does not wait.  The writer thread encodes the latest snapshot and writes it with a
+ * {@link FileChannel} to a temporary file, which then replaces the checkpoint file, so the file always holds a whole
+ * checkpoint.  Snapshots submitted while a write is in progress replace each other; only the latest one is written.
+ */
+public class CheckpointWriter implements AutoCloseable {
+
+    private final Path path;
+    private final long intervalNanos;
+    private final AtomicReference<MinimizationCheckpoint> pending = new AtomicReference<>();
+    private final Thread thread;
+
+    private volatile long nextDue;
+    private volatile boolean closed = false;
+    private volatile int nWritten = 0;
+    private volatile IOException error = null;
+
+    /**
+     * @param path The checkpoint file.
+     * @param intervalMillis Minimum time between two checkpoints.  The first one is due right away.
+     */
+    public CheckpointWriter(Path path, long intervalMillis) {
+        if (intervalMillis < 0) {
+            throw new CubeCalculusException("Checkpoint interval cannot be negative.");
+        }
+        this.path = path;
+        this.intervalNanos = TimeUnit.MILLISECONDS.toNanos(intervalMillis);
+        this.nextDue = System.nanoTime();
+        this.thread = new Thread(this::run, "checkpoint-writer");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    /** True if the interval since the last checkpoint has passed. */
+    public boolean isDue() {
+        return !closed && System.nanoTime() - nextDue >= 0;
+    }
+
+    /** Queues a checkpoint to be written, replacing any that is not written yet. */
+    public void submit(MinimizationCheckpoint checkpoint) {
+        if (closed) {
+            throw new CubeCalculusException("Checkpoint writer is closed.");
+        }
+        nextDue = System.nanoTime() + intervalNanos;
+        pending.set(checkpoint);
+        LockSupport.unpark(thread);
+    }
+
+    /** Number of checkpoints written so far. */
+    public int getNumberWritten() {
+        return nWritten;
+    }
+
+    /** Writes the last submitted checkpoint, if any, and stops the writer thread. */
+    @Override
+    public void close() {
+        closed = true;
+        LockSupport.unpark(thread);
+        boolean interrupted = false;
+        while (thread.isAlive()) {
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+        if (error != null) {
+            throw new CubeCalculusException("Cannot write checkpoint " + path + ": " + error.getMessage());
+        }
+    }
+
+    private void run() {
+        while (true) {
+            MinimizationCheckpoint checkpoint = pending.getAndSet(null);
+            if (checkpoint != null) {
+                try {
+                    write(checkpoint);
+                    ++nWritten;
+                } catch (IOException e) {
+                    error = e;
+                }
+            } else if (closed) {
+                return;
+            } else {
+                LockSupport.park(this);
+            }
+        }
+    }
+
+    private void write(MinimizationCheckpoint checkpoint) throws IOException {
+        ByteBuffer buffer = checkpoint.encode();
+        Path tmp = path.resolveSibling(path.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(true);
+        }
+        Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+}
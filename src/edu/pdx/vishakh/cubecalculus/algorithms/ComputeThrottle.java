@@ -0,0 +1,52 @@
+package edu.pdx.vishakh.cubecalculus.algorithms;
+
+import java.util.concurrent.Semaphore;
+
+/**
+ * Limits the number of threads that run the CPU heavy phases of minimization at the same time.
+ *
+ * When every job runs on its own (virtual) thread, the number of jobs in progress can be far larger than the number
+ * of cores.  Algorithms acquire a permit before generating primes or solving the cover, and at the boundaries of
+ * their main loops offer the permit to any waiting thread.  The semaphore is fair, so a small job that starts while
+ * a large one is running waits for at most one loop iteration of the large job, not for all of it.
+ */
+public class ComputeThrottle {
+
+    private final Semaphore permits;
+    private final int nPermits;
+
+    /**
+     * @param nPermits Number of threads allowed in the compute phases at once.  Usually the number of cores.
+     */
+    public ComputeThrottle(int nPermits) {
+        this.nPermits = nPermits;
+        this.permits = new Semaphore(nPermits, true);
+    }
+
+    /** Creates a throttle with one permit per available processor. */
+    public static ComputeThrottle forAvailableProcessors() {
+        return new ComputeThrottle(Runtime.getRuntime().availableProcessors());
+    }
+
+    public int getNumberOfPermits() {
+        return nPermits;
+    }
+
+    /** Waits for a permit. */
+    void acquire() {
+        permits.acquireUninterruptibly();
+    }
+
+    /** Returns a permit taken by {@link #acquire()}. */
+    void release() {
+        permits.release();
+    }
+
+    /** If other threads are waiting, hands the permit over and queues up behind them. */
+    void yieldPermit() {
+        if (permits.hasQueuedThreads()) {
+            permits.release();
+            permits.acquireUninterruptibly();
+        }
+    }
+}
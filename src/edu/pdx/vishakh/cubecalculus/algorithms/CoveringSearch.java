@@ -0,0 +1,386 @@
+package edu.pdx.vishakh.cubecalculus.algorithms;
+
+import edu.pdx.vishakh.cubecalculus.core.CubeCalculusException;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Minimum cost set cover of an explicit chart, by branch and bound.
+ *
+ * Rows are candidate cubes and columns are minterms to cover, both numbered from 0.  The search starts from a greedy
+ * cover, so a valid cover is available at any time, and improves it depth first: at each node it branches on the
+ * uncovered column with the fewest rows, and prunes the node when its cost plus a lower bound for the uncovered
+ * columns cannot beat the best cover.  The lower bound adds the cheapest row of each column in a set of columns that
+ * share no row.  The search keeps its nodes on an explicit stack, so it can stop after any node when the budget runs
+ * out, and deep charts cannot overflow the thread stack.  The stack is kept between calls to {@link #search}, so a
+ * stopped search can be continued, and it can be saved with {@link #getFrontier()} and rebuilt with {@link #restore}.
+ */
+public class CoveringSearch {
+
+    private final int nColumns;
+    private final BitSet[] rows;
+    private final int[] costs;
+    private final BitSet[] columns;
+    private final int[] cheapestRow;
+
+    private int[] best = null;
+    private int bestCost = Integer.MAX_VALUE;
+    private int lowerBound;
+    private boolean complete = false;
+    private long nodes = 0;
+    private Deque<Node> stack = null;
+
+    private MinimizationListener listener = null;
+    private CancellationToken cancellationToken = null;
+    private CheckpointWriter checkpointWriter = null;
+    private Supplier<MinimizationCheckpoint> checkpointSupplier = null;
+
+    /** Number of nodes between two progress events. */
+    private static final int PROGRESS_INTERVAL = 4096;
+
+    /**
+     * @param nColumns Number of columns.
+     * @param rowColumns Columns covered by each row.
+     * @param costs Cost of each row.
+     */
+    public CoveringSearch(int nColumns, List<BitSet> rowColumns, int[] costs) {
+        this.nColumns = nColumns;
+        this.rows = rowColumns.toArray(new BitSet[0]);
+        this.costs = costs.clone();
+        this.columns = new BitSet[nColumns];
+        this.cheapestRow = new int[nColumns];
+        for (int c = 0; c < nColumns; ++c) {
+            columns[c] = new BitSet();
+        }
+        for (int r = 0; r < rows.length; ++r) {
+            for (int c = rows[r].nextSetBit(0); c >= 0; c = rows[r].nextSetBit(c + 1)) {
+                columns[c].set(r);
+            }
+        }
+        for (int c = 0; c < nColumns; ++c) {
+            if (columns[c].isEmpty()) {
+                throw new CubeCalculusException("Column " + c + " of the covering chart has no row.");
+            }
+            int cheapest = Integer.MAX_VALUE;
+            for (int r = columns[c].nextSetBit(0); r >= 0; r = columns[c].nextSetBit(r + 1)) {
+                cheapest = Math.min(cheapest, costs[r]);
+            }
+            cheapestRow[c] = cheapest;
+        }
+        lowerBound = bound(new BitSet());
+    }
+
+    /** Sets the listener for search progress events.  {@code null} for none. */
+    public void setListener(MinimizationListener listener) {
+        this.listener = listener;
+    }
+
+    /** Sets the token checked after every node.  {@code null} for none. */
+    public void setCancellationToken(CancellationToken cancellationToken) {
+        this.cancellationToken = cancellationToken;
+    }
+
+    /**
+     * Takes checkpoints between nodes of the search, whenever {@code writer} says one is due.
+     * @param writer Can be {@code null} for no checkpoints.
+     * @param supplier Takes a snapshot of the state, including {@link #getFrontier()}.  Called on the search thread.
+     */
+    public void setCheckpointWriter(CheckpointWriter writer, Supplier<MinimizationCheckpoint> supplier) {
+        this.checkpointWriter = writer;
+        this.checkpointSupplier = supplier;
+    }
+
+    /**
+     * Finds a cover greedily, by the most newly covered columns per unit of cost, and drops the rows it then finds
+     * redundant.  The cover becomes the best one if it is cheaper.
+     * @return The rows of the greedy cover.
+     */
+    public int[] greedyCover() {
+        // Number of uncovered columns of each row, kept up to date as rows are chosen.
+        int[] gains = new int[rows.length];
+        for (int r = 0; r < rows.length; ++r) {
+            gains[r] = rows[r].cardinality();
+        }
+        BitSet covered = new BitSet();
+        List<Integer> chosen = new ArrayList<>();
+        while (covered.cardinality() < nColumns) {
+            int bestRow = -1;
+            for (int r = 0; r < rows.length; ++r) {
+                // Compare gains[r] / (costs[r] + 1) with the best ratio so far.
+                if (gains[r] > 0 && (bestRow < 0
+                        || (long) gains[r] * (costs[bestRow] + 1) > (long) gains[bestRow] * (costs[r] + 1))) {
+                    bestRow = r;
+                }
+            }
+            chosen.add(bestRow);
+            for (int c = rows[bestRow].nextSetBit(0); c >= 0; c = rows[bestRow].nextSetBit(c + 1)) {
+                if (!covered.get(c)) {
+                    covered.set(c);
+                    for (int r = columns[c].nextSetBit(0); r >= 0; r = columns[c].nextSetBit(r + 1)) {
+                        --gains[r];
+                    }
+                }
+            }
+        }
+
+        // Drop redundant rows, most expensive first.
+        int[] coverCount = new int[nColumns];
+        for (int r : chosen) {
+            for (int c = rows[r].nextSetBit(0); c >= 0; c = rows[r].nextSetBit(c + 1)) {
+                ++coverCount[c];
+            }
+        }
+        chosen.sort((a, b) -> Integer.compare(costs[b], costs[a]));
+        List<Integer> kept = new ArrayList<>();
+        for (int r : chosen) {
+            boolean redundant = true;
+            for (int c = rows[r].nextSetBit(0); c >= 0 && redundant; c = rows[r].nextSetBit(c + 1)) {
+                redundant = coverCount[c] > 1;
+            }
+            if (redundant) {
+                for (int c = rows[r].nextSetBit(0); c >= 0; c = rows[r].nextSetBit(c + 1)) {
+                    --coverCount[c];
+                }
+            } else {
+                kept.add(r);
+            }
+        }
+
+        int[] cover = new int[kept.size()];
+        int cost = 0;
+        for (int i = 0; i < cover.length; ++i) {
+            cover[i] = kept.get(i);
+            cost += costs[cover[i]];
+        }
+        offer(cover, cost);
+        return cover;
+    }
+
+    /**
+     * Searches for a minimum cover, starting from the greedy one.
+     * @param tracker Budget to charge one search node per node.  Can be {@code null}.
+     * @return True if the search finished, so the best cover is a minimum one.
+     */
+    public boolean search(MinimizationBudget.Tracker tracker) {
+        if (best == null) {
+            greedyCover();
+        }
+        if (stack == null) {
+            stack = new ArrayDeque<>();
+            stack.push(new Node(new BitSet(), 0, -1));
+        }
+        while (!stack.isEmpty()) {
+            if (checkpointWriter != null && checkpointWriter.isDue()) {
+                checkpointWriter.submit(checkpointSupplier.get());
+            }
+            Node node = stack.peek();
+            if (node.candidates == null) {
+                ++nodes;
+                if (cancellationToken != null) {
+                    cancellationToken.throwIfCancelled();
+                }
+                if (listener != null && nodes % PROGRESS_INTERVAL == 0) {
+                    listener.searchProgress(nodes, bestCost);
+                }
+                if (tracker != null && !tracker.chargeSearchNode()) {
+                    return false;
+                }
+                if (node.covered.cardinality() == nColumns) {
+                    offer(rowsOf(stack), node.cost);
+                    stack.pop();
+                    continue;
+                }
+                if (node.cost + bound(node.covered) >= bestCost) {
+                    stack.pop();
+                    continue;
+                }
+                node.candidates = branchRows(node.covered);
+            }
+            if (node.next < node.candidates.length) {
+                int r = node.candidates[node.next++];
+                BitSet covered = (BitSet) node.covered.clone();
+                covered.or(rows[r]);
+                stack.push(new Node(covered, node.cost + costs[r], r));
+            } else {
+                stack.pop();
+            }
+        }
+        complete = true;
+        stack = null;
+        lowerBound = bestCost;
+        if (listener != null) {
+            listener.searchProgress(nodes, bestCost);
+        }
+        return true;
+    }
+
+    /**
+     * The open nodes of the search, from the root up, as a triple of ints per node: the row the node adds (-1 for the
+     * root), the index of the next candidate row to try, and 1 if the candidates were computed or 0 if the node is not
+     * evaluated yet.  Together with the best cover this is enough to continue the search with {@link #restore}.
+     * Empty before the search starts and after it finishes.
+     */
+    public int[] getFrontier() {
+        if (stack == null) {
+            return new int[0];
+        }
+        int[] frontier = new int[3 * stack.size()];
+        int i = 0;
+        for (Iterator<Node> it = stack.descendingIterator(); it.hasNext(); ) {
+            Node node = it.next();
+            frontier[i++] = node.row;
+            frontier[i++] = node.next;
+            frontier[i++] = node.candidates == null ? 0 : 1;
+        }
+        return frontier;
+    }
+
+    /**
+     * Sets the best cover and the open nodes saved from a search of the same chart, so that {@link #search} continues
+     * where that search was.  The covered columns of the nodes and their candidates are computed again, which gives
+     * the same candidates in the same order.
+     * @param bestRows Rows of the best cover.
+     * @param frontier As returned by {@link #getFrontier()}.  If empty, the search starts from the root.
+     */
+    public void restore(int[] bestRows, int[] frontier) {
+        int cost = 0;
+        BitSet covered = new BitSet();
+        for (int r : bestRows) {
+            cost += costs[r];
+            covered.or(rows[r]);
+        }
+        if (covered.cardinality() != nColumns) {
+            throw new CubeCalculusException("Restored cover does not cover the chart.");
+        }
+        best = bestRows.clone();
+        bestCost = cost;
+        complete = false;
+        stack = null;
+        if (frontier.length == 0) {
+            return;
+        }
+        stack = new ArrayDeque<>();
+        Node parent = null;
+        for (int i = 0; i < frontier.length; i += 3) {
+            Node node;
+            if (parent == null) {
+                node = new Node(new BitSet(), 0, -1);
+            } else {
+                int r = frontier[i];
+                if (parent.candidates == null || parent.next < 1 || parent.candidates[parent.next - 1] != r) {
+                    throw new CubeCalculusException("Search frontier does not match the chart.");
+                }
+                BitSet nodeCovered = (BitSet) parent.covered.clone();
+                nodeCovered.or(rows[r]);
+                node = new Node(nodeCovered, parent.cost + costs[r], r);
+            }
+            if (frontier[i + 2] != 0) {
+                node.candidates = branchRows(node.covered);
+                node.next = frontier[i + 1];
+            }
+            stack.push(node);
+            parent = node;
+        }
+    }
+
+    /** Rows of the best cover found. */
+    public int[] getBestRows() {
+        return best == null ? null : best.clone();
+    }
+
+    public int getBestCost() {
+        return bestCost;
+    }
+
+    /** No cover costs less than this. */
+    public int getLowerBound() {
+        return lowerBound;
+    }
+
+    /** True if the search finished. */
+    public boolean isComplete() {
+        return complete;
+    }
+
+    /** Number of search nodes visited. */
+    public long getNodes() {
+        return nodes;
+    }
+
+    private void offer(int[] cover, int cost) {
+        if (cost < bestCost) {
+            bestCost = cost;
+            best = cover;
+        }
+    }
+
+    /** Rows covering the uncovered column with the fewest rows, cheapest first. */
+    private int[] branchRows(BitSet covered) {
+        int column = -1;
+        int fewest = Integer.MAX_VALUE;
+        for (int c = covered.nextClearBit(0); c < nColumns; c = covered.nextClearBit(c + 1)) {
+            int n = columns[c].cardinality();
+            if (n < fewest) {
+                fewest = n;
+                column = c;
+            }
+        }
+        Integer[] candidates = new Integer[fewest];
+        int i = 0;
+        for (int r = columns[column].nextSetBit(0); r >= 0; r = columns[column].nextSetBit(r + 1)) {
+            candidates[i++] = r;
+        }
+        Arrays.sort(candidates, (a, b) -> Integer.compare(costs[a], costs[b]));
+        int[] result = new int[fewest];
+        for (i = 0; i < fewest; ++i) {
+            result[i] = candidates[i];
+        }
+        return result;
+    }
+
+    /** Sum of the cheapest rows of uncovered columns that share no row. */
+    private int bound(BitSet covered) {
+        BitSet usedRows = new BitSet();
+        int bound = 0;
+        for (int c = covered.nextClearBit(0); c < nColumns; c = covered.nextClearBit(c + 1)) {
+            if (!columns[c].intersects(usedRows)) {
+                bound += cheapestRow[c];
+                usedRows.or(columns[c]);
+            }
+        }
+        return bound;
+    }
+
+    private static int[] rowsOf(Deque<Node> stack) {
+        int[] result = new int[stack.size() - 1];
+        int i = 0;
+        for (Node node : stack) {
+            if (node.row >= 0) {
+                result[i++] = node.row;
+            }
+        }
+        return result;
+    }
+
+    /** A node of the search: the rows chosen so far are the {@code row}s of the nodes below it on the stack. */
+    private static class Node {
+        private final BitSet covered;
+        private final int cost;
+        private final int row;
+        private int[] candidates = null;
+        private int next = 0;
+
+        Node(BitSet covered, int cost, int row) {
+            this.covered = covered;
+            this.cost = cost;
+            this.row = row;
+        }
+    }
+}
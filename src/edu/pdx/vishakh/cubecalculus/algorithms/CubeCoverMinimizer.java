@@ -0,0 +1,291 @@
+package edu.pdx.vishakh.cubecalculus.algorithms;
+
+import edu.pdx.vishakh.cubecalculus.core.BooleanCube;
+import edu.pdx.vishakh.cubecalculus.core.CoverChecker;
+import edu.pdx.vishakh.cubecalculus.core.CubeCalculusException;
+import edu.pdx.vishakh.cubecalculus.core.PackedCubeList;
+import edu.pdx.vishakh.cubecalculus.core.TestUtils;
+
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Minimizes a function whose ON and DONTCARE sets are given as cubes of any size, without expanding them into
+ * minterms, so that functions such as the ranges of a {@link edu.pdx.vishakh.cubecalculus.core.FunctionSpecification}
+ * can have far more minterms than {@link QuineMcCluskeyAlgorithm} could list.
+ *
+ * All primes are found by consensus on the ON and DONTCARE cubes.  Primes are then picked greedily, each time the
+ * one that covers the most ON minterms not yet covered, and finally dropped, the costliest first, while the ON
+ * minterms they cover are covered by the others and the DONTCARE set.  Minterms are only ever counted and compared
+ * through sharp products of cubes.  The result is an irredundant cover of primes; unlike Quine-McCluskey with a
+ * complete chart, it is not always of minimum cost.
+ */
+public class CubeCoverMinimizer extends MinimizationAlgorithm<BooleanCube> {
+
+    private int wordsPerCube;
+    private long[] varMasks;
+
+    /** Number of primes found by the last minimization. */
+    private int nPrimes;
+
+    public CubeCoverMinimizer(PrintStream detailsStream, PrintStream debugStream) {
+        super(detailsStream, debugStream);
+    }
+
+    @Override
+    protected void initialize() {
+        if (onCubes == null) {
+            throw new CubeCalculusException("ON cubes for cube cover minimization cannot be null.");
+        }
+        if (dcCubes == null) {
+            dcCubes = new HashSet<>();
+        }
+        for (Set<BooleanCube> cubes : Arrays.asList(onCubes, dcCubes)) {
+            for (BooleanCube c : cubes) {
+                if (c.getNumberOfVariables() != nVars) {
+                    throw new CubeCalculusException("Cube " + c + " is not of " + nVars + " variables.");
+                }
+            }
+        }
+        // The OFF set is whatever is in neither of the other two.
+        offCubes = null;
+
+        wordsPerCube = PackedCubeList.wordsPerCube(nVars);
+        varMasks = PackedCubeList.varMasks(nVars);
+    }
+
+    @Override
+    protected Set<BooleanCube> doMinimize(boolean stopAtCyclic) {
+        List<long[]> on = PackedCubeList.pack(nVars, onCubes);
+        List<long[]> dc = PackedCubeList.pack(nVars, dcCubes);
+
+        enterComputePhase();
+        try {
+            List<long[]> all = new ArrayList<>(on);
+            all.addAll(dc);
+            List<long[]> primes = findAllPrimes(all);
+            nPrimes = primes.size();
+
+            List<long[]> cover = selectPrimes(primes, on, dc);
+            makeIrredundant(cover, on, dc);
+
+            Set<BooleanCube> result = new HashSet<>();
+            for (long[] c : cover) {
+                result.add(BooleanCube.fromWords(nVars, c, 0, wordsPerCube));
+            }
+            if (detailsPrintStream != null) {
+                TestUtils.printCubes(detailsPrintStream, result, "Irredundant cover of " + nPrimes + " primes");
+            }
+            return result;
+        } finally {
+            exitComputePhase();
+        }
+    }
+
+    @Override
+    protected void verifyResult(Set<BooleanCube> cover, Set<BooleanCube> onCubes, Set<BooleanCube> offCubes,
+                                Set<BooleanCube> dcCubes) {
+        new CoverChecker(nVars).verify(cover, onCubes, offCubes, dcCubes);
+    }
+
+    /** Number of primes found by the last minimization. */
+    public int getNumberOfPrimes() {
+        return nPrimes;
+    }
+
+    @Override
+    public String getName() {
+        return "Cube Cover Minimization";
+    }
+
+    @Override
+    public String getShortName() {
+        return "C";
+    }
+
+    /**
+     * Returns the primes of the union of {@code cubes} by Tison's method: for each variable in turn, the consensus on
+     * that variable of every pair of cubes is added unless a cube already contains it, and cubes contained in another
+     * are dropped.  One pass over the variables is enough to reach all the primes.
+     */
+    private List<long[]> findAllPrimes(List<long[]> cubes) {
+        List<long[]> list = new ArrayList<>();
+        for (long[] c : cubes) {
+            addUnlessContained(list, c);
+        }
+        long[] consensus = new long[wordsPerCube];
+        for (int v = 0; v < nVars; ++v) {
+            int w = v >>> 5;
+            int shift = 2 * (v & 31);
+            List<long[]> zeros = new ArrayList<>();
+            List<long[]> ones = new ArrayList<>();
+            for (long[] c : list) {
+                if (c != null) {
+                    long value = (c[w] >>> shift) & 3;
+                    if (value == 1) {
+                        zeros.add(c);
+                    } else if (value == 2) {
+                        ones.add(c);
+                    }
+                }
+            }
+            for (long[] a : zeros) {
+                checkCancelled();
+                computeYieldPoint();
+                for (long[] b : ones) {
+                    if (consensus(a, b, consensus)) {
+                        addUnlessContained(list, consensus.clone());
+                    }
+                }
+            }
+            list.removeIf(c -> c == null);
+        }
+        return list;
+    }
+
+    /**
+     * Adds {@code cube} to {@code list} unless a cube of the list contains it, and clears the cubes it contains.
+     * Cleared cubes are left as {@code null} so that the indices of the others do not move.
+     */
+    private void addUnlessContained(List<long[]> list, long[] cube) {
+        for (long[] c : list) {
+            if (c != null && PackedCubeList.contains(c, cube)) {
+                return;
+            }
+        }
+        for (int i = 0; i < list.size(); ++i) {
+            if (list.get(i) != null && PackedCubeList.contains(cube, list.get(i))) {
+                list.set(i, null);
+            }
+        }
+        list.add(cube);
+    }
+
+    /**
+     * Picks primes until the ON set is covered, each time the one that covers the most ON minterms not yet covered
+     * by the primes picked or by the DONTCARE set.
+     */
+    private List<long[]> selectPrimes(List<long[]> primes, List<long[]> on, List<long[]> dc) {
+        // Disjoint cubes of the ON minterms not yet covered.
+        List<long[]> uncovered = new ArrayList<>();
+        for (long[] c : on) {
+            List<long[]> pieces = new ArrayList<>();
+            pieces.add(c);
+            for (long[] u : uncovered) {
+                pieces = subtract(pieces, u);
+            }
+            uncovered.addAll(pieces);
+        }
+        for (long[] c : dc) {
+            uncovered = subtract(uncovered, c);
+        }
+        long[] part = new long[wordsPerCube];
+        List<long[]> candidates = new ArrayList<>(primes);
+        List<long[]> cover = new ArrayList<>();
+        while (!uncovered.isEmpty()) {
+            checkCancelled();
+            computeYieldPoint();
+            long[] best = null;
+            double bestVolume = 0;
+            for (long[] p : candidates) {
+                double volume = 0;
+                for (long[] u : uncovered) {
+                    if (PackedCubeList.intersection(p, u, varMasks, part)) {
+                        volume += Math.pow(2, nVars - cost(part));
+                    }
+                }
+                if (volume > bestVolume || (volume == bestVolume && best != null && cost(p) < cost(best))) {
+                    best = p;
+                    bestVolume = volume;
+                }
+            }
+            candidates.remove(best);
+            cover.add(best);
+            uncovered = subtract(uncovered, best);
+        }
+        return cover;
+    }
+
+    /** The parts of {@code cubes} outside {@code cube}.  They are disjoint if {@code cubes} are. */
+    private List<long[]> subtract(List<long[]> cubes, long[] cube) {
+        List<long[]> result = new ArrayList<>();
+        for (long[] c : cubes) {
+            PackedCubeList.disjointSharp(c, cube, varMasks, result);
+        }
+        return result;
+    }
+
+    /** Drops from {@code cover} the primes whose ON minterms are covered by the rest, costliest primes first. */
+    private void makeIrredundant(List<long[]> cover, List<long[]> on, List<long[]> dc) {
+        cover.sort((a, b) -> Integer.compare(cost(b), cost(a)));
+        for (int i = 0; i < cover.size(); ) {
+            checkCancelled();
+            computeYieldPoint();
+            long[] prime = cover.get(i);
+            List<long[]> others = new ArrayList<>(cover.subList(0, i));
+            others.addAll(cover.subList(i + 1, cover.size()));
+            others.addAll(dc);
+            boolean redundant = true;
+            long[] part = new long[wordsPerCube];
+            for (long[] c : on) {
+                if (PackedCubeList.intersection(prime, c, varMasks, part) && !isCovered(part.clone(), others, 0)) {
+                    redundant = false;
+                    break;
+                }
+            }
+            if (redundant) {
+                cover.remove(i);
+            } else {
+                ++i;
+            }
+        }
+    }
+
+    /** True if the union of {@code cubes} from index {@code from} on contains {@code cube}. */
+    private boolean isCovered(long[] cube, List<long[]> cubes, int from) {
+        for (int i = from; i < cubes.size(); ++i) {
+            long[] c = cubes.get(i);
+            if (!PackedCubeList.intersects(cube, c, varMasks)) {
+                continue;
+            }
+            if (PackedCubeList.contains(c, cube)) {
+                return true;
+            }
+            // What is left of the cube outside c must be covered by the cubes after it.
+            List<long[]> pieces = new ArrayList<>();
+            PackedCubeList.disjointSharp(cube, c, varMasks, pieces);
+            for (long[] piece : pieces) {
+                if (!isCovered(piece, cubes, i + 1)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        return false;
+    }
+
+    /** Writes the consensus of {@code a} and {@code b} into {@code result}; false if they have none. */
+    private boolean consensus(long[] a, long[] b, long[] result) {
+        int nEmpty = 0;
+        for (int w = 0; w < wordsPerCube; ++w) {
+            long x = a[w] & b[w];
+            long empty = ~(x | (x >>> 1)) & varMasks[w];
+            nEmpty += Long.bitCount(empty);
+            if (nEmpty > 1) {
+                return false;
+            }
+            // The variable the cubes disagree on can have any value in the consensus.
+            result[w] = x | empty | (empty << 1);
+        }
+        return nEmpty == 1;
+    }
+
+    /** Number of literals of a packed cube. */
+    private int cost(long[] cube) {
+        return nVars - PackedCubeList.order(cube, varMasks);
+    }
+}
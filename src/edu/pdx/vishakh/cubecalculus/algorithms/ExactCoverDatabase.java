@@ -0,0 +1,175 @@
+package edu.pdx.vishakh.cubecalculus.algorithms;
+
+import edu.pdx.vishakh.cubecalculus.core.BooleanCube;
+import edu.pdx.vishakh.cubecalculus.core.CubeCalculusException;
+import edu.pdx.vishakh.cubecalculus.core.NpnCanonicalizer;
+import edu.pdx.vishakh.cubecalculus.core.NpnTransform;
+import edu.pdx.vishakh.cubecalculus.core.TruthTable;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Read only database of minimum cost covers of every completely specified function of up to 5 variables, as written
+ * by {@link edu.pdx.vishakh.cubecalculus.tools.ExactCoverDatabaseGenerator}.
+ *
+ * Only one function per NPN class is stored: the canonical form given by {@link NpnCanonicalizer}, together with the
+ * cover of its complement.  A lookup canonicalizes the function, binary searches the class and maps the stored cover
+ * back through the transform.  Input negation and permutation preserve the number of literals of every cube, so the
+ * mapped cover is a minimum cover of the original function.
+ *
+ * The file is memory mapped on the first lookup and read in place; nothing is copied onto the heap.  The layout, all
+ * big-endian, is:
+ * <pre>
+ *   int magic, int version, int maxVars
+ *   for each n in 0..maxVars: int nClasses, long keysOffset, long indexOffset, long cubesOffset
+ *   keys:  int truth table per class, in increasing unsigned order
+ *   index: int per class and polarity, plus one at the end, the position of the first cube of each cover
+ *   cubes: short per cube, two bits per variable in the {@link BooleanCube} layout
+ * </pre>
+ */
+public class ExactCoverDatabase {
+
+    public static final int MAGIC = 0x43435844;
+    public static final int VERSION = 1;
+
+    /** Largest number of variables a database can hold; a cube of 5 variables fits in a short. */
+    public static final int MAX_VARS = 5;
+
+    /** Enough candidates to canonicalize every function of 5 variables exactly. */
+    private static final int MAX_CANDIDATES = 2 * 32 * 120;
+
+    private final Path path;
+    private final NpnCanonicalizer canonicalizer = new NpnCanonicalizer(MAX_CANDIDATES);
+
+    private volatile MappedByteBuffer buffer;
+    private int maxVars;
+    private int[] nClasses;
+    private long[] keysOffsets;
+    private long[] indexOffsets;
+    private long[] cubesOffsets;
+
+    /**
+     * The file is not opened until the first lookup.
+     * @param path Database file.
+     */
+    public ExactCoverDatabase(Path path) {
+        this.path = path;
+    }
+
+    /** Largest number of variables in the database. */
+    public int getMaxVars() {
+        ensureLoaded();
+        return maxVars;
+    }
+
+    /** Number of NPN classes stored for functions of {@code nVars} variables. */
+    public int getNumberOfClasses(int nVars) {
+        ensureLoaded();
+        return nVars <= maxVars ? nClasses[nVars] : 0;
+    }
+
+    /**
+     * Returns a minimum cover of the function, or {@code null} if the function has too many variables.
+     * @param nVars Number of variables.
+     * @param onCubes ON set.  Everything else is OFF.
+     */
+    public Set<BooleanCube> lookup(int nVars, Set<BooleanCube> onCubes) {
+        ensureLoaded();
+        if (nVars < 1 || nVars > maxVars) {
+            return null;
+        }
+        NpnCanonicalizer.Result canonical = canonicalizer.canonicalize(TruthTable.fromCubes(nVars, onCubes));
+        NpnTransform transform = canonical.getTransform();
+        int key = (int) canonical.getOnTable().words()[0];
+
+        int classIdx = find(nVars, key);
+        if (classIdx < 0) {
+            throw new CubeCalculusException("Function class " + Integer.toHexString(key) + " with " + nVars
+                    + " variables missing from exact cover database " + path + ".");
+        }
+
+        // The canonical ON set is the original OFF set when the output is negated; its complement is stored second.
+        int entry = 2 * classIdx + (transform.isOutputNegated() ? 1 : 0);
+        int first = buffer.getInt((int) (indexOffsets[nVars] + 4L * entry));
+        int last = buffer.getInt((int) (indexOffsets[nVars] + 4L * (entry + 1)));
+        Set<BooleanCube> cover = new HashSet<>();
+        for (int i = first; i < last; ++i) {
+            short code = buffer.getShort((int) (cubesOffsets[nVars] + 2L * i));
+            cover.add(transform.toOriginal(SmallFunctionMinimizer.toCube(nVars, code & 0xFFFF)));
+        }
+        return cover;
+    }
+
+    /** Binary search for a class key, comparing as unsigned. */
+    private int find(int nVars, int key) {
+        int lo = 0;
+        int hi = nClasses[nVars] - 1;
+        long keys = keysOffsets[nVars];
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            int c = Integer.compareUnsigned(buffer.getInt((int) (keys + 4L * mid)), key);
+            if (c < 0) {
+                lo = mid + 1;
+            } else if (c > 0) {
+                hi = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    private void ensureLoaded() {
+        if (buffer == null) {
+            synchronized (this) {
+                if (buffer == null) {
+                    load();
+                }
+            }
+        }
+    }
+
+    private void load() {
+        MappedByteBuffer b;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            b = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        } catch (IOException e) {
+            throw new CubeCalculusException("Cannot read exact cover database " + path + ": " + e.getMessage());
+        }
+        if (b.capacity() < 12 || b.getInt(0) != MAGIC) {
+            throw new CubeCalculusException(path + " is not an exact cover database.");
+        }
+        if (b.getInt(4) != VERSION) {
+            throw new CubeCalculusException("Unsupported exact cover database version " + b.getInt(4) + ".");
+        }
+        maxVars = b.getInt(8);
+        if (maxVars < 0 || maxVars > MAX_VARS) {
+            throw new CubeCalculusException("Corrupt exact cover database " + path + ".");
+        }
+        nClasses = new int[maxVars + 1];
+        keysOffsets = new long[maxVars + 1];
+        indexOffsets = new long[maxVars + 1];
+        cubesOffsets = new long[maxVars + 1];
+        int pos = 12;
+        for (int n = 0; n <= maxVars; ++n) {
+            nClasses[n] = b.getInt(pos);
+            keysOffsets[n] = b.getLong(pos + 4);
+            indexOffsets[n] = b.getLong(pos + 12);
+            cubesOffsets[n] = b.getLong(pos + 20);
+            pos += 28;
+        }
+        // Publishing the buffer last makes the fields above visible to threads that see it.
+        buffer = b;
+    }
+
+    @Override
+    public String toString() {
+        return "ExactCoverDatabase[" + path + "]";
+    }
+}
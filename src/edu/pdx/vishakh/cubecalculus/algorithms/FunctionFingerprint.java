@@ -0,0 +1,168 @@
+package edu.pdx.vishakh.cubecalculus.algorithms;
+
+import edu.pdx.vishakh.cubecalculus.core.BooleanCube;
+import edu.pdx.vishakh.cubecalculus.core.CubeCalculusException;
+import edu.pdx.vishakh.cubecalculus.core.CubeUtils;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Set;
+
+/**
+ * Canonical, compact key for an incompletely specified boolean function, used by {@link MinimizationCache}.
+ *
+ * The function is reduced to the number of variables and the sorted arrays of its ON and DONTCARE minterms, each
+ * minterm packed into a {@code long} (variable 0 is the most significant bit, as in {@link BooleanCube#numericValue}).
+ * Two functions get equal fingerprints exactly when they have the same ON and DONTCARE sets, no matter how the input
+ * cubes were grouped or ordered.
+ */
+public final class FunctionFingerprint {
+
+    private static final long[] NO_MINTERMS = new long[0];
+
+    private final int nVars;
+    private final long[] onMinterms;
+    private final long[] dcMinterms;
+    private final int hash;
+
+    private FunctionFingerprint(int nVars, long[] onMinterms, long[] dcMinterms) {
+        this.nVars = nVars;
+        this.onMinterms = onMinterms;
+        this.dcMinterms = dcMinterms;
+        this.hash = 31 * (31 * nVars + Arrays.hashCode(onMinterms)) + Arrays.hashCode(dcMinterms);
+    }
+
+    /**
+     * Creates the fingerprint of a function given the same way as to {@link MinimizationAlgorithm#minimize}.
+     * When only the OFF set is given, the DONTCARE set is everything that is neither ON nor OFF, as the algorithms do.
+     * @param nVars Number of variables.
+     * @param onCubes The ON set of cubes.  Cannot be {@code null}.
+     * @param offCubes The OFF set of cubes.  Can be {@code null}.
+     * @param dcCubes The DONTCARE set of cubes.  Can be {@code null}.
+     */
+    public static FunctionFingerprint of(int nVars, Set<BooleanCube> onCubes, Set<BooleanCube> offCubes,
+                                         Set<BooleanCube> dcCubes) {
+        if (onCubes == null) {
+            throw new CubeCalculusException("ON cubes should be provided.");
+        }
+        if (nVars > 63) {
+            throw new CubeCalculusException("Cannot fingerprint a function of " + nVars + " variables.");
+        }
+        long[] on = toSortedMinterms(onCubes);
+        long[] dc;
+        if (dcCubes != null) {
+            dc = toSortedMinterms(dcCubes);
+        } else if (offCubes != null) {
+            dc = complementOf(nVars, on, toSortedMinterms(offCubes));
+        } else {
+            dc = NO_MINTERMS;
+        }
+        return new FunctionFingerprint(nVars, on, dc);
+    }
+
+    /**
+     * Creates the fingerprint of a function from its minterms.
+     * @param onMinterms ON minterms, sorted, without duplicates.  Not copied.
+     * @param dcMinterms DONTCARE minterms, sorted, without duplicates.  Not copied.
+     */
+    static FunctionFingerprint ofSortedMinterms(int nVars, long[] onMinterms, long[] dcMinterms) {
+        return new FunctionFingerprint(nVars, onMinterms, dcMinterms);
+    }
+
+    public int getNumberOfVariables() {
+        return nVars;
+    }
+
+    public int getNumberOfOnMinterms() {
+        return onMinterms.length;
+    }
+
+    public int getNumberOfDcMinterms() {
+        return dcMinterms.length;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) {
+            return true;
+        }
+        if (!(other instanceof FunctionFingerprint)) {
+            return false;
+        }
+        FunctionFingerprint f = (FunctionFingerprint) other;
+        return hash == f.hash && nVars == f.nVars
+                && Arrays.equals(onMinterms, f.onMinterms) && Arrays.equals(dcMinterms, f.dcMinterms);
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        return nVars + ":" + Arrays.toString(onMinterms) + ":" + Arrays.toString(dcMinterms);
+    }
+
+    /** Packs every minterm of the cubes into a sorted array without duplicates. */
+    private static long[] toSortedMinterms(Set<BooleanCube> cubes) {
+        long[] minterms = new long[cubes.size()];
+        int n = 0;
+        for (BooleanCube cube : cubes) {
+            Set<BooleanCube> cubeMinterms = cube.getOrder() == 0 ? Collections.singleton(cube)
+                    : CubeUtils.getMinterms(cube);
+            for (BooleanCube minterm : cubeMinterms) {
+                if (n == minterms.length) {
+                    minterms = Arrays.copyOf(minterms, 2 * n);
+                }
+                minterms[n++] = mintermValue(minterm);
+            }
+        }
+        Arrays.sort(minterms, 0, n);
+
+        // Remove duplicates, which only overlapping input cubes can produce.
+        int unique = 0;
+        for (int i = 0; i < n; ++i) {
+            if (unique == 0 || minterms[unique - 1] != minterms[i]) {
+                minterms[unique++] = minterms[i];
+            }
+        }
+        return unique == minterms.length ? minterms : Arrays.copyOf(minterms, unique);
+    }
+
+    /** Returns the minterm as a number, with variable 0 as the most significant bit. */
+    private static long mintermValue(BooleanCube minterm) {
+        int nVars = minterm.getNumberOfVariables();
+        long value = 0;
+        for (int i = 0; i < nVars; ++i) {
+            value <<= 1;
+            if (minterm.isOnVar(i)) {
+                value |= 1;
+            }
+        }
+        return value;
+    }
+
+    /** Returns the sorted minterms that are in neither of the two sorted arrays. */
+    private static long[] complementOf(int nVars, long[] first, long[] second) {
+        long total = 1L << nVars;
+        long size = total - first.length - second.length;
+        if (size > Integer.MAX_VALUE) {
+            throw new CubeCalculusException("DONTCARE set of " + size + " minterms is too large to fingerprint.");
+        }
+        long[] result = new long[(int) Math.max(size, 0)];
+        int n = 0;
+        int i = 0;
+        int j = 0;
+        for (long m = 0; m < total && n < result.length; ++m) {
+            if (i < first.length && first[i] == m) {
+                ++i;
+            } else if (j < second.length && second[j] == m) {
+                ++j;
+            } else {
+                result[n++] = m;
+            }
+        }
+        return n == result.length ? result : Arrays.copyOf(result, n);
+    }
+}
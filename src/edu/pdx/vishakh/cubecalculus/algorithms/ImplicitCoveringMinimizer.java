@@ -0,0 +1,305 @@
+package edu.pdx.vishakh.cubecalculus.algorithms;
+
+import edu.pdx.vishakh.cubecalculus.bdd.BddManager;
+import edu.pdx.vishakh.cubecalculus.bdd.ZddManager;
+import edu.pdx.vishakh.cubecalculus.core.BooleanCube;
+import edu.pdx.vishakh.cubecalculus.core.CoverChecker;
+import edu.pdx.vishakh.cubecalculus.core.CubeCalculusException;
+import edu.pdx.vishakh.cubecalculus.core.TestUtils;
+
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Minimum cost cover of a function whose primes and minterms are too many to list, with the covering chart kept
+ * implicit, after Coudert.
+ *
+ * The ON and DONTCARE sets become BDDs and all primes a ZDD ({@link ZddManager#primes}).  Rows that cover no ON
+ * minterm are dropped, and the essential primes, those with a minterm that no other prime has, are taken, with ZDD
+ * and BDD operations on the whole sets.  The primes left form the cyclic core, which is listed; its columns are kept
+ * as a ZDD of row sets, one per class of uncovered minterms covered by the same rows.  On that ZDD, column dominance
+ * keeps the minimal row sets, a row set of a single row makes the row essential, and a row is dropped when another
+ * that costs no more is in every column it is in, until nothing changes.  What is left is solved exactly by
+ * {@link CoveringSearch}, with a column per row set.
+ *
+ * The OFF set is whatever is in neither of the other two.  Costs are those of {@link BooleanCube#cost()}.
+ */
+public class ImplicitCoveringMinimizer extends MinimizationAlgorithm<BooleanCube> {
+
+    /** Default limit on the number of primes of the cyclic core. */
+    public static final int DEFAULT_MAX_CORE_ROWS = 1024;
+
+    private final int maxCoreRows;
+
+    private double nPrimes;
+    private int nEssentials;
+    private int nCoreRows;
+    private int nCoreColumns;
+
+    public ImplicitCoveringMinimizer(PrintStream detailsStream, PrintStream debugStream) {
+        this(detailsStream, debugStream, DEFAULT_MAX_CORE_ROWS);
+    }
+
+    /**
+     * @param maxCoreRows Most primes the cyclic core may have.  A larger core throws a {@link CubeCalculusException}.
+     */
+    public ImplicitCoveringMinimizer(PrintStream detailsStream, PrintStream debugStream, int maxCoreRows) {
+        super(detailsStream, debugStream);
+        this.maxCoreRows = maxCoreRows;
+    }
+
+    @Override
+    protected void initialize() {
+        if (onCubes == null) {
+            throw new CubeCalculusException("ON cubes for implicit covering cannot be null.");
+        }
+        if (dcCubes == null) {
+            dcCubes = new HashSet<>();
+        }
+        for (Set<BooleanCube> cubes : Arrays.asList(onCubes, dcCubes)) {
+            for (BooleanCube c : cubes) {
+                if (c.getNumberOfVariables() != nVars) {
+                    throw new CubeCalculusException("Cube " + c + " is not of " + nVars + " variables.");
+                }
+            }
+        }
+        offCubes = null;
+    }
+
+    @Override
+    protected Set<BooleanCube> doMinimize(boolean stopAtCyclic) {
+        BddManager bdd = new BddManager(nVars);
+        int on = bdd.ref(bdd.fromCubes(onCubes));
+        int dc = bdd.ref(bdd.fromCubes(dcCubes));
+        return minimize(bdd, on, dc);
+    }
+
+    /**
+     * Returns a minimum cost cover of a function given by BDDs, whose minterms need not be few enough for cubes.
+     * @param on ON set.
+     * @param dc DONTCARE set.
+     */
+    public Set<BooleanCube> minimize(BddManager bdd, int on, int dc) {
+        nVars = bdd.getNumberOfVariables();
+        enterComputePhase();
+        // BDDs referenced here, released however the minimization ends, since the manager is the caller's.
+        List<Integer> held = new ArrayList<>();
+        try {
+            ZddManager zdd = new ZddManager(nVars);
+            on = hold(bdd, on, held);
+            int care = hold(bdd, bdd.or(on, dc), held);
+            int primes = zdd.ref(zdd.primes(bdd, care));
+            nPrimes = zdd.count(primes);
+            checkCancelled();
+
+            // A prime is essential if it has an ON minterm that no other prime has.
+            int rows = zdd.ref(zdd.intersecting(bdd, primes, on));
+            int once = hold(bdd, bdd.and(on, zdd.coveredOnce(bdd, rows)), held);
+            int essentials = zdd.ref(zdd.intersecting(bdd, rows, once));
+            Set<BooleanCube> cover = zdd.toCubes(essentials);
+            nEssentials = cover.size();
+            int uncovered = hold(bdd, bdd.andNot(on, zdd.toBdd(bdd, essentials)), held);
+            int core = zdd.ref(zdd.intersecting(bdd, zdd.difference(rows, essentials), uncovered));
+            checkCancelled();
+
+            if (zdd.count(core) > maxCoreRows) {
+                throw new CubeCalculusException("Cyclic core has " + (long) zdd.count(core)
+                        + " primes, more than the limit of " + maxCoreRows + ".");
+            }
+            List<BooleanCube> corePrimes = new ArrayList<>(zdd.toCubes(core));
+            nCoreRows = corePrimes.size();
+            cover.addAll(solveCore(bdd, uncovered, corePrimes));
+
+            if (detailsPrintStream != null) {
+                TestUtils.printCubes(detailsPrintStream, cover, "Cover of " + (long) nPrimes + " primes, "
+                        + nEssentials + " essential, " + nCoreRows + " in the cyclic core");
+            }
+            return cover;
+        } finally {
+            for (int f : held) {
+                bdd.deref(f);
+            }
+            exitComputePhase();
+        }
+    }
+
+    @Override
+    protected void verifyResult(Set<BooleanCube> cover, Set<BooleanCube> onCubes, Set<BooleanCube> offCubes,
+                                Set<BooleanCube> dcCubes) {
+        new CoverChecker(nVars).verify(cover, onCubes, offCubes, dcCubes);
+    }
+
+    /** Number of primes of the last function minimized. */
+    public double getNumberOfPrimes() {
+        return nPrimes;
+    }
+
+    /** Number of primes essential in the whole chart. */
+    public int getNumberOfEssentials() {
+        return nEssentials;
+    }
+
+    /** Number of primes in the cyclic core, before its reductions. */
+    public int getNumberOfCoreRows() {
+        return nCoreRows;
+    }
+
+    /** Number of columns left for {@link CoveringSearch} after the reductions of the core. */
+    public int getNumberOfCoreColumns() {
+        return nCoreColumns;
+    }
+
+    @Override
+    public String getName() {
+        return "Implicit covering";
+    }
+
+    @Override
+    public String getShortName() {
+        return "I";
+    }
+
+    /** A minimum cost cover of {@code uncovered} from {@code primes}, each of which meets it. */
+    private Set<BooleanCube> solveCore(BddManager bdd, int uncovered, List<BooleanCube> primes) {
+        Set<BooleanCube> cover = new HashSet<>();
+        nCoreColumns = 0;
+        if (primes.isEmpty()) {
+            return cover;
+        }
+        int nRows = primes.size();
+        int[] rowBdds = new int[nRows];
+        for (int r = 0; r < nRows; ++r) {
+            rowBdds[r] = bdd.ref(bdd.fromCube(primes.get(r)));
+        }
+
+        // Columns are the sets of rows that cover the same minterms, with literal 2r for row r.
+        ZddManager chart = new ZddManager(nRows);
+        Map<Long, Integer> memo = new HashMap<>();
+        List<Integer> held = new ArrayList<>();
+        int columns = chart.ref(rowSets(bdd, chart, uncovered, 0, rowBdds, memo, held));
+        for (int f : held) {
+            bdd.deref(f);
+        }
+        for (int p : memo.values()) {
+            chart.deref(p);
+        }
+        for (int f : rowBdds) {
+            bdd.deref(f);
+        }
+
+        BitSet live = new BitSet(nRows);
+        live.set(0, nRows);
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+            checkCancelled();
+            columns = replace(chart, columns, chart.maximal(columns));
+
+            for (int r = live.nextSetBit(0); r >= 0; r = live.nextSetBit(r + 1)) {
+                int lit = ZddManager.literal(r, true);
+                int rowColumns = chart.subset1(columns, lit);
+                if (rowColumns == ZddManager.EMPTY) {
+                    live.clear(r);
+                } else if (chart.hasBase(rowColumns)) {
+                    // A column of this row alone.
+                    cover.add(primes.get(r));
+                    live.clear(r);
+                    columns = replace(chart, columns, chart.subset0(columns, lit));
+                    changed = true;
+                }
+            }
+
+            for (int r = live.nextSetBit(0); r >= 0; r = live.nextSetBit(r + 1)) {
+                int lit = ZddManager.literal(r, true);
+                int rowColumns = chart.ref(chart.subset1(columns, lit));
+                for (int s = live.nextSetBit(0); s >= 0; s = live.nextSetBit(s + 1)) {
+                    if (s != r && primes.get(s).cost() <= primes.get(r).cost()
+                            && chart.subset0(rowColumns, ZddManager.literal(s, true)) == ZddManager.EMPTY) {
+                        // Row s is in every column of row r, and costs no more.
+                        columns = replace(chart, columns, chart.union(chart.subset0(columns, lit), rowColumns));
+                        live.clear(r);
+                        changed = true;
+                        break;
+                    }
+                }
+                chart.deref(rowColumns);
+            }
+        }
+
+        if (columns != ZddManager.EMPTY) {
+            int[] coreRows = live.stream().toArray();
+            Map<Integer, Integer> indexOf = new HashMap<>();
+            List<BitSet> rowColumns = new ArrayList<>();
+            int[] costs = new int[coreRows.length];
+            for (int i = 0; i < coreRows.length; ++i) {
+                indexOf.put(coreRows[i], i);
+                rowColumns.add(new BitSet());
+                costs[i] = primes.get(coreRows[i]).cost();
+            }
+            for (BooleanCube column : chart.toCubes(columns)) {
+                for (int r : coreRows) {
+                    if (column.isOnVar(r)) {
+                        rowColumns.get(indexOf.get(r)).set(nCoreColumns);
+                    }
+                }
+                ++nCoreColumns;
+            }
+            CoveringSearch search = new CoveringSearch(nCoreColumns, rowColumns, costs);
+            search.setListener(listener);
+            search.setCancellationToken(cancellationToken);
+            search.search(null);
+            for (int i : search.getBestRows()) {
+                cover.add(primes.get(coreRows[i]));
+            }
+        }
+        chart.deref(columns);
+        return cover;
+    }
+
+    /** The sets of rows from {@code r} on that the minterms of {@code u} are in. */
+    private static int rowSets(BddManager bdd, ZddManager chart, int u, int r, int[] rowBdds, Map<Long, Integer> memo,
+                               List<Integer> held) {
+        if (u == BddManager.FALSE) {
+            return ZddManager.EMPTY;
+        }
+        if (r == rowBdds.length) {
+            return ZddManager.BASE;
+        }
+        long key = (long) u << 32 | r;
+        Integer known = memo.get(key);
+        if (known != null) {
+            return known;
+        }
+        int in = bdd.ref(bdd.and(u, rowBdds[r]));
+        int out = bdd.ref(bdd.andNot(u, rowBdds[r]));
+        held.add(in);
+        held.add(out);
+        int without = chart.ref(rowSets(bdd, chart, out, r + 1, rowBdds, memo, held));
+        int with = chart.ref(rowSets(bdd, chart, in, r + 1, rowBdds, memo, held));
+        int result = chart.ref(chart.union(without, chart.addLiteral(with, ZddManager.literal(r, true))));
+        chart.deref(without);
+        chart.deref(with);
+        memo.put(key, result);
+        return result;
+    }
+
+    /** References {@code f} and adds it to {@code held}. */
+    private static int hold(BddManager bdd, int f, List<Integer> held) {
+        held.add(bdd.ref(f));
+        return f;
+    }
+
+    /** Keeps {@code next} instead of {@code current}. */
+    private static int replace(ZddManager chart, int current, int next) {
+        chart.ref(next);
+        chart.deref(current);
+        return next;
+    }
+}
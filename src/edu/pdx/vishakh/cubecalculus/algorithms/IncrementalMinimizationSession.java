@@ -0,0 +1,406 @@
+package edu.pdx.vishakh.cubecalculus.algorithms;
+
+import edu.pdx.vishakh.cubecalculus.core.BooleanCube;
+import edu.pdx.vishakh.cubecalculus.core.CubeCalculusException;
+import edu.pdx.vishakh.cubecalculus.core.Minterm;
+import edu.pdx.vishakh.cubecalculus.core.TruthTable;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Keeps a function minimized while its minterms are moved between the ON, DONTCARE and OFF sets.
+ *
+ * The session holds all the primes of the function, the prime implicant chart and the current cover.  An update only
+ * touches the primes near the changed minterms:
+ * <ul>
+ *     <li>a minterm leaving the ON and DC sets kills the primes containing it; their replacements are the largest
+ *     sub-cubes of the killed primes that avoid the removed minterms, and can be found inside them,</li>
+ *     <li>a minterm joining the ON or DC set can only create primes containing it, found by expanding it, and those
+ *     new primes replace the old ones they contain.</li>
+ * </ul>
+ * Only the connected components of the chart that contain a changed minterm or prime are then covered again, with
+ * {@link QuineMcCluskeyAlgorithm#findMinimizedCover(int, Set, Set)}.  The cover of every other component is kept.
+ */
+public class IncrementalMinimizationSession {
+
+    private static final int ON = 0;
+    private static final int DC = 1;
+    private static final int OFF = 2;
+
+    private final int nVars;
+    private final QuineMcCluskeyAlgorithm algorithm;
+    private final TruthTable onTable;
+    private final TruthTable dcTable;
+
+    /** All primes of the ON and DC minterms. */
+    private final Set<BooleanCube> primes = new HashSet<>();
+
+    /** The primes containing each ON or DC minterm.  The ON entries are the columns of the chart. */
+    private final Map<Long, Set<BooleanCube>> primesOfMinterm = new HashMap<>();
+
+    /** The current cover, the union of the covers of the components of the chart. */
+    private final Set<BooleanCube> cover = new HashSet<>();
+
+    private int lastPrimesChanged = 0;
+    private int lastMintermsCovered = 0;
+
+    /**
+     * Minimizes the function from scratch.
+     * @param nVars Number of variables, at most {@link TruthTable#MAX_VARS}.
+     * @param onCubes The ON set.
+     * @param dcCubes The DONTCARE set.  Can be {@code null}.  Everything else is OFF.
+     */
+    public IncrementalMinimizationSession(int nVars, Set<BooleanCube> onCubes, Set<BooleanCube> dcCubes) {
+        if (onCubes == null) {
+            throw new CubeCalculusException("ON cubes should be provided.");
+        }
+        if (nVars > TruthTable.MAX_VARS) {
+            throw new CubeCalculusException("Incremental minimization supports up to " + TruthTable.MAX_VARS
+                    + " variables.");
+        }
+        this.nVars = nVars;
+        this.algorithm = new QuineMcCluskeyAlgorithm(null, null);
+        this.onTable = TruthTable.fromCubes(nVars, onCubes);
+        this.dcTable = dcCubes == null ? new TruthTable(nVars) : TruthTable.fromCubes(nVars, dcCubes);
+        dcTable.andNot(onTable);
+
+        TruthTable care = new TruthTable(onTable);
+        care.or(dcTable);
+        Set<Long> affected = new HashSet<>();
+        if (!care.isZero()) {
+            for (BooleanCube prime : algorithm.findAllPrimes(nVars, care.toMinterms())) {
+                addPrime(prime, affected);
+            }
+        }
+        lastPrimesChanged = primes.size();
+        resolve(affected, Collections.emptySet());
+    }
+
+    /** Moves minterms to the ON set.  See {@link #update}. */
+    public void addOn(Set<BooleanCube> cubes) {
+        update(cubes, null, null);
+    }
+
+    /** Moves minterms to the DONTCARE set.  See {@link #update}. */
+    public void addDontCare(Set<BooleanCube> cubes) {
+        update(null, cubes, null);
+    }
+
+    /** Moves minterms to the OFF set.  See {@link #update}. */
+    public void addOff(Set<BooleanCube> cubes) {
+        update(null, null, cubes);
+    }
+
+    /**
+     * Moves the minterms of the given cubes to the ON, DONTCARE and OFF sets, and updates the primes and the cover.
+     * A minterm in more than one argument ends up in the last of them.  Any argument can be {@code null}.
+     */
+    public void update(Set<BooleanCube> toOn, Set<BooleanCube> toDc, Set<BooleanCube> toOff) {
+        Map<Long, Integer> changes = new LinkedHashMap<>();
+        collectChanges(toOn, ON, changes);
+        collectChanges(toDc, DC, changes);
+        collectChanges(toOff, OFF, changes);
+
+        // ON minterms whose component must be covered again, and primes that must leave the cover.
+        Set<Long> affected = new HashSet<>();
+        Set<BooleanCube> dropped = new HashSet<>();
+        List<Long> removedCare = new ArrayList<>();
+        List<Long> addedCare = new ArrayList<>();
+
+        for (Map.Entry<Long, Integer> change : changes.entrySet()) {
+            long m = change.getKey();
+            int status = change.getValue();
+            boolean wasOn = onTable.get(m);
+            boolean wasCare = wasOn || dcTable.get(m);
+            if (wasOn && status != ON) {
+                // The component of m may split, so its neighbours are covered again.
+                for (BooleanCube p : primesOfMinterm.getOrDefault(m, Collections.emptySet())) {
+                    dropped.add(p);
+                    affected.addAll(onMintermsOf(p));
+                }
+            }
+            if (!wasOn && status == ON) {
+                affected.add(m);
+            }
+            if (wasCare && status == OFF) {
+                removedCare.add(m);
+            }
+            if (!wasCare && status != OFF) {
+                addedCare.add(m);
+            }
+            onTable.clear(m);
+            dcTable.clear(m);
+            if (status == ON) {
+                onTable.set(m);
+            } else if (status == DC) {
+                dcTable.set(m);
+            }
+        }
+
+        int nChanged = 0;
+
+        // Primes containing a removed minterm are gone; the new primes they leave behind lie inside them.
+        Set<BooleanCube> killed = new HashSet<>();
+        for (long m : removedCare) {
+            killed.addAll(primesOfMinterm.getOrDefault(m, Collections.emptySet()));
+        }
+        Set<BooleanCube> candidates = new HashSet<>();
+        for (BooleanCube p : killed) {
+            removePrime(p, affected);
+            dropped.add(p);
+            candidates.addAll(subcubesAvoiding(p, removedCare));
+        }
+        nChanged += killed.size();
+
+        // Primes created by an added minterm contain it.
+        for (long m : addedCare) {
+            expand(BooleanCube.fromMinterm(new Minterm(nVars, m)), 0, candidates);
+        }
+
+        for (BooleanCube c : candidates) {
+            if (!primes.contains(c) && isPrime(c)) {
+                // Old primes inside a new one are no longer prime.
+                long[] masks = masksOf(c);
+                for (long m : mintermsOf(c)) {
+                    for (BooleanCube p : new ArrayList<>(primesOfMinterm.getOrDefault(m, Collections.emptySet()))) {
+                        if (includes(masks, p)) {
+                            removePrime(p, affected);
+                            dropped.add(p);
+                            ++nChanged;
+                        }
+                    }
+                }
+                addPrime(c, affected);
+                ++nChanged;
+            }
+        }
+
+        lastPrimesChanged = nChanged;
+        resolve(affected, dropped);
+    }
+
+    /** A copy of the current cover. */
+    public Set<BooleanCube> getCover() {
+        return new HashSet<>(cover);
+    }
+
+    /** A copy of all the primes of the current function. */
+    public Set<BooleanCube> getPrimes() {
+        return new HashSet<>(primes);
+    }
+
+    public int getNumberOfVariables() {
+        return nVars;
+    }
+
+    /** Number of primes added or removed by the last update. */
+    public int getLastPrimesChanged() {
+        return lastPrimesChanged;
+    }
+
+    /** Number of ON minterms in the chart components covered again by the last update. */
+    public int getLastMintermsCovered() {
+        return lastMintermsCovered;
+    }
+
+    private void collectChanges(Set<BooleanCube> cubes, int status, Map<Long, Integer> changes) {
+        if (cubes == null) {
+            return;
+        }
+        for (BooleanCube c : cubes) {
+            if (c.getNumberOfVariables() != nVars) {
+                throw new CubeCalculusException("Cube " + c + " does not have " + nVars + " variables.");
+            }
+            for (long m : mintermsOf(c)) {
+                changes.put(m, status);
+            }
+        }
+    }
+
+    /** Covers again every chart component containing an affected ON minterm. */
+    private void resolve(Set<Long> affected, Set<BooleanCube> dropped) {
+        cover.removeAll(dropped);
+        Set<Long> visited = new HashSet<>();
+        int nCovered = 0;
+        for (long start : affected) {
+            if (!onTable.get(start) || !visited.add(start)) {
+                continue;
+            }
+            Set<BooleanCube> componentPrimes = new HashSet<>();
+            Set<BooleanCube> componentMinterms = new HashSet<>();
+            Deque<Long> queue = new ArrayDeque<>();
+            queue.add(start);
+            while (!queue.isEmpty()) {
+                long m = queue.remove();
+                componentMinterms.add(BooleanCube.fromMinterm(new Minterm(nVars, m)));
+                for (BooleanCube p : primesOfMinterm.get(m)) {
+                    if (componentPrimes.add(p)) {
+                        for (long q : onMintermsOf(p)) {
+                            if (visited.add(q)) {
+                                queue.add(q);
+                            }
+                        }
+                    }
+                }
+            }
+            cover.removeAll(componentPrimes);
+            cover.addAll(algorithm.findMinimizedCover(nVars, componentPrimes, componentMinterms));
+            nCovered += componentMinterms.size();
+        }
+        lastMintermsCovered = nCovered;
+    }
+
+    private void addPrime(BooleanCube prime, Set<Long> affected) {
+        primes.add(prime);
+        for (long m : mintermsOf(prime)) {
+            primesOfMinterm.computeIfAbsent(m, k -> new HashSet<>()).add(prime);
+            if (onTable.get(m)) {
+                affected.add(m);
+            }
+        }
+    }
+
+    private void removePrime(BooleanCube prime, Set<Long> affected) {
+        primes.remove(prime);
+        cover.remove(prime);
+        for (long m : mintermsOf(prime)) {
+            Set<BooleanCube> s = primesOfMinterm.get(m);
+            if (s != null) {
+                s.remove(prime);
+                if (s.isEmpty()) {
+                    primesOfMinterm.remove(m);
+                }
+            }
+            if (onTable.get(m)) {
+                affected.add(m);
+            }
+        }
+    }
+
+    /** The largest sub-cubes of {@code cube} that contain none of {@code removed}. */
+    private Set<BooleanCube> subcubesAvoiding(BooleanCube cube, List<Long> removed) {
+        Set<BooleanCube> result = new HashSet<>();
+        result.add(cube);
+        for (long m : removed) {
+            Set<BooleanCube> next = new HashSet<>();
+            for (BooleanCube c : result) {
+                if (!includes(masksOf(c), m)) {
+                    next.add(c);
+                    continue;
+                }
+                // Fix one free variable to the value m does not have.
+                for (int i = 0; i < nVars; ++i) {
+                    if (c.isDontCareVar(i)) {
+                        BooleanCube d = new BooleanCube(c);
+                        if (((m >>> (nVars - 1 - i)) & 1) != 0) {
+                            d.makeOffVar(i);
+                        } else {
+                            d.makeOnVar(i);
+                        }
+                        next.add(d);
+                    }
+                }
+            }
+            result = next;
+        }
+        return result;
+    }
+
+    /** Adds to {@code result} every prime containing {@code cube}, by raising its variables from {@code from} on. */
+    private void expand(BooleanCube cube, int from, Set<BooleanCube> result) {
+        boolean raised = false;
+        for (int i = from; i < nVars; ++i) {
+            if (!cube.isDontCareVar(i)) {
+                BooleanCube c = new BooleanCube(cube);
+                c.makeDontCareVar(i);
+                if (isImplicant(c)) {
+                    raised = true;
+                    expand(c, i + 1, result);
+                }
+            }
+        }
+        if (!raised) {
+            result.add(cube);
+        }
+    }
+
+    private boolean isPrime(BooleanCube cube) {
+        for (int i = 0; i < nVars; ++i) {
+            if (!cube.isDontCareVar(i)) {
+                BooleanCube c = new BooleanCube(cube);
+                c.makeDontCareVar(i);
+                if (isImplicant(c)) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    private boolean isImplicant(BooleanCube cube) {
+        for (long m : mintermsOf(cube)) {
+            if (!onTable.get(m) && !dcTable.get(m)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private List<Long> onMintermsOf(BooleanCube cube) {
+        List<Long> result = new ArrayList<>();
+        for (long m : mintermsOf(cube)) {
+            if (onTable.get(m)) {
+                result.add(m);
+            }
+        }
+        return result;
+    }
+
+    /** Minterm numbers of a cube, variable 0 being the most significant bit. */
+    private long[] mintermsOf(BooleanCube cube) {
+        long[] masks = masksOf(cube);
+        long fixed = masks[0];
+        long free = masks[1];
+        long[] minterms = new long[1 << Long.bitCount(free)];
+        int n = 0;
+        long sub = 0;
+        do {
+            minterms[n++] = fixed | sub;
+            sub = (sub - free) & free;
+        } while (sub != 0);
+        return minterms;
+    }
+
+    /** The bits fixed to 1 and the free bits of a cube. */
+    private long[] masksOf(BooleanCube cube) {
+        long fixed = 0;
+        long free = 0;
+        for (int i = 0; i < nVars; ++i) {
+            long bit = 1L << (nVars - 1 - i);
+            if (cube.isOnVar(i)) {
+                fixed |= bit;
+            } else if (cube.isDontCareVar(i)) {
+                free |= bit;
+            }
+        }
+        return new long[]{fixed, free};
+    }
+
+    private static boolean includes(long[] masks, long m) {
+        return (m & ~masks[1]) == masks[0];
+    }
+
+    private boolean includes(long[] masks, BooleanCube cube) {
+        long[] inner = masksOf(cube);
+        return (inner[1] & ~masks[1]) == 0 && (inner[0] & ~masks[1]) == masks[0];
+    }
+}
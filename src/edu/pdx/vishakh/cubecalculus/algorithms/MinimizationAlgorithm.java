@@ -38,6 +38,21 @@ public abstract class MinimizationAlgorithm<C> {
     /** Object to collect statistics during execution. */
     protected StatsCollector statsCollector;
 
+    /** Limits the number of threads in the compute phases.  Can be {@code null}. */
+    protected ComputeThrottle computeThrottle = null;
+
+    /** Receives progress events.  Can be {@code null}. */
+    protected MinimizationListener listener = null;
+
+    /** Checked at loop boundaries to stop the minimization.  Can be {@code null}. */
+    protected CancellationToken cancellationToken = null;
+
+    /** True to check every result against the sets it was minimized from. */
+    protected boolean verifyResults = false;
+
+    /** True while this algorithm holds a permit of {@code computeThrottle}. */
+    private boolean inComputePhase = false;
+
     public MinimizationAlgorithm(
             PrintStream detailsStream,
             PrintStream debugStream) {
@@ -61,6 +76,27 @@ public abstract class MinimizationAlgorithm<C> {
             Set<C> dcCubes,
             StatsCollector statsCollector,
             boolean stopAtCyclic) {
+        setUp(nVars, onCubes, offCubes, dcCubes, statsCollector);
+
+        try {
+            initialize();
+            Set<C> result = doMinimize(stopAtCyclic);
+            if (verifyResults && result != null) {
+                verifyResult(result, onCubes, offCubes, dcCubes);
+            }
+            return result;
+        } finally {
+            exitComputePhase();
+        }
+    }
+
+    /** Copies the arguments of a minimization into the fields used by {@link #initialize()}. */
+    protected void setUp(
+            int nVars,
+            Set<C> onCubes,
+            Set<C> offCubes,
+            Set<C> dcCubes,
+            StatsCollector statsCollector) {
         this.nVars = nVars;
 
         // We take copies of the sets, as we will be modifying them in the algorithm.
@@ -73,9 +109,67 @@ public abstract class MinimizationAlgorithm<C> {
         this.dcCubes = dcCubes == null ? null : new HashSet<>(dcCubes);
 
         this.statsCollector = statsCollector;
+    }
+
+    /** Sets the throttle used for the compute phases.  {@code null} runs them unthrottled. */
+    public void setComputeThrottle(ComputeThrottle computeThrottle) {
+        this.computeThrottle = computeThrottle;
+    }
+
+    /**
+     * Sets whether every result is checked against the ON, OFF and DONTCARE sets it was minimized from.  A result
+     * that does not implement them throws a {@link CubeCalculusException}.
+     */
+    public void setVerifyResults(boolean verifyResults) {
+        this.verifyResults = verifyResults;
+    }
 
-        initialize();
-        return doMinimize(stopAtCyclic);
+    /**
+     * Throws a {@link CubeCalculusException} if {@code cover} does not implement the function given by the sets, as
+     * passed to {@link #minimize}.
+     */
+    protected void verifyResult(Set<C> cover, Set<C> onCubes, Set<C> offCubes, Set<C> dcCubes) {
+        throw new CubeCalculusException(getName() + " cannot verify its results.");
+    }
+
+    /** Sets the listener for progress events.  {@code null} for none. */
+    public void setListener(MinimizationListener listener) {
+        this.listener = listener;
+    }
+
+    /** Sets the token checked to stop a running minimization.  {@code null} for none. */
+    public void setCancellationToken(CancellationToken cancellationToken) {
+        this.cancellationToken = cancellationToken;
+    }
+
+    /** Called at loop boundaries.  Throws {@link MinimizationCancelledException} if the minimization is cancelled. */
+    protected void checkCancelled() {
+        if (cancellationToken != null) {
+            cancellationToken.throwIfCancelled();
+        }
+    }
+
+    /** Called before a CPU heavy phase.  Waits for a permit if a throttle is set. */
+    protected void enterComputePhase() {
+        if (computeThrottle != null && !inComputePhase) {
+            computeThrottle.acquire();
+            inComputePhase = true;
+        }
+    }
+
+    /** Called after a CPU heavy phase.  Returns the permit taken by {@link #enterComputePhase()}. */
+    protected void exitComputePhase() {
+        if (inComputePhase) {
+            inComputePhase = false;
+            computeThrottle.release();
+        }
+    }
+
+    /** Called at loop boundaries inside a compute phase, to let waiting threads have a turn. */
+    protected void computeYieldPoint() {
+        if (inComputePhase) {
+            computeThrottle.yieldPermit();
+        }
     }
 
     protected abstract void initialize();
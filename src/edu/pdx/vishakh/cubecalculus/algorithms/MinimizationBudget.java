@@ -0,0 +1,113 @@
+package edu.pdx.vishakh.cubecalculus.algorithms;
+
+import edu.pdx.vishakh.cubecalculus.core.CubeCalculusException;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Limits on the work of one minimization: wall clock time, number of cube merges while generating primes, and number
+ * of nodes of the search for a minimum cover.  When a limit is reached the algorithm stops improving the cover and
+ * completes it with a fast heuristic, so the caller always gets a valid cover in bounded time.
+ *
+ * A budget is immutable and can be shared; each minimization tracks its own use of it with a {@link Tracker}.
+ */
+public final class MinimizationBudget {
+
+    /** Value of a limit that is not set. */
+    public static final long UNLIMITED = Long.MAX_VALUE;
+
+    /** A budget without limits. */
+    public static final MinimizationBudget NONE = new MinimizationBudget(UNLIMITED, UNLIMITED, UNLIMITED);
+
+    private final long timeLimitNanos;
+    private final long maxMerges;
+    private final long maxSearchNodes;
+
+    /**
+     * @param timeLimitMillis Wall clock time allowed, from the start of the minimization.
+     * @param maxMerges Maximum number of cube merges while generating primes.
+     * @param maxSearchNodes Maximum number of nodes of the cover search.
+     */
+    public MinimizationBudget(long timeLimitMillis, long maxMerges, long maxSearchNodes) {
+        if (timeLimitMillis < 0 || maxMerges < 0 || maxSearchNodes < 0) {
+            throw new CubeCalculusException("Budget limits cannot be negative.");
+        }
+        this.timeLimitNanos = timeLimitMillis == UNLIMITED ? UNLIMITED : TimeUnit.MILLISECONDS.toNanos(timeLimitMillis);
+        this.maxMerges = maxMerges;
+        this.maxSearchNodes = maxSearchNodes;
+    }
+
+    /** A budget with only a time limit. */
+    public static MinimizationBudget ofTime(long timeLimitMillis) {
+        return new MinimizationBudget(timeLimitMillis, UNLIMITED, UNLIMITED);
+    }
+
+    public long getTimeLimitNanos() {
+        return timeLimitNanos;
+    }
+
+    public long getMaxMerges() {
+        return maxMerges;
+    }
+
+    public long getMaxSearchNodes() {
+        return maxSearchNodes;
+    }
+
+    /** Starts tracking a minimization; the time limit counts from now. */
+    public Tracker start() {
+        return new Tracker();
+    }
+
+    @Override
+    public String toString() {
+        return "MinimizationBudget[time = " + format(timeLimitNanos) + " ns, merges = " + format(maxMerges)
+                + ", search nodes = " + format(maxSearchNodes) + "]";
+    }
+
+    private static String format(long limit) {
+        return limit == UNLIMITED ? "unlimited" : Long.toString(limit);
+    }
+
+    /** The use of a budget by one minimization.  Not thread safe. */
+    public final class Tracker {
+        private final long startNanos = System.nanoTime();
+        private long merges = 0;
+        private long searchNodes = 0;
+        private boolean exhausted = false;
+
+        private Tracker() {
+        }
+
+        /** Counts a merge.  Returns false if the budget is exhausted. */
+        public boolean chargeMerge() {
+            return ++merges <= maxMerges && !isExhausted();
+        }
+
+        /** Counts a search node.  Returns false if the budget is exhausted. */
+        public boolean chargeSearchNode() {
+            return ++searchNodes <= maxSearchNodes && !isExhausted();
+        }
+
+        /** True once any limit has been reached.  Stays true. */
+        public boolean isExhausted() {
+            if (!exhausted) {
+                exhausted = merges > maxMerges || searchNodes > maxSearchNodes
+                        || (timeLimitNanos != UNLIMITED && System.nanoTime() - startNanos > timeLimitNanos);
+            }
+            return exhausted;
+        }
+
+        public long getMerges() {
+            return merges;
+        }
+
+        public long getSearchNodes() {
+            return searchNodes;
+        }
+
+        public long getElapsedNanos() {
+            return System.nanoTime() - startNanos;
+        }
+    }
+}
@@ -0,0 +1,189 @@
+package edu.pdx.vishakh.cubecalculus.algorithms;
+
+import edu.pdx.vishakh.cubecalculus.core.BooleanCube;
+import edu.pdx.vishakh.cubecalculus.core.CubeCalculusException;
+
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Size bounded cache of minimized covers, keyed by {@link FunctionFingerprint}.
+ *
+ * The cache is split into independently locked segments, each a {@link LinkedHashMap} in access order that drops its
+ * least recently used entry when full.  Eviction is therefore LRU within a segment rather than globally, which keeps
+ * lock contention low when many threads share one cache.
+ *
+ * A cache should only be shared by algorithms that produce interchangeable results, since the key does not include
+ * the algorithm.  Cubes are copied on the way in and on the way out, so callers are free to modify what they get.
+ */
+public class MinimizationCache {
+
+    private static final int N_SEGMENTS = 16;
+
+    private final Segment[] segments = new Segment[N_SEGMENTS];
+    private final int maxEntries;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * @param maxEntries Maximum number of functions kept.  Rounded up to a multiple of the number of segments.
+     */
+    public MinimizationCache(int maxEntries) {
+        if (maxEntries < 1) {
+            throw new CubeCalculusException("Cache size should be positive.");
+        }
+        int perSegment = (maxEntries + N_SEGMENTS - 1) / N_SEGMENTS;
+        for (int i = 0; i < N_SEGMENTS; ++i) {
+            segments[i] = new Segment(perSegment);
+        }
+        this.maxEntries = perSegment * N_SEGMENTS;
+    }
+
+    /**
+     * Returns the cached cover of a function, or minimizes it with {@code algorithm} and caches the result.
+     * Arguments are the same as for {@link MinimizationAlgorithm#minimize}.  On a hit the algorithm is not run, so
+     * {@code statsCollector} is left untouched.
+     */
+    public Set<BooleanCube> minimize(MinimizationAlgorithm<BooleanCube> algorithm,
+                                     int nVars,
+                                     Set<BooleanCube> onCubes,
+                                     Set<BooleanCube> offCubes,
+                                     Set<BooleanCube> dcCubes,
+                                     StatsCollector statsCollector,
+                                     boolean stopAtCyclic) {
+        FunctionFingerprint key = FunctionFingerprint.of(nVars, onCubes, offCubes, dcCubes);
+        Set<BooleanCube> cover = get(key);
+        if (cover == null) {
+            cover = algorithm.minimize(nVars, onCubes, offCubes, dcCubes, statsCollector, stopAtCyclic);
+            if (cover != null) {
+                put(key, cover);
+            }
+        }
+        return cover;
+    }
+
+    /** Returns a copy of the cached cover for {@code key}, or {@code null} if it is not cached. */
+    public Set<BooleanCube> get(FunctionFingerprint key) {
+        Segment segment = segmentFor(key);
+        Set<BooleanCube> cover;
+        synchronized (segment) {
+            cover = segment.get(key);
+        }
+        if (cover == null) {
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return copyOf(cover);
+    }
+
+    /** Caches a copy of {@code cover} as the minimized cover of {@code key}. */
+    public void put(FunctionFingerprint key, Set<BooleanCube> cover) {
+        Set<BooleanCube> copy = copyOf(cover);
+        Segment segment = segmentFor(key);
+        synchronized (segment) {
+            segment.put(key, copy);
+        }
+    }
+
+    /** Removes all entries.  Counters are not reset. */
+    public void clear() {
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                segment.clear();
+            }
+        }
+    }
+
+    public int size() {
+        int size = 0;
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                size += segment.size();
+            }
+        }
+        return size;
+    }
+
+    public int getMaxEntries() {
+        return maxEntries;
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    /** Fraction of lookups that were hits, 0 if there were no lookups. */
+    public double getHitRate() {
+        long h = hits.sum();
+        long total = h + misses.sum();
+        return total == 0 ? 0 : (double) h / total;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("MinimizationCache[size = %d/%d, hits = %d, misses = %d, evictions = %d]",
+                size(), maxEntries, getHits(), getMisses(), getEvictions());
+    }
+
+    private Segment segmentFor(FunctionFingerprint key) {
+        int h = key.hashCode();
+        h ^= h >>> 16;
+        return segments[h & (N_SEGMENTS - 1)];
+    }
+
+    private static Set<BooleanCube> copyOf(Set<BooleanCube> cover) {
+        Set<BooleanCube> copy = new HashSet<>();
+        for (BooleanCube c : cover) {
+            copy.add(new BooleanCube(c));
+        }
+        return copy;
+    }
+
+    /** One LRU partition of the cache.  Always accessed while holding its own lock. */
+    private class Segment {
+        private final int capacity;
+        private final LinkedHashMap<FunctionFingerprint, Set<BooleanCube>> entries =
+                new LinkedHashMap<>(16, 0.75f, true);
+
+        Segment(int capacity) {
+            this.capacity = capacity;
+        }
+
+        Set<BooleanCube> get(FunctionFingerprint key) {
+            return entries.get(key);
+        }
+
+        void put(FunctionFingerprint key, Set<BooleanCube> cover) {
+            entries.put(key, cover);
+            if (entries.size() > capacity) {
+                // The first entry in access order is the least recently used.
+                Iterator<FunctionFingerprint> eldest = entries.keySet().iterator();
+                eldest.next();
+                eldest.remove();
+                evictions.increment();
+            }
+        }
+
+        void clear() {
+            entries.clear();
+        }
+
+        int size() {
+            return entries.size();
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package edu.pdx.vishakh.cubecalculus.algorithms;
+
+import edu.pdx.vishakh.cubecalculus.core.CubeCalculusException;
+
+/** Thrown by a minimization whose {@link CancellationToken} was cancelled. */
+public class MinimizationCancelledException extends CubeCalculusException {
+    private static final long serialVersionUID = 1L;
+
+    public MinimizationCancelledException(String s) {
+        super(s);
+    }
+}
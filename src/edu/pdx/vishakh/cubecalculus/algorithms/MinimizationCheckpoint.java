@@ -0,0 +1,275 @@
+package edu.pdx.vishakh.cubecalculus.algorithms;
+
+import edu.pdx.vishakh.cubecalculus.core.BooleanCube;
+import edu.pdx.vishakh.cubecalculus.core.CubeCalculusException;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Saved state of a budgeted {@link QuineMcCluskeyAlgorithm} minimization, from which it can be resumed.
+ *
+ * A checkpoint is taken either between two levels of prime generation, where the state is the level number, the
+ * cubes of the level and the primes found so far, or during the search of the cyclic core, where it is the reduced
+ * chart, the cover chosen so far, the best cover of the core and the open nodes of the search.  Both hold the ON and
+ * DONTCARE minterms, so a checkpoint file is all that is needed to resume.
+ *
+ * The binary form is a header followed by counted arrays.  Each cube takes {@code ceil(2 * nVars / 8)} bytes, two bits
+ * per variable in the {@link BooleanCube} layout, so up to 32 variables are supported.
+ */
+public class MinimizationCheckpoint {
+
+    private static final int MAGIC = 0x4343434B;
+    private static final int VERSION = 1;
+
+    /** Largest number of variables whose cubes fit in the binary form. */
+    public static final int MAX_VARS = 32;
+
+    /** Phase the checkpoint was taken in. */
+    public enum Phase {
+        PRIME_GENERATION,
+        COVER_SEARCH
+    }
+
+    private final Phase phase;
+    private final int nVars;
+    private final List<BooleanCube> onCubes;
+    private final List<BooleanCube> dcCubes;
+
+    // Prime generation state.
+    private final int level;
+    private final List<BooleanCube> levelCubes;
+    private final List<BooleanCube> primes;
+
+    // Cover search state.
+    private final List<BooleanCube> selectedPrimes;
+    private final List<BooleanCube> corePrimes;
+    private final List<BooleanCube> coreMinterms;
+    private final int[] incumbentRows;
+    private final int[] frontier;
+
+    private MinimizationCheckpoint(Phase phase, int nVars, List<BooleanCube> onCubes, List<BooleanCube> dcCubes,
+                                   int level, List<BooleanCube> levelCubes, List<BooleanCube> primes,
+                                   List<BooleanCube> selectedPrimes, List<BooleanCube> corePrimes,
+                                   List<BooleanCube> coreMinterms, int[] incumbentRows, int[] frontier) {
+        if (nVars > MAX_VARS) {
+            throw new CubeCalculusException("Checkpoints support up to " + MAX_VARS + " variables.");
+        }
+        this.phase = phase;
+        this.nVars = nVars;
+        this.onCubes = onCubes;
+        this.dcCubes = dcCubes;
+        this.level = level;
+        this.levelCubes = levelCubes;
+        this.primes = primes;
+        this.selectedPrimes = selectedPrimes;
+        this.corePrimes = corePrimes;
+        this.coreMinterms = coreMinterms;
+        this.incumbentRows = incumbentRows;
+        this.frontier = frontier;
+    }
+
+    /** State at the start of level {@code level} of prime generation.  The collections are copied. */
+    static MinimizationCheckpoint ofPrimeGeneration(int nVars, Collection<BooleanCube> onCubes,
+                                                    Collection<BooleanCube> dcCubes, int level,
+                                                    Collection<BooleanCube> levelCubes,
+                                                    Collection<BooleanCube> primes) {
+        return new MinimizationCheckpoint(Phase.PRIME_GENERATION, nVars, new ArrayList<>(onCubes),
+                new ArrayList<>(dcCubes), level, new ArrayList<>(levelCubes), new ArrayList<>(primes),
+                new ArrayList<>(), new ArrayList<>(), new ArrayList<>(), new int[0], new int[0]);
+    }
+
+    /**
+     * State of the cover search.  {@code corePrimes} and {@code coreMinterms} are the rows and columns of the chart,
+     * in order, and are not copied.
+     * @param frontier The open search nodes, from the root up, as {@link CoveringSearch#getFrontier()} returns them.
+     */
+    static MinimizationCheckpoint ofCoverSearch(int nVars, Collection<BooleanCube> onCubes,
+                                                Collection<BooleanCube> dcCubes,
+                                                Collection<BooleanCube> selectedPrimes,
+                                                List<BooleanCube> corePrimes, List<BooleanCube> coreMinterms,
+                                                int[] incumbentRows, int[] frontier) {
+        return new MinimizationCheckpoint(Phase.COVER_SEARCH, nVars, new ArrayList<>(onCubes),
+                new ArrayList<>(dcCubes), 0, new ArrayList<>(), new ArrayList<>(), new ArrayList<>(selectedPrimes),
+                corePrimes, coreMinterms, incumbentRows, frontier);
+    }
+
+    public Phase getPhase() {
+        return phase;
+    }
+
+    public int getNumberOfVariables() {
+        return nVars;
+    }
+
+    public List<BooleanCube> getOnCubes() {
+        return onCubes;
+    }
+
+    public List<BooleanCube> getDcCubes() {
+        return dcCubes;
+    }
+
+    /** Level of prime generation to resume at. */
+    public int getLevel() {
+        return level;
+    }
+
+    /** Cubes of that level. */
+    List<BooleanCube> getLevelCubes() {
+        return levelCubes;
+    }
+
+    /** Primes found before that level. */
+    List<BooleanCube> getPrimes() {
+        return primes;
+    }
+
+    /** Primes already in the cover when the search started: essential primes and those chosen by reductions. */
+    List<BooleanCube> getSelectedPrimes() {
+        return selectedPrimes;
+    }
+
+    List<BooleanCube> getCorePrimes() {
+        return corePrimes;
+    }
+
+    List<BooleanCube> getCoreMinterms() {
+        return coreMinterms;
+    }
+
+    int[] getIncumbentRows() {
+        return incumbentRows;
+    }
+
+    int[] getFrontier() {
+        return frontier;
+    }
+
+    /** Size of the binary form in bytes. */
+    public int getEncodedSize() {
+        int nCubes = onCubes.size() + dcCubes.size() + levelCubes.size() + primes.size() + selectedPrimes.size()
+                + corePrimes.size() + coreMinterms.size();
+        return 4 * 4 + 4 + 9 * 4 + nCubes * bytesPerCube(nVars) + 4 * (incumbentRows.length + frontier.length);
+    }
+
+    /** Encodes the checkpoint into a new buffer, ready to be written. */
+    public ByteBuffer encode() {
+        ByteBuffer buffer = ByteBuffer.allocate(getEncodedSize());
+        buffer.putInt(MAGIC);
+        buffer.putInt(VERSION);
+        buffer.putInt(phase.ordinal());
+        buffer.putInt(nVars);
+        buffer.putInt(level);
+        putCubes(buffer, onCubes);
+        putCubes(buffer, dcCubes);
+        putCubes(buffer, levelCubes);
+        putCubes(buffer, primes);
+        putCubes(buffer, selectedPrimes);
+        putCubes(buffer, corePrimes);
+        putCubes(buffer, coreMinterms);
+        putInts(buffer, incumbentRows);
+        putInts(buffer, frontier);
+        buffer.flip();
+        return buffer;
+    }
+
+    /** Decodes a checkpoint from the binary form. */
+    public static MinimizationCheckpoint decode(ByteBuffer buffer) {
+        if (buffer.remaining() < 20 || buffer.getInt() != MAGIC) {
+            throw new CubeCalculusException("Not a minimization checkpoint.");
+        }
+        int version = buffer.getInt();
+        if (version != VERSION) {
+            throw new CubeCalculusException("Unsupported checkpoint version " + version + ".");
+        }
+        Phase phase = Phase.values()[buffer.getInt()];
+        int nVars = buffer.getInt();
+        int level = buffer.getInt();
+        List<BooleanCube> on = getCubes(buffer, nVars);
+        List<BooleanCube> dc = getCubes(buffer, nVars);
+        List<BooleanCube> levelCubes = getCubes(buffer, nVars);
+        List<BooleanCube> primes = getCubes(buffer, nVars);
+        List<BooleanCube> selected = getCubes(buffer, nVars);
+        List<BooleanCube> corePrimes = getCubes(buffer, nVars);
+        List<BooleanCube> coreMinterms = getCubes(buffer, nVars);
+        int[] incumbent = getInts(buffer);
+        int[] frontier = getInts(buffer);
+        return new MinimizationCheckpoint(phase, nVars, on, dc, level, levelCubes, primes, selected, corePrimes,
+                coreMinterms, incumbent, frontier);
+    }
+
+    /** Reads a checkpoint file written by {@link CheckpointWriter}. */
+    public static MinimizationCheckpoint read(Path path) {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer buffer = ByteBuffer.allocate((int) channel.size());
+            while (buffer.hasRemaining() && channel.read(buffer) >= 0) {
+                // Keep reading until the buffer is full.
+            }
+            buffer.flip();
+            return decode(buffer);
+        } catch (IOException e) {
+            throw new CubeCalculusException("Cannot read checkpoint " + path + ": " + e.getMessage());
+        }
+    }
+
+    @Override
+    public String toString() {
+        if (phase == Phase.PRIME_GENERATION) {
+            return "MinimizationCheckpoint[" + phase + ", level = " + level + ", cubes = " + levelCubes.size()
+                    + ", primes = " + primes.size() + "]";
+        }
+        return "MinimizationCheckpoint[" + phase + ", chart = " + corePrimes.size() + " x " + coreMinterms.size()
+                + ", open nodes = " + frontier.length / 3 + "]";
+    }
+
+    private static int bytesPerCube(int nVars) {
+        return (2 * nVars + 7) / 8;
+    }
+
+    private void putCubes(ByteBuffer buffer, List<BooleanCube> cubes) {
+        int nBytes = bytesPerCube(nVars);
+        buffer.putInt(cubes.size());
+        for (BooleanCube c : cubes) {
+            long code = SmallFunctionMinimizer.toCode(c);
+            for (int b = 0; b < nBytes; ++b) {
+                buffer.put((byte) (code >>> (8 * b)));
+            }
+        }
+    }
+
+    private static List<BooleanCube> getCubes(ByteBuffer buffer, int nVars) {
+        int nBytes = bytesPerCube(nVars);
+        int n = buffer.getInt();
+        List<BooleanCube> cubes = new ArrayList<>(n);
+        for (int i = 0; i < n; ++i) {
+            long code = 0;
+            for (int b = 0; b < nBytes; ++b) {
+                code |= (buffer.get() & 0xFFL) << (8 * b);
+            }
+            cubes.add(SmallFunctionMinimizer.toCube(nVars, code));
+        }
+        return cubes;
+    }
+
+    private static void putInts(ByteBuffer buffer, int[] values) {
+        buffer.putInt(values.length);
+        for (int v : values) {
+            buffer.putInt(v);
+        }
+    }
+
+    private static int[] getInts(ByteBuffer buffer) {
+        int[] values = new int[buffer.getInt()];
+        for (int i = 0; i < values.length; ++i) {
+            values[i] = buffer.getInt();
+        }
+        return values;
+    }
+}
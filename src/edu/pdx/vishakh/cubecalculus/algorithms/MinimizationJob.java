@@ -0,0 +1,92 @@
+package edu.pdx.vishakh.cubecalculus.algorithms;
+
+import edu.pdx.vishakh.cubecalculus.core.BooleanCube;
+import edu.pdx.vishakh.cubecalculus.core.CubeCalculusException;
+
+import java.util.Set;
+
+/**
+ * One function to be minimized by a {@link BatchMinimizer}.  Holds the same inputs as
+ * {@link MinimizationAlgorithm#minimize}, plus a tag the caller can use to identify the result.
+ */
+public class MinimizationJob {
+
+    /** Caller supplied identifier.  Not interpreted by the batch engine. */
+    private final long tag;
+
+    private final int nVars;
+    private final Set<BooleanCube> onCubes;
+    private final Set<BooleanCube> offCubes;
+    private final Set<BooleanCube> dcCubes;
+    private final boolean stopAtCyclic;
+    private final CancellationToken cancellationToken;
+
+    /**
+     * @param tag Caller supplied identifier.
+     * @param nVars Number of variables.
+     * @param onCubes The ON set of cubes.  Cannot be {@code null}.
+     * @param offCubes The OFF set of cubes.  Can be {@code null}.
+     * @param dcCubes The DONTCARE set of cubes.  Can be {@code null}.
+     * @param stopAtCyclic Passed on to {@link MinimizationAlgorithm#minimize}.
+     */
+    public MinimizationJob(long tag,
+                           int nVars,
+                           Set<BooleanCube> onCubes,
+                           Set<BooleanCube> offCubes,
+                           Set<BooleanCube> dcCubes,
+                           boolean stopAtCyclic) {
+        this(tag, nVars, onCubes, offCubes, dcCubes, stopAtCyclic, null);
+    }
+
+    /**
+     * Same as the other constructor, with a token that stops the job if it is cancelled before or while the job runs.
+     * @param cancellationToken Can be {@code null}.
+     */
+    public MinimizationJob(long tag,
+                           int nVars,
+                           Set<BooleanCube> onCubes,
+                           Set<BooleanCube> offCubes,
+                           Set<BooleanCube> dcCubes,
+                           boolean stopAtCyclic,
+                           CancellationToken cancellationToken) {
+        if (onCubes == null) {
+            throw new CubeCalculusException("ON cubes of a minimization job cannot be null.");
+        }
+        this.tag = tag;
+        this.nVars = nVars;
+        this.onCubes = onCubes;
+        this.offCubes = offCubes;
+        this.dcCubes = dcCubes;
+        this.stopAtCyclic = stopAtCyclic;
+        this.cancellationToken = cancellationToken;
+    }
+
+    public long getTag() {
+        return tag;
+    }
+
+    public int getNumberOfVariables() {
+        return nVars;
+    }
+
+    public Set<BooleanCube> getOnCubes() {
+        return onCubes;
+    }
+
+    public Set<BooleanCube> getOffCubes() {
+        return offCubes;
+    }
+
+    public Set<BooleanCube> getDcCubes() {
+        return dcCubes;
+    }
+
+    public boolean isStopAtCyclic() {
+        return stopAtCyclic;
+    }
+
+    /** Token that cancels this job, or {@code null}. */
+    public CancellationToken getCancellationToken() {
+        return cancellationToken;
+    }
+}
@@ -0,0 +1,63 @@
+package edu.pdx.vishakh.cubecalculus.algorithms;
+
+import edu.pdx.vishakh.cubecalculus.core.BooleanCube;
+
+/**
+ * Receives machine readable progress events from a minimization, unlike the LaTeX written to the details stream.
+ *
+ * Events are delivered on the thread running the minimization, so implementations should return quickly.  All
+ * methods do nothing by default; implement only the ones needed.
+ */
+public interface MinimizationListener {
+
+    /** Kinds of chart reduction. */
+    enum Reduction {
+        /** Primes that alone cover some minterm were moved to the cover. */
+        ESSENTIAL_PRIMES,
+        /** Primes dominated by other primes were removed. */
+        ROW_DOMINANCE,
+        /** No reduction applied, so a prime of the cyclic core was chosen. */
+        CYCLIC_CHOICE
+    }
+
+    /**
+     * A prime was found.  Each prime is reported once, as soon as it is known, before its level is completed.
+     * @param prime The prime.  Must not be modified.
+     */
+    default void primeFound(BooleanCube prime) {
+    }
+
+    /**
+     * A level of prime generation is done.
+     * @param level Number of merges of the cubes of the level, starting at 0 for the input cubes.
+     * @param nCubes Number of cubes of the level.
+     * @param nPrimes Number of primes found so far.
+     */
+    default void levelCompleted(int level, int nCubes, int nPrimes) {
+    }
+
+    /**
+     * The prime implicant chart was built.
+     * @param nPrimes Number of rows.
+     * @param nMinterms Number of columns.
+     */
+    default void chartBuilt(int nPrimes, int nMinterms) {
+    }
+
+    /**
+     * A reduction changed the chart.
+     * @param reduction Kind of reduction.
+     * @param nPrimes Number of primes moved to the cover or removed.
+     * @param nRemainingMinterms Number of minterms still to cover.
+     */
+    default void reductionApplied(Reduction reduction, int nPrimes, int nRemainingMinterms) {
+    }
+
+    /**
+     * Progress of the search for a minimum cover of the cyclic core.
+     * @param nNodes Number of search nodes explored so far.
+     * @param bestCost Cost of the best cover found so far.
+     */
+    default void searchProgress(long nNodes, int bestCost) {
+    }
+}
@@ -0,0 +1,70 @@
+package edu.pdx.vishakh.cubecalculus.algorithms;
+
+import edu.pdx.vishakh.cubecalculus.core.BooleanCube;
+
+import java.util.Set;
+
+/**
+ * Outcome of a minimization run under a {@link MinimizationBudget}: the best valid cover found, and how far it is
+ * known to be from a minimum one.  Costs are numbers of literals, as in {@link BooleanCube#cost()}.
+ */
+public class MinimizationResult {
+
+    /** Phase the minimization was in when it stopped. */
+    public enum Phase {
+        /** The budget ran out while generating primes; the cover is made of the implicants found so far. */
+        PRIME_GENERATION,
+        /** The budget ran out while removing essential primes and dominated rows from the chart. */
+        CHART_REDUCTION,
+        /** The budget ran out while searching the cyclic core of the chart. */
+        COVER_SEARCH,
+        /** The minimization finished. */
+        COMPLETE
+    }
+
+    private final Set<BooleanCube> cover;
+    private final boolean provenOptimal;
+    private final int lowerBound;
+    private final Phase phase;
+
+    MinimizationResult(Set<BooleanCube> cover, boolean provenOptimal, int lowerBound, Phase phase) {
+        this.cover = cover;
+        this.provenOptimal = provenOptimal;
+        this.lowerBound = lowerBound;
+        this.phase = phase;
+    }
+
+    /** The best cover found.  Always implements the function. */
+    public Set<BooleanCube> getCover() {
+        return cover;
+    }
+
+    /** Total number of literals of the cover. */
+    public int getCost() {
+        int cost = 0;
+        for (BooleanCube c : cover) {
+            cost += c.cost();
+        }
+        return cost;
+    }
+
+    /** True if no cover with fewer literals exists. */
+    public boolean isProvenOptimal() {
+        return provenOptimal;
+    }
+
+    /** No cover has fewer literals than this. */
+    public int getLowerBound() {
+        return lowerBound;
+    }
+
+    public Phase getPhase() {
+        return phase;
+    }
+
+    @Override
+    public String toString() {
+        return "MinimizationResult[cubes = " + cover.size() + ", cost = " + getCost() + ", lower bound = "
+                + lowerBound + ", optimal = " + provenOptimal + ", phase = " + phase + "]";
+    }
+}
@@ -0,0 +1,111 @@
+package edu.pdx.vishakh.cubecalculus.algorithms;
+
+import edu.pdx.vishakh.cubecalculus.core.BooleanCube;
+import edu.pdx.vishakh.cubecalculus.core.CubeCalculusException;
+import edu.pdx.vishakh.cubecalculus.core.NpnCanonicalizer;
+import edu.pdx.vishakh.cubecalculus.core.NpnTransform;
+import edu.pdx.vishakh.cubecalculus.core.TruthTable;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Cache of minimized covers shared by all the functions of an NPN class.
+ *
+ * A function is first brought to its NPN canonical form.  The cover of the canonical function is looked up in (or
+ * computed and stored into) an ordinary {@link MinimizationCache}, and then mapped back to the original variables by
+ * permuting and negating the literals of each cube.  When the canonical transform negates the output, the ON set of
+ * the original function is the OFF set of the canonical one; that polarity is minimized and cached separately, so each
+ * class has at most two entries.
+ *
+ * Functions with more than {@link NpnCanonicalizer#MAX_VARS} variables are cached by their plain fingerprint.
+ */
+public class NpnMinimizationCache {
+
+    private final MinimizationCache cache;
+    private final NpnCanonicalizer canonicalizer;
+
+    /**
+     * @param maxEntries Maximum number of canonical covers kept.
+     */
+    public NpnMinimizationCache(int maxEntries) {
+        this(new MinimizationCache(maxEntries), new NpnCanonicalizer());
+    }
+
+    public NpnMinimizationCache(MinimizationCache cache, NpnCanonicalizer canonicalizer) {
+        this.cache = cache;
+        this.canonicalizer = canonicalizer;
+    }
+
+    /**
+     * Returns the cached cover of a function, or minimizes the canonical form of its NPN class with
+     * {@code algorithm} and caches it.  Arguments are the same as for {@link MinimizationAlgorithm#minimize}.
+     */
+    public Set<BooleanCube> minimize(MinimizationAlgorithm<BooleanCube> algorithm,
+                                     int nVars,
+                                     Set<BooleanCube> onCubes,
+                                     Set<BooleanCube> offCubes,
+                                     Set<BooleanCube> dcCubes,
+                                     StatsCollector statsCollector,
+                                     boolean stopAtCyclic) {
+        if (onCubes == null) {
+            throw new CubeCalculusException("ON cubes should be provided.");
+        }
+        if (nVars > NpnCanonicalizer.MAX_VARS) {
+            return cache.minimize(algorithm, nVars, onCubes, offCubes, dcCubes, statsCollector, stopAtCyclic);
+        }
+
+        TruthTable onTable = TruthTable.fromCubes(nVars, onCubes);
+        TruthTable dcTable;
+        if (dcCubes != null) {
+            dcTable = TruthTable.fromCubes(nVars, dcCubes);
+        } else if (offCubes != null) {
+            dcTable = TruthTable.fromCubes(nVars, offCubes);
+            dcTable.or(onTable);
+            dcTable.not();
+        } else {
+            dcTable = new TruthTable(nVars);
+        }
+
+        NpnCanonicalizer.Result canonical = canonicalizer.canonicalize(onTable, dcTable);
+        NpnTransform transform = canonical.getTransform();
+        TruthTable canonicalOn = canonical.getOnTable();
+        TruthTable canonicalDc = canonical.getDcTable();
+
+        // The function to minimize is the one whose ON set maps to the original ON set.
+        TruthTable wantedOn = canonicalOn;
+        if (transform.isOutputNegated()) {
+            wantedOn = new TruthTable(canonicalOn);
+            wantedOn.or(canonicalDc);
+            wantedOn.not();
+        }
+
+        FunctionFingerprint key = FunctionFingerprint.ofSortedMinterms(nVars, wantedOn.toMintermArray(),
+                canonicalDc.toMintermArray());
+        Set<BooleanCube> canonicalCover = cache.get(key);
+        if (canonicalCover == null) {
+            Set<BooleanCube> dc = canonicalDc.isZero() ? null : canonicalDc.toMinterms();
+            canonicalCover = algorithm.minimize(nVars, wantedOn.toMinterms(), null, dc, statsCollector, stopAtCyclic);
+            if (canonicalCover == null) {
+                return null;
+            }
+            cache.put(key, canonicalCover);
+        }
+
+        Set<BooleanCube> cover = new HashSet<>();
+        for (BooleanCube c : canonicalCover) {
+            cover.add(transform.toOriginal(c));
+        }
+        return cover;
+    }
+
+    /** The underlying cache of canonical covers, for its counters. */
+    public MinimizationCache getCache() {
+        return cache;
+    }
+
+    @Override
+    public String toString() {
+        return "Npn" + cache;
+    }
+}
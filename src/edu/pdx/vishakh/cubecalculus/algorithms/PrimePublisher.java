@@ -0,0 +1,141 @@
+package edu.pdx.vishakh.cubecalculus.algorithms;
+
+import edu.pdx.vishakh.cubecalculus.core.BooleanCube;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Publishes the primes of a function as {@link QuineMcCluskeyAlgorithm#findAllPrimes} finds them, so that consumers
+ * such as chart builders and writers can work while the primes are still being generated.
+ *
+ * Each subscriber gets its own run of prime generation, started when it subscribes.  The run waits whenever the
+ * subscriber has no outstanding demand, so a slow subscriber holds the generation back instead of letting primes pile
+ * up.  Cancelling the subscription stops the run.  Since runs block waiting for demand, the default executor starts a
+ * thread per run rather than using a shared pool.
+ */
+public class PrimePublisher implements Flow.Publisher<BooleanCube> {
+
+    private final int nVars;
+    private final Set<BooleanCube> cubes;
+    private final Executor executor;
+
+    /**
+     * @param nVars Number of variables.
+     * @param onCubes The ON set of cubes.
+     * @param dcCubes The DONTCARE set of cubes.  Can be {@code null}.
+     * @param executor Runs prime generation, one task per subscriber.
+     */
+    public PrimePublisher(int nVars, Set<BooleanCube> onCubes, Set<BooleanCube> dcCubes, Executor executor) {
+        this.nVars = nVars;
+        this.cubes = new HashSet<>(onCubes);
+        if (dcCubes != null) {
+            this.cubes.addAll(dcCubes);
+        }
+        this.executor = executor;
+    }
+
+    /** Publisher running each prime generation in a new daemon thread. */
+    public PrimePublisher(int nVars, Set<BooleanCube> onCubes, Set<BooleanCube> dcCubes) {
+        this(nVars, onCubes, dcCubes, task -> {
+            Thread thread = new Thread(task, "prime-publisher");
+            thread.setDaemon(true);
+            thread.start();
+        });
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super BooleanCube> subscriber) {
+        PrimeSubscription subscription = new PrimeSubscription(subscriber);
+        subscriber.onSubscribe(subscription);
+        executor.execute(subscription::run);
+    }
+
+    /** One run of prime generation, feeding one subscriber. */
+    private class PrimeSubscription implements Flow.Subscription, MinimizationListener {
+
+        private final Flow.Subscriber<? super BooleanCube> subscriber;
+        private final CancellationToken token = new CancellationToken();
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Condition demandAvailable = lock.newCondition();
+        private long demand = 0;
+        private volatile Throwable requestError = null;
+
+        PrimeSubscription(Flow.Subscriber<? super BooleanCube> subscriber) {
+            this.subscriber = subscriber;
+        }
+
+        @Override
+        public void request(long n) {
+            lock.lock();
+            try {
+                if (n <= 0) {
+                    requestError = new IllegalArgumentException("Requested " + n + " primes.");
+                    token.cancel();
+                } else {
+                    demand = demand + n < 0 ? Long.MAX_VALUE : demand + n;
+                }
+                demandAvailable.signal();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        @Override
+        public void cancel() {
+            lock.lock();
+            try {
+                token.cancel();
+                demandAvailable.signal();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        @Override
+        public void primeFound(BooleanCube prime) {
+            lock.lock();
+            try {
+                while (demand == 0 && !token.isCancelled()) {
+                    demandAvailable.awaitUninterruptibly();
+                }
+                token.throwIfCancelled();
+                --demand;
+            } finally {
+                lock.unlock();
+            }
+            subscriber.onNext(prime);
+        }
+
+        void run() {
+            if (token.isCancelled()) {
+                signalEnd();
+                return;
+            }
+            QuineMcCluskeyAlgorithm qm = new QuineMcCluskeyAlgorithm(null, null);
+            qm.setListener(this);
+            qm.setCancellationToken(token);
+            try {
+                qm.findAllPrimes(nVars, cubes);
+            } catch (MinimizationCancelledException e) {
+                // Cancelled by the subscriber, or by a bad request.
+            } catch (Throwable t) {
+                subscriber.onError(t);
+                return;
+            }
+            signalEnd();
+        }
+
+        private void signalEnd() {
+            if (requestError != null) {
+                subscriber.onError(requestError);
+            } else if (!token.isCancelled()) {
+                subscriber.onComplete();
+            }
+        }
+    }
+}
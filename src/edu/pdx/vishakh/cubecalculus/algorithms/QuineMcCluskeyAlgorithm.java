@@ -1,14 +1,20 @@
 package edu.pdx.vishakh.cubecalculus.algorithms;
 
 import edu.pdx.vishakh.cubecalculus.core.BooleanCube;
+import edu.pdx.vishakh.cubecalculus.core.CoverChecker;
 import edu.pdx.vishakh.cubecalculus.core.CubeCalculusException;
 import edu.pdx.vishakh.cubecalculus.core.CubeUtils;
+import edu.pdx.vishakh.cubecalculus.core.FunctionClassifier;
 import edu.pdx.vishakh.cubecalculus.core.Minterm;
 import edu.pdx.vishakh.cubecalculus.core.SetUtils;
 import edu.pdx.vishakh.cubecalculus.core.TestUtils;
+import edu.pdx.vishakh.cubecalculus.core.TruthTable;
 
 import java.io.PrintStream;
 import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -37,6 +43,14 @@ public class QuineMcCluskeyAlgorithm extends MinimizationAlgorithm<BooleanCube>
     /** Minterms that are not part of any primes in minimizedPrimes.  In the end, this set should be empty. */
     private Set<BooleanCube> remainingMinterms;
 
+    /** Optional table of precomputed minimum covers of small functions. */
+    private ExactCoverDatabase exactCoverDatabase;
+
+    /** Use of the budget of the current minimization.  {@code null} when minimizing without a budget. */
+    private MinimizationBudget.Tracker budgetTracker;
+
+    /** Where to save the state of minimizations with a budget.  {@code null} for none. */
+    private CheckpointWriter checkpointWriter;
 
     public QuineMcCluskeyAlgorithm(PrintStream detailsStream, PrintStream debugStream) {
         super(detailsStream, debugStream);
@@ -76,6 +90,221 @@ public class QuineMcCluskeyAlgorithm extends MinimizationAlgorithm<BooleanCube>
 
     }
 
+    /**
+     * Sets a database of precomputed minimum covers.  Completely specified functions small enough to be in it are
+     * looked up instead of minimized.
+     */
+    public void setExactCoverDatabase(ExactCoverDatabase exactCoverDatabase) {
+        this.exactCoverDatabase = exactCoverDatabase;
+    }
+
+    /**
+     * Minimizes within a budget.  When the budget runs out the algorithm stops where it is and completes the cover
+     * greedily: from the implicants merged so far if primes were still being generated, or from the remaining chart
+     * otherwise.  Without running out, the cyclic core of the chart is solved exactly by {@link CoveringSearch}
+     * instead of picking primes at random, so the result is a minimum cover.  With a {@link CheckpointWriter} set, the
+     * state is saved at its intervals, and the minimization can be continued from the file with {@link #resume}.
+     * @param nVars Number of variables.
+     * @param onCubes The ON set of cubes.
+     * @param offCubes The OFF sets of cubes.  Can be {@code null}.
+     * @param dcCubes The DONTCARE sets of cubes.  Can be {@code null}.
+     * @param statsCollector Can be {@code null}.
+     * @param budget Limits on the work done.
+     * @return The best cover found and how good it is known to be.
+     */
+    public MinimizationResult minimize(int nVars,
+                                       Set<BooleanCube> onCubes,
+                                       Set<BooleanCube> offCubes,
+                                       Set<BooleanCube> dcCubes,
+                                       StatsCollector statsCollector,
+                                       MinimizationBudget budget) {
+        setUp(nVars, onCubes, offCubes, dcCubes, statsCollector);
+        budgetTracker = budget.start();
+        try {
+            initialize();
+            if (exactCoverDatabase != null && this.dcCubes.isEmpty() && nVars <= exactCoverDatabase.getMaxVars()) {
+                Set<BooleanCube> cover = exactCoverDatabase.lookup(nVars, this.onCubes);
+                if (cover != null) {
+                    return verified(new MinimizationResult(cover, true, cost(cover),
+                            MinimizationResult.Phase.COMPLETE), onCubes, offCubes, dcCubes);
+                }
+            }
+
+            enterComputePhase();
+            Set<BooleanCube> mintermsForFindingAllPrimes = new HashSet<>(this.onCubes);
+            mintermsForFindingAllPrimes.addAll(this.dcCubes);
+            return verified(solve(findAllPrimes(nVars, mintermsForFindingAllPrimes)), onCubes, offCubes, dcCubes);
+        } finally {
+            budgetTracker = null;
+            exitComputePhase();
+        }
+    }
+
+    /**
+     * Continues a minimization from a checkpoint taken by {@link #minimize(int, Set, Set, Set, StatsCollector,
+     * MinimizationBudget)} or by an earlier resume.  The budget starts afresh.
+     * @param checkpoint The saved state.
+     * @param statsCollector Can be {@code null}.
+     * @param budget Limits on the work done from now on.
+     * @return The best cover found and how good it is known to be.
+     */
+    public MinimizationResult resume(MinimizationCheckpoint checkpoint, StatsCollector statsCollector,
+                                     MinimizationBudget budget) {
+        setUp(checkpoint.getNumberOfVariables(), new HashSet<>(checkpoint.getOnCubes()), null,
+                new HashSet<>(checkpoint.getDcCubes()), statsCollector);
+        budgetTracker = budget.start();
+        try {
+            initialize();
+            enterComputePhase();
+            if (checkpoint.getPhase() == MinimizationCheckpoint.Phase.PRIME_GENERATION) {
+                Map<Integer, Set<BooleanCube>> currentMap = new HashMap<>();
+                for (BooleanCube cube : checkpoint.getLevelCubes()) {
+                    SetUtils.addToSetInMap(cube.width(), cube, currentMap);
+                }
+                return verified(solve(findAllPrimes(nVars, currentMap, new HashSet<>(checkpoint.getPrimes()),
+                        checkpoint.getLevel())), checkpoint.getOnCubes(), null, checkpoint.getDcCubes());
+            }
+            Set<BooleanCube> cover = new HashSet<>(checkpoint.getSelectedPrimes());
+            CoveringSearch search = createCoveringSearch(checkpoint.getCorePrimes(), checkpoint.getCoreMinterms());
+            search.restore(checkpoint.getIncumbentRows(), checkpoint.getFrontier());
+            return verified(searchCore(cover, checkpoint.getCorePrimes(), checkpoint.getCoreMinterms(), search,
+                    MinimizationResult.Phase.COVER_SEARCH), checkpoint.getOnCubes(), null, checkpoint.getDcCubes());
+        } finally {
+            budgetTracker = null;
+            exitComputePhase();
+        }
+    }
+
+    /**
+     * Sets where to save the state of minimizations with a budget, so that they can be resumed with {@link #resume}.
+     * Checkpoints are taken between levels of prime generation and between nodes of the cover search.
+     * @param checkpointWriter Can be {@code null} for no checkpoints.
+     */
+    public void setCheckpointWriter(CheckpointWriter checkpointWriter) {
+        this.checkpointWriter = checkpointWriter;
+    }
+
+    @Override
+    protected void verifyResult(Set<BooleanCube> cover, Set<BooleanCube> onCubes, Set<BooleanCube> offCubes,
+                                Set<BooleanCube> dcCubes) {
+        new CoverChecker(nVars).verify(cover, onCubes, offCubes, dcCubes);
+    }
+
+    /** Returns {@code result}, after checking it if results are verified. */
+    private MinimizationResult verified(MinimizationResult result, Collection<BooleanCube> onCubes,
+                                        Collection<BooleanCube> offCubes, Collection<BooleanCube> dcCubes) {
+        if (verifyResults) {
+            new CoverChecker(nVars).verify(result.getCover(), onCubes, offCubes, dcCubes);
+        }
+        return result;
+    }
+
+    /** Selects a cover from the implicants found by {@link #findAllPrimes}, within the budget. */
+    private MinimizationResult solve(Set<BooleanCube> implicants) {
+        if (budgetTracker.isExhausted()) {
+            // Not all of the implicants are prime, so no bound on the cost is known.
+            CoveringSearch search = createCoveringSearch(implicants, this.onCubes);
+            Set<BooleanCube> cover = selectRows(implicants, search.greedyCover());
+            return new MinimizationResult(cover, false, 0, MinimizationResult.Phase.PRIME_GENERATION);
+        }
+
+        if (isUnateWithoutDontCares()) {
+            return new MinimizationResult(implicants, true, cost(implicants), MinimizationResult.Phase.COMPLETE);
+        }
+
+        // Essential primes and dominance keep a minimum cover in the chart, and leave the cyclic core.
+        Set<BooleanCube> cover = findMinimizedCover(implicants, this.onCubes);
+        MinimizationResult.Phase phase = budgetTracker.isExhausted()
+                ? MinimizationResult.Phase.CHART_REDUCTION : MinimizationResult.Phase.COVER_SEARCH;
+        List<BooleanCube> corePrimes = new ArrayList<>(remainingPrimes);
+        List<BooleanCube> coreMinterms = new ArrayList<>(remainingMinterms);
+        return searchCore(cover, corePrimes, coreMinterms, createCoveringSearch(corePrimes, coreMinterms), phase);
+    }
+
+    /** Completes {@code cover} with a cover of the cyclic core, searched for in the COVER_SEARCH phase. */
+    private MinimizationResult searchCore(Set<BooleanCube> cover, List<BooleanCube> corePrimes,
+                                          List<BooleanCube> coreMinterms, CoveringSearch search,
+                                          MinimizationResult.Phase phase) {
+        int reducedCost = cost(cover);
+        search.setListener(listener);
+        search.setCancellationToken(cancellationToken);
+        if (checkpointWriter != null) {
+            search.setCheckpointWriter(checkpointWriter, () -> MinimizationCheckpoint.ofCoverSearch(nVars,
+                    onCubes, dcCubes, cover, corePrimes, coreMinterms, search.getBestRows(), search.getFrontier()));
+        }
+        boolean complete;
+        if (phase == MinimizationResult.Phase.COVER_SEARCH) {
+            complete = search.search(budgetTracker);
+        } else {
+            search.greedyCover();
+            complete = false;
+        }
+        cover.addAll(selectRows(corePrimes, search.getBestRows()));
+        if (complete) {
+            phase = MinimizationResult.Phase.COMPLETE;
+        }
+        return new MinimizationResult(cover, complete, reducedCost + search.getLowerBound(), phase);
+    }
+
+    /** Chart with a row per cube and a column per minterm. */
+    private CoveringSearch createCoveringSearch(Collection<BooleanCube> cubes, Collection<BooleanCube> minterms) {
+        Map<BooleanCube, Integer> columnOf = new HashMap<>();
+        for (BooleanCube m : minterms) {
+            columnOf.put(m, columnOf.size());
+        }
+        List<BitSet> rows = new ArrayList<>();
+        int[] costs = new int[cubes.size()];
+        for (BooleanCube cube : cubes) {
+            BitSet row = new BitSet();
+            for (BooleanCube m : CubeUtils.getMinterms(cube)) {
+                Integer column = columnOf.get(m);
+                if (column != null) {
+                    row.set(column);
+                }
+            }
+            costs[rows.size()] = cube.cost();
+            rows.add(row);
+        }
+        return new CoveringSearch(minterms.size(), rows, costs);
+    }
+
+    private static Set<BooleanCube> selectRows(Collection<BooleanCube> cubes, int[] rows) {
+        List<BooleanCube> list = new ArrayList<>(cubes);
+        Set<BooleanCube> selected = new HashSet<>();
+        for (int r : rows) {
+            selected.add(list.get(r));
+        }
+        return selected;
+    }
+
+    private static int cost(Set<BooleanCube> cubes) {
+        int cost = 0;
+        for (BooleanCube c : cubes) {
+            cost += c.cost();
+        }
+        return cost;
+    }
+
+    /**
+     * True if the function has no DONTCARE minterms and is unate, so that all of its primes are essential and form its
+     * only minimum cover.  Records the kind of completely specified functions in the stats.
+     */
+    private boolean isUnateWithoutDontCares() {
+        if (!dcCubes.isEmpty() || nVars > TruthTable.MAX_VARS) {
+            return false;
+        }
+        FunctionClassifier classifier = new FunctionClassifier(TruthTable.fromCubes(nVars, onCubes));
+        if (statsCollector != null) {
+            statsCollector.setFunctionType(classifier.getFunctionType());
+        }
+        return classifier.isUnate();
+    }
+
+    /** True if minimizing under a budget that has run out. */
+    private boolean isOutOfBudget() {
+        return budgetTracker != null && budgetTracker.isExhausted();
+    }
+
     @Override
     public String getName() {
         return "Quine-McCluskey Algorithm";
@@ -89,24 +318,76 @@ public class QuineMcCluskeyAlgorithm extends MinimizationAlgorithm<BooleanCube>
     @Override
     public Set<BooleanCube> doMinimize(boolean stopAtCyclic) {
 
+        if (exactCoverDatabase != null && dcCubes.isEmpty() && nVars <= exactCoverDatabase.getMaxVars()) {
+            Set<BooleanCube> cover = exactCoverDatabase.lookup(nVars, onCubes);
+            if (cover != null) {
+                printDetailedMessage("Cover found in " + exactCoverDatabase);
+                return cover;
+            }
+        }
+
         // For finding all primes, we use ON and DC minterms.
         Set<BooleanCube> mintermsForFindingAllPrimes = new HashSet<>(onCubes);
         mintermsForFindingAllPrimes.addAll(dcCubes);
 
-        Set<BooleanCube> allPrimes = findAllPrimes(nVars, mintermsForFindingAllPrimes);
+        Set<BooleanCube> allPrimes;
+        enterComputePhase();
+        try {
+            allPrimes = findAllPrimes(nVars, mintermsForFindingAllPrimes);
+        } finally {
+            exitComputePhase();
+        }
 
         if (detailsPrintStream != null) {
             TestUtils.printCubes(detailsPrintStream, allPrimes, "All primes");
         }
 
+        if (isUnateWithoutDontCares()) {
+            printDetailedMessage("Unate function: all primes are essential");
+            return allPrimes;
+        }
+
+        enterComputePhase();
+        try {
+            return findMinimizedCover(allPrimes, onCubes);
+        } finally {
+            exitComputePhase();
+        }
+    }
+
+    /**
+     * Selects a cover of {@code minterms} from {@code primes}, by the same chart reduction that {@link #minimize}
+     * uses.  Lets callers that maintain their own primes, such as {@link IncrementalMinimizationSession}, solve just a
+     * part of a chart.  Neither set is modified.
+     * @param nVars Number of variables.
+     * @param primes Primes of the function (rows of the chart).
+     * @param minterms ON minterms to cover (columns of the chart).
+     * @return The selected primes.
+     */
+    public Set<BooleanCube> findMinimizedCover(int nVars, Set<BooleanCube> primes, Set<BooleanCube> minterms) {
+        this.nVars = nVars;
+        this.statsCollector = null;
+        enterComputePhase();
+        try {
+            return findMinimizedCover(new HashSet<>(primes), minterms);
+        } finally {
+            exitComputePhase();
+        }
+    }
+
+    /** Builds the prime implicant chart for {@code minterms} and selects a cover from {@code allPrimes}. */
+    private Set<BooleanCube> findMinimizedCover(Set<BooleanCube> allPrimes, Set<BooleanCube> minterms) {
         // Use only ON cubes for prime implicant chart.
-        remainingMinterms = new HashSet(onCubes);
+        remainingMinterms = new HashSet<>(minterms);
 
         // ... but use ON and DC for primes.
         remainingPrimes = allPrimes;
 
         // Prepare the maps equivalent to the SPC table.
         prepareMaps(remainingPrimes, remainingMinterms);
+        if (listener != null) {
+            listener.chartBuilt(remainingPrimes.size(), remainingMinterms.size());
+        }
 
         minimizedPrimes = new HashSet<>();
 
@@ -124,6 +405,11 @@ public class QuineMcCluskeyAlgorithm extends MinimizationAlgorithm<BooleanCube>
         boolean done = false;
         while (!done) {
             done = true;
+            computeYieldPoint();
+            checkCancelled();
+            if (isOutOfBudget()) {
+                break;
+            }
 
             // We apply dominance relation theorem and extraction of essential primes repeatedly.
             boolean rowDominance = false;
@@ -147,10 +433,19 @@ public class QuineMcCluskeyAlgorithm extends MinimizationAlgorithm<BooleanCube>
                     statsCollector.setCyclic(true);
                 }
 
+                // Under a budget the caller searches the cyclic core instead.
+                if (budgetTracker != null) {
+                    break;
+                }
+
                 // Add one of the remaining primes into final cover.
                 BooleanCube randomPrime = remainingPrimes.iterator().next();
 
                 promoteToMinimized(randomPrime);
+                if (listener != null) {
+                    listener.reductionApplied(MinimizationListener.Reduction.CYCLIC_CHOICE, 1,
+                            remainingMinterms.size());
+                }
                 printIntermediateResults( "After picking a random prime $" + randomPrime.toNumericString() + "$");
 
                 if (extractEssentialPrimes()) {
@@ -167,13 +462,19 @@ public class QuineMcCluskeyAlgorithm extends MinimizationAlgorithm<BooleanCube>
 
     /**
      * Prepares the maps (one for rows and another for columns) for the SPC table.
-     * These maps get modified as the algorithm proceeds.
+     * These maps get modified as the algorithm proceeds.  The maps of a previous run are cleared and reused, so that
+     * an instance minimizing many functions in a row does not grow its tables again for each of them.
      * @param primes Primes (rows in the table)
      * @param minterms Minterms (Columns in the table)
      */
     private void prepareMaps(Set<BooleanCube> primes, Set<BooleanCube> minterms) {
-        mintermToPrimeMap = new HashMap<>();
-        primeToMintermMap = new HashMap<>();
+        if (mintermToPrimeMap == null) {
+            mintermToPrimeMap = new HashMap<>();
+            primeToMintermMap = new HashMap<>();
+        } else {
+            mintermToPrimeMap.clear();
+            primeToMintermMap.clear();
+        }
         for (BooleanCube minterm : minterms) {
             for (BooleanCube prime : primes) {
                 if (prime.includes(minterm)) {
@@ -202,8 +503,19 @@ public class QuineMcCluskeyAlgorithm extends MinimizationAlgorithm<BooleanCube>
             SetUtils.addToSetInMap(cube.width(), cube, currentMap);
         }
 
-        // Holds the prime cubes.
-        Set<BooleanCube> primeSet = new HashSet<>();
+        return findAllPrimes(nVars, currentMap, new HashSet<>(), 0);
+    }
+
+    /**
+     * Finds all primes, starting at a given level.
+     * @param nVars Number of variables.
+     * @param currentMap Cubes of the level, by width.
+     * @param primeSet Primes found in the earlier levels.  Primes found are added to it.
+     * @param order Number of the level.
+     * @return Set of all primes.
+     */
+    private Set<BooleanCube> findAllPrimes(int nVars, Map<Integer, Set<BooleanCube>> currentMap,
+                                           Set<BooleanCube> primeSet, int order) {
 
         // The last set of cubes in the upper level, to be handled in the end.
         Set<BooleanCube> lastUpper = null;
@@ -215,10 +527,15 @@ public class QuineMcCluskeyAlgorithm extends MinimizationAlgorithm<BooleanCube>
         boolean done = false;
 
 
-        int order = 0;
         while (!done) {
             done = true;
 
+            // Save the state at the start of the level when a checkpoint is due.
+            if (checkpointWriter != null && budgetTracker != null && checkpointWriter.isDue()) {
+                checkpointWriter.submit(MinimizationCheckpoint.ofPrimeGeneration(nVars, onCubes, dcCubes, order,
+                        implicantsSoFar(Collections.emptySet(), currentMap), primeSet));
+            }
+
             // The lower cubes in a pair of adjacent sets.
             Set<BooleanCube> lower;
 
@@ -231,6 +548,11 @@ public class QuineMcCluskeyAlgorithm extends MinimizationAlgorithm<BooleanCube>
 
             int width = 0;
             while (width < nVars) {
+                computeYieldPoint();
+                checkCancelled();
+                if (isOutOfBudget()) {
+                    return implicantsSoFar(primeSet, currentMap);
+                }
                 if (debugPrintStream != null) {
                     debugPrintStream.println("Width " + order);
                 }
@@ -246,7 +568,7 @@ public class QuineMcCluskeyAlgorithm extends MinimizationAlgorithm<BooleanCube>
                 if (upper == null) {
                     for (BooleanCube c : lower) {
                         if (!removedSet.contains(c)) {
-                            primeSet.add(c);
+                            addPrime(primeSet, c);
                             removedSet.add(c);
                         }
                     }
@@ -256,11 +578,15 @@ public class QuineMcCluskeyAlgorithm extends MinimizationAlgorithm<BooleanCube>
                 }
 
                 // Neither lower nor upper is null.  Check whether any of them can be merged.
+                merging:
                 for (BooleanCube lowerCube : lower) {
                     for (BooleanCube upperCube : upper) {
 
                         // Check whether lowerCube and upperCube are adjacent.
                         if (lowerCube.isAdjacentTo(upperCube)) {
+                            if (budgetTracker != null && !budgetTracker.chargeMerge()) {
+                                break merging;
+                            }
 
                             // Merge if possible.
                             if (statsCollector != null) {
@@ -286,12 +612,15 @@ public class QuineMcCluskeyAlgorithm extends MinimizationAlgorithm<BooleanCube>
                         }
                     }
                 }
+                if (isOutOfBudget()) {
+                    return implicantsSoFar(primeSet, currentMap);
+                }
 
                 // All the cubes in the lower set that are not merged are prime cubes.
                 // Add them to the prime set.
                 for (BooleanCube c : lower) {
                     if (!removedSet.contains(c)) {
-                        primeSet.add(c);
+                        addPrime(primeSet, c);
                         removedSet.add(c);
                     }
                 }
@@ -304,7 +633,7 @@ public class QuineMcCluskeyAlgorithm extends MinimizationAlgorithm<BooleanCube>
             if (lastUpper != null) {
                 for (BooleanCube c : lastUpper) {
                     if (!removedSet.contains(c)) {
-                        primeSet.add(c);
+                        addPrime(primeSet, c);
                         removedSet.add(c);
                     }
                 }
@@ -312,6 +641,13 @@ public class QuineMcCluskeyAlgorithm extends MinimizationAlgorithm<BooleanCube>
             printFindAllPrimesStepTableHeader(detailsPrintStream);
             printStep(detailsPrintStream, nVars, primeSet, currentMap);
             printFindAllPrimesStepTableFooter(detailsPrintStream, ++order);
+            if (listener != null) {
+                int nCubes = 0;
+                for (Set<BooleanCube> level : currentMap.values()) {
+                    nCubes += level.size();
+                }
+                listener.levelCompleted(order - 1, nCubes, primeSet.size());
+            }
 
             currentMap = nextMap;
         }
@@ -320,6 +656,27 @@ public class QuineMcCluskeyAlgorithm extends MinimizationAlgorithm<BooleanCube>
         return primeSet;
     }
 
+    /** Adds a new prime, and tells the listener about it. */
+    private void addPrime(Set<BooleanCube> primeSet, BooleanCube prime) {
+        primeSet.add(prime);
+        if (listener != null) {
+            listener.primeFound(prime);
+        }
+    }
+
+    /**
+     * The primes found so far and all cubes of the current level.  Every cube of the previous level is one of the
+     * primes or was merged into the current level, so these implicants cover all the input cubes.
+     */
+    private static Set<BooleanCube> implicantsSoFar(Set<BooleanCube> primeSet,
+                                                    Map<Integer, Set<BooleanCube>> currentMap) {
+        Set<BooleanCube> implicants = new HashSet<>(primeSet);
+        for (Set<BooleanCube> cubes : currentMap.values()) {
+            implicants.addAll(cubes);
+        }
+        return implicants;
+    }
+
 
     /**
      * Extracts essential primes from remaining primes and minterms, and promotes them.
@@ -342,6 +699,10 @@ public class QuineMcCluskeyAlgorithm extends MinimizationAlgorithm<BooleanCube>
         }
 
 
+        if (listener != null && !essentialPrimes.isEmpty()) {
+            listener.reductionApplied(MinimizationListener.Reduction.ESSENTIAL_PRIMES, essentialPrimes.size(),
+                    remainingMinterms.size());
+        }
         return !essentialPrimes.isEmpty();
     }
 
@@ -422,7 +783,13 @@ public class QuineMcCluskeyAlgorithm extends MinimizationAlgorithm<BooleanCube>
 
         boolean firstRow = true;
 
+        int nDominated = 0;
         for (int i = 0; i < primeList.size(); ++i) {
+            computeYieldPoint();
+            checkCancelled();
+            if (isOutOfBudget()) {
+                break;
+            }
 
             // Identify a prime and its minterms.
             BooleanCube prime1 = primeList.get(i);
@@ -508,6 +875,7 @@ public class QuineMcCluskeyAlgorithm extends MinimizationAlgorithm<BooleanCube>
                         printDominanceRow(detailsPrintStream, dominatingPrime, dominatingMinterms, dominatedPrime, dominatedMinterms);
                     }
                     removeRedundantPrime(dominatedPrime);
+                    ++nDominated;
                     done = false;
                 }
 
@@ -517,6 +885,11 @@ public class QuineMcCluskeyAlgorithm extends MinimizationAlgorithm<BooleanCube>
             printDominanceTableFooter(detailsPrintStream, "Row dominance table");
         }
 
+        if (listener != null && nDominated > 0) {
+            listener.reductionApplied(MinimizationListener.Reduction.ROW_DOMINANCE, nDominated,
+                    remainingMinterms.size());
+        }
+
         if (remainingPrimes.isEmpty()) {
             done = true;
         }
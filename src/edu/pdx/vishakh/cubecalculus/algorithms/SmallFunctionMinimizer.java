@@ -0,0 +1,226 @@
+package edu.pdx.vishakh.cubecalculus.algorithms;
+
+import edu.pdx.vishakh.cubecalculus.core.BooleanCube;
+import edu.pdx.vishakh.cubecalculus.core.CubeCalculusException;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Exact minimization of functions of at most 6 variables, whose ON and DONTCARE sets fit in one {@code long} each
+ * (bit {@code m} for minterm {@code m}, as in {@link edu.pdx.vishakh.cubecalculus.core.TruthTable}).
+ *
+ * All primes are found by checking every one of the {@code 3^n} cubes, and the cover is chosen by an exhaustive
+ * branch and bound.  The result has the least total number of literals (the cost used everywhere in this library),
+ * and among those the least number of cubes.
+ *
+ * Cubes are returned as codes with the same layout as {@link BooleanCube}: bit {@code 2i} set if variable {@code i}
+ * may be 0, bit {@code 2i + 1} set if it may be 1.
+ */
+public class SmallFunctionMinimizer {
+
+    public static final int MAX_VARS = 6;
+
+    /** Bits of a 64 minterm table whose index has bit p cleared. */
+    private static final long[] LOW_MASKS = {
+            0x5555555555555555L,
+            0x3333333333333333L,
+            0x0F0F0F0F0F0F0F0FL,
+            0x00FF00FF00FF00FFL,
+            0x0000FFFF0000FFFFL,
+            0x00000000FFFFFFFFL,
+    };
+
+    private SmallFunctionMinimizer() {
+    }
+
+    /**
+     * Returns a minimum cost cover of the function.
+     * @param nVars Number of variables, at most {@link #MAX_VARS}.
+     * @param on ON minterms.
+     * @param dc DONTCARE minterms.
+     * @return Cube codes of the cover.
+     */
+    public static long[] minimumCover(int nVars, long on, long dc) {
+        if (nVars < 0 || nVars > MAX_VARS) {
+            throw new CubeCalculusException("Small function minimizer supports up to " + MAX_VARS + " variables.");
+        }
+        long valid = validMask(nVars);
+        on &= valid;
+        dc &= valid & ~on;
+        if (on == 0) {
+            return new long[0];
+        }
+
+        List<long[]> primes = findPrimes(nVars, on | dc);
+
+        // Keep only the primes that cover some ON minterm; a prime is {code, mask, cost}.
+        List<long[]> useful = new ArrayList<>();
+        for (long[] prime : primes) {
+            if ((prime[1] & on) != 0) {
+                useful.add(prime);
+            }
+        }
+        Search search = new Search(useful);
+        search.branch(on, 0, 0, new int[Long.bitCount(on)]);
+
+        long[] cover = new long[search.bestCount];
+        for (int i = 0; i < search.bestCount; ++i) {
+            cover[i] = useful.get(search.best[i])[0];
+        }
+        return cover;
+    }
+
+    /** Converts a cube code into a BooleanCube. */
+    public static BooleanCube toCube(int nVars, long code) {
+        char[] trits = new char[nVars];
+        for (int i = 0; i < nVars; ++i) {
+            long v = (code >>> (2 * i)) & 3;
+            trits[i] = v == 3 ? '*' : (v == 2 ? '1' : '0');
+        }
+        return BooleanCube.fromString(new String(trits));
+    }
+
+    /** Converts a BooleanCube into a cube code. */
+    public static long toCode(BooleanCube cube) {
+        long code = 0;
+        for (int i = 0; i < cube.getNumberOfVariables(); ++i) {
+            if (!cube.isOnVar(i)) {
+                code |= 1L << (2 * i);
+            }
+            if (!cube.isOffVar(i)) {
+                code |= 1L << (2 * i + 1);
+            }
+        }
+        return code;
+    }
+
+    /** Converts cube codes into BooleanCubes. */
+    public static Set<BooleanCube> toCubes(int nVars, long[] codes) {
+        Set<BooleanCube> cubes = new HashSet<>();
+        for (long code : codes) {
+            cubes.add(toCube(nVars, code));
+        }
+        return cubes;
+    }
+
+    /** Returns the minterms of a cube code. */
+    public static long mintermMask(int nVars, long code) {
+        long mask = validMask(nVars);
+        for (int i = 0; i < nVars; ++i) {
+            int p = nVars - 1 - i;
+            long zeros = p < 6 ? LOW_MASKS[p] : 0;
+            long v = (code >>> (2 * i)) & 3;
+            if (v == 1) {
+                mask &= zeros;
+            } else if (v == 2) {
+                mask &= ~zeros;
+            }
+        }
+        return mask;
+    }
+
+    /** Finds all primes of the function that is 1 on {@code care}.  Each prime is {code, mask, cost}. */
+    private static List<long[]> findPrimes(int nVars, long care) {
+        List<long[]> primes = new ArrayList<>();
+        int nCubes = 1;
+        for (int i = 0; i < nVars; ++i) {
+            nCubes *= 3;
+        }
+        for (int n = 0; n < nCubes; ++n) {
+            // Digit i of n in base 3 is variable i: 0, 1 or don't care.
+            long code = 0;
+            int cost = 0;
+            int rest = n;
+            for (int i = 0; i < nVars; ++i) {
+                int digit = rest % 3;
+                rest /= 3;
+                code |= (long) (digit + 1) << (2 * i);
+                if (digit != 2) {
+                    ++cost;
+                }
+            }
+            long mask = mintermMask(nVars, code);
+            if ((mask & ~care) != 0) {
+                continue;
+            }
+            boolean prime = true;
+            for (int i = 0; i < nVars && prime; ++i) {
+                if (((code >>> (2 * i)) & 3) != 3) {
+                    long raised = code | (3L << (2 * i));
+                    prime = (mintermMask(nVars, raised) & ~care) != 0;
+                }
+            }
+            if (prime) {
+                primes.add(new long[]{code, mask, cost});
+            }
+        }
+        return primes;
+    }
+
+    private static long validMask(int nVars) {
+        return nVars >= 6 ? -1L : (1L << (1 << nVars)) - 1;
+    }
+
+    /** Branch and bound over the primes covering the most constrained uncovered minterm. */
+    private static class Search {
+        private final List<long[]> primes;
+        private int[] best = new int[0];
+        private int bestCount = 0;
+        private long bestCost = Long.MAX_VALUE;
+
+        Search(List<long[]> primes) {
+            this.primes = primes;
+        }
+
+        /** Cost is literals first, then cubes, combined into one number. */
+        void branch(long uncovered, long cost, int depth, int[] chosen) {
+            if (uncovered == 0) {
+                if (cost < bestCost) {
+                    bestCost = cost;
+                    bestCount = depth;
+                    best = chosen.clone();
+                }
+                return;
+            }
+
+            // Pick the uncovered minterm covered by the fewest primes.
+            long bestMinterm = 0;
+            int fewest = Integer.MAX_VALUE;
+            long cheapest = Long.MAX_VALUE;
+            for (long u = uncovered; u != 0; u &= u - 1) {
+                long m = u & -u;
+                int count = 0;
+                long minCost = Long.MAX_VALUE;
+                for (long[] p : primes) {
+                    if ((p[1] & m) != 0) {
+                        ++count;
+                        minCost = Math.min(minCost, weightedCost(p));
+                    }
+                }
+                if (count < fewest) {
+                    fewest = count;
+                    bestMinterm = m;
+                    cheapest = minCost;
+                }
+            }
+            if (cost + cheapest >= bestCost) {
+                return;
+            }
+
+            for (int i = 0; i < primes.size(); ++i) {
+                long[] p = primes.get(i);
+                if ((p[1] & bestMinterm) != 0) {
+                    chosen[depth] = i;
+                    branch(uncovered & ~p[1], cost + weightedCost(p), depth + 1, chosen);
+                }
+            }
+        }
+
+        private static long weightedCost(long[] prime) {
+            return prime[2] * 1024 + 1;
+        }
+    }
+}
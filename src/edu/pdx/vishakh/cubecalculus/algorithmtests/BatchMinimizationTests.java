@@ -0,0 +1,85 @@
+package edu.pdx.vishakh.cubecalculus.algorithmtests;
+
+import edu.pdx.vishakh.cubecalculus.algorithms.BatchMinimizer;
+import edu.pdx.vishakh.cubecalculus.algorithms.BatchResult;
+import edu.pdx.vishakh.cubecalculus.algorithms.MinimizationJob;
+import edu.pdx.vishakh.cubecalculus.core.BooleanCube;
+import edu.pdx.vishakh.cubecalculus.core.CubeUtils;
+import edu.pdx.vishakh.cubecalculus.core.TestUtils;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+public class BatchMinimizationTests {
+
+    private static final MinimizationTestData.MinimizationData[] INPUTS = {
+            MinimizationTestData.brayton1,
+            MinimizationTestData.wikipedia,
+            MinimizationTestData.biswasExample1,
+            MinimizationTestData.perkowskiStaircase,
+            MinimizationTestData.rothExample1,
+            MinimizationTestData.roth2,
+            MinimizationTestData.test1,
+            MinimizationTestData.brown1,
+    };
+
+    private static final MinimizationTestData.ExpectedMinimizedValue[] SOLUTIONS = {
+            MinimizationTestData.brayton1_solution,
+            MinimizationTestData.wikipedia_solution,
+            MinimizationTestData.biswasExample1_solution,
+            MinimizationTestData.perkowskiStaircase_solution,
+            MinimizationTestData.rothExample1_solution,
+            MinimizationTestData.roth2_solution,
+            MinimizationTestData.test1_solution,
+            MinimizationTestData.brown1_solution,
+    };
+
+    public static void main(String[] args) {
+        int nJobs = 20000;
+        for (BatchMinimizer.ExecutionMode mode : BatchMinimizer.ExecutionMode.values()) {
+            for (BatchMinimizer.ResultOrder order : BatchMinimizer.ResultOrder.values()) {
+                try (BatchMinimizer minimizer = BatchMinimizer.createQuineMcCluskeyBatchMinimizer(order, mode)) {
+                    testBatch(minimizer, nJobs);
+                }
+            }
+        }
+    }
+
+    private static void testBatch(BatchMinimizer minimizer, int nJobs) {
+        long start = System.nanoTime();
+        List<BatchResult> results = minimizer.minimizeAll(jobs(nJobs));
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        TestUtils.assertTrue(results.size() == nJobs, minimizer.getResultOrder() + ": number of results");
+
+        boolean inOrder = true;
+        boolean allCorrect = true;
+        for (int i = 0; i < results.size(); ++i) {
+            BatchResult result = results.get(i);
+            inOrder &= result.getSequence() == i;
+            int idx = (int) result.getJob().getTag();
+            allCorrect &= result.isSuccessful()
+                    && CubeUtils.totalCostOfCubes(result.getCover()) == SOLUTIONS[idx].getCost();
+        }
+        if (minimizer.getResultOrder() == BatchMinimizer.ResultOrder.SUBMISSION) {
+            TestUtils.assertTrue(inOrder, "SUBMISSION: results are in submission order");
+        }
+        TestUtils.assertTrue(allCorrect, minimizer.getResultOrder() + ": all results have the expected cost");
+        System.out.printf("%s, %s: %d functions on %d threads in %.2f s (%.0f functions/s)\n",
+                minimizer.getExecutionMode(), minimizer.getResultOrder(), nJobs, minimizer.getNumberOfThreads(),
+                seconds, nJobs / seconds);
+    }
+
+    private static Stream<MinimizationJob> jobs(int nJobs) {
+        return LongStream.range(0, nJobs).mapToObj(i -> {
+            int idx = (int) (i % INPUTS.length);
+            MinimizationTestData.MinimizationData data = INPUTS[idx];
+            Set<BooleanCube> onCubes = CubeUtils.cubeSetFromNumberArray(data.nVars, data.onMinterms);
+            Set<BooleanCube> dcCubes = data.dcMinterms == null ? null
+                    : CubeUtils.cubeSetFromNumberArray(data.nVars, data.dcMinterms);
+            return new MinimizationJob(idx, data.nVars, onCubes, null, dcCubes, false);
+        });
+    }
+}
@@ -0,0 +1,134 @@
+package edu.pdx.vishakh.cubecalculus.algorithmtests;
+
+import edu.pdx.vishakh.cubecalculus.algorithms.MinimizationBudget;
+import edu.pdx.vishakh.cubecalculus.algorithms.MinimizationResult;
+import edu.pdx.vishakh.cubecalculus.algorithms.QuineMcCluskeyAlgorithm;
+import edu.pdx.vishakh.cubecalculus.algorithms.SmallFunctionMinimizer;
+import edu.pdx.vishakh.cubecalculus.core.BooleanCube;
+import edu.pdx.vishakh.cubecalculus.core.CubeUtils;
+import edu.pdx.vishakh.cubecalculus.core.TestUtils;
+import edu.pdx.vishakh.cubecalculus.core.TruthTable;
+
+import java.util.Random;
+import java.util.Set;
+
+public class BudgetedMinimizationTests {
+
+    public static void main(String[] args) {
+        testUnlimited();
+        testAgainstExactMinimizer();
+        testExhaustedBudgets();
+    }
+
+    /** Without limits the result is a proven minimum, with the expected cost. */
+    private static void testUnlimited() {
+        MinimizationTestData.MinimizationData[] data = {
+                MinimizationTestData.perkowskiCyclic,
+                MinimizationTestData.perkowskiBookExample1,
+                MinimizationTestData.perkowskiBookExample2,
+                MinimizationTestData.perkowskiBookExample3,
+                MinimizationTestData.randomTest1,
+        };
+        int[] costs = {12, 26, 40, 39, 12};
+        QuineMcCluskeyAlgorithm qm = new QuineMcCluskeyAlgorithm(null, null);
+        for (int i = 0; i < data.length; ++i) {
+            MinimizationResult result = minimize(qm, data[i], MinimizationBudget.NONE);
+            System.out.println(data[i].shortDescription + ": " + result);
+            TestUtils.assertTrue(result.isProvenOptimal() && result.getPhase() == MinimizationResult.Phase.COMPLETE
+                    && result.getCost() == costs[i] && result.getLowerBound() == costs[i],
+                    data[i].shortDescription + " is solved to a proven minimum");
+        }
+    }
+
+    /** Functions with don't cares must come out at the same cost as the exhaustive small function minimizer. */
+    private static void testAgainstExactMinimizer() {
+        Random random = new Random(32);
+        QuineMcCluskeyAlgorithm qm = new QuineMcCluskeyAlgorithm(null, null);
+        boolean ok = true;
+        for (int trial = 0; trial < 100; ++trial) {
+            int nVars = 3 + random.nextInt(3);
+            long valid = (1L << (1 << nVars)) - 1;
+            long on = random.nextLong() & valid;
+            long dc = random.nextLong() & random.nextLong() & valid & ~on;
+            if (on == 0) {
+                continue;
+            }
+            TruthTable onTable = table(nVars, on);
+            TruthTable dcTable = table(nVars, dc);
+            MinimizationResult result = qm.minimize(nVars, onTable.toMinterms(), null, dcTable.toMinterms(), null,
+                    MinimizationBudget.NONE);
+            int exact = (int) CubeUtils.totalCostOfCubes(SmallFunctionMinimizer.toCubes(nVars,
+                    SmallFunctionMinimizer.minimumCover(nVars, on, dc)));
+            ok &= result.isProvenOptimal() && result.getCost() == exact
+                    && isImplementedBy(nVars, result, onTable, dcTable);
+        }
+        TestUtils.assertTrue(ok, "Budgeted minimization finds minimum covers");
+    }
+
+    /** Exhausted budgets still give valid covers, and report where they stopped. */
+    private static void testExhaustedBudgets() {
+        QuineMcCluskeyAlgorithm qm = new QuineMcCluskeyAlgorithm(null, null);
+
+        MinimizationResult result = minimize(qm, MinimizationTestData.perkowskiBookExample3,
+                new MinimizationBudget(MinimizationBudget.UNLIMITED, 10, MinimizationBudget.UNLIMITED));
+        System.out.println("10 merges: " + result);
+        TestUtils.assertTrue(result.getPhase() == MinimizationResult.Phase.PRIME_GENERATION
+                && !result.isProvenOptimal() && isImplementedBy(MinimizationTestData.perkowskiBookExample3, result),
+                "Merge budget stops prime generation with a valid cover");
+
+        result = minimize(qm, MinimizationTestData.perkowskiCyclic,
+                new MinimizationBudget(MinimizationBudget.UNLIMITED, MinimizationBudget.UNLIMITED, 0));
+        System.out.println("No search nodes: " + result);
+        TestUtils.assertTrue(result.getPhase() == MinimizationResult.Phase.COVER_SEARCH
+                && !result.isProvenOptimal() && result.getLowerBound() <= result.getCost()
+                && isImplementedBy(MinimizationTestData.perkowskiCyclic, result),
+                "Node budget stops the cover search with a valid cover");
+
+        Random random = new Random(33);
+        int nVars = 10;
+        TruthTable on = new TruthTable(nVars);
+        for (long m = 0; m < (1L << nVars); ++m) {
+            if (random.nextInt(3) == 0) {
+                on.set(m);
+            }
+        }
+        long start = System.nanoTime();
+        result = qm.minimize(nVars, on.toMinterms(), null, null, null, MinimizationBudget.ofTime(20));
+        long elapsedMillis = (System.nanoTime() - start) / 1000000;
+        System.out.println("20 ms on 10 variables: " + result + " in " + elapsedMillis + " ms");
+        TestUtils.assertTrue(result.getPhase() != MinimizationResult.Phase.COMPLETE
+                && isImplementedBy(nVars, result, on, new TruthTable(nVars)), "Time budget gives a valid cover");
+    }
+
+    private static MinimizationResult minimize(QuineMcCluskeyAlgorithm qm, MinimizationTestData.MinimizationData data,
+                                               MinimizationBudget budget) {
+        Set<BooleanCube> on = CubeUtils.cubeSetFromNumberArray(data.nVars, data.onMinterms);
+        Set<BooleanCube> dc = data.dcMinterms == null ? null
+                : CubeUtils.cubeSetFromNumberArray(data.nVars, data.dcMinterms);
+        return qm.minimize(data.nVars, on, null, dc, null, budget);
+    }
+
+    private static boolean isImplementedBy(MinimizationTestData.MinimizationData data, MinimizationResult result) {
+        TruthTable on = TruthTable.fromMinterms(data.nVars, data.onMinterms);
+        TruthTable dc = data.dcMinterms == null ? new TruthTable(data.nVars)
+                : TruthTable.fromMinterms(data.nVars, data.dcMinterms);
+        return isImplementedBy(data.nVars, result, on, dc);
+    }
+
+    private static boolean isImplementedBy(int nVars, MinimizationResult result, TruthTable on, TruthTable dc) {
+        TruthTable care = new TruthTable(on);
+        care.or(dc);
+        TruthTable implemented = TruthTable.fromCubes(nVars, result.getCover());
+        return on.isSubsetOf(implemented) && implemented.isSubsetOf(care);
+    }
+
+    private static TruthTable table(int nVars, long bits) {
+        TruthTable t = new TruthTable(nVars);
+        for (long m = 0; m < (1L << nVars); ++m) {
+            if ((bits & (1L << m)) != 0) {
+                t.set(m);
+            }
+        }
+        return t;
+    }
+}
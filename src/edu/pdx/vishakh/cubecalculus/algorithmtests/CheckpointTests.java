@@ -0,0 +1,118 @@
+package edu.pdx.vishakh.cubecalculus.algorithmtests;
+
+import edu.pdx.vishakh.cubecalculus.algorithms.CancellationToken;
+import edu.pdx.vishakh.cubecalculus.algorithms.CheckpointWriter;
+import edu.pdx.vishakh.cubecalculus.algorithms.MinimizationBudget;
+import edu.pdx.vishakh.cubecalculus.algorithms.MinimizationCancelledException;
+import edu.pdx.vishakh.cubecalculus.algorithms.MinimizationCheckpoint;
+import edu.pdx.vishakh.cubecalculus.algorithms.MinimizationListener;
+import edu.pdx.vishakh.cubecalculus.algorithms.MinimizationResult;
+import edu.pdx.vishakh.cubecalculus.algorithms.QuineMcCluskeyAlgorithm;
+import edu.pdx.vishakh.cubecalculus.core.CubeUtils;
+import edu.pdx.vishakh.cubecalculus.core.TestUtils;
+import edu.pdx.vishakh.cubecalculus.core.TruthTable;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.Random;
+
+public class CheckpointTests {
+
+    public static void main(String[] args) throws IOException {
+        Path path = Files.createTempFile("cubecalculus", ".ckpt");
+        try {
+            testResumePrimeGeneration(path);
+            testResumeCoverSearch(path);
+        } finally {
+            Files.deleteIfExists(path);
+        }
+    }
+
+    /** A run killed while generating primes resumes from its last level to the same minimum cost. */
+    private static void testResumePrimeGeneration(Path path) {
+        int nVars = 8;
+        TruthTable on = randomTable(new Random(34), nVars);
+        QuineMcCluskeyAlgorithm qm = new QuineMcCluskeyAlgorithm(null, null);
+        MinimizationResult expected = qm.minimize(nVars, on.toMinterms(), null, null, null, MinimizationBudget.NONE);
+
+        // Stop the run after two levels, as if the JVM was shut down.
+        CancellationToken token = new CancellationToken();
+        qm.setCancellationToken(token);
+        qm.setListener(new MinimizationListener() {
+            @Override
+            public void levelCompleted(int level, int nCubes, int nPrimes) {
+                if (level == 1) {
+                    token.cancel();
+                }
+            }
+        });
+        boolean cancelled = false;
+        try (CheckpointWriter writer = new CheckpointWriter(path, 0)) {
+            qm.setCheckpointWriter(writer);
+            qm.minimize(nVars, on.toMinterms(), null, null, null, MinimizationBudget.NONE);
+        } catch (MinimizationCancelledException e) {
+            cancelled = true;
+        }
+        TestUtils.assertTrue(cancelled, "Run is stopped during prime generation");
+        qm = new QuineMcCluskeyAlgorithm(null, null);
+
+        MinimizationCheckpoint checkpoint = MinimizationCheckpoint.read(path);
+        System.out.println(checkpoint + ", " + checkpoint.getEncodedSize() + " bytes");
+        TestUtils.assertTrue(checkpoint.getPhase() == MinimizationCheckpoint.Phase.PRIME_GENERATION
+                && checkpoint.getLevel() == 2, "Checkpoint holds a later level of prime generation");
+
+        MinimizationResult resumed = qm.resume(checkpoint, null, MinimizationBudget.NONE);
+        System.out.println("Resumed: " + resumed + ", expected: " + expected);
+        TestUtils.assertTrue(resumed.isProvenOptimal() && resumed.getCost() == expected.getCost()
+                && isImplementedBy(nVars, resumed, on), "Resumed prime generation gives a minimum cover");
+    }
+
+    /** A run stopped while searching the cyclic core resumes from its open nodes to the same minimum cost. */
+    private static void testResumeCoverSearch(Path path) {
+        int nVars = 9;
+        TruthTable on = randomTable(new Random(35), nVars);
+        QuineMcCluskeyAlgorithm qm = new QuineMcCluskeyAlgorithm(null, null);
+        MinimizationResult expected = qm.minimize(nVars, on.toMinterms(), null, null, null, MinimizationBudget.NONE);
+
+        try (CheckpointWriter writer = new CheckpointWriter(path, 0)) {
+            qm.setCheckpointWriter(writer);
+            MinimizationResult stopped = qm.minimize(nVars, on.toMinterms(), null, null, null,
+                    new MinimizationBudget(MinimizationBudget.UNLIMITED, MinimizationBudget.UNLIMITED, 20));
+            TestUtils.assertTrue(stopped.getPhase() == MinimizationResult.Phase.COVER_SEARCH,
+                    "Node budget stops the cover search");
+        }
+        qm.setCheckpointWriter(null);
+
+        MinimizationCheckpoint checkpoint = MinimizationCheckpoint.read(path);
+        System.out.println(checkpoint + ", " + checkpoint.getEncodedSize() + " bytes");
+        TestUtils.assertTrue(checkpoint.getPhase() == MinimizationCheckpoint.Phase.COVER_SEARCH,
+                "Checkpoint holds the cover search");
+
+        MinimizationResult resumed = qm.resume(checkpoint, null, MinimizationBudget.NONE);
+        System.out.println("Resumed: " + resumed + ", expected: " + expected);
+        TestUtils.assertTrue(resumed.isProvenOptimal() && resumed.getCost() == expected.getCost()
+                && isImplementedBy(nVars, resumed, on), "Resumed cover search gives a minimum cover");
+
+        MinimizationCheckpoint decoded = MinimizationCheckpoint.decode(checkpoint.encode());
+        TestUtils.assertTrue(new HashSet<>(decoded.getOnCubes()).equals(on.toMinterms())
+                && decoded.getEncodedSize() == checkpoint.getEncodedSize()
+                && CubeUtils.totalCostOfCubes(qm.resume(decoded, null, MinimizationBudget.NONE).getCover())
+                == expected.getCost(), "Checkpoints survive encoding");
+    }
+
+    private static boolean isImplementedBy(int nVars, MinimizationResult result, TruthTable on) {
+        return TruthTable.fromCubes(nVars, result.getCover()).equals(on);
+    }
+
+    private static TruthTable randomTable(Random random, int nVars) {
+        TruthTable t = new TruthTable(nVars);
+        for (long m = 0; m < (1L << nVars); ++m) {
+            if (random.nextInt(3) == 0) {
+                t.set(m);
+            }
+        }
+        return t;
+    }
+}
@@ -0,0 +1,112 @@
+package edu.pdx.vishakh.cubecalculus.algorithmtests;
+
+import edu.pdx.vishakh.cubecalculus.algorithms.ExactCoverDatabase;
+import edu.pdx.vishakh.cubecalculus.algorithms.QuineMcCluskeyAlgorithm;
+import edu.pdx.vishakh.cubecalculus.algorithms.SmallFunctionMinimizer;
+import edu.pdx.vishakh.cubecalculus.core.BooleanCube;
+import edu.pdx.vishakh.cubecalculus.core.TestUtils;
+import edu.pdx.vishakh.cubecalculus.core.TruthTable;
+import edu.pdx.vishakh.cubecalculus.tools.ExactCoverDatabaseGenerator;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.Set;
+
+public class ExactCoverDatabaseTests {
+
+    public static void main(String[] args) throws IOException {
+        Path path = Files.createTempFile("exact-covers", ".db");
+        try {
+            new ExactCoverDatabaseGenerator(4).generate(path);
+            ExactCoverDatabase db = new ExactCoverDatabase(path);
+            testClassCounts(db);
+            testLookups(db);
+            testFiveVariables(path);
+        } finally {
+            Files.deleteIfExists(path);
+        }
+    }
+
+    /** The number of NPN classes of completely specified functions is known for small n. */
+    private static void testClassCounts(ExactCoverDatabase db) {
+        TestUtils.assertTrue(db.getMaxVars() == 4, "Database has functions of up to 4 variables");
+        TestUtils.assertTrue(db.getNumberOfClasses(1) == 2 && db.getNumberOfClasses(2) == 4
+                && db.getNumberOfClasses(3) == 14 && db.getNumberOfClasses(4) == 222, "NPN class counts 2, 4, 14, 222");
+    }
+
+    /** Every looked up cover must implement the function at the cost of a direct exact minimization. */
+    private static void testLookups(ExactCoverDatabase db) {
+        Random random = new Random(7);
+        QuineMcCluskeyAlgorithm qm = new QuineMcCluskeyAlgorithm(null, null);
+        qm.setExactCoverDatabase(db);
+        boolean correct = true;
+        boolean minimum = true;
+        boolean fastPath = true;
+        for (int trial = 0; trial < 500; ++trial) {
+            int nVars = 1 + random.nextInt(4);
+            long f = random.nextLong() & ((1L << (1 << nVars)) - 1);
+            if (f == 0) {
+                continue;
+            }
+            TruthTable table = new TruthTable(nVars);
+            for (long m = 0; m < (1L << nVars); ++m) {
+                if ((f & (1L << m)) != 0) {
+                    table.set(m);
+                }
+            }
+            Set<BooleanCube> on = table.toMinterms();
+            Set<BooleanCube> cover = db.lookup(nVars, on);
+            correct &= TruthTable.fromCubes(nVars, cover).equals(table);
+            minimum &= cost(cover) == cost(SmallFunctionMinimizer.toCubes(nVars,
+                    SmallFunctionMinimizer.minimumCover(nVars, f, 0)));
+            fastPath &= cover.equals(qm.minimize(nVars, on, null, null, null, false));
+        }
+        TestUtils.assertTrue(correct, "Covers from the database implement the functions");
+        TestUtils.assertTrue(minimum, "Covers from the database have minimum cost");
+        TestUtils.assertTrue(fastPath, "Quine-McCluskey uses the database for completely specified functions");
+    }
+
+    /**
+     * A database whose 5 variable classes are those of a few random functions, looked up through the functions with
+     * their inputs rotated, which are in the same classes.
+     */
+    private static void testFiveVariables(Path path) throws IOException {
+        Random random = new Random(30);
+        long[] functions = new long[20];
+        for (int i = 0; i < functions.length; ++i) {
+            functions[i] = random.nextLong() & 0xFFFFFFFFL;
+        }
+        ExactCoverDatabaseGenerator.Report report = new ExactCoverDatabaseGenerator(5).generate(path, functions);
+        ExactCoverDatabase db = new ExactCoverDatabase(path);
+        boolean correct = report.getNumberOfClasses(4) == 222 && db.getNumberOfClasses(4) == 222
+                && db.getNumberOfClasses(5) == report.getNumberOfClasses(5) && db.getNumberOfClasses(5) > 0
+                && db.getNumberOfClasses(5) <= functions.length;
+        boolean minimum = true;
+        for (long f : functions) {
+            TruthTable table = new TruthTable(5);
+            for (long m = 0; m < 32; ++m) {
+                // Input i of the rotated function is input i + 1 of f.
+                long rotated = ((m << 1) | (m >>> 4)) & 31;
+                if ((f & (1L << rotated)) != 0) {
+                    table.set(m);
+                }
+            }
+            Set<BooleanCube> cover = db.lookup(5, table.toMinterms());
+            correct &= TruthTable.fromCubes(5, cover).equals(table);
+            minimum &= cost(cover) == cost(SmallFunctionMinimizer.toCubes(5,
+                    SmallFunctionMinimizer.minimumCover(5, f, 0)));
+        }
+        TestUtils.assertTrue(correct, "5 variable covers from the database implement the functions");
+        TestUtils.assertTrue(minimum, "5 variable covers from the database have minimum cost");
+    }
+
+    private static int cost(Set<BooleanCube> cover) {
+        int cost = 0;
+        for (BooleanCube c : cover) {
+            cost += c.cost();
+        }
+        return cost;
+    }
+}
@@ -0,0 +1,116 @@
+package edu.pdx.vishakh.cubecalculus.algorithmtests;
+
+import edu.pdx.vishakh.cubecalculus.algorithms.QuineMcCluskeyAlgorithm;
+import edu.pdx.vishakh.cubecalculus.algorithms.SmallFunctionMinimizer;
+import edu.pdx.vishakh.cubecalculus.algorithms.StatsCollector;
+import edu.pdx.vishakh.cubecalculus.core.BooleanCube;
+import edu.pdx.vishakh.cubecalculus.core.CubeUtils;
+import edu.pdx.vishakh.cubecalculus.core.FunctionClassifier;
+import edu.pdx.vishakh.cubecalculus.core.TestUtils;
+import edu.pdx.vishakh.cubecalculus.core.TruthTable;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+public class FunctionClassifierTests {
+
+    public static void main(String[] args) {
+        testKnownFunctions();
+        testCoversAgreeWithTables();
+        testUnateFastPath();
+    }
+
+    /** Majority, parity, and a sum of two products, each classified the same from its cover and its table. */
+    private static void testKnownFunctions() {
+        Set<BooleanCube> majority = CubeUtils.cubeSetFromStringArray(new String[] {"11*", "1*1", "*11"});
+        Set<BooleanCube> parity = CubeUtils.cubeSetFromStringArray(new String[] {"100", "010", "001", "111"});
+        Set<BooleanCube> twoProducts = CubeUtils.cubeSetFromStringArray(new String[] {"11**", "**00"});
+        boolean ok = true;
+        for (FunctionClassifier c : classifiers(3, majority)) {
+            ok &= c.isUnate() && c.isPositiveUnate(0) && !c.isNegativeUnate(0) && c.isTotallySymmetric()
+                    && c.getFunctionType().equals("US");
+        }
+        for (FunctionClassifier c : classifiers(3, parity)) {
+            ok &= !c.isUnate() && !c.isPositiveUnate(1) && !c.isNegativeUnate(1) && c.isTotallySymmetric()
+                    && c.getFunctionType().equals("S");
+        }
+        for (FunctionClassifier c : classifiers(4, twoProducts)) {
+            ok &= c.isUnate() && c.isPositiveUnate(1) && c.isNegativeUnate(2) && !c.isTotallySymmetric()
+                    && c.getSymmetryGroups().equals(Arrays.asList(Arrays.asList(0, 1), Arrays.asList(2, 3)))
+                    && c.getFunctionType().equals("U");
+        }
+        TestUtils.assertTrue(ok, "Known functions are classified");
+    }
+
+    /** Random covers of up to 10 variables classify as their truth tables do. */
+    private static void testCoversAgreeWithTables() {
+        Random random = new Random(48);
+        boolean same = true;
+        for (int t = 0; t < 200; ++t) {
+            int nVars = 1 + random.nextInt(10);
+            Set<BooleanCube> cover = TestUtils.randomCover(random, nVars, random.nextInt(8), "01*");
+            List<FunctionClassifier> both = classifiers(nVars, cover);
+            FunctionClassifier a = both.get(0);
+            FunctionClassifier b = both.get(1);
+            for (int v = 0; v < nVars; ++v) {
+                same &= a.isPositiveUnate(v) == b.isPositiveUnate(v) && a.isNegativeUnate(v) == b.isNegativeUnate(v);
+            }
+            same &= a.getSymmetryGroups().equals(b.getSymmetryGroups());
+        }
+        TestUtils.assertTrue(same, "Covers and truth tables are classified alike");
+    }
+
+    /** Unate functions are covered by all their primes, at the minimum cost, and are recorded as unate. */
+    private static void testUnateFastPath() {
+        Random random = new Random(49);
+        boolean ok = true;
+        for (int t = 0; t < 100; ++t) {
+            int nVars = 2 + random.nextInt(5);
+            boolean[] polarity = new boolean[nVars];
+            for (int v = 0; v < nVars; ++v) {
+                polarity[v] = random.nextBoolean();
+            }
+            Set<BooleanCube> function = new HashSet<>();
+            for (BooleanCube c : TestUtils.randomCover(random, nVars, 1 + random.nextInt(6), "01*")) {
+                // Each literal of a variable of the one polarity.
+                for (int v = 0; v < nVars; ++v) {
+                    if (!c.isDontCareVar(v)) {
+                        if (polarity[v]) {
+                            c.makeOnVar(v);
+                        } else {
+                            c.makeOffVar(v);
+                        }
+                    }
+                }
+                function.add(c);
+            }
+            TruthTable table = TruthTable.fromCubes(nVars, function);
+            Set<BooleanCube> on = table.toMinterms();
+            StatsCollector stats = new StatsCollector();
+            QuineMcCluskeyAlgorithm qm = new QuineMcCluskeyAlgorithm(null, null);
+            Set<BooleanCube> cover = qm.minimize(nVars, on, null, null, stats, false);
+            long code = table.words()[0];
+            long exact = CubeUtils.totalCostOfCubes(SmallFunctionMinimizer.toCubes(nVars,
+                    SmallFunctionMinimizer.minimumCover(nVars, code, 0)));
+            ok &= stats.getType().startsWith("U") && !stats.isCyclic()
+                    && cover.equals(new QuineMcCluskeyAlgorithm(null, null).findAllPrimes(nVars, on))
+                    && CubeUtils.totalCostOfCubes(cover) == exact;
+        }
+        TestUtils.assertTrue(ok, "Unate functions take all their primes");
+
+        // With don't cares the function is not classified, even if its ON set is unate.
+        Set<BooleanCube> on = CubeUtils.cubeSetFromStringArray(new String[] {"111"});
+        Set<BooleanCube> dc = CubeUtils.cubeSetFromStringArray(new String[] {"000"});
+        StatsCollector stats = new StatsCollector();
+        new QuineMcCluskeyAlgorithm(null, null).minimize(3, on, null, dc, stats, false);
+        TestUtils.assertTrue(stats.getType().isEmpty(), "Incompletely specified functions are not classified");
+    }
+
+    private static List<FunctionClassifier> classifiers(int nVars, Set<BooleanCube> cover) {
+        return Arrays.asList(new FunctionClassifier(TruthTable.fromCubes(nVars, cover)),
+                new FunctionClassifier(nVars, cover));
+    }
+}
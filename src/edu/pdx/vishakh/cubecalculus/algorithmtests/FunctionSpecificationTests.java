@@ -0,0 +1,137 @@
+package edu.pdx.vishakh.cubecalculus.algorithmtests;
+
+import edu.pdx.vishakh.cubecalculus.algorithms.CubeCoverMinimizer;
+import edu.pdx.vishakh.cubecalculus.algorithms.QuineMcCluskeyAlgorithm;
+import edu.pdx.vishakh.cubecalculus.core.BooleanCube;
+import edu.pdx.vishakh.cubecalculus.core.CubeUtils;
+import edu.pdx.vishakh.cubecalculus.core.FunctionSpecification;
+import edu.pdx.vishakh.cubecalculus.core.TestUtils;
+import edu.pdx.vishakh.cubecalculus.core.TruthTable;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+public class FunctionSpecificationTests {
+
+    public static void main(String[] args) {
+        testRanges();
+        testPatterns();
+        testAgainstQuineMcCluskey();
+        testComparator();
+        testAddressDecoder();
+    }
+
+    private static void testRanges() {
+        List<BooleanCube> cubes = FunctionSpecification.rangeToCubes(4, 1, 14);
+        TestUtils.assertTrue(cubes.size() == 6 && TruthTable.fromCubes(4, new HashSet<>(cubes)).equals(
+                TruthTable.fromMinterms(4, new long[] {1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14})),
+                "Range is split into aligned blocks");
+
+        Random random = new Random(38);
+        int nVars = 12;
+        boolean exact = true;
+        for (int i = 0; i < 200; ++i) {
+            long a = random.nextInt(1 << nVars);
+            long b = random.nextInt(1 << nVars);
+            long low = Math.min(a, b);
+            long high = Math.max(a, b);
+            cubes = FunctionSpecification.rangeToCubes(nVars, low, high);
+            long size = 0;
+            for (BooleanCube c : cubes) {
+                size += 1L << c.getOrder();
+            }
+            TruthTable expected = new TruthTable(nVars);
+            for (long m = low; m <= high; ++m) {
+                expected.set(m);
+            }
+            exact &= size == high - low + 1 && cubes.size() <= 2 * nVars
+                    && TruthTable.fromCubes(nVars, new HashSet<>(cubes)).equals(expected);
+        }
+        TestUtils.assertTrue(exact, "Random ranges are covered by disjoint cubes");
+    }
+
+    private static void testPatterns() {
+        FunctionSpecification spec = new FunctionSpecification(6)
+                .addOnPrefix(0b101000, 3)
+                .addOnMask(0b000011, 0b010011)
+                .addOnPattern("11--0*")
+                .addOnWhere(i -> i == 1 ? Boolean.FALSE : (i == 4 ? Boolean.TRUE : null))
+                .addDcRange(0, 3)
+                .addDcWhere(i -> i % 2 == 0 ? Boolean.TRUE : null);
+        TestUtils.assertTrue(spec.getOnCubes().equals(CubeUtils.cubeSetFromStringArray(
+                new String[] {"101***", "*0**11", "11**0*", "*0**1*"}))
+                && spec.getDcCubes().equals(CubeUtils.cubeSetFromStringArray(new String[] {"0000**", "1*1*1*"})),
+                "Prefixes, masks, predicates and patterns become cubes");
+    }
+
+    /** On random functions given as minterms, the cover is an irredundant cover of primes of the function. */
+    private static void testAgainstQuineMcCluskey() {
+        Random random = new Random(39);
+        int nVars = 7;
+        boolean correct = true;
+        int cost = 0;
+        int qmCost = 0;
+        for (int t = 0; t < 20; ++t) {
+            Set<BooleanCube> on = new HashSet<>();
+            Set<BooleanCube> dc = new HashSet<>();
+            for (long m = 0; m < (1 << nVars); ++m) {
+                int r = random.nextInt(8);
+                if (r < 3) {
+                    on.addAll(CubeUtils.cubeSetFromNumberArray(nVars, new long[] {m}));
+                } else if (r == 3) {
+                    dc.addAll(CubeUtils.cubeSetFromNumberArray(nVars, new long[] {m}));
+                }
+            }
+            QuineMcCluskeyAlgorithm qm = new QuineMcCluskeyAlgorithm(null, null);
+            Set<BooleanCube> qmCover = qm.minimize(nVars, on, null, dc, null, false);
+            Set<BooleanCube> all = new HashSet<>(on);
+            all.addAll(dc);
+            Set<BooleanCube> primes = qm.findAllPrimes(nVars, all);
+
+            Set<BooleanCube> cover = new CubeCoverMinimizer(null, null).minimize(nVars, on, null, dc, null, false);
+            correct &= covers(nVars, cover, on, dc) && primes.containsAll(cover);
+            cost += CubeUtils.totalCostOfCubes(cover);
+            qmCost += CubeUtils.totalCostOfCubes(qmCover);
+        }
+        System.out.println("Cost of 20 functions: " + cost + ", with Quine-McCluskey: " + qmCost);
+        TestUtils.assertTrue(correct, "Cover is made of primes and implements the function");
+    }
+
+    /** x >= 1000 on 16 bits, checked against its truth table. */
+    private static void testComparator() {
+        int nVars = 16;
+        FunctionSpecification spec = new FunctionSpecification(nVars).addOnRange(1000, 65535);
+        Set<BooleanCube> cover = new CubeCoverMinimizer(null, null).minimize(nVars, spec.getOnCubes(), null, null,
+                null, false);
+        TestUtils.assertTrue(covers(nVars, cover, spec.getOnCubes(), new HashSet<>()),
+                "Comparator is minimized from its range");
+    }
+
+    /** A 32 bit address decoder, whose ON set has 2^31 minterms. */
+    private static void testAddressDecoder() {
+        int nVars = 32;
+        FunctionSpecification spec = new FunctionSpecification(nVars)
+                .addOnRange(0x40000000L, 0x7FFFFFFFL)
+                .addOnRange(0x80000000L, 0xBFFFFFFFL)
+                .addDcPrefix(0xC0000000L, 2);
+        CubeCoverMinimizer minimizer = new CubeCoverMinimizer(null, null);
+        long start = System.nanoTime();
+        Set<BooleanCube> cover = minimizer.minimize(nVars, spec.getOnCubes(), null, spec.getDcCubes(), null, false);
+        long millis = (System.nanoTime() - start) / 1000000;
+        System.out.println("Minimized a 32 variable decoder in " + millis + " ms");
+        String stars = "******************************";
+        TestUtils.assertTrue(cover.equals(CubeUtils.cubeSetFromStringArray(new String[] {"1*" + stars, "*1" + stars})),
+                "Address decoder is minimized without its minterms");
+    }
+
+    /** True if {@code cover} contains {@code on} and is contained in {@code on} and {@code dc}. */
+    private static boolean covers(int nVars, Set<BooleanCube> cover, Set<BooleanCube> on, Set<BooleanCube> dc) {
+        TruthTable f = TruthTable.fromCubes(nVars, cover);
+        TruthTable onTable = TruthTable.fromCubes(nVars, on);
+        TruthTable careTable = TruthTable.fromCubes(nVars, dc);
+        careTable.or(onTable);
+        return onTable.isSubsetOf(f) && f.isSubsetOf(careTable);
+    }
+}
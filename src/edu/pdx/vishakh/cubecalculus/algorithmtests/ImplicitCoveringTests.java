@@ -0,0 +1,126 @@
+package edu.pdx.vishakh.cubecalculus.algorithmtests;
+
+import edu.pdx.vishakh.cubecalculus.algorithms.ImplicitCoveringMinimizer;
+import edu.pdx.vishakh.cubecalculus.algorithms.SmallFunctionMinimizer;
+import edu.pdx.vishakh.cubecalculus.bdd.BddManager;
+import edu.pdx.vishakh.cubecalculus.core.BooleanCube;
+import edu.pdx.vishakh.cubecalculus.core.CoverChecker;
+import edu.pdx.vishakh.cubecalculus.core.CubeCalculusException;
+import edu.pdx.vishakh.cubecalculus.core.CubeUtils;
+import edu.pdx.vishakh.cubecalculus.core.TestUtils;
+import edu.pdx.vishakh.cubecalculus.core.TruthTable;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+public class ImplicitCoveringTests {
+
+    public static void main(String[] args) {
+        testAgainstExactMinimizer();
+        testCyclicCore();
+        testCoreLimit();
+        testHugePrimeSet();
+    }
+
+    /** Random functions with don't cares come out at the cost of the exhaustive small function minimizer. */
+    private static void testAgainstExactMinimizer() {
+        Random random = new Random(44);
+        boolean ok = true;
+        for (int trial = 0; trial < 100; ++trial) {
+            int nVars = 3 + random.nextInt(4);
+            long valid = nVars == 6 ? -1L : (1L << (1 << nVars)) - 1;
+            long on = random.nextLong() & valid;
+            long dc = random.nextLong() & random.nextLong() & valid & ~on;
+            Set<BooleanCube> onMinterms = table(nVars, on).toMinterms();
+            Set<BooleanCube> dcMinterms = table(nVars, dc).toMinterms();
+            ImplicitCoveringMinimizer minimizer = new ImplicitCoveringMinimizer(null, null);
+            minimizer.setVerifyResults(true);
+            Set<BooleanCube> cover = minimizer.minimize(nVars, onMinterms, null, dcMinterms, null, false);
+            long exact = CubeUtils.totalCostOfCubes(SmallFunctionMinimizer.toCubes(nVars,
+                    SmallFunctionMinimizer.minimumCover(nVars, on, dc)));
+            ok &= CubeUtils.totalCostOfCubes(cover) == exact;
+        }
+        TestUtils.assertTrue(ok, "Implicit covering finds minimum covers");
+    }
+
+    /** All 8 primes of the cyclic example are in its core, and 4 of them, of 3 literals each, cover it. */
+    private static void testCyclicCore() {
+        MinimizationTestData.MinimizationData data = MinimizationTestData.perkowskiCyclic;
+        Set<BooleanCube> on = CubeUtils.cubeSetFromNumberArray(data.nVars, data.onMinterms);
+        ImplicitCoveringMinimizer minimizer = new ImplicitCoveringMinimizer(null, null);
+        Set<BooleanCube> cover = minimizer.minimize(data.nVars, on, null, null, null, false);
+        TestUtils.assertTrue(minimizer.getNumberOfEssentials() == 0
+                && minimizer.getNumberOfCoreRows() == minimizer.getNumberOfPrimes()
+                && new CoverChecker(data.nVars).findViolation(cover, on, null, null) == null
+                && CubeUtils.totalCostOfCubes(cover) == 12, "Cyclic cores are searched");
+    }
+
+    /** A core over the limit throws, and leaves no references in the caller's manager. */
+    private static void testCoreLimit() {
+        MinimizationTestData.MinimizationData data = MinimizationTestData.perkowskiCyclic;
+        BddManager bdd = new BddManager(data.nVars);
+        int on = bdd.ref(bdd.fromCubes(CubeUtils.cubeSetFromNumberArray(data.nVars, data.onMinterms)));
+        boolean thrown = false;
+        try {
+            new ImplicitCoveringMinimizer(null, null, 2).minimize(bdd, on, BddManager.FALSE);
+        } catch (CubeCalculusException e) {
+            thrown = true;
+        }
+        bdd.deref(on);
+        bdd.collectGarbage();
+        TestUtils.assertTrue(thrown && bdd.getNumberOfNodes() == new BddManager(data.nVars).getNumberOfNodes(),
+                "Cores over the limit release their BDDs");
+    }
+
+    /**
+     * The care set (a1 + b1 + c1)(a2 + b2 + c2)... of 15 groups has 3^15 primes.  ON minterms with one variable of
+     * each group set are each in one prime only, and the minterm of all ones is in every prime.
+     */
+    private static void testHugePrimeSet() {
+        int nGroups = 15;
+        int nVars = 3 * nGroups;
+        Random random = new Random(45);
+        BddManager bdd = new BddManager(nVars);
+        int care = bdd.ref(BddManager.TRUE);
+        Set<BooleanCube> off = new HashSet<>();
+        for (int g = 0; g < nGroups; ++g) {
+            int any = bdd.or(bdd.variable(3 * g), bdd.or(bdd.variable(3 * g + 1), bdd.variable(3 * g + 2)));
+            int next = bdd.ref(bdd.and(care, any));
+            bdd.deref(care);
+            care = next;
+            off.add(BooleanCube.fromString("*".repeat(3 * g) + "000" + "*".repeat(3 * (nGroups - g - 1))));
+        }
+        Set<BooleanCube> on = new HashSet<>();
+        on.add(BooleanCube.fromString("1".repeat(nVars)));
+        for (int k = 0; k < 10; ++k) {
+            StringBuilder minterm = new StringBuilder();
+            for (int g = 0; g < nGroups; ++g) {
+                minterm.append(new String[] {"100", "010", "001"}[random.nextInt(3)]);
+            }
+            on.add(BooleanCube.fromString(minterm.toString()));
+        }
+        int onBdd = bdd.ref(bdd.fromCubes(on));
+
+        ImplicitCoveringMinimizer minimizer = new ImplicitCoveringMinimizer(null, null);
+        long start = System.nanoTime();
+        Set<BooleanCube> cover = minimizer.minimize(bdd, onBdd, bdd.andNot(care, onBdd));
+        long millis = (System.nanoTime() - start) / 1000000;
+        System.out.println("Covered with " + cover.size() + " of " + (long) minimizer.getNumberOfPrimes() + " primes in "
+                + millis + " ms");
+        TestUtils.assertTrue(minimizer.getNumberOfPrimes() == Math.pow(3, nGroups)
+                && cover.size() == on.size() - 1 && minimizer.getNumberOfCoreRows() == 0
+                && new CoverChecker(nVars).findViolation(cover, on, off, null) == null,
+                "Charts of millions of primes are reduced implicitly");
+    }
+
+    private static TruthTable table(int nVars, long bits) {
+        TruthTable t = new TruthTable(nVars);
+        for (long m = 0; m < (1L << nVars); ++m) {
+            if ((bits & (1L << m)) != 0) {
+                t.set(m);
+            }
+        }
+        return t;
+    }
+}
@@ -0,0 +1,73 @@
+package edu.pdx.vishakh.cubecalculus.algorithmtests;
+
+import edu.pdx.vishakh.cubecalculus.algorithms.IncrementalMinimizationSession;
+import edu.pdx.vishakh.cubecalculus.algorithms.QuineMcCluskeyAlgorithm;
+import edu.pdx.vishakh.cubecalculus.core.BooleanCube;
+import edu.pdx.vishakh.cubecalculus.core.Minterm;
+import edu.pdx.vishakh.cubecalculus.core.TestUtils;
+import edu.pdx.vishakh.cubecalculus.core.TruthTable;
+
+import java.util.Collections;
+import java.util.Random;
+import java.util.Set;
+
+public class IncrementalMinimizationTests {
+
+    public static void main(String[] args) {
+        Random random = new Random(31);
+        int nVars = 8;
+        TruthTable on = new TruthTable(nVars);
+        TruthTable dc = new TruthTable(nVars);
+        for (long m = 0; m < (1L << nVars); ++m) {
+            double r = random.nextDouble();
+            if (r < 0.15) {
+                on.set(m);
+            } else if (r < 0.2) {
+                dc.set(m);
+            }
+        }
+
+        IncrementalMinimizationSession session = new IncrementalMinimizationSession(nVars, on.toMinterms(),
+                dc.toMinterms());
+        QuineMcCluskeyAlgorithm qm = new QuineMcCluskeyAlgorithm(null, null);
+
+        boolean primesOk = true;
+        boolean coverOk = true;
+        long covered = 0;
+        long total = 0;
+        int nEdits = 100;
+        for (int edit = 0; edit < nEdits; ++edit) {
+            long m = random.nextInt(1 << nVars);
+            Set<BooleanCube> cube = Collections.singleton(BooleanCube.fromMinterm(new Minterm(nVars, m)));
+            on.clear(m);
+            dc.clear(m);
+            switch (random.nextInt(3)) {
+                case 0:
+                    session.addOn(cube);
+                    on.set(m);
+                    break;
+                case 1:
+                    session.addDontCare(cube);
+                    dc.set(m);
+                    break;
+                default:
+                    session.addOff(cube);
+                    break;
+            }
+
+            TruthTable care = new TruthTable(on);
+            care.or(dc);
+            primesOk &= session.getPrimes().equals(qm.findAllPrimes(nVars, care.toMinterms()));
+
+            TruthTable implemented = TruthTable.fromCubes(nVars, session.getCover());
+            coverOk &= on.isSubsetOf(implemented) && implemented.isSubsetOf(care);
+
+            covered += session.getLastMintermsCovered();
+            total += on.countOnes();
+        }
+        TestUtils.assertTrue(primesOk, "Incremental primes match primes computed from scratch");
+        TestUtils.assertTrue(coverOk, "Incremental cover implements the function");
+        System.out.println("Average minterms covered again per edit: " + covered / nEdits + " of " + total / nEdits);
+        TestUtils.assertTrue(covered < total, "Edits cover again only part of the chart");
+    }
+}
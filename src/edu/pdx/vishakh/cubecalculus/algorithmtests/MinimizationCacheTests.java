@@ -0,0 +1,71 @@
+package edu.pdx.vishakh.cubecalculus.algorithmtests;
+
+import edu.pdx.vishakh.cubecalculus.algorithms.FunctionFingerprint;
+import edu.pdx.vishakh.cubecalculus.algorithms.MinimizationCache;
+import edu.pdx.vishakh.cubecalculus.algorithms.QuineMcCluskeyAlgorithm;
+import edu.pdx.vishakh.cubecalculus.core.BooleanCube;
+import edu.pdx.vishakh.cubecalculus.core.CubeUtils;
+import edu.pdx.vishakh.cubecalculus.core.TestUtils;
+
+import java.util.Set;
+
+public class MinimizationCacheTests {
+
+    public static void main(String[] args) {
+        testFingerprints();
+        testHitsAndMisses();
+        testEviction();
+    }
+
+    private static void testFingerprints() {
+        Set<BooleanCube> cubes = CubeUtils.cubeSetFromStringArray(new String[]{"01*", "110"});
+        Set<BooleanCube> minterms = CubeUtils.cubeSetFromNumberArray(3, new long[]{2, 3, 6});
+        TestUtils.assertTrue(FunctionFingerprint.of(3, cubes, null, null)
+                .equals(FunctionFingerprint.of(3, minterms, null, null)), "Cubes and minterms give same fingerprint");
+
+        Set<BooleanCube> off = CubeUtils.cubeSetFromNumberArray(3, new long[]{0, 1, 4});
+        Set<BooleanCube> dc = CubeUtils.cubeSetFromNumberArray(3, new long[]{5, 7});
+        TestUtils.assertTrue(FunctionFingerprint.of(3, minterms, off, null)
+                .equals(FunctionFingerprint.of(3, minterms, null, dc)), "OFF set implies the DC set");
+        TestUtils.assertNotTrue(FunctionFingerprint.of(3, minterms, null, null)
+                .equals(FunctionFingerprint.of(3, minterms, null, dc)), "DC set is part of the fingerprint");
+    }
+
+    private static void testHitsAndMisses() {
+        MinimizationCache cache = new MinimizationCache(1000);
+        QuineMcCluskeyAlgorithm qm = new QuineMcCluskeyAlgorithm(null, null);
+        MinimizationTestData.MinimizationData data = MinimizationTestData.perkowskiBookExample2;
+        Set<BooleanCube> on = CubeUtils.cubeSetFromNumberArray(data.nVars, data.onMinterms);
+
+        long start = System.nanoTime();
+        Set<BooleanCube> first = cache.minimize(qm, data.nVars, on, null, null, null, false);
+        long missNanos = System.nanoTime() - start;
+
+        int nHits = 1000;
+        start = System.nanoTime();
+        Set<BooleanCube> second = null;
+        for (int i = 0; i < nHits; ++i) {
+            second = cache.minimize(qm, data.nVars, on, null, null, null, false);
+        }
+        long hitNanos = (System.nanoTime() - start) / nHits;
+
+        TestUtils.assertTrue(first.equals(second), "Cached cover equals computed cover");
+        TestUtils.assertTrue(cache.getMisses() == 1 && cache.getHits() == nHits, "Hit and miss counters");
+        System.out.printf("Miss = %d us, hit = %d us, %s\n", missNanos / 1000, hitNanos / 1000, cache);
+
+        second.clear();
+        TestUtils.assertTrue(cache.minimize(qm, data.nVars, on, null, null, null, false).equals(first),
+                "Modifying a returned cover does not modify the cache");
+    }
+
+    private static void testEviction() {
+        MinimizationCache cache = new MinimizationCache(16);
+        QuineMcCluskeyAlgorithm qm = new QuineMcCluskeyAlgorithm(null, null);
+        for (long i = 0; i < 256; ++i) {
+            Set<BooleanCube> on = CubeUtils.cubeSetFromNumberArray(4, new long[]{i % 16, (i / 16)});
+            cache.minimize(qm, 4, on, null, null, null, false);
+        }
+        TestUtils.assertTrue(cache.size() <= cache.getMaxEntries(), "Cache stays within its size");
+        TestUtils.assertTrue(cache.getEvictions() == cache.getMisses() - cache.size(), "Eviction counter");
+    }
+}
@@ -3,6 +3,7 @@ package edu.pdx.vishakh.cubecalculus.algorithmtests;
 import edu.pdx.vishakh.cubecalculus.algorithms.MinimizationAlgorithm;
 import edu.pdx.vishakh.cubecalculus.algorithms.StatsCollector;
 import edu.pdx.vishakh.cubecalculus.core.BooleanCube;
+import edu.pdx.vishakh.cubecalculus.core.CoverChecker;
 import edu.pdx.vishakh.cubecalculus.core.CubeCalculusException;
 import edu.pdx.vishakh.cubecalculus.core.CubeUtils;
 
@@ -121,6 +122,11 @@ public class MinimizationTestData {
             return "CYCLIC";
         }
         String cyclic = sc.isCyclic() ? "*" : " ";
+        BooleanCube violation = new CoverChecker(nVars).findViolation(actual, onCubes, offCubes, dcCubes);
+        if (violation != null) {
+            return cyclic + "FAIL: Result " + CubeUtils.cubeSetToPlainNumericString(actual)
+                    + " does not implement the function at minterm " + violation.toPlainNumericString();
+        }
 
         long actualCost = CubeUtils.totalCostOfCubes(actual);
         int numberOfExpectedValues = expectedOutput.minimizedValues.size();
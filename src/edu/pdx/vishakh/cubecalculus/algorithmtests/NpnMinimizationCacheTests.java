@@ -0,0 +1,120 @@
+package edu.pdx.vishakh.cubecalculus.algorithmtests;
+
+import edu.pdx.vishakh.cubecalculus.algorithms.NpnMinimizationCache;
+import edu.pdx.vishakh.cubecalculus.algorithms.QuineMcCluskeyAlgorithm;
+import edu.pdx.vishakh.cubecalculus.core.BooleanCube;
+import edu.pdx.vishakh.cubecalculus.core.NpnCanonicalizer;
+import edu.pdx.vishakh.cubecalculus.core.NpnTransform;
+import edu.pdx.vishakh.cubecalculus.core.TestUtils;
+import edu.pdx.vishakh.cubecalculus.core.TruthTable;
+
+import java.util.Random;
+import java.util.Set;
+
+public class NpnMinimizationCacheTests {
+
+    public static void main(String[] args) {
+        Random random = new Random(2024);
+        testTransforms(random);
+        testCanonicalForms(random);
+        testCache(random);
+    }
+
+    /** Applying a transform to a table must agree with evaluating the definition minterm by minterm. */
+    private static void testTransforms(Random random) {
+        boolean ok = true;
+        for (int nVars = 1; nVars <= 9; ++nVars) {
+            TruthTable f = randomTable(random, nVars, 0.5);
+            NpnTransform t = randomTransform(random, nVars);
+            TruthTable g = t.applyToInputs(f);
+            for (long y = 0; y < (1L << nVars); ++y) {
+                long x = 0;
+                for (int j = 0; j < nVars; ++j) {
+                    int i = t.getPermutedVariable(j);
+                    boolean bit = ((y >>> (nVars - 1 - j)) & 1) != 0;
+                    if (bit != t.isNegated(i)) {
+                        x |= 1L << (nVars - 1 - i);
+                    }
+                }
+                ok &= g.get(y) == f.get(x);
+            }
+        }
+        TestUtils.assertTrue(ok, "Bit-parallel transforms match the definition");
+    }
+
+    /** Every member of an NPN class must get the same canonical form. */
+    private static void testCanonicalForms(Random random) {
+        NpnCanonicalizer canonicalizer = new NpnCanonicalizer();
+        boolean ok = true;
+        for (int trial = 0; trial < 200; ++trial) {
+            int nVars = 2 + random.nextInt(6);
+            TruthTable on = randomTable(random, nVars, 0.4);
+            TruthTable dc = randomTable(random, nVars, 0.1);
+            dc.andNot(on);
+            NpnCanonicalizer.Result expected = canonicalizer.canonicalize(on, dc);
+
+            NpnTransform t = randomTransform(random, nVars);
+            TruthTable on2 = t.applyToInputs(on);
+            TruthTable dc2 = t.applyToInputs(dc);
+            if (t.isOutputNegated()) {
+                on2.or(dc2);
+                on2.not();
+            }
+            NpnCanonicalizer.Result actual = canonicalizer.canonicalize(on2, dc2);
+            if (expected.isExact() && actual.isExact()) {
+                ok &= expected.getOnTable().equals(actual.getOnTable())
+                        && expected.getDcTable().equals(actual.getDcTable());
+            }
+        }
+        TestUtils.assertTrue(ok, "NPN equivalent functions have the same canonical form");
+    }
+
+    /** Covers returned by the cache must implement the original functions, and variants must hit. */
+    private static void testCache(Random random) {
+        NpnMinimizationCache cache = new NpnMinimizationCache(1000);
+        QuineMcCluskeyAlgorithm qm = new QuineMcCluskeyAlgorithm(null, null);
+        int nClasses = 20;
+        int nVariants = 10;
+        boolean ok = true;
+        for (int c = 0; c < nClasses; ++c) {
+            int nVars = 4 + random.nextInt(3);
+            TruthTable on = randomTable(random, nVars, 0.4);
+            for (int v = 0; v < nVariants; ++v) {
+                NpnTransform t = randomTransform(random, nVars);
+                TruthTable variant = t.applyToInputs(on);
+                if (t.isOutputNegated()) {
+                    variant.not();
+                }
+                Set<BooleanCube> cover = cache.minimize(qm, nVars, variant.toMinterms(), null, null, null, false);
+                ok &= TruthTable.fromCubes(nVars, cover).equals(variant);
+            }
+        }
+        TestUtils.assertTrue(ok, "Covers from the NPN cache implement the requested functions");
+        System.out.println(cache + String.format(", hit rate = %.2f", cache.getCache().getHitRate()));
+        TestUtils.assertTrue(cache.getCache().getMisses() <= 2 * nClasses, "At most two misses per NPN class");
+    }
+
+    private static TruthTable randomTable(Random random, int nVars, double density) {
+        TruthTable t = new TruthTable(nVars);
+        for (long m = 0; m < (1L << nVars); ++m) {
+            if (random.nextDouble() < density) {
+                t.set(m);
+            }
+        }
+        return t;
+    }
+
+    private static NpnTransform randomTransform(Random random, int nVars) {
+        int[] perm = new int[nVars];
+        for (int i = 0; i < nVars; ++i) {
+            perm[i] = i;
+        }
+        for (int i = nVars - 1; i > 0; --i) {
+            int j = random.nextInt(i + 1);
+            int tmp = perm[i];
+            perm[i] = perm[j];
+            perm[j] = tmp;
+        }
+        return new NpnTransform(perm, random.nextLong() & ((1L << nVars) - 1), random.nextBoolean());
+    }
+}
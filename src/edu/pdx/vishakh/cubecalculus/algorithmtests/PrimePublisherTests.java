@@ -0,0 +1,97 @@
+package edu.pdx.vishakh.cubecalculus.algorithmtests;
+
+import edu.pdx.vishakh.cubecalculus.algorithms.PrimePublisher;
+import edu.pdx.vishakh.cubecalculus.algorithms.QuineMcCluskeyAlgorithm;
+import edu.pdx.vishakh.cubecalculus.core.BooleanCube;
+import edu.pdx.vishakh.cubecalculus.core.CubeUtils;
+import edu.pdx.vishakh.cubecalculus.core.TestUtils;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class PrimePublisherTests {
+
+    public static void main(String[] args) throws InterruptedException {
+        testAllPrimesPublished();
+        testBackpressure();
+    }
+
+    /** A subscriber asking for one prime at a time gets all the primes, each once. */
+    private static void testAllPrimesPublished() throws InterruptedException {
+        MinimizationTestData.MinimizationData data = MinimizationTestData.perkowskiBookExample3;
+        Set<BooleanCube> on = CubeUtils.cubeSetFromNumberArray(data.nVars, data.onMinterms);
+        Set<BooleanCube> expected = new QuineMcCluskeyAlgorithm(null, null).findAllPrimes(data.nVars, on);
+
+        Set<BooleanCube> received = new HashSet<>();
+        AtomicInteger nReceived = new AtomicInteger();
+        CountDownLatch done = new CountDownLatch(1);
+        new PrimePublisher(data.nVars, on, null).subscribe(new Flow.Subscriber<BooleanCube>() {
+            private Flow.Subscription subscription;
+
+            @Override
+            public void onSubscribe(Flow.Subscription subscription) {
+                this.subscription = subscription;
+                subscription.request(1);
+            }
+
+            @Override
+            public void onNext(BooleanCube prime) {
+                received.add(prime);
+                nReceived.incrementAndGet();
+                subscription.request(1);
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+                done.countDown();
+            }
+
+            @Override
+            public void onComplete() {
+                done.countDown();
+            }
+        });
+        TestUtils.assertTrue(done.await(10, TimeUnit.SECONDS) && received.equals(expected)
+                && nReceived.get() == expected.size(), "All primes are published once");
+    }
+
+    /** Without demand no more primes are published, and cancelling stops the generation. */
+    private static void testBackpressure() throws InterruptedException {
+        MinimizationTestData.MinimizationData data = MinimizationTestData.perkowskiBookExample3;
+        Set<BooleanCube> on = CubeUtils.cubeSetFromNumberArray(data.nVars, data.onMinterms);
+        AtomicInteger nReceived = new AtomicInteger();
+        AtomicInteger nEnded = new AtomicInteger();
+        Flow.Subscription[] subscription = new Flow.Subscription[1];
+        new PrimePublisher(data.nVars, on, null).subscribe(new Flow.Subscriber<BooleanCube>() {
+            @Override
+            public void onSubscribe(Flow.Subscription s) {
+                subscription[0] = s;
+                s.request(3);
+            }
+
+            @Override
+            public void onNext(BooleanCube prime) {
+                nReceived.incrementAndGet();
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+                nEnded.incrementAndGet();
+            }
+
+            @Override
+            public void onComplete() {
+                nEnded.incrementAndGet();
+            }
+        });
+        Thread.sleep(200);
+        TestUtils.assertTrue(nReceived.get() == 3 && nEnded.get() == 0, "Only the requested primes are published");
+        subscription[0].cancel();
+        Thread.sleep(100);
+        TestUtils.assertTrue(nReceived.get() == 3 && nEnded.get() == 0, "Nothing is published after cancelling");
+    }
+}
@@ -0,0 +1,137 @@
+package edu.pdx.vishakh.cubecalculus.algorithmtests;
+
+import edu.pdx.vishakh.cubecalculus.algorithms.BatchMinimizer;
+import edu.pdx.vishakh.cubecalculus.algorithms.BatchResult;
+import edu.pdx.vishakh.cubecalculus.algorithms.CancellationToken;
+import edu.pdx.vishakh.cubecalculus.algorithms.MinimizationBudget;
+import edu.pdx.vishakh.cubecalculus.algorithms.MinimizationCancelledException;
+import edu.pdx.vishakh.cubecalculus.algorithms.MinimizationJob;
+import edu.pdx.vishakh.cubecalculus.algorithms.MinimizationListener;
+import edu.pdx.vishakh.cubecalculus.algorithms.QuineMcCluskeyAlgorithm;
+import edu.pdx.vishakh.cubecalculus.core.BooleanCube;
+import edu.pdx.vishakh.cubecalculus.core.CubeUtils;
+import edu.pdx.vishakh.cubecalculus.core.TestUtils;
+import edu.pdx.vishakh.cubecalculus.core.TruthTable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Stream;
+
+public class ProgressAndCancellationTests {
+
+    public static void main(String[] args) throws InterruptedException {
+        testProgressEvents();
+        testCancelFromListener();
+        testCancelFromAnotherThread();
+        testCancelledBatchJob();
+    }
+
+    private static void testProgressEvents() {
+        MinimizationTestData.MinimizationData data = MinimizationTestData.perkowskiBookExample2;
+        Set<BooleanCube> on = CubeUtils.cubeSetFromNumberArray(data.nVars, data.onMinterms);
+        List<Integer> levels = new ArrayList<>();
+        int[] charts = new int[1];
+        int[] reductions = new int[1];
+        QuineMcCluskeyAlgorithm qm = new QuineMcCluskeyAlgorithm(null, null);
+        qm.setListener(new MinimizationListener() {
+            @Override
+            public void levelCompleted(int level, int nCubes, int nPrimes) {
+                levels.add(level);
+            }
+
+            @Override
+            public void chartBuilt(int nPrimes, int nMinterms) {
+                ++charts[0];
+            }
+
+            @Override
+            public void reductionApplied(Reduction reduction, int nPrimes, int nRemainingMinterms) {
+                ++reductions[0];
+            }
+        });
+        Set<BooleanCube> cover = qm.minimize(data.nVars, on, null, null, null, false);
+
+        boolean inOrder = !levels.isEmpty();
+        for (int i = 0; i < levels.size(); ++i) {
+            inOrder &= levels.get(i) == i;
+        }
+        TestUtils.assertTrue(inOrder, "Levels are reported in order");
+        TestUtils.assertTrue(charts[0] == 1 && reductions[0] > 0, "Chart and reductions are reported");
+        TestUtils.assertTrue(CubeUtils.totalCostOfCubes(cover) == 40, "Listener does not change the result");
+    }
+
+    private static void testCancelFromListener() {
+        CancellationToken token = new CancellationToken();
+        QuineMcCluskeyAlgorithm qm = new QuineMcCluskeyAlgorithm(null, null);
+        int[] levelsSeen = new int[1];
+        qm.setCancellationToken(token);
+        qm.setListener(new MinimizationListener() {
+            @Override
+            public void levelCompleted(int level, int nCubes, int nPrimes) {
+                ++levelsSeen[0];
+                token.cancel("stopped by test");
+            }
+        });
+        TruthTable on = randomTable(new Random(33), 8);
+        boolean thrown = false;
+        try {
+            qm.minimize(8, on.toMinterms(), null, null, null, MinimizationBudget.NONE);
+        } catch (MinimizationCancelledException e) {
+            thrown = e.getMessage().contains("stopped by test");
+        }
+        TestUtils.assertTrue(thrown && levelsSeen[0] == 1, "Cancellation stops at the next loop boundary");
+    }
+
+    private static void testCancelFromAnotherThread() throws InterruptedException {
+        CancellationToken token = new CancellationToken();
+        QuineMcCluskeyAlgorithm qm = new QuineMcCluskeyAlgorithm(null, null);
+        qm.setCancellationToken(token);
+        TruthTable on = randomTable(new Random(34), 12);
+        Throwable[] error = new Throwable[1];
+        Thread worker = new Thread(() -> {
+            try {
+                qm.minimize(12, on.toMinterms(), null, null, null, false);
+            } catch (Throwable t) {
+                error[0] = t;
+            }
+        });
+        worker.start();
+        Thread.sleep(100);
+        long start = System.nanoTime();
+        token.cancel();
+        worker.join(10000);
+        long stopMillis = (System.nanoTime() - start) / 1000000;
+        System.out.println("Stopped " + stopMillis + " ms after cancellation");
+        TestUtils.assertTrue(!worker.isAlive() && error[0] instanceof MinimizationCancelledException,
+                "A running minimization stops when cancelled from another thread");
+    }
+
+    private static void testCancelledBatchJob() {
+        CancellationToken token = new CancellationToken();
+        token.cancel("client disconnected");
+        MinimizationTestData.MinimizationData data = MinimizationTestData.perkowskiCyclic;
+        Set<BooleanCube> on = CubeUtils.cubeSetFromNumberArray(data.nVars, data.onMinterms);
+        List<BatchResult> results;
+        try (BatchMinimizer batch = BatchMinimizer.createQuineMcCluskeyBatchMinimizer(
+                BatchMinimizer.ResultOrder.SUBMISSION)) {
+            results = batch.minimizeAll(Stream.of(
+                    new MinimizationJob(1, data.nVars, on, null, null, false, token),
+                    new MinimizationJob(2, data.nVars, on, null, null, false)));
+        }
+        TestUtils.assertTrue(!results.get(0).isSuccessful()
+                && results.get(0).getError() instanceof MinimizationCancelledException
+                && results.get(1).isSuccessful(), "Cancelled batch jobs fail without affecting others");
+    }
+
+    private static TruthTable randomTable(Random random, int nVars) {
+        TruthTable t = new TruthTable(nVars);
+        for (long m = 0; m < (1L << nVars); ++m) {
+            if (random.nextInt(3) == 0) {
+                t.set(m);
+            }
+        }
+        return t;
+    }
+}
@@ -0,0 +1,637 @@
+package edu.pdx.vishakh.cubecalculus.bdd;
+
+import edu.pdx.vishakh.cubecalculus.core.BooleanCube;
+import edu.pdx.vishakh.cubecalculus.core.CubeCalculusException;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Reduced ordered binary decision diagrams over a fixed number of variables.
+ *
+ * A BDD is an {@code int}, the index of its root node; {@link #FALSE} and {@link #TRUE} are the terminals.  Nodes are
+ * hash-consed, so two BDDs of the same function are the same {@code int}, and equivalence is {@code ==}.  Operations
+ * are built on {@link #ite} and memoized in the computed cache of the node table.
+ *
+ * Nodes not reachable from a referenced BDD are reclaimed by {@link #collectGarbage}, which also runs by itself at
+ * the start of an operation when the node table is nearly full.  A BDD that must survive later operations has to be
+ * kept with {@link #ref} and released with {@link #deref}; the operands of the running operation are always kept.
+ *
+ * Variables are ordered by level, variable {@code i} at level {@code i} to start with.  The order can be changed in
+ * place, by swapping adjacent levels or by Rudell's sifting, either when asked or automatically when the number of
+ * nodes passes a threshold.  Reordering keeps every BDD as the same {@code int} for the same function.  A manager is
+ * not thread safe.
+ */
+public class BddManager extends NodeTable {
+
+    public static final int FALSE = 0;
+    public static final int TRUE = 1;
+
+    private static final int DEFAULT_NODES = 1 << 12;
+    private static final int DEFAULT_CACHE_SIZE = 1 << 16;
+
+    /** Operation codes of the computed cache. */
+    private static final int OP_ITE = 0;
+    private static final int OP_RESTRICT = 1;
+    private static final int OP_EXISTS = 2;
+
+    /** Sifting stops moving a variable in a direction when the nodes grow past this factor of the best size. */
+    private static final double MAX_GROWTH = 1.2;
+
+    private final int nVars;
+
+    /** Level of each variable, and variable at each level. */
+    private final int[] levelOfVar;
+    private final int[] varAtLevel;
+
+    /** Nodes in use above which variables are sifted before an operation.  0 for never. */
+    private int autoReorderThreshold = 0;
+
+    private int nReorderings;
+    private ReorderReport lastReorderReport;
+
+    /** While reordering: per node, the number of nodes that have it as a child. */
+    private int[] edgeRefs;
+
+    /** While reordering: per variable, its nodes.  Entries of nodes freed or changed since are skipped. */
+    private int[][] varNodes;
+    private int[] varNodeCounts;
+
+    /** Node counts before and after a reordering. */
+    public static class ReorderReport {
+        private final int nodesBefore;
+        private final int nodesAfter;
+        private final long millis;
+
+        public ReorderReport(int nodesBefore, int nodesAfter, long millis) {
+            this.nodesBefore = nodesBefore;
+            this.nodesAfter = nodesAfter;
+            this.millis = millis;
+        }
+
+        public int getNodesBefore() {
+            return nodesBefore;
+        }
+
+        public int getNodesAfter() {
+            return nodesAfter;
+        }
+
+        public long getMillis() {
+            return millis;
+        }
+
+        @Override
+        public String toString() {
+            return "Reordered from " + nodesBefore + " to " + nodesAfter + " nodes in " + millis + " ms";
+        }
+    }
+
+    public BddManager(int nVars) {
+        this(nVars, DEFAULT_NODES, DEFAULT_CACHE_SIZE);
+    }
+
+    /**
+     * @param nVars Number of variables.
+     * @param initialNodes Size of the node table to start with.  It grows as needed.
+     * @param cacheSize Number of entries of the computed cache, rounded up to a power of 2.
+     */
+    public BddManager(int nVars, int initialNodes, int cacheSize) {
+        super(checkNumberOfVariables(nVars), initialNodes, cacheSize);
+        this.nVars = nVars;
+        levelOfVar = new int[nVars + 1];
+        varAtLevel = new int[nVars + 1];
+        for (int i = 0; i <= nVars; ++i) {
+            levelOfVar[i] = i;
+            varAtLevel[i] = i;
+        }
+    }
+
+    public int getNumberOfVariables() {
+        return nVars;
+    }
+
+    /** The function of variable {@code var}. */
+    public int variable(int var) {
+        checkVar(var);
+        return makeNode(var, FALSE, TRUE);
+    }
+
+    /** The complement of variable {@code var}. */
+    public int negatedVariable(int var) {
+        checkVar(var);
+        return makeNode(var, TRUE, FALSE);
+    }
+
+    /** If {@code f} then {@code g} else {@code h}. */
+    public int ite(int f, int g, int h) {
+        begin(f, g, h);
+        return iteRec(f, g, h);
+    }
+
+    public int not(int f) {
+        return ite(f, FALSE, TRUE);
+    }
+
+    public int and(int f, int g) {
+        return ite(f, g, FALSE);
+    }
+
+    public int or(int f, int g) {
+        return ite(f, TRUE, g);
+    }
+
+    public int xor(int f, int g) {
+        begin(f, g, FALSE);
+        return iteRec(f, iteRec(g, FALSE, TRUE), g);
+    }
+
+    /** {@code f} and not {@code g}. */
+    public int andNot(int f, int g) {
+        begin(f, g, FALSE);
+        return iteRec(g, FALSE, f);
+    }
+
+    /** The cofactor of {@code f} with variable {@code var} set to {@code value}. */
+    public int restrict(int f, int var, boolean value) {
+        checkVar(var);
+        begin(f, FALSE, FALSE);
+        return restrictRec(f, var, value ? TRUE : FALSE);
+    }
+
+    /** {@code f} with variable {@code var} quantified existentially. */
+    public int exists(int f, int var) {
+        checkVar(var);
+        begin(f, FALSE, FALSE);
+        return existsRec(f, var);
+    }
+
+    /** True if {@code f} implies {@code g}. */
+    public boolean implies(int f, int g) {
+        return andNot(f, g) == FALSE;
+    }
+
+    /** Keeps {@code f} and the nodes under it through garbage collections.  Returns {@code f}. */
+    public int ref(int f) {
+        ++nodeRefs[f];
+        return f;
+    }
+
+    /** Releases a reference taken by {@link #ref}. */
+    public void deref(int f) {
+        if (nodeRefs[f] <= 0) {
+            throw new CubeCalculusException("BDD " + f + " is not referenced.");
+        }
+        --nodeRefs[f];
+    }
+
+    /** Variable of the root node of {@code f}, or the number of variables for a terminal. */
+    public int getVar(int f) {
+        return nodeLabel[f];
+    }
+
+    /** The BDD for the root variable of {@code f} being 0. */
+    public int getLow(int f) {
+        return nodeLow[f];
+    }
+
+    /** The BDD for the root variable of {@code f} being 1. */
+    public int getHigh(int f) {
+        return nodeHigh[f];
+    }
+
+    /** Level of variable {@code var} in the order. */
+    public int getLevel(int var) {
+        return levelOfVar[var];
+    }
+
+    /** Variable at level {@code level} of the order. */
+    public int getVarAtLevel(int level) {
+        return varAtLevel[level];
+    }
+
+    /** Number of nodes of {@code f}, terminals included. */
+    public int size(int f) {
+        BitSet visited = new BitSet();
+        return countNodes(f, visited);
+    }
+
+    /** Number of minterms of {@code f}. */
+    public double satCount(int f) {
+        return fraction(f, new double[nodeLabel.length], new BitSet()) * Math.pow(2, nVars);
+    }
+
+    /** A minterm of {@code f}, or {@code null} if it is {@link #FALSE}. */
+    public BooleanCube anyMinterm(int f) {
+        if (f == FALSE) {
+            return null;
+        }
+        char[] trits = new char[nVars];
+        Arrays.fill(trits, '0');
+        while (f != TRUE) {
+            if (nodeLow[f] != FALSE) {
+                f = nodeLow[f];
+            } else {
+                trits[nodeLabel[f]] = '1';
+                f = nodeHigh[f];
+            }
+        }
+        return BooleanCube.fromString(new String(trits));
+    }
+
+    /** The BDD of a cube. */
+    public int fromCube(BooleanCube cube) {
+        checkCube(cube);
+        begin(FALSE, FALSE, FALSE);
+        return cubeRec(cube);
+    }
+
+    /** The BDD of the union of {@code cubes}. */
+    public int fromCubes(Collection<BooleanCube> cubes) {
+        int result = ref(FALSE);
+        for (BooleanCube cube : cubes) {
+            checkCube(cube);
+            begin(result, FALSE, FALSE);
+            int next = ref(iteRec(cubeRec(cube), TRUE, result));
+            deref(result);
+            result = next;
+        }
+        deref(result);
+        return result;
+    }
+
+    /** Disjoint cubes whose union is {@code f}, one per path to {@link #TRUE}. */
+    public Set<BooleanCube> toCubes(int f) {
+        Set<BooleanCube> cubes = new HashSet<>();
+        char[] trits = new char[nVars];
+        Arrays.fill(trits, '*');
+        collectPaths(f, trits, cubes);
+        return cubes;
+    }
+
+    /**
+     * Sifts variables automatically at the start of an operation once more than {@code threshold} nodes are in use.
+     * After each reordering the threshold becomes at least twice the nodes left.
+     * @param threshold Number of nodes, or 0 to turn automatic reordering off.
+     */
+    public void setAutoReorder(int threshold) {
+        autoReorderThreshold = threshold;
+    }
+
+    /** Number of reorderings so far, automatic or not. */
+    public int getNumberOfReorderings() {
+        return nReorderings;
+    }
+
+    /** Report of the last reordering, or {@code null} if there was none. */
+    public ReorderReport getLastReorderReport() {
+        return lastReorderReport;
+    }
+
+    /**
+     * Reorders the variables by Rudell's sifting: each variable in turn, those with the most nodes first, is moved
+     * through all the levels by adjacent swaps and left where the fewest nodes were in use.  Only referenced BDDs are
+     * kept, as in a garbage collection.
+     */
+    public ReorderReport sift() {
+        Arrays.fill(operands, FALSE);
+        return reorder();
+    }
+
+    /** Exchanges the variables at {@code level} and {@code level + 1}.  Only referenced BDDs are kept. */
+    public void swapLevels(int level) {
+        if (level < 0 || level >= nVars - 1) {
+            throw new CubeCalculusException("Cannot swap level " + level + " of " + nVars + " levels.");
+        }
+        Arrays.fill(operands, FALSE);
+        collect();
+        startReordering();
+        swap(level);
+        finishReordering();
+    }
+
+    /** Sifts all the variables, keeping the operands of the running operation. */
+    private ReorderReport reorder() {
+        long start = System.nanoTime();
+        collect();
+        int nodesBefore = getNumberOfNodes();
+        startReordering();
+        Integer[] vars = new Integer[nVars];
+        for (int v = 0; v < nVars; ++v) {
+            vars[v] = v;
+        }
+        Arrays.sort(vars, (a, b) -> Integer.compare(varNodeCounts[b], varNodeCounts[a]));
+        for (int v : vars) {
+            siftVariable(v);
+        }
+        finishReordering();
+        lastReorderReport = new ReorderReport(nodesBefore, getNumberOfNodes(), (System.nanoTime() - start) / 1000000);
+        ++nReorderings;
+        return lastReorderReport;
+    }
+
+    /** Moves {@code var} down to the bottom, then up to the top, and back to the level with the fewest nodes. */
+    private void siftVariable(int var) {
+        int startLevel = levelOfVar[var];
+        int best = getNumberOfNodes();
+        int bestLevel = startLevel;
+        double limit = MAX_GROWTH * best;
+        while (levelOfVar[var] < nVars - 1) {
+            swap(levelOfVar[var]);
+            if (getNumberOfNodes() < best) {
+                best = getNumberOfNodes();
+                bestLevel = levelOfVar[var];
+            }
+            if (getNumberOfNodes() > limit) {
+                break;
+            }
+        }
+        while (levelOfVar[var] > 0) {
+            swap(levelOfVar[var] - 1);
+            if (getNumberOfNodes() < best) {
+                best = getNumberOfNodes();
+                bestLevel = levelOfVar[var];
+            }
+            // Above the start, the levels have not been seen yet.
+            if (levelOfVar[var] < startLevel && getNumberOfNodes() > MAX_GROWTH * best) {
+                break;
+            }
+        }
+        while (levelOfVar[var] < bestLevel) {
+            swap(levelOfVar[var]);
+        }
+    }
+
+    /** Counts the edges into each node and lists the nodes of each variable, for {@link #swap}. */
+    private void startReordering() {
+        edgeRefs = new int[nodeLabel.length];
+        varNodes = new int[nVars][];
+        varNodeCounts = new int[nVars];
+        for (int v = 0; v < nVars; ++v) {
+            varNodes[v] = new int[16];
+        }
+        for (int n = TRUE + 1; n < nodeLabel.length; ++n) {
+            if (nodeLabel[n] >= 0) {
+                ++edgeRefs[nodeLow[n]];
+                ++edgeRefs[nodeHigh[n]];
+                addVarNode(n);
+            }
+        }
+        for (int f : operands) {
+            ++nodeRefs[f];
+        }
+    }
+
+    private void finishReordering() {
+        for (int f : operands) {
+            --nodeRefs[f];
+        }
+        edgeRefs = null;
+        varNodes = null;
+        varNodeCounts = null;
+        // Freed nodes may be reused, so cached results are no longer valid.
+        clearCache();
+    }
+
+    /**
+     * Swaps the variables at {@code level} and {@code level + 1} in place.  A node of the upper variable x with a
+     * child on the lower variable y becomes a node of y whose children are new or existing nodes of x, so it keeps
+     * its function and its index.  Nodes of y that no node uses any more are freed.
+     */
+    private void swap(int level) {
+        int x = varAtLevel[level];
+        int y = varAtLevel[level + 1];
+        int count = varNodeCounts[x];
+        int[] nodes = Arrays.copyOf(varNodes[x], count);
+        // Nodes of x that stay nodes of x are listed again, without the stale or repeated entries.
+        varNodeCounts[x] = 0;
+        BitSet seen = new BitSet(nodeLabel.length);
+        for (int i = 0; i < count; ++i) {
+            int n = nodes[i];
+            if (nodeLabel[n] != x || seen.get(n)) {
+                continue;
+            }
+            seen.set(n);
+            int f0 = nodeLow[n];
+            int f1 = nodeHigh[n];
+            if (nodeLabel[f0] != y && nodeLabel[f1] != y) {
+                addVarNode(n);
+                continue;
+            }
+            int f00 = nodeLabel[f0] == y ? nodeLow[f0] : f0;
+            int f01 = nodeLabel[f0] == y ? nodeHigh[f0] : f0;
+            int f10 = nodeLabel[f1] == y ? nodeLow[f1] : f1;
+            int f11 = nodeLabel[f1] == y ? nodeHigh[f1] : f1;
+            int low = makeReferencedNode(x, f00, f10);
+            int high = makeReferencedNode(x, f01, f11);
+            removeFromUniqueTable(n);
+            nodeLabel[n] = y;
+            nodeLow[n] = low;
+            nodeHigh[n] = high;
+            insert(n);
+            addVarNode(n);
+            releaseEdge(f0);
+            releaseEdge(f1);
+        }
+        levelOfVar[x] = level + 1;
+        levelOfVar[y] = level;
+        varAtLevel[level] = y;
+        varAtLevel[level + 1] = x;
+    }
+
+    /** Like {@link #makeNode}, while reordering, counting the new edge into the node returned. */
+    private int makeReferencedNode(int var, int low, int high) {
+        if (low == high) {
+            ++edgeRefs[low];
+            return low;
+        }
+        int n = find(var, low, high);
+        if (n >= 0) {
+            ++edgeRefs[n];
+            return n;
+        }
+        n = findOrAdd(var, low, high);
+        edgeRefs[n] = 1;
+        ++edgeRefs[low];
+        ++edgeRefs[high];
+        addVarNode(n);
+        return n;
+    }
+
+    /** Removes an edge into {@code n}, and frees it and what only it used if nothing else uses it. */
+    private void releaseEdge(int n) {
+        if (n <= TRUE) {
+            --edgeRefs[n];
+            return;
+        }
+        if (--edgeRefs[n] == 0 && nodeRefs[n] == 0) {
+            int low = nodeLow[n];
+            int high = nodeHigh[n];
+            removeFromUniqueTable(n);
+            free(n);
+            releaseEdge(low);
+            releaseEdge(high);
+        }
+    }
+
+    private void addVarNode(int n) {
+        int var = nodeLabel[n];
+        if (varNodeCounts[var] == varNodes[var].length) {
+            varNodes[var] = Arrays.copyOf(varNodes[var], 2 * varNodes[var].length);
+        }
+        varNodes[var][varNodeCounts[var]++] = n;
+    }
+
+    // Recursive operations.  Nodes are only created here, never collected.
+
+    private int iteRec(int f, int g, int h) {
+        if (f == TRUE) {
+            return g;
+        }
+        if (f == FALSE) {
+            return h;
+        }
+        if (g == h) {
+            return g;
+        }
+        if (g == TRUE && h == FALSE) {
+            return f;
+        }
+        int slot = cacheSlot(OP_ITE, f, g, h);
+        if (cached(slot, OP_ITE, f, g, h)) {
+            return cacheResult[slot];
+        }
+        int level = Math.min(level(f), Math.min(level(g), level(h)));
+        int var = varAtLevel[level];
+        int low = iteRec(cofactor(f, level, false), cofactor(g, level, false), cofactor(h, level, false));
+        int high = iteRec(cofactor(f, level, true), cofactor(g, level, true), cofactor(h, level, true));
+        int result = makeNode(var, low, high);
+        store(slot, OP_ITE, f, g, h, result);
+        return result;
+    }
+
+    private int restrictRec(int f, int var, int value) {
+        if (level(f) > levelOfVar[var]) {
+            return f;
+        }
+        if (nodeLabel[f] == var) {
+            return value == TRUE ? nodeHigh[f] : nodeLow[f];
+        }
+        int slot = cacheSlot(OP_RESTRICT, f, var, value);
+        if (cached(slot, OP_RESTRICT, f, var, value)) {
+            return cacheResult[slot];
+        }
+        int result = makeNode(nodeLabel[f], restrictRec(nodeLow[f], var, value), restrictRec(nodeHigh[f], var, value));
+        store(slot, OP_RESTRICT, f, var, value, result);
+        return result;
+    }
+
+    private int existsRec(int f, int var) {
+        if (level(f) > levelOfVar[var]) {
+            return f;
+        }
+        if (nodeLabel[f] == var) {
+            return iteRec(nodeLow[f], TRUE, nodeHigh[f]);
+        }
+        int slot = cacheSlot(OP_EXISTS, f, var, 0);
+        if (cached(slot, OP_EXISTS, f, var, 0)) {
+            return cacheResult[slot];
+        }
+        int result = makeNode(nodeLabel[f], existsRec(nodeLow[f], var), existsRec(nodeHigh[f], var));
+        store(slot, OP_EXISTS, f, var, 0, result);
+        return result;
+    }
+
+    private int cubeRec(BooleanCube cube) {
+        int result = TRUE;
+        for (int level = nVars - 1; level >= 0; --level) {
+            int var = varAtLevel[level];
+            if (cube.isOnVar(var)) {
+                result = makeNode(var, FALSE, result);
+            } else if (cube.isOffVar(var)) {
+                result = makeNode(var, result, FALSE);
+            }
+        }
+        return result;
+    }
+
+    /** Cofactor of {@code f} for the variable at {@code level}, which is not below the root of {@code f}. */
+    private int cofactor(int f, int level, boolean value) {
+        if (level(f) != level) {
+            return f;
+        }
+        return value ? nodeHigh[f] : nodeLow[f];
+    }
+
+    private int level(int f) {
+        return levelOfVar[nodeLabel[f]];
+    }
+
+    /** The node {@code (var, low, high)}, created if there is none. */
+    private int makeNode(int var, int low, int high) {
+        if (low == high) {
+            return low;
+        }
+        return findOrAdd(var, low, high);
+    }
+
+    /** Sifts the variables first if more than the automatic reordering threshold of nodes are in use. */
+    @Override
+    void begin(int f, int g, int h) {
+        super.begin(f, g, h);
+        if (autoReorderThreshold > 0 && getNumberOfNodes() > autoReorderThreshold) {
+            reorder();
+            autoReorderThreshold = Math.max(autoReorderThreshold, 2 * getNumberOfNodes());
+        }
+    }
+
+    @Override
+    void resized(int capacity) {
+        if (edgeRefs != null) {
+            edgeRefs = Arrays.copyOf(edgeRefs, capacity);
+        }
+    }
+
+    /** Part of the minterms of the whole space that {@code f} has. */
+    private double fraction(int f, double[] memo, BitSet done) {
+        if (f <= TRUE) {
+            return f;
+        }
+        if (!done.get(f)) {
+            memo[f] = (fraction(nodeLow[f], memo, done) + fraction(nodeHigh[f], memo, done)) / 2;
+            done.set(f);
+        }
+        return memo[f];
+    }
+
+    private void collectPaths(int f, char[] trits, Set<BooleanCube> cubes) {
+        if (f == FALSE) {
+            return;
+        }
+        if (f == TRUE) {
+            cubes.add(BooleanCube.fromString(new String(trits)));
+            return;
+        }
+        int var = nodeLabel[f];
+        trits[var] = '0';
+        collectPaths(nodeLow[f], trits, cubes);
+        trits[var] = '1';
+        collectPaths(nodeHigh[f], trits, cubes);
+        trits[var] = '*';
+    }
+
+    private void checkVar(int var) {
+        if (var < 0 || var >= nVars) {
+            throw new CubeCalculusException("No variable " + var + " in a manager of " + nVars + " variables.");
+        }
+    }
+
+    private void checkCube(BooleanCube cube) {
+        if (cube.getNumberOfVariables() != nVars) {
+            throw new CubeCalculusException("Cube " + cube + " is not of " + nVars + " variables.");
+        }
+    }
+}
@@ -0,0 +1,284 @@
+package edu.pdx.vishakh.cubecalculus.bdd;
+
+import edu.pdx.vishakh.cubecalculus.core.CubeCalculusException;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * The node table, computed cache and garbage collector shared by {@link BddManager} and {@link ZddManager}.
+ *
+ * Nodes are kept in parallel arrays and hash-consed through a unique table; nodes 0 and 1 are the terminals.  Each
+ * node has a label, the variable of a BDD node or the literal of a ZDD node, which orders the nodes from the root
+ * down.  A subclass applies its reduction rule before {@link #findOrAdd}.  The computed cache has a fixed size, and a
+ * new entry simply replaces the one in its slot.
+ */
+abstract class NodeTable {
+
+    /** The last terminal node; the terminals are 0 and 1. */
+    static final int LAST_TERMINAL = 1;
+
+    /** Garbage is collected when fewer than this part of the nodes are free. */
+    private static final double MIN_FREE_RATIO = 0.1;
+
+    /** Per node: its label, -1 for a free node, one past the last label for a terminal. */
+    int[] nodeLabel;
+    int[] nodeLow;
+    int[] nodeHigh;
+
+    /** Per node: the next node of its unique table chain, or of the free list. */
+    int[] nodeNext;
+
+    /** Per node: the number of external references. */
+    int[] nodeRefs;
+
+    /** Heads of the unique table chains.  The length is a power of 2. */
+    private int[] buckets;
+
+    private int freeList = -1;
+    private int nFree;
+
+    private final int[] cacheOp;
+    private final int[] cacheF;
+    private final int[] cacheG;
+    private final int[] cacheH;
+    final int[] cacheResult;
+
+    /** Operands of the running operation, kept by a collection. */
+    final int[] operands = new int[3];
+
+    private int nCollections;
+
+    /**
+     * @param terminalLabel Label of the terminals, one past the last label.
+     * @param initialNodes Size of the node table to start with.  It grows as needed.
+     * @param cacheSize Number of entries of the computed cache, rounded up to a power of 2.
+     */
+    NodeTable(int terminalLabel, int initialNodes, int cacheSize) {
+        allocate(Math.max(initialNodes, 16));
+        for (int n = 0; n <= LAST_TERMINAL; ++n) {
+            takeFree();
+            nodeLabel[n] = terminalLabel;
+            nodeLow[n] = n;
+            nodeHigh[n] = n;
+            nodeRefs[n] = 1;
+        }
+
+        int size = Integer.highestOneBit(Math.max(cacheSize, 1) * 2 - 1);
+        cacheOp = new int[size];
+        cacheF = new int[size];
+        cacheG = new int[size];
+        cacheH = new int[size];
+        cacheResult = new int[size];
+        Arrays.fill(cacheOp, -1);
+    }
+
+    /** Number of nodes in use, terminals included. */
+    public int getNumberOfNodes() {
+        return nodeLabel.length - nFree;
+    }
+
+    /** Number of garbage collections so far. */
+    public int getNumberOfCollections() {
+        return nCollections;
+    }
+
+    /** Reclaims the nodes that no referenced diagram reaches, and clears the computed cache. */
+    public void collectGarbage() {
+        Arrays.fill(operands, 0);
+        collect();
+    }
+
+    /** Called at the start of each operation, with its operands.  Collects garbage if few nodes are free. */
+    void begin(int f, int g, int h) {
+        operands[0] = f;
+        operands[1] = g;
+        operands[2] = h;
+        if (nFree < MIN_FREE_RATIO * nodeLabel.length) {
+            collect();
+            if (nFree < 2 * MIN_FREE_RATIO * nodeLabel.length) {
+                grow();
+            }
+        }
+    }
+
+    /** Collects garbage, keeping the operands of the running operation. */
+    void collect() {
+        BitSet marked = new BitSet(nodeLabel.length);
+        for (int n = 0; n < nodeLabel.length; ++n) {
+            if (nodeLabel[n] >= 0 && nodeRefs[n] > 0) {
+                mark(n, marked);
+            }
+        }
+        for (int f : operands) {
+            mark(f, marked);
+        }
+        freeList = -1;
+        nFree = 0;
+        Arrays.fill(buckets, -1);
+        for (int n = nodeLabel.length - 1; n > LAST_TERMINAL; --n) {
+            if (marked.get(n)) {
+                insert(n);
+            } else {
+                free(n);
+            }
+        }
+        clearCache();
+        ++nCollections;
+    }
+
+    /** The node {@code (label, low, high)} if there is one, else -1. */
+    int find(int label, int low, int high) {
+        for (int n = buckets[hash(label, low, high)]; n >= 0; n = nodeNext[n]) {
+            if (nodeLabel[n] == label && nodeLow[n] == low && nodeHigh[n] == high) {
+                return n;
+            }
+        }
+        return -1;
+    }
+
+    /** The node {@code (label, low, high)}, created if there is none.  The reduction rule is left to the caller. */
+    int findOrAdd(int label, int low, int high) {
+        int n = find(label, low, high);
+        if (n >= 0) {
+            return n;
+        }
+        if (nFree == 0) {
+            grow();
+        }
+        n = takeFree();
+        nodeLabel[n] = label;
+        nodeLow[n] = low;
+        nodeHigh[n] = high;
+        nodeRefs[n] = 0;
+        insert(n);
+        return n;
+    }
+
+    /** Called when the node table has grown to {@code capacity} nodes. */
+    void resized(int capacity) {
+    }
+
+    void free(int n) {
+        nodeLabel[n] = -1;
+        nodeRefs[n] = 0;
+        nodeNext[n] = freeList;
+        freeList = n;
+        ++nFree;
+    }
+
+    void insert(int n) {
+        int bucket = hash(nodeLabel[n], nodeLow[n], nodeHigh[n]);
+        nodeNext[n] = buckets[bucket];
+        buckets[bucket] = n;
+    }
+
+    void removeFromUniqueTable(int n) {
+        int bucket = hash(nodeLabel[n], nodeLow[n], nodeHigh[n]);
+        if (buckets[bucket] == n) {
+            buckets[bucket] = nodeNext[n];
+            return;
+        }
+        for (int m = buckets[bucket]; m >= 0; m = nodeNext[m]) {
+            if (nodeNext[m] == n) {
+                nodeNext[m] = nodeNext[n];
+                return;
+            }
+        }
+    }
+
+    int cacheSlot(int op, int f, int g, int h) {
+        int x = ((op * 0x9E3779B1 + f) * 0x85EBCA6B + g) * 0xC2B2AE35 + h;
+        return (x ^ (x >>> 16)) & (cacheOp.length - 1);
+    }
+
+    /** True if {@code slot} holds the result of {@code op} on {@code f, g, h}, in {@link #cacheResult}. */
+    boolean cached(int slot, int op, int f, int g, int h) {
+        return cacheOp[slot] == op && cacheF[slot] == f && cacheG[slot] == g && cacheH[slot] == h;
+    }
+
+    void store(int slot, int op, int f, int g, int h, int result) {
+        cacheOp[slot] = op;
+        cacheF[slot] = f;
+        cacheG[slot] = g;
+        cacheH[slot] = h;
+        cacheResult[slot] = result;
+    }
+
+    void clearCache() {
+        Arrays.fill(cacheOp, -1);
+    }
+
+    int countNodes(int f, BitSet visited) {
+        if (visited.get(f)) {
+            return 0;
+        }
+        visited.set(f);
+        if (f <= LAST_TERMINAL) {
+            return 1;
+        }
+        return 1 + countNodes(nodeLow[f], visited) + countNodes(nodeHigh[f], visited);
+    }
+
+    static int checkNumberOfVariables(int nVars) {
+        if (nVars < 0) {
+            throw new CubeCalculusException("Number of variables cannot be negative.");
+        }
+        return nVars;
+    }
+
+    private void allocate(int capacity) {
+        nodeLabel = new int[capacity];
+        nodeLow = new int[capacity];
+        nodeHigh = new int[capacity];
+        nodeNext = new int[capacity];
+        nodeRefs = new int[capacity];
+        buckets = new int[Integer.highestOneBit(capacity)];
+        Arrays.fill(buckets, -1);
+        for (int n = capacity - 1; n >= 0; --n) {
+            free(n);
+        }
+    }
+
+    /** Doubles the node table. */
+    private void grow() {
+        int oldCapacity = nodeLabel.length;
+        int capacity = 2 * oldCapacity;
+        nodeLabel = Arrays.copyOf(nodeLabel, capacity);
+        nodeLow = Arrays.copyOf(nodeLow, capacity);
+        nodeHigh = Arrays.copyOf(nodeHigh, capacity);
+        nodeNext = Arrays.copyOf(nodeNext, capacity);
+        nodeRefs = Arrays.copyOf(nodeRefs, capacity);
+        resized(capacity);
+        for (int n = capacity - 1; n >= oldCapacity; --n) {
+            free(n);
+        }
+        buckets = new int[Integer.highestOneBit(capacity)];
+        Arrays.fill(buckets, -1);
+        for (int n = LAST_TERMINAL + 1; n < oldCapacity; ++n) {
+            if (nodeLabel[n] >= 0) {
+                insert(n);
+            }
+        }
+    }
+
+    private int takeFree() {
+        int n = freeList;
+        freeList = nodeNext[n];
+        --nFree;
+        return n;
+    }
+
+    private int hash(int label, int low, int high) {
+        int h = (label * 0x9E3779B1 + low) * 0x85EBCA6B + high;
+        return (h ^ (h >>> 15)) & (buckets.length - 1);
+    }
+
+    private void mark(int f, BitSet marked) {
+        while (f > LAST_TERMINAL && !marked.get(f)) {
+            marked.set(f);
+            mark(nodeLow[f], marked);
+            f = nodeHigh[f];
+        }
+    }
+}
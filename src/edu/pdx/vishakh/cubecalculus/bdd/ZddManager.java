@@ -0,0 +1,646 @@
+package edu.pdx.vishakh.cubecalculus.bdd;
+
+import edu.pdx.vishakh.cubecalculus.core.BooleanCube;
+import edu.pdx.vishakh.cubecalculus.core.CubeCalculusException;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Sets of cubes as zero-suppressed decision diagrams over the literals of a fixed number of variables.
+ *
+ * A cube is the set of its literals: literal {@code 2i} is variable {@code i} being 1 and literal {@code 2i + 1} is
+ * it being 0.  A set of cubes is an {@code int}, the index of the root node of its ZDD, where a node whose high child
+ * is {@link #EMPTY} is never made; {@link #EMPTY} is the empty set and {@link #BASE} the set of the universal cube
+ * alone.  Literals are ordered by index.  Nodes are hash-consed, memoized and collected by the same node table as in
+ * {@link BddManager}, and a set that must survive later operations has to be kept with {@link #ref} and released
+ * with {@link #deref}.
+ *
+ * The size of a ZDD depends on the structure of the set rather than on its number of cubes, so sets of primes far
+ * too large to list, as {@link #primes} finds them, can still be built, filtered and counted.  A manager is not
+ * thread safe.
+ */
+public class ZddManager extends NodeTable {
+
+    public static final int EMPTY = 0;
+    public static final int BASE = 1;
+
+    private static final int DEFAULT_NODES = 1 << 12;
+    private static final int DEFAULT_CACHE_SIZE = 1 << 16;
+
+    /** Operation codes of the computed cache. */
+    private static final int OP_UNION = 0;
+    private static final int OP_INTERSECTION = 1;
+    private static final int OP_DIFFERENCE = 2;
+    private static final int OP_SUPERSETS = 3;
+    private static final int OP_SUBSETS = 4;
+    private static final int OP_ADD_LITERAL = 5;
+    private static final int OP_SUBSET0 = 6;
+    private static final int OP_SUBSET1 = 7;
+    private static final int OP_MAXIMAL = 8;
+
+    private final int nVars;
+    private final int nLiterals;
+
+    public ZddManager(int nVars) {
+        this(nVars, DEFAULT_NODES, DEFAULT_CACHE_SIZE);
+    }
+
+    /**
+     * @param nVars Number of variables, half the number of literals.
+     * @param initialNodes Size of the node table to start with.  It grows as needed.
+     * @param cacheSize Number of entries of the computed cache, rounded up to a power of 2.
+     */
+    public ZddManager(int nVars, int initialNodes, int cacheSize) {
+        super(2 * checkNumberOfVariables(nVars), initialNodes, cacheSize);
+        this.nVars = nVars;
+        nLiterals = 2 * nVars;
+    }
+
+    public int getNumberOfVariables() {
+        return nVars;
+    }
+
+    /** The literal of variable {@code var} being {@code value}. */
+    public static int literal(int var, boolean value) {
+        return value ? 2 * var : 2 * var + 1;
+    }
+
+    public int union(int p, int q) {
+        begin(p, q);
+        return unionRec(p, q);
+    }
+
+    public int intersection(int p, int q) {
+        begin(p, q);
+        return intersectionRec(p, q);
+    }
+
+    /** The cubes of {@code p} that are not in {@code q}. */
+    public int difference(int p, int q) {
+        begin(p, q);
+        return differenceRec(p, q);
+    }
+
+    /**
+     * The cubes of {@code p} whose literals are a superset of those of some cube of {@code q}, that is, the cubes of
+     * {@code p} contained in some cube of {@code q}.
+     */
+    public int supersets(int p, int q) {
+        begin(p, q);
+        return supersetsRec(p, q);
+    }
+
+    /**
+     * The cubes of {@code p} whose literals are a subset of those of some cube of {@code q}, that is, the cubes of
+     * {@code p} that contain some cube of {@code q}.
+     */
+    public int subsets(int p, int q) {
+        begin(p, q);
+        return subsetsRec(p, q);
+    }
+
+    /** The cubes of {@code p} not contained in another cube of {@code p}. */
+    public int maximal(int p) {
+        begin(p, EMPTY);
+        return maximalRec(p);
+    }
+
+    /** The cubes of {@code p} without literal {@code lit}. */
+    public int subset0(int p, int lit) {
+        checkLiteral(lit);
+        begin(p, EMPTY);
+        return subset0Rec(p, lit);
+    }
+
+    /** The cubes of {@code p} with literal {@code lit}, with the literal taken out. */
+    public int subset1(int p, int lit) {
+        checkLiteral(lit);
+        begin(p, EMPTY);
+        return subset1Rec(p, lit);
+    }
+
+    /** The cubes of {@code p}, none of which may have a literal of the variable of {@code lit}, with it added. */
+    public int addLiteral(int p, int lit) {
+        checkLiteral(lit);
+        begin(p, EMPTY);
+        return addLiteralRec(p, lit);
+    }
+
+    /**
+     * All the prime implicants of the function {@code f} of {@code bdd}, with Coudert and Madre's recursion: for the
+     * top variable x of f, the primes without x are those of f0 and f1, and the primes with x' or x are those of f0
+     * or f1 that are not primes of f0 and f1, with the literal added.  The primes are never listed; only BDDs and
+     * ZDDs of functions met on the way are built.
+     * @param bdd A manager of the same number of variables.  Its variables may be in any order.
+     */
+    public int primes(BddManager bdd, int f) {
+        checkManager(bdd);
+        begin(EMPTY, EMPTY);
+        List<Integer> held = new ArrayList<>();
+        try {
+            return primesRec(bdd, hold(bdd, f, held), new HashMap<>(), held);
+        } finally {
+            release(bdd, held);
+        }
+    }
+
+    /** The cubes of {@code p} that have a minterm of the function {@code f} of {@code bdd}. */
+    public int intersecting(BddManager bdd, int p, int f) {
+        checkManager(bdd);
+        begin(p, EMPTY);
+        List<Integer> held = new ArrayList<>();
+        try {
+            return intersectingRec(bdd, p, hold(bdd, f, held), 0, new HashMap<>(), held);
+        } finally {
+            release(bdd, held);
+        }
+    }
+
+    /** The union of the cubes of {@code p}, as a function of {@code bdd}. */
+    public int toBdd(BddManager bdd, int p) {
+        checkManager(bdd);
+        List<Integer> held = new ArrayList<>();
+        try {
+            return coverageRec(bdd, p, new HashMap<>(), held)[0];
+        } finally {
+            release(bdd, held);
+        }
+    }
+
+    /** The minterms that exactly one cube of {@code p} has, as a function of {@code bdd}. */
+    public int coveredOnce(BddManager bdd, int p) {
+        checkManager(bdd);
+        List<Integer> held = new ArrayList<>();
+        try {
+            int[] coverage = coverageRec(bdd, p, new HashMap<>(), held);
+            return bdd.andNot(coverage[0], coverage[1]);
+        } finally {
+            release(bdd, held);
+        }
+    }
+
+    /** True if {@code p} has the universal cube, the cube without literals. */
+    public boolean hasBase(int p) {
+        while (p > BASE) {
+            p = nodeLow[p];
+        }
+        return p == BASE;
+    }
+
+    /** Keeps {@code p} and the nodes under it through garbage collections.  Returns {@code p}. */
+    public int ref(int p) {
+        ++nodeRefs[p];
+        return p;
+    }
+
+    /** Releases a reference taken by {@link #ref}. */
+    public void deref(int p) {
+        if (nodeRefs[p] <= 0) {
+            throw new CubeCalculusException("ZDD " + p + " is not referenced.");
+        }
+        --nodeRefs[p];
+    }
+
+    /** Literal of the root node of {@code p}, or the number of literals for a terminal. */
+    public int getLiteral(int p) {
+        return nodeLabel[p];
+    }
+
+    /** The cubes of {@code p} without the root literal. */
+    public int getLow(int p) {
+        return nodeLow[p];
+    }
+
+    /** The cubes of {@code p} with the root literal, with it taken out. */
+    public int getHigh(int p) {
+        return nodeHigh[p];
+    }
+
+    /** Number of nodes of {@code p}, terminals included. */
+    public int size(int p) {
+        return countNodes(p, new BitSet());
+    }
+
+    /** Number of cubes of {@code p}. */
+    public double count(int p) {
+        return countCubes(p, new HashMap<>());
+    }
+
+    /** The ZDD of a set of cubes. */
+    public int fromCubes(Collection<BooleanCube> cubes) {
+        int result = ref(EMPTY);
+        for (BooleanCube cube : cubes) {
+            if (cube.getNumberOfVariables() != nVars) {
+                throw new CubeCalculusException("Cube " + cube + " is not of " + nVars + " variables.");
+            }
+            begin(result, EMPTY);
+            int c = BASE;
+            for (int var = nVars - 1; var >= 0; --var) {
+                if (cube.isOnVar(var)) {
+                    c = makeNode(literal(var, true), EMPTY, c);
+                } else if (cube.isOffVar(var)) {
+                    c = makeNode(literal(var, false), EMPTY, c);
+                }
+            }
+            int next = ref(unionRec(result, c));
+            deref(result);
+            result = next;
+        }
+        deref(result);
+        return result;
+    }
+
+    /**
+     * The cubes of {@code p}, which should be few enough to list; see {@link #count}.  A set of literals with both of
+     * a variable is an empty cube, and is left out.
+     */
+    public Set<BooleanCube> toCubes(int p) {
+        Set<BooleanCube> cubes = new HashSet<>();
+        char[] trits = new char[nVars];
+        Arrays.fill(trits, '*');
+        collectCubes(p, trits, cubes);
+        return cubes;
+    }
+
+    // Recursive operations.  Nodes are only created here, never collected.
+
+    private int unionRec(int p, int q) {
+        if (p == EMPTY || p == q) {
+            return q;
+        }
+        if (q == EMPTY) {
+            return p;
+        }
+        if (p > q) {
+            int t = p;
+            p = q;
+            q = t;
+        }
+        int slot = cacheSlot(OP_UNION, p, q, 0);
+        if (cached(slot, OP_UNION, p, q, 0)) {
+            return cacheResult[slot];
+        }
+        int lit = Math.min(nodeLabel[p], nodeLabel[q]);
+        int result = makeNode(lit, unionRec(low(p, lit), low(q, lit)), unionRec(high(p, lit), high(q, lit)));
+        store(slot, OP_UNION, p, q, 0, result);
+        return result;
+    }
+
+    private int intersectionRec(int p, int q) {
+        if (p == EMPTY || q == EMPTY) {
+            return EMPTY;
+        }
+        if (p == q) {
+            return p;
+        }
+        if (p > q) {
+            int t = p;
+            p = q;
+            q = t;
+        }
+        int slot = cacheSlot(OP_INTERSECTION, p, q, 0);
+        if (cached(slot, OP_INTERSECTION, p, q, 0)) {
+            return cacheResult[slot];
+        }
+        int result;
+        if (nodeLabel[p] < nodeLabel[q]) {
+            result = intersectionRec(nodeLow[p], q);
+        } else if (nodeLabel[q] < nodeLabel[p]) {
+            result = intersectionRec(p, nodeLow[q]);
+        } else {
+            result = makeNode(nodeLabel[p], intersectionRec(nodeLow[p], nodeLow[q]),
+                    intersectionRec(nodeHigh[p], nodeHigh[q]));
+        }
+        store(slot, OP_INTERSECTION, p, q, 0, result);
+        return result;
+    }
+
+    private int differenceRec(int p, int q) {
+        if (p == EMPTY || p == q) {
+            return EMPTY;
+        }
+        if (q == EMPTY) {
+            return p;
+        }
+        int slot = cacheSlot(OP_DIFFERENCE, p, q, 0);
+        if (cached(slot, OP_DIFFERENCE, p, q, 0)) {
+            return cacheResult[slot];
+        }
+        int result;
+        if (nodeLabel[q] < nodeLabel[p]) {
+            result = differenceRec(p, nodeLow[q]);
+        } else {
+            int lit = nodeLabel[p];
+            result = makeNode(lit, differenceRec(nodeLow[p], low(q, lit)), differenceRec(nodeHigh[p], high(q, lit)));
+        }
+        store(slot, OP_DIFFERENCE, p, q, 0, result);
+        return result;
+    }
+
+    private int supersetsRec(int p, int q) {
+        if (p == EMPTY || q == EMPTY) {
+            return EMPTY;
+        }
+        if (hasBase(q)) {
+            return p;
+        }
+        if (p == BASE) {
+            return EMPTY;
+        }
+        int slot = cacheSlot(OP_SUPERSETS, p, q, 0);
+        if (cached(slot, OP_SUPERSETS, p, q, 0)) {
+            return cacheResult[slot];
+        }
+        int result;
+        if (nodeLabel[q] < nodeLabel[p]) {
+            // No cube of p has the literal, so no cube of q with it is a subset.
+            result = supersetsRec(p, nodeLow[q]);
+        } else if (nodeLabel[p] < nodeLabel[q]) {
+            result = makeNode(nodeLabel[p], supersetsRec(nodeLow[p], q), supersetsRec(nodeHigh[p], q));
+        } else {
+            result = makeNode(nodeLabel[p], supersetsRec(nodeLow[p], nodeLow[q]),
+                    supersetsRec(nodeHigh[p], unionRec(nodeLow[q], nodeHigh[q])));
+        }
+        store(slot, OP_SUPERSETS, p, q, 0, result);
+        return result;
+    }
+
+    private int subsetsRec(int p, int q) {
+        if (p == EMPTY || q == EMPTY) {
+            return EMPTY;
+        }
+        if (p == BASE) {
+            return BASE;
+        }
+        if (q == BASE) {
+            return hasBase(p) ? BASE : EMPTY;
+        }
+        int slot = cacheSlot(OP_SUBSETS, p, q, 0);
+        if (cached(slot, OP_SUBSETS, p, q, 0)) {
+            return cacheResult[slot];
+        }
+        int result;
+        if (nodeLabel[p] < nodeLabel[q]) {
+            // No cube of q has the literal, so no cube of p with it is a subset.
+            result = subsetsRec(nodeLow[p], q);
+        } else if (nodeLabel[q] < nodeLabel[p]) {
+            result = subsetsRec(p, unionRec(nodeLow[q], nodeHigh[q]));
+        } else {
+            result = makeNode(nodeLabel[p], subsetsRec(nodeLow[p], unionRec(nodeLow[q], nodeHigh[q])),
+                    subsetsRec(nodeHigh[p], nodeHigh[q]));
+        }
+        store(slot, OP_SUBSETS, p, q, 0, result);
+        return result;
+    }
+
+    /** Cubes with the fewest literals: those with the root literal lose to any without it that is a subset. */
+    private int maximalRec(int p) {
+        if (p <= BASE) {
+            return p;
+        }
+        int slot = cacheSlot(OP_MAXIMAL, p, EMPTY, 0);
+        if (cached(slot, OP_MAXIMAL, p, EMPTY, 0)) {
+            return cacheResult[slot];
+        }
+        int low = maximalRec(nodeLow[p]);
+        int high = maximalRec(nodeHigh[p]);
+        int result = makeNode(nodeLabel[p], low, differenceRec(high, supersetsRec(high, low)));
+        store(slot, OP_MAXIMAL, p, EMPTY, 0, result);
+        return result;
+    }
+
+    private int subset0Rec(int p, int lit) {
+        if (nodeLabel[p] > lit) {
+            return p;
+        }
+        if (nodeLabel[p] == lit) {
+            return nodeLow[p];
+        }
+        int slot = cacheSlot(OP_SUBSET0, p, lit, 0);
+        if (cached(slot, OP_SUBSET0, p, lit, 0)) {
+            return cacheResult[slot];
+        }
+        int result = makeNode(nodeLabel[p], subset0Rec(nodeLow[p], lit), subset0Rec(nodeHigh[p], lit));
+        store(slot, OP_SUBSET0, p, lit, 0, result);
+        return result;
+    }
+
+    private int subset1Rec(int p, int lit) {
+        if (nodeLabel[p] > lit) {
+            return EMPTY;
+        }
+        if (nodeLabel[p] == lit) {
+            return nodeHigh[p];
+        }
+        int slot = cacheSlot(OP_SUBSET1, p, lit, 0);
+        if (cached(slot, OP_SUBSET1, p, lit, 0)) {
+            return cacheResult[slot];
+        }
+        int result = makeNode(nodeLabel[p], subset1Rec(nodeLow[p], lit), subset1Rec(nodeHigh[p], lit));
+        store(slot, OP_SUBSET1, p, lit, 0, result);
+        return result;
+    }
+
+    private int addLiteralRec(int p, int lit) {
+        if (p == EMPTY) {
+            return EMPTY;
+        }
+        if (nodeLabel[p] > lit) {
+            return makeNode(lit, EMPTY, p);
+        }
+        if (nodeLabel[p] == lit || nodeLabel[p] == (lit ^ 1)) {
+            throw new CubeCalculusException("Cubes already have a literal of variable " + lit / 2 + ".");
+        }
+        int slot = cacheSlot(OP_ADD_LITERAL, p, lit, 0);
+        if (cached(slot, OP_ADD_LITERAL, p, lit, 0)) {
+            return cacheResult[slot];
+        }
+        int result = makeNode(nodeLabel[p], addLiteralRec(nodeLow[p], lit), addLiteralRec(nodeHigh[p], lit));
+        store(slot, OP_ADD_LITERAL, p, lit, 0, result);
+        return result;
+    }
+
+    /** Primes of {@code f}; every BDD kept in {@code memo} is referenced and listed in {@code held}. */
+    private int primesRec(BddManager bdd, int f, Map<Integer, Integer> memo, List<Integer> held) {
+        if (f == BddManager.FALSE) {
+            return EMPTY;
+        }
+        if (f == BddManager.TRUE) {
+            return BASE;
+        }
+        Integer known = memo.get(f);
+        if (known != null) {
+            return known;
+        }
+        int var = bdd.getVar(f);
+        int f0 = hold(bdd, bdd.getLow(f), held);
+        int f1 = hold(bdd, bdd.getHigh(f), held);
+        int both = hold(bdd, bdd.and(f0, f1), held);
+
+        int common = primesRec(bdd, both, memo, held);
+        int p0 = differenceRec(primesRec(bdd, f0, memo, held), common);
+        int p1 = differenceRec(primesRec(bdd, f1, memo, held), common);
+        int result = unionRec(common, unionRec(addLiteralRec(p0, literal(var, false)),
+                addLiteralRec(p1, literal(var, true))));
+        memo.put(f, result);
+        return result;
+    }
+
+    /**
+     * Cubes of {@code p} meeting {@code u}, which does not depend on the variables before {@code var}.  Neither do
+     * the cubes of {@code p}, so those from {@code var} to the root variable of {@code p} are quantified out of
+     * {@code u}.
+     */
+    private int intersectingRec(BddManager bdd, int p, int u, int var, Map<Long, Integer> memo, List<Integer> held) {
+        if (p == EMPTY || u == BddManager.FALSE) {
+            return EMPTY;
+        }
+        if (p == BASE) {
+            return BASE;
+        }
+        int top = nodeLabel[p] / 2;
+        for (int v = var; v < top; ++v) {
+            u = hold(bdd, bdd.exists(u, v), held);
+        }
+        long key = (long) p << 32 | u;
+        Integer known = memo.get(key);
+        if (known != null) {
+            return known;
+        }
+        int[] parts = split(p, top);
+        int u1 = hold(bdd, bdd.restrict(u, top, true), held);
+        int u0 = hold(bdd, bdd.restrict(u, top, false), held);
+        int either = hold(bdd, bdd.or(u0, u1), held);
+        int result = unionRec(intersectingRec(bdd, parts[2], either, top + 1, memo, held),
+                unionRec(addLiteralRec(intersectingRec(bdd, parts[0], u1, top + 1, memo, held), literal(top, true)),
+                        addLiteralRec(intersectingRec(bdd, parts[1], u0, top + 1, memo, held),
+                                literal(top, false))));
+        memo.put(key, result);
+        return result;
+    }
+
+    /** The minterms that at least one and at least two cubes of {@code p} have, as functions of {@code bdd}. */
+    private int[] coverageRec(BddManager bdd, int p, Map<Integer, int[]> memo, List<Integer> held) {
+        if (p <= BASE) {
+            return new int[] {p == BASE ? BddManager.TRUE : BddManager.FALSE, BddManager.FALSE};
+        }
+        int[] known = memo.get(p);
+        if (known != null) {
+            return known;
+        }
+        int var = nodeLabel[p] / 2;
+        int[] parts = split(p, var);
+        int[] ones = coverageRec(bdd, parts[0], memo, held);
+        int[] zeros = coverageRec(bdd, parts[1], memo, held);
+        int[] free = coverageRec(bdd, parts[2], memo, held);
+        // Cubes with a literal of the variable cover disjoint halves of the space.
+        int x = hold(bdd, bdd.variable(var), held);
+        int once = hold(bdd, bdd.ite(x, ones[0], zeros[0]), held);
+        int twice = hold(bdd, bdd.ite(x, ones[1], zeros[1]), held);
+        int[] result = {
+                hold(bdd, bdd.or(free[0], once), held),
+                hold(bdd, bdd.or(free[1], bdd.or(twice, bdd.and(free[0], once))), held)
+        };
+        memo.put(p, result);
+        return result;
+    }
+
+    /** The cubes of {@code p} with literal x, with x', and with neither, for the root variable {@code var}. */
+    private int[] split(int p, int var) {
+        int ones = EMPTY;
+        if (nodeLabel[p] == literal(var, true)) {
+            ones = nodeHigh[p];
+            p = nodeLow[p];
+        }
+        int zeros = EMPTY;
+        if (nodeLabel[p] == literal(var, false)) {
+            zeros = nodeHigh[p];
+            p = nodeLow[p];
+        }
+        return new int[] {ones, zeros, p};
+    }
+
+    private static int hold(BddManager bdd, int f, List<Integer> held) {
+        held.add(bdd.ref(f));
+        return f;
+    }
+
+    private static void release(BddManager bdd, List<Integer> held) {
+        for (int f : held) {
+            bdd.deref(f);
+        }
+    }
+
+    /** Cubes of {@code p} without {@code lit}, which is not below the root of {@code p}. */
+    private int low(int p, int lit) {
+        return nodeLabel[p] == lit ? nodeLow[p] : p;
+    }
+
+    /** Cubes of {@code p} with {@code lit}, which is not below the root of {@code p}. */
+    private int high(int p, int lit) {
+        return nodeLabel[p] == lit ? nodeHigh[p] : EMPTY;
+    }
+
+    /** The node {@code (lit, low, high)}, created if there is none. */
+    private int makeNode(int lit, int low, int high) {
+        if (high == EMPTY) {
+            return low;
+        }
+        return findOrAdd(lit, low, high);
+    }
+
+    /** Called at the start of each operation, with its operands. */
+    private void begin(int p, int q) {
+        begin(p, q, EMPTY);
+    }
+
+    private double countCubes(int p, Map<Integer, Double> memo) {
+        if (p <= BASE) {
+            return p;
+        }
+        Double known = memo.get(p);
+        if (known == null) {
+            known = countCubes(nodeLow[p], memo) + countCubes(nodeHigh[p], memo);
+            memo.put(p, known);
+        }
+        return known;
+    }
+
+    private void collectCubes(int p, char[] trits, Set<BooleanCube> cubes) {
+        if (p == EMPTY) {
+            return;
+        }
+        if (p == BASE) {
+            cubes.add(BooleanCube.fromString(new String(trits)));
+            return;
+        }
+        int var = nodeLabel[p] / 2;
+        char value = (nodeLabel[p] & 1) == 0 ? '1' : '0';
+        collectCubes(nodeLow[p], trits, cubes);
+        if (trits[var] == '*') {
+            trits[var] = value;
+            collectCubes(nodeHigh[p], trits, cubes);
+            trits[var] = '*';
+        }
+    }
+
+    private void checkManager(BddManager bdd) {
+        if (bdd.getNumberOfVariables() != nVars) {
+            throw new CubeCalculusException("BDD manager is not of " + nVars + " variables.");
+        }
+    }
+
+    private void checkLiteral(int lit) {
+        if (lit < 0 || lit >= nLiterals) {
+            throw new CubeCalculusException("No literal " + lit + " in a manager of " + nVars + " variables.");
+        }
+    }
+}
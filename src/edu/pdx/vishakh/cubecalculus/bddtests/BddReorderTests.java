@@ -0,0 +1,87 @@
+package edu.pdx.vishakh.cubecalculus.bddtests;
+
+import edu.pdx.vishakh.cubecalculus.bdd.BddManager;
+import edu.pdx.vishakh.cubecalculus.core.BooleanCube;
+import edu.pdx.vishakh.cubecalculus.core.TestUtils;
+import edu.pdx.vishakh.cubecalculus.core.TruthTable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+public class BddReorderTests {
+
+    public static void main(String[] args) {
+        testSwap();
+        testSifting();
+        testAutomaticReordering();
+    }
+
+    /** Swapping levels keeps every function, and the BDDs stay canonical. */
+    private static void testSwap() {
+        Random random = new Random(42);
+        int nVars = 8;
+        BddManager bdd = new BddManager(nVars);
+        int[] functions = new int[20];
+        TruthTable[] tables = new TruthTable[functions.length];
+        List<Set<BooleanCube>> covers = new ArrayList<>();
+        for (int k = 0; k < functions.length; ++k) {
+            covers.add(TestUtils.randomCover(random, nVars, 1 + random.nextInt(10), "01**"));
+            functions[k] = bdd.ref(bdd.fromCubes(covers.get(k)));
+            tables[k] = TruthTable.fromCubes(nVars, covers.get(k));
+        }
+        boolean same = true;
+        for (int t = 0; t < 50; ++t) {
+            bdd.swapLevels(random.nextInt(nVars - 1));
+            int k = random.nextInt(functions.length);
+            same &= table(bdd, functions[k]).equals(tables[k]) && bdd.fromCubes(covers.get(k)) == functions[k];
+        }
+        boolean ordered = true;
+        for (int level = 0; level < nVars; ++level) {
+            ordered &= bdd.getLevel(bdd.getVarAtLevel(level)) == level;
+        }
+        TestUtils.assertTrue(same && ordered, "Swapped levels keep the functions");
+    }
+
+    /** x == y for two numbers, with all the bits of x first, shrinks from exponential to linear size. */
+    private static void testSifting() {
+        int nBits = 10;
+        BddManager bdd = new BddManager(2 * nBits);
+        int equal = bdd.ref(equality(bdd, nBits));
+        int before = bdd.size(equal);
+        TruthTable expected = table(bdd, equal);
+        BddManager.ReorderReport report = bdd.sift();
+        System.out.println(report);
+        TestUtils.assertTrue(before > 1000 && bdd.size(equal) == 3 * nBits + 2
+                && report.getNodesAfter() == bdd.getNumberOfNodes() && table(bdd, equal).equals(expected),
+                "Sifting finds a small order");
+    }
+
+    /** Without reordering, the same function would take about 3 * 2^16 nodes. */
+    private static void testAutomaticReordering() {
+        int nBits = 16;
+        BddManager bdd = new BddManager(2 * nBits);
+        bdd.setAutoReorder(1000);
+        int equal = bdd.ref(equality(bdd, nBits));
+        TestUtils.assertTrue(bdd.getNumberOfReorderings() > 0 && bdd.size(equal) < 1000
+                && bdd.satCount(equal) == Math.pow(2, nBits), "Reordering is triggered by size");
+    }
+
+    /** x == y, with x in variables 0 to nBits - 1 and y in the rest, built from the least significant bits up. */
+    private static int equality(BddManager bdd, int nBits) {
+        int equal = bdd.ref(BddManager.TRUE);
+        for (int i = nBits - 1; i >= 0; --i) {
+            int same = bdd.not(bdd.xor(bdd.variable(i), bdd.variable(nBits + i)));
+            int next = bdd.ref(bdd.and(same, equal));
+            bdd.deref(equal);
+            equal = next;
+        }
+        bdd.deref(equal);
+        return equal;
+    }
+
+    private static TruthTable table(BddManager bdd, int f) {
+        return TruthTable.fromCubes(bdd.getNumberOfVariables(), bdd.toCubes(f));
+    }
+}
@@ -0,0 +1,126 @@
+package edu.pdx.vishakh.cubecalculus.bddtests;
+
+import edu.pdx.vishakh.cubecalculus.bdd.BddManager;
+import edu.pdx.vishakh.cubecalculus.core.BooleanCube;
+import edu.pdx.vishakh.cubecalculus.core.CubeUtils;
+import edu.pdx.vishakh.cubecalculus.core.TestUtils;
+import edu.pdx.vishakh.cubecalculus.core.TruthTable;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+public class BddTests {
+
+    public static void main(String[] args) {
+        testCanonical();
+        testOperations();
+        testGarbageCollection();
+        testWideFunction();
+    }
+
+    private static void testCanonical() {
+        BddManager bdd = new BddManager(4);
+        int f = bdd.fromCubes(cubes("1*0*", "**11", "0*11"));
+        int g = bdd.fromCubes(cubes("1*00", "1*01", "*011", "*111"));
+        int h = bdd.fromCubes(cubes("1*0*", "*011"));
+        TestUtils.assertTrue(f == g && f != h && bdd.fromCubes(cubes("1***", "0***")) == BddManager.TRUE
+                && bdd.fromCubes(new HashSet<>()) == BddManager.FALSE, "Equivalent covers have the same BDD");
+    }
+
+    /** Every operation agrees with the truth tables of random functions. */
+    private static void testOperations() {
+        Random random = new Random(41);
+        int nVars = 8;
+        BddManager bdd = new BddManager(nVars);
+        boolean agree = true;
+        for (int t = 0; t < 100; ++t) {
+            Set<BooleanCube> a = TestUtils.randomCover(random, nVars, 1 + random.nextInt(10), "01**");
+            Set<BooleanCube> b = TestUtils.randomCover(random, nVars, 1 + random.nextInt(10), "01**");
+            TruthTable ta = TruthTable.fromCubes(nVars, a);
+            TruthTable tb = TruthTable.fromCubes(nVars, b);
+            int f = bdd.ref(bdd.fromCubes(a));
+            int g = bdd.ref(bdd.fromCubes(b));
+
+            TruthTable and = new TruthTable(ta);
+            and.and(tb);
+            TruthTable or = new TruthTable(ta);
+            or.or(tb);
+            TruthTable andNot = new TruthTable(ta);
+            andNot.andNot(tb);
+            TruthTable not = new TruthTable(ta);
+            not.not();
+            agree &= table(bdd, bdd.and(f, g)).equals(and) && table(bdd, bdd.or(f, g)).equals(or)
+                    && table(bdd, bdd.andNot(f, g)).equals(andNot) && table(bdd, bdd.not(f)).equals(not)
+                    && bdd.satCount(f) == ta.countOnes() && bdd.implies(f, bdd.or(f, g))
+                    && table(bdd, bdd.fromCubes(bdd.toCubes(f))).equals(ta);
+
+            TruthTable xor = new TruthTable(or);
+            xor.andNot(and);
+            agree &= table(bdd, bdd.xor(f, g)).equals(xor);
+
+            int var = random.nextInt(nVars);
+            TruthTable restricted = new TruthTable(nVars);
+            TruthTable exists = new TruthTable(nVars);
+            int p = nVars - 1 - var;
+            for (long m = 0; m < (1 << nVars); ++m) {
+                boolean high = ta.get(m | (1L << p));
+                boolean low = ta.get(m & ~(1L << p));
+                if (high) {
+                    restricted.set(m);
+                }
+                if (high || low) {
+                    exists.set(m);
+                }
+            }
+            agree &= table(bdd, bdd.restrict(f, var, true)).equals(restricted)
+                    && table(bdd, bdd.exists(f, var)).equals(exists);
+            BooleanCube minterm = bdd.anyMinterm(f);
+            agree &= minterm == null ? ta.isZero() : ta.get(minterm.numericValue());
+            bdd.deref(f);
+            bdd.deref(g);
+        }
+        TestUtils.assertTrue(agree, "Operations agree with truth tables");
+    }
+
+    /** With a small node table, unreferenced nodes are reclaimed and referenced ones survive. */
+    private static void testGarbageCollection() {
+        Random random = new Random(42);
+        int nVars = 12;
+        BddManager bdd = new BddManager(nVars, 64, 256);
+        Set<BooleanCube> kept = TestUtils.randomCover(random, nVars, 20, "01**");
+        int f = bdd.ref(bdd.fromCubes(kept));
+        for (int t = 0; t < 200; ++t) {
+            bdd.fromCubes(TestUtils.randomCover(random, nVars, 20, "01**"));
+        }
+        bdd.collectGarbage();
+        int nNodes = bdd.getNumberOfNodes();
+        TestUtils.assertTrue(bdd.getNumberOfCollections() > 1 && nNodes == bdd.size(f) && bdd.fromCubes(kept) == f
+                && table(bdd, f).equals(TruthTable.fromCubes(nVars, kept)),
+                "Dead nodes are collected");
+    }
+
+    /** x == y for two 30 bit numbers, with their bits interleaved. */
+    private static void testWideFunction() {
+        int nBits = 30;
+        BddManager bdd = new BddManager(2 * nBits);
+        int equal = bdd.ref(BddManager.TRUE);
+        for (int i = nBits - 1; i >= 0; --i) {
+            int same = bdd.not(bdd.xor(bdd.variable(2 * i), bdd.variable(2 * i + 1)));
+            int next = bdd.ref(bdd.and(same, equal));
+            bdd.deref(equal);
+            equal = next;
+        }
+        TestUtils.assertTrue(bdd.size(equal) == 3 * nBits + 2 && bdd.satCount(equal) == Math.pow(2, nBits),
+                "Wide functions have small BDDs");
+    }
+
+    /** Truth table of a BDD, from its cubes. */
+    private static TruthTable table(BddManager bdd, int f) {
+        return TruthTable.fromCubes(bdd.getNumberOfVariables(), bdd.toCubes(f));
+    }
+
+    private static Set<BooleanCube> cubes(String... cubes) {
+        return CubeUtils.cubeSetFromStringArray(cubes);
+    }
+}
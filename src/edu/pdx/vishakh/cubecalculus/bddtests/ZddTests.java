@@ -0,0 +1,133 @@
+package edu.pdx.vishakh.cubecalculus.bddtests;
+
+import edu.pdx.vishakh.cubecalculus.algorithms.QuineMcCluskeyAlgorithm;
+import edu.pdx.vishakh.cubecalculus.bdd.BddManager;
+import edu.pdx.vishakh.cubecalculus.bdd.ZddManager;
+import edu.pdx.vishakh.cubecalculus.core.BooleanCube;
+import edu.pdx.vishakh.cubecalculus.core.TestUtils;
+import edu.pdx.vishakh.cubecalculus.core.TruthTable;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+public class ZddTests {
+
+    public static void main(String[] args) {
+        testSetOperations();
+        testPrimes();
+        testHugePrimeSet();
+    }
+
+    /** Set operations and containment filters agree with the same operations on sets of cubes. */
+    private static void testSetOperations() {
+        Random random = new Random(43);
+        int nVars = 6;
+        ZddManager zdd = new ZddManager(nVars, 64, 256);
+        boolean agree = true;
+        for (int t = 0; t < 100; ++t) {
+            Set<BooleanCube> a = randomCubes(random, nVars, 1 + random.nextInt(20));
+            Set<BooleanCube> b = t % 4 == 0 ? new HashSet<>(a) : randomCubes(random, nVars, 1 + random.nextInt(20));
+            int p = zdd.ref(zdd.fromCubes(a));
+            int q = zdd.ref(zdd.fromCubes(b));
+
+            Set<BooleanCube> union = new HashSet<>(a);
+            union.addAll(b);
+            Set<BooleanCube> intersection = new HashSet<>(a);
+            intersection.retainAll(b);
+            Set<BooleanCube> difference = new HashSet<>(a);
+            difference.removeAll(b);
+            Set<BooleanCube> contained = new HashSet<>();
+            Set<BooleanCube> containing = new HashSet<>();
+            Set<BooleanCube> maximal = new HashSet<>();
+            for (BooleanCube c : a) {
+                boolean isMaximal = true;
+                for (BooleanCube d : b) {
+                    if (d.includes(c)) {
+                        contained.add(c);
+                    }
+                    if (c.includes(d)) {
+                        containing.add(c);
+                    }
+                }
+                for (BooleanCube d : a) {
+                    isMaximal &= d.equals(c) || !d.includes(c);
+                }
+                if (isMaximal) {
+                    maximal.add(c);
+                }
+            }
+            agree &= zdd.toCubes(zdd.union(p, q)).equals(union) && zdd.toCubes(zdd.intersection(p, q)).equals(
+                    intersection) && zdd.toCubes(zdd.difference(p, q)).equals(difference)
+                    && zdd.toCubes(zdd.supersets(p, q)).equals(contained)
+                    && zdd.toCubes(zdd.subsets(p, q)).equals(containing)
+                    && zdd.toCubes(zdd.maximal(p)).equals(maximal) && zdd.count(p) == a.size();
+            zdd.deref(p);
+            zdd.deref(q);
+        }
+        TestUtils.assertTrue(agree && zdd.getNumberOfCollections() > 0, "Set operations agree with cube sets");
+    }
+
+    /** The primes of random functions are those Quine-McCluskey finds. */
+    private static void testPrimes() {
+        Random random = new Random(44);
+        int nVars = 7;
+        BddManager bdd = new BddManager(nVars);
+        ZddManager zdd = new ZddManager(nVars);
+        boolean same = true;
+        for (int t = 0; t < 20; ++t) {
+            Set<BooleanCube> cover = new HashSet<>();
+            for (int k = random.nextInt(30); k >= 0; --k) {
+                cover.add(randomCube(random, nVars, "011*"));
+            }
+            if (t % 2 == 1) {
+                // Any order of the variables gives the same primes.
+                bdd.sift();
+                bdd.swapLevels(random.nextInt(nVars - 1));
+            }
+            int f = bdd.fromCubes(cover);
+            Set<BooleanCube> primes = zdd.toCubes(zdd.primes(bdd, f));
+            same &= primes.equals(new QuineMcCluskeyAlgorithm(null, null).findAllPrimes(nVars,
+                    TruthTable.fromCubes(nVars, cover).toMinterms()));
+        }
+        TestUtils.assertTrue(same, "Implicit primes match Quine-McCluskey");
+    }
+
+    /** (a1 + b1 + c1)(a2 + b2 + c2)... has 3^20 primes, in a ZDD of a few dozen nodes. */
+    private static void testHugePrimeSet() {
+        int nGroups = 20;
+        int nVars = 3 * nGroups;
+        BddManager bdd = new BddManager(nVars);
+        ZddManager zdd = new ZddManager(nVars);
+        int f = bdd.ref(BddManager.TRUE);
+        for (int g = 0; g < nGroups; ++g) {
+            int any = bdd.or(bdd.variable(3 * g), bdd.or(bdd.variable(3 * g + 1), bdd.variable(3 * g + 2)));
+            int next = bdd.ref(bdd.and(f, any));
+            bdd.deref(f);
+            f = next;
+        }
+        long start = System.nanoTime();
+        int primes = zdd.primes(bdd, f);
+        long millis = (System.nanoTime() - start) / 1000000;
+        System.out.println("Found " + (long) zdd.count(primes) + " primes in " + zdd.size(primes) + " ZDD nodes in "
+                + millis + " ms");
+        TestUtils.assertTrue(zdd.count(primes) == Math.pow(3, nGroups) && zdd.size(primes) < 100,
+                "Huge prime sets are built without listing them");
+    }
+
+    private static Set<BooleanCube> randomCubes(Random random, int nVars, int nCubes) {
+        Set<BooleanCube> cubes = new HashSet<>();
+        for (int k = 0; k < nCubes; ++k) {
+            cubes.add(randomCube(random, nVars, "01***"));
+        }
+        return cubes;
+    }
+
+    private static BooleanCube randomCube(Random random, int nVars, String trits) {
+        char[] cube = new char[nVars];
+        for (int i = 0; i < nVars; ++i) {
+            cube[i] = trits.charAt(random.nextInt(trits.length()));
+        }
+        return BooleanCube.fromString(new String(cube));
+    }
+}
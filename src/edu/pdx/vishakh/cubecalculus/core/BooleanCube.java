@@ -1,5 +1,6 @@
 package edu.pdx.vishakh.cubecalculus.core;
 
+import java.nio.LongBuffer;
 import java.util.BitSet;
 import java.util.HashSet;
 import java.util.Set;
@@ -88,6 +89,31 @@ public class BooleanCube  implements Comparable {
         order = c.order;
     }
 
+    /**
+     * Creates a cube from its bits packed into longs, in the layout of {@code bits}: variable i is in bits 2i and
+     * 2i+1 of the words, counting from bit 0 of the first word.
+     * @param nVars Number of variables.
+     * @param words Array holding the packed cube.
+     * @param offset Index of the first word of the cube.
+     * @param length Number of words of the cube.
+     */
+    public static BooleanCube fromWords(int nVars, long[] words, int offset, int length) {
+        return new BooleanCube(nVars, BitSet.valueOf(LongBuffer.wrap(words, offset, length)));
+    }
+
+    /**
+     * Packs the bits of the cube into longs, in the layout read by {@link #fromWords}.
+     * @param words Array to write to.
+     * @param offset Index of the first word to write.
+     * @param length Number of words to write.  Words beyond the cube are cleared.
+     */
+    public void toWords(long[] words, int offset, int length) {
+        long[] packed = bits.toLongArray();
+        for (int i = 0; i < length; ++i) {
+            words[offset + i] = i < packed.length ? packed[i] : 0;
+        }
+    }
+
 
 
     /** Mutable method to set a variable to ON.
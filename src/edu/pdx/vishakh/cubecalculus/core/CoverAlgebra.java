@@ -0,0 +1,216 @@
+package edu.pdx.vishakh.cubecalculus.core;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Operations on whole covers: product, sum, sharp, exclusive or and complement, each giving a cover of the result
+ * with no cube contained in another.
+ *
+ * The right operand is indexed by its values for a few pivot variables, the ones most of its cubes have a literal
+ * of, so a cube of the left operand only meets the cubes of the buckets whose pivot values are compatible with its
+ * own, instead of every cube.  Large left operands are split into chunks run in parallel.
+ */
+public class CoverAlgebra {
+
+    /** Most pivot variables of an index. */
+    private static final int MAX_PIVOTS = 6;
+
+    /** Cubes of the left operand per parallel task. */
+    private static final int CUBES_PER_CHUNK = 256;
+
+    private final int nVars;
+    private final int wordsPerCube;
+    private final long[] varMasks;
+
+    public CoverAlgebra(int nVars) {
+        this.nVars = nVars;
+        wordsPerCube = PackedCubeList.wordsPerCube(nVars);
+        varMasks = PackedCubeList.varMasks(nVars);
+    }
+
+    public int getNumberOfVariables() {
+        return nVars;
+    }
+
+    /** The product of two covers: the intersections of their cubes. */
+    public Set<BooleanCube> and(Collection<BooleanCube> a, Collection<BooleanCube> b) {
+        List<long[]> right = pack(b);
+        CubeIndex index = new CubeIndex(right);
+        index.addAll(right);
+        return toSet(removeContained(forEachCube(pack(a), x -> {
+            List<long[]> products = new ArrayList<>();
+            for (List<long[]> bucket : index.meeting(x)) {
+                for (long[] y : bucket) {
+                    long[] product = new long[wordsPerCube];
+                    if (PackedCubeList.intersection(x, y, varMasks, product)) {
+                        products.add(product);
+                    }
+                }
+            }
+            return products;
+        })));
+    }
+
+    /** The sum of two covers, without the cubes contained in others. */
+    public Set<BooleanCube> or(Collection<BooleanCube> a, Collection<BooleanCube> b) {
+        List<long[]> cubes = pack(a);
+        cubes.addAll(pack(b));
+        return toSet(removeContained(cubes));
+    }
+
+    /** The minterms of {@code a} that are not in {@code b}. */
+    public Set<BooleanCube> sharp(Collection<BooleanCube> a, Collection<BooleanCube> b) {
+        return toSet(removeContained(sharp(pack(a), pack(b))));
+    }
+
+    /** The minterms in exactly one of the two covers. */
+    public Set<BooleanCube> xor(Collection<BooleanCube> a, Collection<BooleanCube> b) {
+        List<long[]> first = pack(a);
+        List<long[]> second = pack(b);
+        List<long[]> cubes = sharp(first, second);
+        cubes.addAll(sharp(second, first));
+        return toSet(removeContained(cubes));
+    }
+
+    /** The minterms not in {@code cover}. */
+    public Set<BooleanCube> complement(Collection<BooleanCube> cover) {
+        long[] universe = new long[wordsPerCube];
+        for (int w = 0; w < wordsPerCube; ++w) {
+            universe[w] = varMasks[w] | (varMasks[w] << 1);
+        }
+        List<long[]> universal = new ArrayList<>();
+        universal.add(universe);
+        return toSet(removeContained(sharp(universal, pack(cover))));
+    }
+
+    /** Each cube of {@code a} less the cubes of {@code b} it meets, in disjoint pieces. */
+    private List<long[]> sharp(List<long[]> a, List<long[]> b) {
+        CubeIndex index = new CubeIndex(b);
+        index.addAll(b);
+        return forEachCube(a, x -> {
+            List<long[]> pieces = new ArrayList<>();
+            pieces.add(x);
+            for (List<long[]> bucket : index.meeting(x)) {
+                for (long[] y : bucket) {
+                    List<long[]> next = new ArrayList<>();
+                    for (long[] piece : pieces) {
+                        PackedCubeList.disjointSharp(piece, y, varMasks, next);
+                    }
+                    pieces = next;
+                    if (pieces.isEmpty()) {
+                        return pieces;
+                    }
+                }
+            }
+            return pieces;
+        });
+    }
+
+    /** Applies {@code operation} to every cube, in parallel chunks for many cubes, and joins the results. */
+    private List<long[]> forEachCube(List<long[]> cubes, Function<long[], List<long[]>> operation) {
+        int nChunks = (cubes.size() + CUBES_PER_CHUNK - 1) / CUBES_PER_CHUNK;
+        IntStream chunks = IntStream.range(0, nChunks);
+        if (nChunks > 1) {
+            chunks = chunks.parallel();
+        }
+        return chunks.mapToObj(k -> {
+            List<long[]> result = new ArrayList<>();
+            for (long[] c : cubes.subList(k * CUBES_PER_CHUNK, Math.min(cubes.size(), (k + 1) * CUBES_PER_CHUNK))) {
+                result.addAll(operation.apply(c));
+            }
+            return result;
+        }).flatMap(List::stream).collect(Collectors.toList());
+    }
+
+    /** The cubes not contained in another, one of each set of equal cubes. */
+    private List<long[]> removeContained(List<long[]> cubes) {
+        return SingleCubeContainment.removeContainedPacked(nVars, cubes);
+    }
+
+    /**
+     * Cubes in buckets by their values for the pivot variables.  A bucket key has 2 bits per pivot, the values as in
+     * the packed layout.
+     */
+    private class CubeIndex {
+
+        private final int[] pivots;
+
+        /** Low bit of each pivot in a key. */
+        private final int pivotMask;
+
+        private final Map<Integer, List<long[]>> buckets = new HashMap<>();
+
+        /** An empty index, with pivots chosen for {@code cubes}. */
+        CubeIndex(List<long[]> cubes) {
+            // The variables with the most literals split the cubes the most.
+            int[] literals = new int[nVars];
+            for (long[] c : cubes) {
+                for (int w = 0; w < wordsPerCube; ++w) {
+                    long specified = ~(c[w] & (c[w] >>> 1)) & varMasks[w];
+                    while (specified != 0) {
+                        int bit = Long.numberOfTrailingZeros(specified);
+                        ++literals[32 * w + bit / 2];
+                        specified &= specified - 1;
+                    }
+                }
+            }
+            pivots = IntStream.range(0, nVars).boxed().filter(v -> literals[v] > 0)
+                    .sorted((x, y) -> Integer.compare(literals[y], literals[x]))
+                    .limit(MAX_PIVOTS).mapToInt(Integer::intValue).toArray();
+            pivotMask = (int) PackedCubeList.varMasks(pivots.length)[0];
+        }
+
+        void addAll(List<long[]> cubes) {
+            for (long[] c : cubes) {
+                add(c);
+            }
+        }
+
+        void add(long[] c) {
+            buckets.computeIfAbsent(key(c), k -> new ArrayList<>()).add(c);
+        }
+
+        /** Buckets of the cubes that can meet {@code c}. */
+        List<List<long[]>> meeting(long[] c) {
+            int key = key(c);
+            List<List<long[]>> result = new ArrayList<>();
+            for (Map.Entry<Integer, List<long[]>> e : buckets.entrySet()) {
+                int common = e.getKey() & key;
+                if (((common | (common >>> 1)) & pivotMask) == pivotMask) {
+                    result.add(e.getValue());
+                }
+            }
+            return result;
+        }
+
+        private int key(long[] c) {
+            int key = 0;
+            for (int i = 0; i < pivots.length; ++i) {
+                int v = pivots[i];
+                key |= (int) ((c[v >>> 5] >>> (2 * (v & 31))) & 3) << (2 * i);
+            }
+            return key;
+        }
+    }
+
+    private List<long[]> pack(Collection<BooleanCube> cubes) {
+        return PackedCubeList.pack(nVars, cubes);
+    }
+
+    private Set<BooleanCube> toSet(List<long[]> cubes) {
+        Set<BooleanCube> result = new HashSet<>();
+        for (long[] c : cubes) {
+            result.add(BooleanCube.fromWords(nVars, c, 0, wordsPerCube));
+        }
+        return result;
+    }
+}
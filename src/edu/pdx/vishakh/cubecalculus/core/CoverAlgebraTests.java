@@ -0,0 +1,77 @@
+package edu.pdx.vishakh.cubecalculus.core;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+public class CoverAlgebraTests {
+
+    public static void main(String[] args) {
+        testAgainstTruthTables();
+        testLargeCovers();
+    }
+
+    /** Every operator agrees with the truth tables, and leaves no cube contained in another. */
+    private static void testAgainstTruthTables() {
+        Random random = new Random(46);
+        boolean agree = true;
+        for (int t = 0; t < 100; ++t) {
+            int nVars = 1 + random.nextInt(9);
+            CoverAlgebra algebra = new CoverAlgebra(nVars);
+            Set<BooleanCube> a = TestUtils.randomCover(random, nVars, random.nextInt(12), "01**");
+            Set<BooleanCube> b = TestUtils.randomCover(random, nVars, random.nextInt(12), "01**");
+            TruthTable ta = TruthTable.fromCubes(nVars, a);
+            TruthTable tb = TruthTable.fromCubes(nVars, b);
+
+            TruthTable and = new TruthTable(ta);
+            and.and(tb);
+            TruthTable or = new TruthTable(ta);
+            or.or(tb);
+            TruthTable sharp = new TruthTable(ta);
+            sharp.andNot(tb);
+            TruthTable xor = new TruthTable(or);
+            xor.andNot(and);
+            TruthTable not = new TruthTable(ta);
+            not.not();
+            agree &= same(nVars, algebra.and(a, b), and) && same(nVars, algebra.or(a, b), or)
+                    && same(nVars, algebra.sharp(a, b), sharp) && same(nVars, algebra.xor(a, b), xor)
+                    && same(nVars, algebra.complement(a), not);
+        }
+        TestUtils.assertTrue(agree, "Cover operators agree with truth tables");
+    }
+
+    /** Covers of thousands of cubes with literals for two variables in three, checked on cubes. */
+    private static void testLargeCovers() {
+        int nVars = 40;
+        Random random = new Random(47);
+        CoverAlgebra algebra = new CoverAlgebra(nVars);
+        Set<BooleanCube> a = TestUtils.randomCover(random, nVars, 5000, "01*");
+        Set<BooleanCube> b = TestUtils.randomCover(random, nVars, 5000, "01*");
+        Set<BooleanCube> and = algebra.and(a, b);
+        Set<BooleanCube> xor = algebra.xor(a, b);
+
+        CoverChecker checker = new CoverChecker(nVars);
+        // a.b is in a and in b, and with a # b, which does not meet b, makes up a.
+        Set<BooleanCube> sharp = algebra.sharp(a, b);
+        Set<BooleanCube> rebuilt = new HashSet<>(and);
+        rebuilt.addAll(sharp);
+        TestUtils.assertTrue(checker.findNotContained(and, a) == null && checker.findNotContained(and, b) == null
+                && checker.findIntersection(sharp, b) == null && checker.findDifference(rebuilt, a) == null
+                && checker.findIntersection(xor, and) == null, "Large covers are combined");
+    }
+
+    /** True if {@code cover} has the minterms of {@code table} and no cube contained in another. */
+    private static boolean same(int nVars, Set<BooleanCube> cover, TruthTable table) {
+        List<BooleanCube> cubes = new ArrayList<>(cover);
+        for (int i = 0; i < cubes.size(); ++i) {
+            for (int j = 0; j < cubes.size(); ++j) {
+                if (i != j && cubes.get(i).includes(cubes.get(j))) {
+                    return false;
+                }
+            }
+        }
+        return TruthTable.fromCubes(nVars, cover).equals(table);
+    }
+}
@@ -0,0 +1,226 @@
+package edu.pdx.vishakh.cubecalculus.core;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Checks covers against each other and against ON, OFF and DONTCARE sets, without listing their minterms.
+ *
+ * Containment of a cube in a cover is decided by the tautology of the cover restricted to the cube, with the unate
+ * recursive paradigm: a unate cover is a tautology only if it has the universal cube, and a binate one is split on
+ * its most binate variable.  Every check returns a minterm that shows the failure, or {@code null} if there is none.
+ */
+public class CoverChecker {
+
+    private final int nVars;
+    private final int wordsPerCube;
+    private final long[] varMasks;
+
+    public CoverChecker(int nVars) {
+        this.nVars = nVars;
+        wordsPerCube = PackedCubeList.wordsPerCube(nVars);
+        varMasks = PackedCubeList.varMasks(nVars);
+    }
+
+    public int getNumberOfVariables() {
+        return nVars;
+    }
+
+    /** True if {@code cover} has every minterm. */
+    public boolean isTautology(Collection<BooleanCube> cover) {
+        long[] universe = new long[wordsPerCube];
+        for (int w = 0; w < wordsPerCube; ++w) {
+            universe[w] = varMasks[w] | (varMasks[w] << 1);
+        }
+        return findUncovered(universe, pack(cover)) == null;
+    }
+
+    /** Returns a minterm of {@code a} that is not in {@code b}, or {@code null} if {@code a} is contained in it. */
+    public BooleanCube findNotContained(Collection<BooleanCube> a, Collection<BooleanCube> b) {
+        List<long[]> cover = pack(b);
+        for (long[] cube : pack(a)) {
+            long[] minterm = findUncovered(cube, cover);
+            if (minterm != null) {
+                return toCube(minterm);
+            }
+        }
+        return null;
+    }
+
+    /** Returns a minterm in both {@code a} and {@code b}, or {@code null} if they are disjoint. */
+    public BooleanCube findIntersection(Collection<BooleanCube> a, Collection<BooleanCube> b) {
+        List<long[]> other = pack(b);
+        long[] common = new long[wordsPerCube];
+        for (long[] cube : pack(a)) {
+            for (long[] c : other) {
+                if (PackedCubeList.intersection(cube, c, varMasks, common)) {
+                    return toCube(anyMinterm(common));
+                }
+            }
+        }
+        return null;
+    }
+
+    /** Returns a minterm where the two covers differ, or {@code null} if they are equivalent. */
+    public BooleanCube findDifference(Collection<BooleanCube> a, Collection<BooleanCube> b) {
+        BooleanCube minterm = findNotContained(a, b);
+        return minterm != null ? minterm : findNotContained(b, a);
+    }
+
+    /**
+     * Returns a minterm where {@code cover} does not implement the function, or {@code null} if it does.  The cover
+     * must contain the ON set and must not meet the OFF set.  If the OFF set is not given, it is whatever is in
+     * neither the ON set nor the DONTCARE set; if only the OFF set is given, the rest is DONTCARE.
+     * @param off Can be {@code null}.
+     * @param dc Can be {@code null}.
+     */
+    public BooleanCube findViolation(Collection<BooleanCube> cover, Collection<BooleanCube> on,
+                                     Collection<BooleanCube> off, Collection<BooleanCube> dc) {
+        BooleanCube minterm = findNotContained(on, cover);
+        if (minterm != null) {
+            return minterm;
+        }
+        if (off != null) {
+            minterm = findIntersection(cover, off);
+            if (minterm != null || dc == null) {
+                return minterm;
+            }
+        }
+        List<BooleanCube> care = new ArrayList<>(on);
+        if (dc != null) {
+            care.addAll(dc);
+        }
+        return findNotContained(cover, care);
+    }
+
+    /**
+     * Throws a {@link CubeCalculusException} naming a minterm where {@code cover} does not implement the function, as
+     * checked by {@link #findViolation}.
+     */
+    public void verify(Collection<BooleanCube> cover, Collection<BooleanCube> on, Collection<BooleanCube> off,
+                       Collection<BooleanCube> dc) {
+        BooleanCube minterm = findViolation(cover, on, off, dc);
+        if (minterm != null) {
+            throw new CubeCalculusException("Cover does not implement the function at minterm "
+                    + minterm.toPlainNumericString() + ".");
+        }
+    }
+
+    /** A minterm of {@code cube} that no cube of {@code cover} has, or {@code null}. */
+    private long[] findUncovered(long[] cube, List<long[]> cover) {
+        List<long[]> restricted = new ArrayList<>();
+        for (long[] c : cover) {
+            long[] part = new long[wordsPerCube];
+            if (PackedCubeList.intersection(cube, c, varMasks, part)) {
+                restricted.add(part);
+            }
+        }
+        return search(cube, restricted);
+    }
+
+    /** A minterm of {@code space} that no cube of {@code cubes}, all inside it, has, or {@code null}. */
+    private long[] search(long[] space, List<long[]> cubes) {
+        if (cubes.isEmpty()) {
+            return anyMinterm(space);
+        }
+        for (long[] c : cubes) {
+            if (equals(c, space)) {
+                return null;
+            }
+        }
+
+        // Count the literals of each polarity on the variables free in the space.
+        int[] zeros = new int[nVars];
+        int[] ones = new int[nVars];
+        for (long[] c : cubes) {
+            for (int w = 0; w < wordsPerCube; ++w) {
+                // Variables free in the space but not in the cube.
+                long literals = space[w] & (space[w] >>> 1) & ~(c[w] & (c[w] >>> 1)) & varMasks[w];
+                while (literals != 0) {
+                    int bit = Long.numberOfTrailingZeros(literals);
+                    int v = 32 * w + bit / 2;
+                    if ((c[w] >>> bit & 1) != 0) {
+                        ++zeros[v];
+                    } else {
+                        ++ones[v];
+                    }
+                    literals &= literals - 1;
+                }
+            }
+        }
+        int split = -1;
+        int best = 0;
+        for (int v = 0; v < nVars; ++v) {
+            if (zeros[v] > 0 && ones[v] > 0 && zeros[v] + ones[v] > best) {
+                split = v;
+                best = zeros[v] + ones[v];
+            }
+        }
+
+        if (split < 0) {
+            // Unate, and without the whole space: the point opposite to every literal is in no cube.
+            long[] minterm = space.clone();
+            for (int v = 0; v < nVars; ++v) {
+                if (getVar(minterm, v) == 3) {
+                    setVar(minterm, v, zeros[v] > 0 ? 2 : 1);
+                }
+            }
+            return minterm;
+        }
+
+        for (long value = 1; value <= 2; ++value) {
+            long[] half = space.clone();
+            setVar(half, split, value);
+            List<long[]> inHalf = new ArrayList<>();
+            for (long[] c : cubes) {
+                long[] part = new long[wordsPerCube];
+                if (PackedCubeList.intersection(half, c, varMasks, part)) {
+                    inHalf.add(part);
+                }
+            }
+            long[] minterm = search(half, inHalf);
+            if (minterm != null) {
+                return minterm;
+            }
+        }
+        return null;
+    }
+
+    /** The minterm of {@code cube} with 0 for all its free variables. */
+    private long[] anyMinterm(long[] cube) {
+        long[] minterm = cube.clone();
+        for (int w = 0; w < wordsPerCube; ++w) {
+            long free = minterm[w] & (minterm[w] >>> 1) & varMasks[w];
+            // Keep the low bit, meaning the variable can be 0.
+            minterm[w] &= ~(free << 1);
+        }
+        return minterm;
+    }
+
+    private boolean equals(long[] a, long[] b) {
+        for (int w = 0; w < wordsPerCube; ++w) {
+            if (a[w] != b[w]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static long getVar(long[] cube, int v) {
+        return (cube[v >>> 5] >>> (2 * (v & 31))) & 3;
+    }
+
+    private static void setVar(long[] cube, int v, long value) {
+        int shift = 2 * (v & 31);
+        cube[v >>> 5] = (cube[v >>> 5] & ~(3L << shift)) | (value << shift);
+    }
+
+    private List<long[]> pack(Collection<BooleanCube> cubes) {
+        return PackedCubeList.pack(nVars, cubes);
+    }
+
+    private BooleanCube toCube(long[] words) {
+        return BooleanCube.fromWords(nVars, words, 0, wordsPerCube);
+    }
+}
@@ -0,0 +1,115 @@
+package edu.pdx.vishakh.cubecalculus.core;
+
+import edu.pdx.vishakh.cubecalculus.algorithms.CubeCoverMinimizer;
+import edu.pdx.vishakh.cubecalculus.algorithms.QuineMcCluskeyAlgorithm;
+import edu.pdx.vishakh.cubecalculus.algorithmtests.MinimizationTestData;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+public class CoverCheckerTests {
+
+    public static void main(String[] args) {
+        testTautology();
+        testRandomEquivalence();
+        testViolations();
+        testVerifiedMinimization();
+        testWideFunction();
+    }
+
+    private static void testTautology() {
+        CoverChecker checker = new CoverChecker(3);
+        TestUtils.assertTrue(checker.isTautology(cubes("1**", "0*1", "*10", "000"))
+                && !checker.isTautology(cubes("1**", "0*1", "*10"))
+                && !checker.isTautology(new HashSet<>()), "Tautology is decided on cubes");
+    }
+
+    /** Differences found on cubes agree with the truth tables, and the minterm returned is in one cover only. */
+    private static void testRandomEquivalence() {
+        Random random = new Random(40);
+        int nVars = 8;
+        CoverChecker checker = new CoverChecker(nVars);
+        boolean agree = true;
+        int nEquivalent = 0;
+        for (int t = 0; t < 300; ++t) {
+            Set<BooleanCube> a = TestUtils.randomCover(random, nVars, 1 + random.nextInt(12), "01**");
+            Set<BooleanCube> b = TestUtils.randomCover(random, nVars, 1 + random.nextInt(12), "01**");
+            if (t % 3 == 0) {
+                // An equivalent cover, from the minterms of the other.
+                b = TruthTable.fromCubes(nVars, a).toMinterms();
+            }
+            TruthTable tableA = TruthTable.fromCubes(nVars, a);
+            TruthTable tableB = TruthTable.fromCubes(nVars, b);
+            BooleanCube difference = checker.findDifference(a, b);
+            if (difference == null) {
+                agree &= tableA.equals(tableB);
+                ++nEquivalent;
+            } else {
+                TruthTable m = TruthTable.fromCubes(nVars, Collections.singleton(difference));
+                agree &= difference.getOrder() == 0 && m.isSubsetOf(tableA) != m.isSubsetOf(tableB);
+            }
+        }
+        TestUtils.assertTrue(agree && nEquivalent >= 100, "Differences are found without minterms");
+    }
+
+    private static void testViolations() {
+        CoverChecker checker = new CoverChecker(4);
+        Set<BooleanCube> on = cubes("1*0*", "0111");
+        Set<BooleanCube> dc = cubes("1111");
+        BooleanCube missing = checker.findViolation(cubes("110*", "*111"), on, null, dc);
+        BooleanCube extra = checker.findViolation(cubes("1*0*", "*111", "0011"), on, null, dc);
+        BooleanCube inOff = checker.findViolation(cubes("1*0*", "*111"), on, cubes("1111"), null);
+        boolean thrown = false;
+        try {
+            checker.verify(cubes("1*0*"), on, null, dc);
+        } catch (CubeCalculusException e) {
+            thrown = true;
+        }
+        TestUtils.assertTrue(checker.findViolation(cubes("1*0*", "*111"), on, null, dc) == null
+                && BooleanCube.fromString("100*").includes(missing) && extra.equals(BooleanCube.fromString("0011"))
+                && inOff.equals(BooleanCube.fromString("1111")) && thrown,
+                "Missing ON and extra OFF minterms are found");
+    }
+
+    private static void testVerifiedMinimization() {
+        boolean verified = true;
+        for (MinimizationTestData.MinimizationData data : new MinimizationTestData.MinimizationData[] {
+                MinimizationTestData.perkowskiBookExample3, MinimizationTestData.rothExample1,
+                MinimizationTestData.perkowskiCyclic}) {
+            QuineMcCluskeyAlgorithm qm = new QuineMcCluskeyAlgorithm(null, null);
+            qm.setVerifyResults(true);
+            Set<BooleanCube> on = CubeUtils.cubeSetFromNumberArray(data.nVars, data.onMinterms);
+            Set<BooleanCube> dc = data.dcMinterms == null ? null
+                    : CubeUtils.cubeSetFromNumberArray(data.nVars, data.dcMinterms);
+            try {
+                qm.minimize(data.nVars, on, null, dc, null, false);
+            } catch (CubeCalculusException e) {
+                verified = false;
+            }
+        }
+        TestUtils.assertTrue(verified, "Minimization results are verified");
+    }
+
+    /** A function of 48 variables, verified on its cubes. */
+    private static void testWideFunction() {
+        int nVars = 48;
+        FunctionSpecification spec = new FunctionSpecification(nVars)
+                .addOnRange(0x123456789AL, 0x9876543210AL)
+                .addOnPrefix(0xF00000000000L, 4)
+                .addDcRange(0xE00000000000L, 0xEFFFFFFFFFFFL);
+        CubeCoverMinimizer minimizer = new CubeCoverMinimizer(null, null);
+        minimizer.setVerifyResults(true);
+        Set<BooleanCube> cover = minimizer.minimize(nVars, spec.getOnCubes(), null, spec.getDcCubes(), null, false);
+
+        Set<BooleanCube> broken = new HashSet<>(cover);
+        broken.remove(broken.iterator().next());
+        TestUtils.assertTrue(new CoverChecker(nVars).findViolation(broken, spec.getOnCubes(), null,
+                spec.getDcCubes()) != null, "Wide covers are verified");
+    }
+
+    private static Set<BooleanCube> cubes(String... cubes) {
+        return CubeUtils.cubeSetFromStringArray(cubes);
+    }
+}
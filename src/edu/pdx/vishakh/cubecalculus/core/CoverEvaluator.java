@@ -0,0 +1,271 @@
+package edu.pdx.vishakh.cubecalculus.core;
+
+import java.util.Collection;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.LongStream;
+
+/**
+ * Evaluates a cover on 64 input vectors at a time, in bit-sliced form: word {@code i} of the inputs holds the values
+ * of variable {@code i} in the 64 vectors.  A cube is the AND of its literals and the cover the OR of its cubes, so
+ * a cube costs one operation per literal for all 64 vectors.
+ *
+ * Vectors are numbered as minterms: block {@code b} of an exhaustive simulation is minterms {@code 64b} to
+ * {@code 64b + 63}, bit {@code j} of a result being minterm {@code 64b + j}, as in the words of a
+ * {@link TruthTable}.  Exhaustive and random simulations split the blocks into chunks run in parallel.
+ */
+public class CoverEvaluator {
+
+    /** Largest number of variables for an exhaustive simulation. */
+    public static final int MAX_EXHAUSTIVE_VARS = 62;
+
+    /** Blocks of 64 vectors per parallel task. */
+    private static final int BLOCKS_PER_CHUNK = 1024;
+
+    /** LOW_MASKS[p] has the bits whose index has bit p cleared. */
+    private static final long[] LOW_MASKS = {
+            0x5555555555555555L,
+            0x3333333333333333L,
+            0x0F0F0F0F0F0F0F0FL,
+            0x00FF00FF00FF00FFL,
+            0x0000FFFF0000FFFFL,
+            0x00000000FFFFFFFFL,
+    };
+
+    private final int nVars;
+
+    /** Per cube, the variables that must be 1. */
+    private final int[][] onVars;
+
+    /** Per cube, the variables that must be 0. */
+    private final int[][] offVars;
+
+    /** Compares two covers on a block of vectors. */
+    private interface Check {
+        /** Bits of the vectors where the check fails. */
+        long failures(long[] inputs);
+    }
+
+    public CoverEvaluator(int nVars, Collection<BooleanCube> cover) {
+        this.nVars = nVars;
+        onVars = new int[cover.size()][];
+        offVars = new int[cover.size()][];
+        int k = 0;
+        for (BooleanCube c : cover) {
+            if (c.getNumberOfVariables() != nVars) {
+                throw new CubeCalculusException("Cube " + c + " is not of " + nVars + " variables.");
+            }
+            int nOn = 0;
+            int nOff = 0;
+            for (int i = 0; i < nVars; ++i) {
+                if (c.isOnVar(i)) {
+                    ++nOn;
+                } else if (c.isOffVar(i)) {
+                    ++nOff;
+                }
+            }
+            onVars[k] = new int[nOn];
+            offVars[k] = new int[nOff];
+            nOn = 0;
+            nOff = 0;
+            for (int i = 0; i < nVars; ++i) {
+                if (c.isOnVar(i)) {
+                    onVars[k][nOn++] = i;
+                } else if (c.isOffVar(i)) {
+                    offVars[k][nOff++] = i;
+                }
+            }
+            ++k;
+        }
+    }
+
+    public int getNumberOfVariables() {
+        return nVars;
+    }
+
+    public int getNumberOfCubes() {
+        return onVars.length;
+    }
+
+    /** Values of the cover for 64 vectors.  {@code inputs[i]} holds the values of variable {@code i}. */
+    public long evaluate(long[] inputs) {
+        long result = 0;
+        for (int k = 0; k < onVars.length && result != -1L; ++k) {
+            long cube = -1L;
+            for (int v : onVars[k]) {
+                cube &= inputs[v];
+            }
+            for (int v : offVars[k]) {
+                cube &= ~inputs[v];
+            }
+            result |= cube;
+        }
+        return result;
+    }
+
+    /** Values of the cover for minterms {@code 64 * block} to {@code 64 * block + 63}. */
+    public long evaluateBlock(long block) {
+        long[] inputs = new long[nVars];
+        blockInputs(nVars, block, inputs);
+        return evaluate(inputs) & validBits(nVars);
+    }
+
+    /** Writes into {@code inputs} the bit-sliced minterms {@code 64 * block} to {@code 64 * block + 63}. */
+    public static void blockInputs(int nVars, long block, long[] inputs) {
+        for (int i = 0; i < nVars; ++i) {
+            int p = nVars - 1 - i;
+            inputs[i] = p < 6 ? ~LOW_MASKS[p] : -((block >>> (p - 6)) & 1);
+        }
+    }
+
+    /** Number of minterms where the cover is 1. */
+    public long countOnes() {
+        checkExhaustive(nVars);
+        long nBlocks = numberOfBlocks(nVars);
+        long valid = validBits(nVars);
+        return LongStream.range(0, numberOfChunks(nBlocks)).parallel().map(chunk -> {
+            long[] inputs = new long[nVars];
+            long count = 0;
+            for (long b = chunk * BLOCKS_PER_CHUNK; b < Math.min(nBlocks, (chunk + 1) * BLOCKS_PER_CHUNK); ++b) {
+                blockInputs(nVars, b, inputs);
+                count += Long.bitCount(evaluate(inputs) & valid);
+            }
+            return count;
+        }).sum();
+    }
+
+    /** Truth table of the cover. */
+    public TruthTable toTruthTable() {
+        if (nVars > TruthTable.MAX_VARS) {
+            throw new CubeCalculusException("Truth tables support at most " + TruthTable.MAX_VARS + " variables.");
+        }
+        long[] words = new long[(int) numberOfBlocks(nVars)];
+        long valid = validBits(nVars);
+        LongStream.range(0, numberOfChunks(words.length)).parallel().forEach(chunk -> {
+            long[] inputs = new long[nVars];
+            for (long b = chunk * BLOCKS_PER_CHUNK; b < Math.min(words.length, (chunk + 1) * BLOCKS_PER_CHUNK); ++b) {
+                blockInputs(nVars, b, inputs);
+                words[(int) b] = evaluate(inputs) & valid;
+            }
+        });
+        return new TruthTable(nVars, words);
+    }
+
+    /** Returns the first minterm where the two covers differ, checking all of them, or {@code null} if none does. */
+    public static BooleanCube findDifference(CoverEvaluator a, CoverEvaluator b) {
+        checkSameVariables(a, b);
+        return findFailure(a.nVars, inputs -> a.evaluate(inputs) ^ b.evaluate(inputs));
+    }
+
+    /** Returns a minterm where the two covers differ among {@code nVectors} random ones, or {@code null}. */
+    public static BooleanCube findDifference(CoverEvaluator a, CoverEvaluator b, long nVectors, long seed) {
+        checkSameVariables(a, b);
+        return findRandomFailure(a.nVars, inputs -> a.evaluate(inputs) ^ b.evaluate(inputs), nVectors, seed);
+    }
+
+    /**
+     * Returns the first minterm where {@code cover} does not implement the function with the ON set {@code on} and
+     * the DONTCARE set {@code dc}, checking all of them, or {@code null} if it implements it.
+     * @param dc Can be {@code null} for none.
+     */
+    public static BooleanCube findViolation(CoverEvaluator cover, CoverEvaluator on, CoverEvaluator dc) {
+        return findFailure(cover.nVars, violationCheck(cover, on, dc));
+    }
+
+    /** As {@link #findViolation(CoverEvaluator, CoverEvaluator, CoverEvaluator)}, on random vectors. */
+    public static BooleanCube findViolation(CoverEvaluator cover, CoverEvaluator on, CoverEvaluator dc,
+                                            long nVectors, long seed) {
+        return findRandomFailure(cover.nVars, violationCheck(cover, on, dc), nVectors, seed);
+    }
+
+    private static Check violationCheck(CoverEvaluator cover, CoverEvaluator on, CoverEvaluator dc) {
+        checkSameVariables(cover, on);
+        if (dc != null) {
+            checkSameVariables(cover, dc);
+        }
+        return inputs -> {
+            long f = cover.evaluate(inputs);
+            long onValues = on.evaluate(inputs);
+            long dcValues = dc == null ? 0 : dc.evaluate(inputs);
+            // ON minterms the cover misses, and OFF minterms it has.
+            return (onValues & ~f) | (f & ~onValues & ~dcValues);
+        };
+    }
+
+    private static BooleanCube findFailure(int nVars, Check check) {
+        checkExhaustive(nVars);
+        long nBlocks = numberOfBlocks(nVars);
+        long valid = validBits(nVars);
+        // Lowest failing minterm found so far, so that chunks after it can be skipped.
+        AtomicLong first = new AtomicLong(Long.MAX_VALUE);
+        LongStream.range(0, numberOfChunks(nBlocks)).parallel().forEach(chunk -> {
+            long[] inputs = new long[nVars];
+            for (long b = chunk * BLOCKS_PER_CHUNK; b < Math.min(nBlocks, (chunk + 1) * BLOCKS_PER_CHUNK)
+                    && 64 * b < first.get(); ++b) {
+                blockInputs(nVars, b, inputs);
+                long failures = check.failures(inputs) & valid;
+                if (failures != 0) {
+                    first.accumulateAndGet(64 * b + Long.numberOfTrailingZeros(failures), Math::min);
+                    return;
+                }
+            }
+        });
+        long m = first.get();
+        return m == Long.MAX_VALUE ? null : BooleanCube.fromMinterm(new Minterm(nVars, m));
+    }
+
+    private static BooleanCube findRandomFailure(int nVars, Check check, long nVectors, long seed) {
+        long nBlocks = nVectors <= 0 ? 0 : (nVectors - 1) / 64 + 1;
+        return LongStream.range(0, numberOfChunks(nBlocks)).parallel().mapToObj(chunk -> {
+            SplittableRandom random = new SplittableRandom(seed + chunk);
+            long[] inputs = new long[nVars];
+            for (long b = chunk * BLOCKS_PER_CHUNK; b < Math.min(nBlocks, (chunk + 1) * BLOCKS_PER_CHUNK); ++b) {
+                for (int i = 0; i < nVars; ++i) {
+                    inputs[i] = random.nextLong();
+                }
+                // The last block has only the vectors left.
+                long left = nVectors - 64 * b;
+                long failures = check.failures(inputs) & (left >= 64 ? -1L : (1L << left) - 1);
+                if (failures != 0) {
+                    return vector(nVars, inputs, Long.numberOfTrailingZeros(failures));
+                }
+            }
+            return null;
+        }).filter(c -> c != null).findFirst().orElse(null);
+    }
+
+    /** Vector {@code bit} of bit-sliced inputs, as a minterm. */
+    private static BooleanCube vector(int nVars, long[] inputs, int bit) {
+        char[] trits = new char[nVars];
+        for (int i = 0; i < nVars; ++i) {
+            trits[i] = ((inputs[i] >>> bit) & 1) == 0 ? '0' : '1';
+        }
+        return BooleanCube.fromString(new String(trits));
+    }
+
+    private static void checkExhaustive(int nVars) {
+        if (nVars > MAX_EXHAUSTIVE_VARS) {
+            throw new CubeCalculusException("Exhaustive simulation supports at most " + MAX_EXHAUSTIVE_VARS
+                    + " variables, not " + nVars + ".");
+        }
+    }
+
+    private static void checkSameVariables(CoverEvaluator a, CoverEvaluator b) {
+        if (a.nVars != b.nVars) {
+            throw new CubeCalculusException("Covers of " + a.nVars + " and " + b.nVars + " variables.");
+        }
+    }
+
+    private static long numberOfBlocks(int nVars) {
+        return nVars <= 6 ? 1 : 1L << (nVars - 6);
+    }
+
+    private static long numberOfChunks(long nBlocks) {
+        return (nBlocks + BLOCKS_PER_CHUNK - 1) / BLOCKS_PER_CHUNK;
+    }
+
+    /** Bits of a block that are minterms of an {@code nVars} variable function. */
+    private static long validBits(int nVars) {
+        return nVars >= 6 ? -1L : (1L << (1 << nVars)) - 1;
+    }
+}
@@ -0,0 +1,120 @@
+package edu.pdx.vishakh.cubecalculus.core;
+
+import edu.pdx.vishakh.cubecalculus.algorithms.CubeCoverMinimizer;
+import edu.pdx.vishakh.cubecalculus.algorithms.QuineMcCluskeyAlgorithm;
+import edu.pdx.vishakh.cubecalculus.algorithmtests.MinimizationTestData;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+public class CoverEvaluatorTests {
+
+    public static void main(String[] args) {
+        testTruthTable();
+        testMinimizedCovers();
+        testDifference();
+        testLargeExhaustive();
+        testRandomVectors();
+    }
+
+    private static void testTruthTable() {
+        Random random = new Random(39);
+        boolean same = true;
+        for (int nVars : new int[] {1, 3, 6, 9, 14}) {
+            Set<BooleanCube> cover = TestUtils.randomCover(random, nVars, 12, "01**");
+            CoverEvaluator evaluator = new CoverEvaluator(nVars, cover);
+            TruthTable expected = TruthTable.fromCubes(nVars, cover);
+            same &= evaluator.toTruthTable().equals(expected) && evaluator.countOnes() == expected.countOnes();
+        }
+        TestUtils.assertTrue(same, "Bit-sliced evaluation matches the truth table");
+    }
+
+    private static void testMinimizedCovers() {
+        boolean valid = true;
+        for (MinimizationTestData.MinimizationData data : new MinimizationTestData.MinimizationData[] {
+                MinimizationTestData.perkowskiBookExample3, MinimizationTestData.rothExample1}) {
+            Set<BooleanCube> on = CubeUtils.cubeSetFromNumberArray(data.nVars, data.onMinterms);
+            Set<BooleanCube> dc = data.dcMinterms == null ? new HashSet<>()
+                    : CubeUtils.cubeSetFromNumberArray(data.nVars, data.dcMinterms);
+            Set<BooleanCube> cover = new QuineMcCluskeyAlgorithm(null, null).minimize(data.nVars, on, null, dc, null,
+                    false);
+            valid &= CoverEvaluator.findViolation(new CoverEvaluator(data.nVars, cover),
+                    new CoverEvaluator(data.nVars, on), new CoverEvaluator(data.nVars, dc)) == null;
+        }
+        TestUtils.assertTrue(valid, "Minimized covers implement their functions");
+    }
+
+    private static void testDifference() {
+        Set<BooleanCube> a = CubeUtils.cubeSetFromStringArray(new String[] {"1*0*", "**11"});
+        Set<BooleanCube> b = CubeUtils.cubeSetFromStringArray(new String[] {"1*0*", "*011", "*111"});
+        Set<BooleanCube> c = CubeUtils.cubeSetFromStringArray(new String[] {"1*0*", "*011"});
+        BooleanCube difference = CoverEvaluator.findDifference(new CoverEvaluator(4, a), new CoverEvaluator(4, c));
+        TestUtils.assertTrue(CoverEvaluator.findDifference(new CoverEvaluator(4, a), new CoverEvaluator(4, b)) == null
+                && difference != null && difference.equals(BooleanCube.fromString("0111")),
+                "First differing minterm is found");
+    }
+
+    /** An exhaustive check of a 24 input function, 2^24 vectors. */
+    private static void testLargeExhaustive() {
+        int nVars = 24;
+        FunctionSpecification spec = new FunctionSpecification(nVars)
+                .addOnRange(123456, 9876543)
+                .addOnPattern("1*0*1*0*1*0*1*0*1*0*1*0*");
+        Set<BooleanCube> cover = new CubeCoverMinimizer(null, null).minimize(nVars, spec.getOnCubes(), null, null,
+                null, false);
+        BooleanCube violation = CoverEvaluator.findViolation(new CoverEvaluator(nVars, cover),
+                new CoverEvaluator(nVars, spec.getOnCubes()), null);
+
+        Set<BooleanCube> broken = new HashSet<>(cover);
+        broken.remove(broken.iterator().next());
+        TestUtils.assertTrue(violation == null && CoverEvaluator.findViolation(new CoverEvaluator(nVars, broken),
+                new CoverEvaluator(nVars, spec.getOnCubes()), null) != null,
+                "24 input cover is checked exhaustively");
+    }
+
+    private static void testRandomVectors() {
+        int nVars = 80;
+        Random random = new Random(40);
+        Set<BooleanCube> cover = TestUtils.randomCover(random, nVars, 50, "01**");
+        Set<BooleanCube> other = new HashSet<>(cover);
+        // A cube of 3 literals, which one random vector in 8 is in.
+        other.add(BooleanCube.fromString("110" + "*".repeat(nVars - 3)));
+        CoverEvaluator evaluator = new CoverEvaluator(nVars, cover);
+        BooleanCube difference = CoverEvaluator.findDifference(evaluator, new CoverEvaluator(nVars, other), 1 << 20, 1);
+        TestUtils.assertTrue(CoverEvaluator.findDifference(evaluator, new CoverEvaluator(nVars, cover), 1 << 20, 1)
+                == null && difference != null && new CoverEvaluator(nVars, other).evaluate(slice(difference))
+                != evaluator.evaluate(slice(difference)), "Random vectors are simulated");
+
+        // A seed whose first vectors have variable 0 at 0: the first 3 vectors are all in the OFF set of x0.
+        long seed = 0;
+        while ((new SplittableRandom(seed).nextLong() & 7) != 0) {
+            ++seed;
+        }
+        CoverEvaluator x0 = new CoverEvaluator(nVars, Collections.singleton(BooleanCube.fromString("1"
+                + "*".repeat(nVars - 1))));
+        CoverEvaluator none = new CoverEvaluator(nVars, Collections.emptySet());
+        TestUtils.assertTrue(CoverEvaluator.findDifference(x0, none, 3, seed) == null
+                && CoverEvaluator.findDifference(x0, none, 64, seed) != null,
+                "Exactly the vectors asked are simulated");
+
+        boolean thrown = false;
+        try {
+            evaluator.countOnes();
+        } catch (CubeCalculusException e) {
+            thrown = true;
+        }
+        TestUtils.assertTrue(thrown, "Too many variables to count the ones");
+    }
+
+    /** A minterm as bit-sliced inputs, in all 64 vectors. */
+    private static long[] slice(BooleanCube minterm) {
+        long[] inputs = new long[minterm.getNumberOfVariables()];
+        for (int i = 0; i < inputs.length; ++i) {
+            inputs[i] = minterm.isOnVar(i) ? -1L : 0;
+        }
+        return inputs;
+    }
+}
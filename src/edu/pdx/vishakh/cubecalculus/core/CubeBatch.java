@@ -0,0 +1,194 @@
+package edu.pdx.vishakh.cubecalculus.core;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * A fixed array of cubes, checked all at once against one probe cube: which of them meet it, contain it, are
+ * contained in it, or are adjacent to it, and which pairs of a block are adjacent.
+ *
+ * The cubes are stored word-major: word {@code w} of every cube is in one array, so each kernel is a loop over the
+ * cubes of long arithmetic with no branches, one pass per word.  A per cube flag is accumulated across the words, and
+ * only the cubes whose flag stays clear are put in the result.  The kernels use the Vector API when the classes of
+ * {@code src-vector} are on the class path and the JVM runs with {@code --add-modules jdk.incubator.vector}, and are
+ * plain loops otherwise.
+ */
+public class CubeBatch {
+
+    private static final String VECTOR_KERNELS_CLASS = "edu.pdx.vishakh.cubecalculus.core.VectorCubeKernels";
+
+    private static final CubeKernels SCALAR_KERNELS = new ScalarCubeKernels();
+
+    private static final CubeKernels VECTOR_KERNELS = loadVectorKernels();
+
+    private final int nVars;
+    private final int wordsPerCube;
+    private final int size;
+    private final long[] varMasks;
+
+    /** planes[w][k] is word {@code w} of cube {@code k}. */
+    private final long[][] planes;
+
+    private final CubeKernels kernels;
+
+    public CubeBatch(PackedCubeList cubes) {
+        this(cubes, true);
+    }
+
+    /**
+     * @param cubes The cubes of the batch.
+     * @param useVectors Whether to use the Vector API kernels, if they can be loaded.
+     */
+    public CubeBatch(PackedCubeList cubes, boolean useVectors) {
+        nVars = cubes.getNumberOfVariables();
+        wordsPerCube = cubes.getWordsPerCube();
+        size = cubes.size();
+        varMasks = PackedCubeList.varMasks(nVars);
+        planes = new long[wordsPerCube][size];
+        long[] cube = new long[wordsPerCube];
+        for (int k = 0; k < size; ++k) {
+            cubes.copyWords(k, cube, 0);
+            for (int w = 0; w < wordsPerCube; ++w) {
+                planes[w][k] = cube[w];
+            }
+        }
+        kernels = useVectors && VECTOR_KERNELS != null ? VECTOR_KERNELS : SCALAR_KERNELS;
+    }
+
+    public int getNumberOfVariables() {
+        return nVars;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /** True if the kernels are those of the Vector API. */
+    public boolean isVectorized() {
+        return kernels != SCALAR_KERNELS;
+    }
+
+    /** Returns cube {@code index} as a new BooleanCube. */
+    public BooleanCube get(int index) {
+        long[] cube = new long[wordsPerCube];
+        for (int w = 0; w < wordsPerCube; ++w) {
+            cube[w] = planes[w][index];
+        }
+        return BooleanCube.fromWords(nVars, cube, 0, wordsPerCube);
+    }
+
+    /** Indices of the cubes that share a minterm with {@code probe}. */
+    public BitSet intersecting(BooleanCube probe) {
+        return intersecting(PackedCubeList.pack(nVars, probe), 0);
+    }
+
+    /** Indices of the cubes that share a minterm with the packed cube at {@code offset} of {@code probe}. */
+    public BitSet intersecting(long[] probe, int offset) {
+        long[] miss = new long[size];
+        for (int w = 0; w < wordsPerCube; ++w) {
+            kernels.intersect(planes[w], probe[offset + w], varMasks[w], miss);
+        }
+        return clearFlags(miss, 0);
+    }
+
+    /** Indices of the cubes that contain {@code probe}. */
+    public BitSet containing(BooleanCube probe) {
+        return containing(PackedCubeList.pack(nVars, probe), 0);
+    }
+
+    /** Indices of the cubes that contain the packed cube at {@code offset} of {@code probe}. */
+    public BitSet containing(long[] probe, int offset) {
+        long[] miss = new long[size];
+        for (int w = 0; w < wordsPerCube; ++w) {
+            kernels.contain(planes[w], probe[offset + w], miss);
+        }
+        return clearFlags(miss, 0);
+    }
+
+    /** Indices of the cubes contained in {@code probe}. */
+    public BitSet containedIn(BooleanCube probe) {
+        return containedIn(PackedCubeList.pack(nVars, probe), 0);
+    }
+
+    /** Indices of the cubes contained in the packed cube at {@code offset} of {@code probe}. */
+    public BitSet containedIn(long[] probe, int offset) {
+        long[] miss = new long[size];
+        for (int w = 0; w < wordsPerCube; ++w) {
+            kernels.containedIn(planes[w], probe[offset + w], miss);
+        }
+        return clearFlags(miss, 0);
+    }
+
+    /** Indices of the cubes adjacent to {@code probe}, as in {@link BooleanCube#isAdjacentTo}. */
+    public BitSet adjacentTo(BooleanCube probe) {
+        return adjacentTo(PackedCubeList.pack(nVars, probe), 0);
+    }
+
+    /** Indices of the cubes adjacent to the packed cube at {@code offset} of {@code probe}. */
+    public BitSet adjacentTo(long[] probe, int offset) {
+        return adjacentTo(probe, offset, 0, size);
+    }
+
+    /**
+     * Pairs of indices {@code {i, j}}, {@code from <= i < j < to}, of adjacent cubes, as in
+     * {@link BooleanCube#isAdjacentTo}.
+     */
+    public List<int[]> adjacentPairs(int from, int to) {
+        if (from < 0 || to > size || from > to) {
+            throw new IndexOutOfBoundsException("Block " + from + " to " + to + " of " + size + " cubes.");
+        }
+        List<int[]> pairs = new ArrayList<>();
+        long[] probe = new long[wordsPerCube];
+        for (int i = from; i < to; ++i) {
+            for (int w = 0; w < wordsPerCube; ++w) {
+                probe[w] = planes[w][i];
+            }
+            BitSet adjacent = adjacentTo(probe, 0, i + 1, to);
+            for (int j = adjacent.nextSetBit(0); j >= 0; j = adjacent.nextSetBit(j + 1)) {
+                pairs.add(new int[] {i, j});
+            }
+        }
+        return pairs;
+    }
+
+    /**
+     * Indices among {@code from} to {@code to} of the cubes adjacent to a packed cube: with the same free variables,
+     * and opposite values for exactly one of the others.
+     */
+    private BitSet adjacentTo(long[] probe, int offset, int from, int to) {
+        int n = to - from;
+        long[] bad = new long[n];
+        long[] opposite = new long[n];
+        for (int w = 0; w < wordsPerCube; ++w) {
+            kernels.adjacent(planes[w], from, probe[offset + w], varMasks[w], bad, opposite);
+        }
+        for (int k = 0; k < n; ++k) {
+            bad[k] |= opposite[k] == 0 ? 1 : 0;
+        }
+        return clearFlags(bad, from);
+    }
+
+    /** The indices, shifted by {@code first}, whose flags are 0. */
+    private static BitSet clearFlags(long[] flags, int first) {
+        BitSet result = new BitSet(first + flags.length);
+        for (int k = 0; k < flags.length; ++k) {
+            if (flags[k] == 0) {
+                result.set(first + k);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * The Vector API kernels, if their class was built and {@code jdk.incubator.vector} is in the module graph,
+     * else {@code null}.
+     */
+    private static CubeKernels loadVectorKernels() {
+        try {
+            return (CubeKernels) Class.forName(VECTOR_KERNELS_CLASS).getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException | LinkageError e) {
+            return null;
+        }
+    }
+}
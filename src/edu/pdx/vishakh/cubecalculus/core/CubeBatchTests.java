@@ -0,0 +1,140 @@
+package edu.pdx.vishakh.cubecalculus.core;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Random;
+
+public class CubeBatchTests {
+
+    public static void main(String[] args) {
+        testAgainstCubes();
+        testAdjacentPairs();
+        testLargeBatch();
+        testScalarKernels();
+    }
+
+    /**
+     * Each kernel agrees with the operations of BooleanCube, for cubes of one and of several words, with the Vector
+     * API kernels if they are loaded and with the scalar ones.
+     */
+    private static void testAgainstCubes() {
+        Random random = new Random(49);
+        boolean same = true;
+        for (int t = 0; t < 100; ++t) {
+            int nVars = 1 + random.nextInt(80);
+            List<BooleanCube> cubes = randomCubes(random, nVars, 1 + random.nextInt(100));
+            CubeBatch batch = batch(nVars, cubes, t % 2 == 0);
+            for (int p = 0; p < 10; ++p) {
+                // Probes near some cube of the batch, so that each relation holds now and then.
+                BooleanCube probe = new BooleanCube(cubes.get(random.nextInt(cubes.size())));
+                int var = random.nextInt(nVars);
+                switch (random.nextInt(4)) {
+                    case 0: probe.flipVar(var); break;
+                    case 1: probe.makeDontCareVar(var); break;
+                    case 2: probe.makeOnVar(var); break;
+                    default: break;
+                }
+                BitSet intersecting = batch.intersecting(probe);
+                BitSet containing = batch.containing(probe);
+                BitSet containedIn = batch.containedIn(probe);
+                BitSet adjacent = batch.adjacentTo(probe);
+                for (int k = 0; k < cubes.size(); ++k) {
+                    BooleanCube c = cubes.get(k);
+                    same &= intersecting.get(k) == (c.intersection(probe) != null)
+                            && containing.get(k) == c.includes(probe)
+                            && containedIn.get(k) == probe.includes(c)
+                            && adjacent.get(k) == c.isAdjacentTo(probe);
+                }
+            }
+        }
+        TestUtils.assertTrue(same, "Batch kernels agree with cube operations");
+    }
+
+    /** Adjacent pairs of a block are those of the cubes, each once. */
+    private static void testAdjacentPairs() {
+        Random random = new Random(50);
+        boolean same = true;
+        for (int t = 0; t < 50; ++t) {
+            int nVars = 1 + random.nextInt(40);
+            List<BooleanCube> cubes = new ArrayList<>();
+            // Cubes of the same order, some of them adjacent.
+            BooleanCube base = randomCubes(random, nVars, 1).get(0);
+            for (int k = 0; k < 60; ++k) {
+                BooleanCube c = new BooleanCube(base);
+                for (int i = 0; i < nVars; ++i) {
+                    if (random.nextInt(nVars) < 2) {
+                        c.flipVar(i);
+                    }
+                }
+                cubes.add(c);
+            }
+            CubeBatch batch = batch(nVars, cubes, t % 2 == 0);
+            int from = random.nextInt(30);
+            int to = from + random.nextInt(31);
+            List<int[]> pairs = batch.adjacentPairs(from, to);
+            int expected = 0;
+            for (int i = from; i < to; ++i) {
+                for (int j = i + 1; j < to; ++j) {
+                    if (cubes.get(i).isAdjacentTo(cubes.get(j))) {
+                        ++expected;
+                    }
+                }
+            }
+            same &= pairs.size() == expected;
+            for (int[] pair : pairs) {
+                same &= pair[0] < pair[1] && cubes.get(pair[0]).isAdjacentTo(cubes.get(pair[1]));
+            }
+        }
+        TestUtils.assertTrue(same, "Adjacent pairs of blocks are found");
+    }
+
+    /** Probes of a batch of 100000 cubes of 64 variables. */
+    private static void testLargeBatch() {
+        Random random = new Random(51);
+        int nVars = 64;
+        List<BooleanCube> cubes = randomCubes(random, nVars, 100000);
+        List<BooleanCube> probes = randomCubes(random, nVars, 200);
+        boolean same = true;
+        // Matches of all the probes, with each kind of kernels.
+        long[] found = new long[2];
+        for (int kind = 0; kind < 2; ++kind) {
+            CubeBatch batch = batch(nVars, cubes, kind == 0);
+            for (BooleanCube probe : probes) {
+                found[kind] += batch.intersecting(probe).cardinality() + batch.containing(probe).cardinality();
+            }
+            BooleanCube probe = probes.get(0);
+            BitSet intersecting = batch.intersecting(probe);
+            for (int k = 0; k < cubes.size(); ++k) {
+                same &= intersecting.get(k) == (cubes.get(k).intersection(probe) != null);
+            }
+        }
+        TestUtils.assertTrue(same && found[0] == found[1], "Large batches are probed");
+    }
+
+    /** Batches asked not to use vectors do not. */
+    private static void testScalarKernels() {
+        List<BooleanCube> cubes = randomCubes(new Random(52), 8, 10);
+        TestUtils.assertTrue(!batch(8, cubes, false).isVectorized(), "Scalar kernels are used on request");
+    }
+
+    private static CubeBatch batch(int nVars, List<BooleanCube> cubes, boolean useVectors) {
+        PackedCubeList packed = new PackedCubeList(nVars);
+        for (BooleanCube c : cubes) {
+            packed.add(c);
+        }
+        return new CubeBatch(packed, useVectors);
+    }
+
+    private static List<BooleanCube> randomCubes(Random random, int nVars, int nCubes) {
+        List<BooleanCube> cubes = new ArrayList<>();
+        for (int k = 0; k < nCubes; ++k) {
+            char[] trits = new char[nVars];
+            for (int i = 0; i < nVars; ++i) {
+                trits[i] = "01**".charAt(random.nextInt(4));
+            }
+            cubes.add(BooleanCube.fromString(new String(trits)));
+        }
+        return cubes;
+    }
+}
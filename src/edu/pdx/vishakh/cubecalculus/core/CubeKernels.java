@@ -0,0 +1,24 @@
+package edu.pdx.vishakh.cubecalculus.core;
+
+/**
+ * The loops of {@link CubeBatch}: each takes one plane, word {@code w} of every cube, and the same word of the probe,
+ * and accumulates into a per cube flag, which stays 0 only for the cubes the relation holds for.
+ */
+interface CubeKernels {
+
+    /** Flags the cubes of {@code plane} with no value in common with {@code probe} for a variable of {@code mask}. */
+    void intersect(long[] plane, long probe, long mask, long[] miss);
+
+    /** Flags the cubes of {@code plane} that do not contain {@code probe}. */
+    void contain(long[] plane, long probe, long[] miss);
+
+    /** Flags the cubes of {@code plane} that are not contained in {@code probe}. */
+    void containedIn(long[] plane, long probe, long[] miss);
+
+    /**
+     * Flags the cubes from {@code from} of {@code plane} that are not adjacent to {@code probe}, as far as this word
+     * goes, and adds the variables with opposite values to {@code opposite}.  A cube whose {@code opposite} is still
+     * 0 after the last word is not adjacent either.
+     */
+    void adjacent(long[] plane, int from, long probe, long mask, long[] bad, long[] opposite);
+}
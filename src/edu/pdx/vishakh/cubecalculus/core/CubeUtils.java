@@ -1,5 +1,6 @@
 package edu.pdx.vishakh.cubecalculus.core;
 
+import java.math.BigInteger;
 import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.HashMap;
@@ -321,6 +322,23 @@ public class CubeUtils {
         return cost;
     }
 
+    /** Number of minterms in the union of {@code cubes}, counted on a {@link DisjointCover} without listing them. */
+    public static BigInteger countMinterms(Set<BooleanCube> cubes) {
+        if (cubes.isEmpty()) {
+            return BigInteger.ZERO;
+        }
+        return new DisjointCover(cubes.iterator().next().getNumberOfVariables(), cubes).countMinterms();
+    }
+
+    /** The cubes of {@code cubes} not contained in another of them. */
+    public static Set<BooleanCube> removeContainedCubes(Set<BooleanCube> cubes) {
+        if (cubes.isEmpty()) {
+            return new HashSet<>();
+        }
+        int nVars = cubes.iterator().next().getNumberOfVariables();
+        return new HashSet<>(SingleCubeContainment.removeContained(nVars, new ArrayList<>(cubes)));
+    }
+
     // Lists a boolean function in the sigma notation.
     public static String functionString(Set<BooleanCube> onSet, Set<BooleanCube> dcSet) {
         StringBuilder sb = new StringBuilder();
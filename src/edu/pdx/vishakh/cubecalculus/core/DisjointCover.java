@@ -0,0 +1,128 @@
+package edu.pdx.vishakh.cubecalculus.core;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * A cover rewritten as a sum of disjoint products: cubes with the same minterms as the cover, no two of which share
+ * a minterm.  The number of minterms is then the sum of {@code 2^order} over the cubes, and a uniformly random
+ * minterm is a cube picked with probability proportional to its minterms, with its free variables set at random.
+ *
+ * Each cube of the cover, largest first, is cut by {@link PackedCubeList#disjointSharp} against every disjoint cube
+ * already kept, and what is left of it is kept.  The orders and the cumulative minterm counts of the disjoint cubes
+ * are computed once, so counting is a lookup and sampling a binary search.
+ */
+public class DisjointCover {
+
+    private final int nVars;
+    private final int wordsPerCube;
+    private final long[] varMasks;
+
+    private final List<long[]> cubes = new ArrayList<>();
+
+    /** Per disjoint cube, its order. */
+    private final int[] orders;
+
+    /** Per disjoint cube, the part of all minterms in it and the cubes before it, for sampling. */
+    private final double[] cumulative;
+
+    private final BigInteger nMinterms;
+
+    public DisjointCover(int nVars, Collection<BooleanCube> cover) {
+        this.nVars = nVars;
+        wordsPerCube = PackedCubeList.wordsPerCube(nVars);
+        varMasks = PackedCubeList.varMasks(nVars);
+
+        List<long[]> packed = PackedCubeList.pack(nVars, cover);
+        // Large cubes first, so that fewer are cut into pieces.
+        packed.sort((a, b) -> Integer.compare(PackedCubeList.order(b, varMasks), PackedCubeList.order(a, varMasks)));
+        for (long[] c : packed) {
+            List<long[]> pieces = new ArrayList<>();
+            pieces.add(c);
+            for (long[] kept : cubes) {
+                List<long[]> next = new ArrayList<>();
+                for (long[] piece : pieces) {
+                    PackedCubeList.disjointSharp(piece, kept, varMasks, next);
+                }
+                pieces = next;
+                if (pieces.isEmpty()) {
+                    break;
+                }
+            }
+            cubes.addAll(pieces);
+        }
+
+        orders = new int[cubes.size()];
+        int maxOrder = 0;
+        BigInteger count = BigInteger.ZERO;
+        for (int k = 0; k < orders.length; ++k) {
+            orders[k] = PackedCubeList.order(cubes.get(k), varMasks);
+            maxOrder = Math.max(maxOrder, orders[k]);
+            count = count.add(BigInteger.ONE.shiftLeft(orders[k]));
+        }
+        nMinterms = count;
+        cumulative = new double[orders.length];
+        double sum = 0;
+        for (int k = 0; k < orders.length; ++k) {
+            sum += Math.scalb(1.0, orders[k] - maxOrder);
+            cumulative[k] = sum;
+        }
+        for (int k = 0; k < orders.length; ++k) {
+            cumulative[k] /= sum;
+        }
+    }
+
+    public int getNumberOfVariables() {
+        return nVars;
+    }
+
+    /** Number of disjoint cubes. */
+    public int size() {
+        return cubes.size();
+    }
+
+    /** The disjoint cubes. */
+    public Set<BooleanCube> getCubes() {
+        Set<BooleanCube> result = new HashSet<>();
+        for (long[] c : cubes) {
+            result.add(BooleanCube.fromWords(nVars, c, 0, wordsPerCube));
+        }
+        return result;
+    }
+
+    /** Number of minterms of the cover. */
+    public BigInteger countMinterms() {
+        return nMinterms;
+    }
+
+    /** A minterm of the cover, each with the same probability, or {@code null} if the cover is empty. */
+    public BooleanCube sampleMinterm(Random random) {
+        if (cubes.isEmpty()) {
+            return null;
+        }
+        double x = random.nextDouble();
+        int low = 0;
+        int high = cumulative.length - 1;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (cumulative[mid] > x) {
+                high = mid;
+            } else {
+                low = mid + 1;
+            }
+        }
+        long[] minterm = cubes.get(low).clone();
+        for (int w = 0; w < wordsPerCube; ++w) {
+            long free = minterm[w] & (minterm[w] >>> 1) & varMasks[w];
+            // Clear one of the two bits of each free variable, chosen at random.
+            long ones = random.nextLong() & free;
+            minterm[w] &= ~(ones | ((free & ~ones) << 1));
+        }
+        return BooleanCube.fromWords(nVars, minterm, 0, wordsPerCube);
+    }
+}
@@ -0,0 +1,85 @@
+package edu.pdx.vishakh.cubecalculus.core;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+public class DisjointCoverTests {
+
+    public static void main(String[] args) {
+        testRandomCovers();
+        testWideCount();
+        testSampling();
+    }
+
+    /** Disjoint cubes have the minterms of the cover, and no two share one. */
+    private static void testRandomCovers() {
+        Random random = new Random(45);
+        boolean exact = true;
+        for (int t = 0; t < 100; ++t) {
+            int nVars = 1 + random.nextInt(10);
+            Set<BooleanCube> cover = TestUtils.randomCover(random, nVars, random.nextInt(15), "01**");
+            DisjointCover disjoint = new DisjointCover(nVars, cover);
+            List<BooleanCube> cubes = new ArrayList<>(disjoint.getCubes());
+            TruthTable expected = TruthTable.fromCubes(nVars, cover);
+            exact &= TruthTable.fromCubes(nVars, disjoint.getCubes()).equals(expected)
+                    && disjoint.countMinterms().longValue() == expected.countOnes()
+                    && CubeUtils.countMinterms(cover).equals(disjoint.countMinterms());
+            for (int i = 0; i < cubes.size(); ++i) {
+                for (int j = i + 1; j < cubes.size(); ++j) {
+                    exact &= cubes.get(i).intersection(cubes.get(j)) == null;
+                }
+            }
+        }
+        TestUtils.assertTrue(exact, "Disjoint cubes count the minterms of covers");
+    }
+
+    /** Two overlapping ranges and a pattern of 100 variables, counted without minterms. */
+    private static void testWideCount() {
+        int nVars = 100;
+        Set<BooleanCube> cover = new HashSet<>();
+        // Ranges over the last 60 variables, under a prefix of 40 zeros.
+        String zeros = "0".repeat(40);
+        for (FunctionSpecification spec : new FunctionSpecification[] {
+                new FunctionSpecification(60).addOnRange(1000, 5000000000L),
+                new FunctionSpecification(60).addOnRange(4000000000L, 1L << 59)}) {
+            for (BooleanCube c : spec.getOnCubes()) {
+                cover.add(BooleanCube.fromString(zeros + c.toPlainNumericString()));
+            }
+        }
+        // Half of the space, overlapping the ranges where variable 40 is 1.
+        cover.add(BooleanCube.fromString("*".repeat(40) + "1" + "*".repeat(59)));
+        BigInteger ranges = BigInteger.valueOf((1L << 59) - 1000 + 1);
+        BigInteger half = BigInteger.ONE.shiftLeft(99);
+        // Of the ranges, those at or above 2^59 have variable 40 set.
+        BigInteger expected = half.add(ranges).subtract(BigInteger.ONE);
+        TestUtils.assertTrue(CubeUtils.countMinterms(cover).equals(expected), "Wide covers are counted exactly");
+    }
+
+    /** Samples are minterms of the cover, and each of its minterms comes up about as often. */
+    private static void testSampling() {
+        int nVars = 6;
+        Set<BooleanCube> cover = CubeUtils.cubeSetFromStringArray(new String[] {"1*****", "*0*1*0", "0110**"});
+        DisjointCover disjoint = new DisjointCover(nVars, cover);
+        int nMinterms = disjoint.countMinterms().intValue();
+        TruthTable table = TruthTable.fromCubes(nVars, cover);
+        Random random = new Random(46);
+        int[] counts = new int[1 << nVars];
+        int nSamples = 200 * nMinterms;
+        boolean inCover = true;
+        for (int k = 0; k < nSamples; ++k) {
+            BooleanCube minterm = disjoint.sampleMinterm(random);
+            inCover &= minterm.getOrder() == 0 && table.get(minterm.numericValue());
+            ++counts[minterm.numericValue()];
+        }
+        boolean uniform = true;
+        for (int m = 0; m < counts.length; ++m) {
+            uniform &= table.get(m) ? counts[m] > 140 && counts[m] < 260 : counts[m] == 0;
+        }
+        TestUtils.assertTrue(inCover && uniform && new DisjointCover(nVars, new HashSet<>()).sampleMinterm(random)
+                == null, "Minterms are sampled uniformly");
+    }
+}
@@ -0,0 +1,146 @@
+package edu.pdx.vishakh.cubecalculus.core;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Unateness and symmetry of a completely specified function, given by a truth table or by a cover.
+ *
+ * A function is positive unate in a variable if its cofactor for the variable being 0 is contained in the one for
+ * it being 1, and negative unate if the other way round.  A function unate in every variable has all its primes
+ * essential, so its only minimum cover is all of its primes.  A function is symmetric in two variables if it is the
+ * same with them exchanged, that is if its cofactors for them being 01 and 10 are equal.  This is an equivalence, so
+ * the variables fall into groups that the function is symmetric in, and the function is totally symmetric if there is
+ * one group.
+ *
+ * Truth tables are compared a word at a time with their variables flipped or exchanged.  Covers are compared with
+ * {@link CoverAlgebra}, with cofactors as cubes with the variables made free, so they need not be small.
+ */
+public class FunctionClassifier {
+
+    private final int nVars;
+    private final boolean[] positive;
+    private final boolean[] negative;
+    private final List<List<Integer>> groups = new ArrayList<>();
+
+    /** Classifies the function of a truth table. */
+    public FunctionClassifier(TruthTable function) {
+        nVars = function.getNumberOfVariables();
+        positive = new boolean[nVars];
+        negative = new boolean[nVars];
+        for (int v = 0; v < nVars; ++v) {
+            // The minterms that are 1 but 0 with v flipped.
+            TruthTable flipped = new TruthTable(function);
+            flipped.flipVariable(v);
+            TruthTable falling = new TruthTable(function);
+            falling.andNot(flipped);
+            positive[v] = falling.countOnes(v, false) == 0;
+            negative[v] = falling.countOnes(v, true) == 0;
+        }
+        findGroups((a, b) -> {
+            TruthTable swapped = new TruthTable(function);
+            swapped.swapVariables(a, b);
+            return swapped.equals(function);
+        });
+    }
+
+    /** Classifies the function of a cover of {@code nVars} variables. */
+    public FunctionClassifier(int nVars, Collection<BooleanCube> cover) {
+        this.nVars = nVars;
+        positive = new boolean[nVars];
+        negative = new boolean[nVars];
+        CoverAlgebra algebra = new CoverAlgebra(nVars);
+        for (int v = 0; v < nVars; ++v) {
+            Set<BooleanCube> low = cofactor(cover, new int[] {v}, new boolean[] {false});
+            Set<BooleanCube> high = cofactor(cover, new int[] {v}, new boolean[] {true});
+            positive[v] = algebra.sharp(low, high).isEmpty();
+            negative[v] = algebra.sharp(high, low).isEmpty();
+        }
+        findGroups((a, b) -> algebra.xor(cofactor(cover, new int[] {a, b}, new boolean[] {false, true}),
+                cofactor(cover, new int[] {a, b}, new boolean[] {true, false})).isEmpty());
+    }
+
+    public int getNumberOfVariables() {
+        return nVars;
+    }
+
+    /** True if the function never falls when {@code var} rises. */
+    public boolean isPositiveUnate(int var) {
+        return positive[var];
+    }
+
+    /** True if the function never rises when {@code var} rises. */
+    public boolean isNegativeUnate(int var) {
+        return negative[var];
+    }
+
+    /** True if the function is positive or negative unate in every variable. */
+    public boolean isUnate() {
+        for (int v = 0; v < nVars; ++v) {
+            if (!positive[v] && !negative[v]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /** The groups of variables the function is symmetric in, each in increasing order, by their first variable. */
+    public List<List<Integer>> getSymmetryGroups() {
+        return Collections.unmodifiableList(groups);
+    }
+
+    /** True if the function is symmetric in every pair of variables. */
+    public boolean isTotallySymmetric() {
+        return groups.size() <= 1;
+    }
+
+    /** Short description of the kind of function: U if unate, S if totally symmetric. */
+    public String getFunctionType() {
+        return (isUnate() ? "U" : "") + (isTotallySymmetric() ? "S" : "");
+    }
+
+    private interface SymmetryTest {
+        boolean isSymmetric(int a, int b);
+    }
+
+    /** Groups the variables, comparing each with the first variable of the groups so far. */
+    private void findGroups(SymmetryTest test) {
+        for (int v = 0; v < nVars; ++v) {
+            List<Integer> group = null;
+            for (List<Integer> g : groups) {
+                if (test.isSymmetric(g.get(0), v)) {
+                    group = g;
+                    break;
+                }
+            }
+            if (group == null) {
+                group = new ArrayList<>();
+                groups.add(group);
+            }
+            group.add(v);
+        }
+    }
+
+    /** The cubes of {@code cover} that meet the given values of {@code vars}, with those variables made free. */
+    private static Set<BooleanCube> cofactor(Collection<BooleanCube> cover, int[] vars, boolean[] values) {
+        Set<BooleanCube> result = new HashSet<>();
+        for (BooleanCube c : cover) {
+            boolean meets = true;
+            for (int i = 0; i < vars.length; ++i) {
+                meets &= values[i] ? !c.isOffVar(vars[i]) : !c.isOnVar(vars[i]);
+            }
+            if (meets) {
+                BooleanCube free = new BooleanCube(c);
+                for (int var : vars) {
+                    free.makeDontCareVar(var);
+                }
+                result.add(free);
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,216 @@
+package edu.pdx.vishakh.cubecalculus.core;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.IntFunction;
+
+/**
+ * Builds the ON and DONTCARE sets of a function as cubes, from numeric ranges, prefixes, masks, per-variable
+ * predicates and patterns, without listing their minterms.
+ *
+ * Values are numbered as minterms are everywhere in this library: variable 0 is the most significant bit, so
+ * variable {@code i} is bit {@code nVars - 1 - i} of the value.  A range {@code [low, high]} becomes the fewest
+ * aligned power-of-two blocks that cover it exactly, at most {@code 2 * nVars} of them, whatever the size of the
+ * range.  Ranges, prefixes and masks need at most 63 variables; predicates, patterns and cubes can have any number.
+ *
+ * A minterm given both as ON and as DONTCARE is ON.  The cubes can be minimized by
+ * {@link edu.pdx.vishakh.cubecalculus.algorithms.CubeCoverMinimizer}, which does not expand them into minterms.
+ */
+public class FunctionSpecification {
+
+    private final int nVars;
+    private final Set<BooleanCube> onCubes = new HashSet<>();
+    private final Set<BooleanCube> dcCubes = new HashSet<>();
+
+    public FunctionSpecification(int nVars) {
+        if (nVars < 1) {
+            throw new CubeCalculusException("A function needs at least one variable.");
+        }
+        this.nVars = nVars;
+    }
+
+    /** Adds the values {@code low} to {@code high}, both included, to the ON set. */
+    public FunctionSpecification addOnRange(long low, long high) {
+        onCubes.addAll(rangeToCubes(nVars, low, high));
+        return this;
+    }
+
+    /** Adds the values {@code low} to {@code high}, both included, to the DONTCARE set. */
+    public FunctionSpecification addDcRange(long low, long high) {
+        dcCubes.addAll(rangeToCubes(nVars, low, high));
+        return this;
+    }
+
+    /** Adds the values whose first {@code prefixLength} variables are those of {@code value} to the ON set. */
+    public FunctionSpecification addOnPrefix(long value, int prefixLength) {
+        onCubes.add(prefixToCube(nVars, value, prefixLength));
+        return this;
+    }
+
+    /** Adds the values whose first {@code prefixLength} variables are those of {@code value} to the DONTCARE set. */
+    public FunctionSpecification addDcPrefix(long value, int prefixLength) {
+        dcCubes.add(prefixToCube(nVars, value, prefixLength));
+        return this;
+    }
+
+    /** Adds the values that agree with {@code value} on the bits set in {@code careMask} to the ON set. */
+    public FunctionSpecification addOnMask(long value, long careMask) {
+        onCubes.add(maskToCube(nVars, value, careMask));
+        return this;
+    }
+
+    /** Adds the values that agree with {@code value} on the bits set in {@code careMask} to the DONTCARE set. */
+    public FunctionSpecification addDcMask(long value, long careMask) {
+        dcCubes.add(maskToCube(nVars, value, careMask));
+        return this;
+    }
+
+    /**
+     * Adds to the ON set the values where each variable {@code i} is {@code valueOfVar.apply(i)}, or anything where
+     * that is {@code null}.
+     */
+    public FunctionSpecification addOnWhere(IntFunction<Boolean> valueOfVar) {
+        onCubes.add(predicateToCube(nVars, valueOfVar));
+        return this;
+    }
+
+    /** Adds the values of per-variable predicates, as in {@link #addOnWhere}, to the DONTCARE set. */
+    public FunctionSpecification addDcWhere(IntFunction<Boolean> valueOfVar) {
+        dcCubes.add(predicateToCube(nVars, valueOfVar));
+        return this;
+    }
+
+    /**
+     * Adds a pattern to the ON set: one character per variable, '0' or '1' for a variable that must have that value,
+     * '*' or '-' for one that can have any.
+     */
+    public FunctionSpecification addOnPattern(String pattern) {
+        onCubes.add(patternToCube(nVars, pattern));
+        return this;
+    }
+
+    /** Adds a pattern, as in {@link #addOnPattern}, to the DONTCARE set. */
+    public FunctionSpecification addDcPattern(String pattern) {
+        dcCubes.add(patternToCube(nVars, pattern));
+        return this;
+    }
+
+    /** Adds a cube to the ON set. */
+    public FunctionSpecification addOnCube(BooleanCube cube) {
+        onCubes.add(checkCube(cube));
+        return this;
+    }
+
+    /** Adds a cube to the DONTCARE set. */
+    public FunctionSpecification addDcCube(BooleanCube cube) {
+        dcCubes.add(checkCube(cube));
+        return this;
+    }
+
+    public int getNumberOfVariables() {
+        return nVars;
+    }
+
+    /** Cubes of the ON set, as added.  They may overlap. */
+    public Set<BooleanCube> getOnCubes() {
+        return new HashSet<>(onCubes);
+    }
+
+    /** Cubes of the DONTCARE set, as added.  They may overlap each other and the ON set. */
+    public Set<BooleanCube> getDcCubes() {
+        return new HashSet<>(dcCubes);
+    }
+
+    /**
+     * Returns the fewest aligned power-of-two blocks whose minterms are the values {@code low} to {@code high}, both
+     * included, as disjoint cubes.
+     *
+     * Each cube is an aligned block of {@code 2^k} values: the largest block that starts at the lowest value not yet
+     * covered and does not go past {@code high}.  Fewer cubes that are not such blocks may cover the range: [1, 6] of
+     * 3 variables takes the 4 blocks 001, 01*, 10* and 110, but also the 3 cubes 0*1, *10 and 10*.  The minimizer
+     * merges them when it can.
+     */
+    public static List<BooleanCube> rangeToCubes(int nVars, long low, long high) {
+        long maxValue = maxValue(nVars);
+        if (low < 0 || high > maxValue || low > high) {
+            throw new CubeCalculusException("Range [" + low + ", " + high + "] is not within 0 to " + maxValue + ".");
+        }
+        List<BooleanCube> cubes = new ArrayList<>();
+        long next = low;
+        while (true) {
+            int k = next == 0 ? nVars : Long.numberOfTrailingZeros(next);
+            while (k > 0 && blockEnd(next, k) > high) {
+                --k;
+            }
+            cubes.add(maskToCube(nVars, next, maxValue & ~blockEnd(0, k)));
+            if (blockEnd(next, k) >= high) {
+                return cubes;
+            }
+            next = blockEnd(next, k) + 1;
+        }
+    }
+
+    /** Cube of the values whose first {@code prefixLength} variables are those of {@code value}. */
+    public static BooleanCube prefixToCube(int nVars, long value, int prefixLength) {
+        if (prefixLength < 0 || prefixLength > nVars) {
+            throw new CubeCalculusException("Prefix of " + prefixLength + " bits for " + nVars + " variables.");
+        }
+        return maskToCube(nVars, value, maxValue(nVars) & ~blockEnd(0, nVars - prefixLength));
+    }
+
+    /** Cube of the values that agree with {@code value} on the bits set in {@code careMask}. */
+    public static BooleanCube maskToCube(int nVars, long value, long careMask) {
+        long maxValue = maxValue(nVars);
+        if ((careMask & ~maxValue) != 0) {
+            throw new CubeCalculusException("Mask has bits beyond " + nVars + " variables.");
+        }
+        char[] trits = new char[nVars];
+        for (int i = 0; i < nVars; ++i) {
+            long bit = 1L << (nVars - 1 - i);
+            trits[i] = (careMask & bit) == 0 ? '*' : ((value & bit) == 0 ? '0' : '1');
+        }
+        return BooleanCube.fromString(new String(trits));
+    }
+
+    /** Cube of the values where each variable {@code i} is {@code valueOfVar.apply(i)}, or anything where null. */
+    public static BooleanCube predicateToCube(int nVars, IntFunction<Boolean> valueOfVar) {
+        char[] trits = new char[nVars];
+        for (int i = 0; i < nVars; ++i) {
+            Boolean value = valueOfVar.apply(i);
+            trits[i] = value == null ? '*' : (value ? '1' : '0');
+        }
+        return BooleanCube.fromString(new String(trits));
+    }
+
+    private static BooleanCube patternToCube(int nVars, String pattern) {
+        if (pattern.length() != nVars) {
+            throw new CubeCalculusException("Pattern " + pattern + " is not of " + nVars + " variables.");
+        }
+        BooleanCube cube = BooleanCube.fromString(pattern.replace('-', '*'));
+        if (cube == null) {
+            throw new CubeCalculusException("Pattern " + pattern + " has characters other than 0, 1, * and -.");
+        }
+        return cube;
+    }
+
+    private BooleanCube checkCube(BooleanCube cube) {
+        if (cube.getNumberOfVariables() != nVars) {
+            throw new CubeCalculusException("Cube " + cube + " is not of " + nVars + " variables.");
+        }
+        return cube;
+    }
+
+    /** Last value of the block of {@code 2^k} values starting at {@code start}. */
+    private static long blockEnd(long start, int k) {
+        return start + (k == 63 ? Long.MAX_VALUE : (1L << k) - 1);
+    }
+
+    private static long maxValue(int nVars) {
+        if (nVars > 63) {
+            throw new CubeCalculusException("Numeric values support at most 63 variables, not " + nVars + ".");
+        }
+        return blockEnd(0, nVars);
+    }
+}
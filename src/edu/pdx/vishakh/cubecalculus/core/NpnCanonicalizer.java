@@ -0,0 +1,237 @@
+package edu.pdx.vishakh.cubecalculus.core;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Computes an NPN canonical form of an incompletely specified function: the representative of all the functions that
+ * can be obtained from it by negating inputs, permuting inputs and negating the output.
+ *
+ * The canonical form is the smallest truth table, in {@link TruthTable#compareTo} order of the ON table and then the
+ * DONTCARE table, among the tables obtained by the transforms that normalize three NPN invariant signatures:
+ * <ul>
+ *     <li>the output is negated when that makes the ON set smaller than the OFF set,</li>
+ *     <li>each input is negated when that gives its 0-cofactor more ON (then DONTCARE) minterms than its 1-cofactor,</li>
+ *     <li>the inputs are sorted by those cofactor counts, largest first.</li>
+ * </ul>
+ * Only ties in the signatures need to be tried exhaustively.  Since the set of normalized tables is the same for every
+ * function of an NPN class, so is its smallest element.  For highly symmetric functions the number of ties can be
+ * huge; then at most {@code maxCandidates} transforms are tried, and the result is still a correct transform of the
+ * function but may differ between members of the class ({@link Result#isExact()} is false).
+ */
+public class NpnCanonicalizer {
+
+    /** Largest number of variables supported. */
+    public static final int MAX_VARS = 16;
+
+    private static final int DEFAULT_MAX_CANDIDATES = 4096;
+
+    private final int maxCandidates;
+
+    public NpnCanonicalizer() {
+        this(DEFAULT_MAX_CANDIDATES);
+    }
+
+    /**
+     * @param maxCandidates Maximum number of tied transforms tried per function.
+     */
+    public NpnCanonicalizer(int maxCandidates) {
+        this.maxCandidates = maxCandidates;
+    }
+
+    /** The canonical form of a function and the transform that produces it. */
+    public static final class Result {
+        private final TruthTable onTable;
+        private final TruthTable dcTable;
+        private final NpnTransform transform;
+        private final boolean exact;
+
+        Result(TruthTable onTable, TruthTable dcTable, NpnTransform transform, boolean exact) {
+            this.onTable = onTable;
+            this.dcTable = dcTable;
+            this.transform = transform;
+            this.exact = exact;
+        }
+
+        /** ON set of the canonical function. */
+        public TruthTable getOnTable() {
+            return onTable;
+        }
+
+        /** DONTCARE set of the canonical function. */
+        public TruthTable getDcTable() {
+            return dcTable;
+        }
+
+        /** Transform from the original function to the canonical one. */
+        public NpnTransform getTransform() {
+            return transform;
+        }
+
+        /** False if the candidate limit was reached, so the form may not be shared by the whole class. */
+        public boolean isExact() {
+            return exact;
+        }
+    }
+
+    /** Canonicalizes a completely specified function. */
+    public Result canonicalize(TruthTable onTable) {
+        return canonicalize(onTable, new TruthTable(onTable.getNumberOfVariables()));
+    }
+
+    /**
+     * Canonicalizes an incompletely specified function.
+     * @param onTable The ON set.
+     * @param dcTable The DONTCARE set.  Must be disjoint from the ON set.
+     */
+    public Result canonicalize(TruthTable onTable, TruthTable dcTable) {
+        int nVars = onTable.getNumberOfVariables();
+        if (nVars > MAX_VARS) {
+            throw new CubeCalculusException("NPN canonicalization supports up to " + MAX_VARS + " variables.");
+        }
+        TruthTable offTable = new TruthTable(onTable);
+        offTable.or(dcTable);
+        offTable.not();
+
+        long onCount = onTable.countOnes();
+        long offCount = offTable.countOnes();
+
+        Search search = new Search(nVars, dcTable);
+        if (onCount <= offCount) {
+            search.run(onTable, false);
+        }
+        if (offCount <= onCount) {
+            search.run(offTable, true);
+        }
+        return new Result(search.bestOn, search.bestDc, search.bestTransform, !search.truncated);
+    }
+
+    /** State of the search for the smallest normalized table of one function. */
+    private class Search {
+        private final int nVars;
+        private final TruthTable dcTable;
+
+        private TruthTable bestOn = null;
+        private TruthTable bestDc = null;
+        private NpnTransform bestTransform = null;
+        private int nCandidates = 0;
+        private boolean truncated = false;
+
+        Search(int nVars, TruthTable dcTable) {
+            this.nVars = nVars;
+            this.dcTable = dcTable;
+        }
+
+        /** Tries every normalizing transform of the function whose ON set (after output negation) is {@code on}. */
+        void run(TruthTable on, boolean outputNegated) {
+            long base = 1L << nVars;
+
+            // Signature of each variable in each polarity: ON count, then DC count, of the cofactor.
+            long[] key0 = new long[nVars];
+            long[] key1 = new long[nVars];
+            for (int i = 0; i < nVars; ++i) {
+                key0[i] = on.countOnes(i, false) * base + dcTable.countOnes(i, false);
+                key1[i] = on.countOnes(i, true) * base + dcTable.countOnes(i, true);
+            }
+
+            long fixedNegations = 0;
+            List<Integer> tiedPolarities = new ArrayList<>();
+            for (int i = 0; i < nVars; ++i) {
+                if (key1[i] > key0[i]) {
+                    fixedNegations |= 1L << i;
+                } else if (key1[i] == key0[i]) {
+                    tiedPolarities.add(i);
+                }
+            }
+
+            // Sort variables by signature, largest first, and find the groups of equal signatures.
+            long[] major = new long[nVars];
+            long[] minor = new long[nVars];
+            Integer[] order = new Integer[nVars];
+            for (int i = 0; i < nVars; ++i) {
+                major[i] = Math.max(key0[i], key1[i]);
+                minor[i] = Math.min(key0[i], key1[i]);
+                order[i] = i;
+            }
+            Arrays.sort(order, (u, v) -> major[u] != major[v] ? Long.compare(major[v], major[u])
+                    : Long.compare(minor[v], minor[u]));
+            List<int[]> groups = new ArrayList<>();
+            int start = 0;
+            for (int j = 1; j <= nVars; ++j) {
+                if (j == nVars || major[order[j]] != major[order[start]] || minor[order[j]] != minor[order[start]]) {
+                    int[] group = new int[j - start];
+                    for (int k = start; k < j; ++k) {
+                        group[k - start] = order[k];
+                    }
+                    groups.add(group);
+                    start = j;
+                }
+            }
+
+            int nTied = tiedPolarities.size();
+            for (long tieMask = 0; tieMask < (1L << nTied) && !truncated; ++tieMask) {
+                long negations = fixedNegations;
+                for (int t = 0; t < nTied; ++t) {
+                    if ((tieMask & (1L << t)) != 0) {
+                        negations |= 1L << tiedPolarities.get(t);
+                    }
+                }
+                int[] perm = new int[nVars];
+                permuteGroups(on, outputNegated, negations, groups, 0, perm, 0);
+            }
+        }
+
+        /** Fills {@code perm} group by group with every ordering of each group, and tries each full permutation. */
+        private void permuteGroups(TruthTable on, boolean outputNegated, long negations, List<int[]> groups,
+                                   int groupIdx, int[] perm, int filled) {
+            if (truncated) {
+                return;
+            }
+            if (groupIdx == groups.size()) {
+                tryTransform(on, new NpnTransform(perm, negations, outputNegated));
+                return;
+            }
+            int[] group = groups.get(groupIdx).clone();
+            permuteGroup(on, outputNegated, negations, groups, groupIdx, group, 0, perm, filled);
+        }
+
+        private void permuteGroup(TruthTable on, boolean outputNegated, long negations, List<int[]> groups,
+                                  int groupIdx, int[] group, int k, int[] perm, int filled) {
+            if (k == group.length) {
+                permuteGroups(on, outputNegated, negations, groups, groupIdx + 1, perm, filled + group.length);
+                return;
+            }
+            for (int i = k; i < group.length && !truncated; ++i) {
+                swap(group, k, i);
+                perm[filled + k] = group[k];
+                permuteGroup(on, outputNegated, negations, groups, groupIdx, group, k + 1, perm, filled);
+                swap(group, k, i);
+            }
+        }
+
+        private void tryTransform(TruthTable on, NpnTransform transform) {
+            if (++nCandidates > maxCandidates) {
+                truncated = true;
+                return;
+            }
+            TruthTable candidateOn = transform.applyToInputs(on);
+            int c = bestOn == null ? -1 : candidateOn.compareTo(bestOn);
+            if (c > 0) {
+                return;
+            }
+            TruthTable candidateDc = transform.applyToInputs(dcTable);
+            if (c < 0 || candidateDc.compareTo(bestDc) < 0) {
+                bestOn = candidateOn;
+                bestDc = candidateDc;
+                bestTransform = transform;
+            }
+        }
+    }
+
+    private static void swap(int[] array, int i, int j) {
+        int t = array[i];
+        array[i] = array[j];
+        array[j] = t;
+    }
+}
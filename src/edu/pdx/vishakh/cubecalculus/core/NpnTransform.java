@@ -0,0 +1,137 @@
+package edu.pdx.vishakh.cubecalculus.core;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * An NPN transform: a negation of some inputs, followed by a permutation of the inputs, and possibly a negation of
+ * the output.
+ *
+ * A transform maps a function {@code f} of variables {@code x} to the function {@code g} of variables {@code y} with
+ * {@code g(y) = f(x) XOR outputNegated}, where {@code x[perm[j]] = y[j] XOR negated(perm[j])}.  In words, variable
+ * {@code j} of {@code g} is variable {@code perm[j]} of {@code f}, negated if that variable is in the negation mask.
+ */
+public final class NpnTransform {
+
+    private final int[] perm;
+    private final long negationMask;
+    private final boolean outputNegated;
+
+    /**
+     * @param perm Variable {@code j} of the transformed function is variable {@code perm[j]} of the original one.
+     * @param negationMask Bit {@code i} set if variable {@code i} of the original function is negated.
+     * @param outputNegated True if the output is negated.
+     */
+    public NpnTransform(int[] perm, long negationMask, boolean outputNegated) {
+        this.perm = perm.clone();
+        this.negationMask = negationMask;
+        this.outputNegated = outputNegated;
+    }
+
+    /** The transform that changes nothing. */
+    public static NpnTransform identity(int nVars) {
+        int[] perm = new int[nVars];
+        for (int i = 0; i < nVars; ++i) {
+            perm[i] = i;
+        }
+        return new NpnTransform(perm, 0, false);
+    }
+
+    public int getNumberOfVariables() {
+        return perm.length;
+    }
+
+    /** Original variable that becomes variable {@code j} of the transformed function. */
+    public int getPermutedVariable(int j) {
+        return perm[j];
+    }
+
+    /** True if variable {@code i} of the original function is negated. */
+    public boolean isNegated(int i) {
+        return (negationMask & (1L << i)) != 0;
+    }
+
+    public boolean isOutputNegated() {
+        return outputNegated;
+    }
+
+    /**
+     * Applies the input negations and the permutation to a truth table.  The output negation is left to the caller,
+     * since for an incompletely specified function it exchanges the ON and OFF sets rather than complementing a table.
+     */
+    public TruthTable applyToInputs(TruthTable table) {
+        TruthTable t = new TruthTable(table);
+        int nVars = perm.length;
+        for (int i = 0; i < nVars; ++i) {
+            if (isNegated(i)) {
+                t.flipVariable(i);
+            }
+        }
+
+        // current[j] is the original variable now at position j.
+        int[] current = new int[nVars];
+        int[] positionOf = new int[nVars];
+        for (int i = 0; i < nVars; ++i) {
+            current[i] = i;
+            positionOf[i] = i;
+        }
+        for (int j = 0; j < nVars; ++j) {
+            int k = positionOf[perm[j]];
+            if (k != j) {
+                t.swapVariables(j, k);
+                int moved = current[j];
+                current[j] = perm[j];
+                current[k] = moved;
+                positionOf[perm[j]] = j;
+                positionOf[moved] = k;
+            }
+        }
+        return t;
+    }
+
+    /** Maps a cube over the variables of the transformed function to the same cube over the original variables. */
+    public BooleanCube toOriginal(BooleanCube transformedCube) {
+        int nVars = perm.length;
+        char[] trits = new char[nVars];
+        for (int j = 0; j < nVars; ++j) {
+            int i = perm[j];
+            if (transformedCube.isDontCareVar(j)) {
+                trits[i] = '*';
+            } else {
+                trits[i] = transformedCube.isOnVar(j) != isNegated(i) ? '1' : '0';
+            }
+        }
+        return BooleanCube.fromString(new String(trits));
+    }
+
+    /** Maps a cube over the original variables to the same cube over the variables of the transformed function. */
+    public BooleanCube toTransformed(BooleanCube originalCube) {
+        int nVars = perm.length;
+        char[] trits = new char[nVars];
+        for (int j = 0; j < nVars; ++j) {
+            int i = perm[j];
+            if (originalCube.isDontCareVar(i)) {
+                trits[j] = '*';
+            } else {
+                trits[j] = originalCube.isOnVar(i) != isNegated(i) ? '1' : '0';
+            }
+        }
+        return BooleanCube.fromString(new String(trits));
+    }
+
+    /** Maps every cube of a cover with {@link #toOriginal(BooleanCube)}. */
+    public Set<BooleanCube> toOriginal(Set<BooleanCube> transformedCubes) {
+        Set<BooleanCube> cubes = new HashSet<>();
+        for (BooleanCube c : transformedCubes) {
+            cubes.add(toOriginal(c));
+        }
+        return cubes;
+    }
+
+    @Override
+    public String toString() {
+        return "NpnTransform[perm = " + Arrays.toString(perm) + ", negated = " + Long.toBinaryString(negationMask)
+                + ", output negated = " + outputNegated + "]";
+    }
+}
@@ -0,0 +1,237 @@
+package edu.pdx.vishakh.cubecalculus.core;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * A growable list of cubes packed into one array of longs, for covers too large to keep as {@link BooleanCube}
+ * objects.  Each cube takes {@link #wordsPerCube(int)} words, in the bit layout of {@link BooleanCube#fromWords}: two
+ * bits per variable, 10 for 0, 01 for 1 and 11 for DONTCARE (bit 2i first).
+ */
+public class PackedCubeList {
+
+    /** Two bit code of a variable that is 0. */
+    public static final int OFF = 1;
+
+    /** Two bit code of a variable that is 1. */
+    public static final int ON = 2;
+
+    /** Two bit code of a DONTCARE variable. */
+    public static final int DONTCARE = 3;
+
+    private static final long LOW_BITS = 0x5555555555555555L;
+
+    /** Most cubes allocated for a capacity hint.  The list grows past it as cubes are added. */
+    private static final int MAX_INITIAL_CUBES = 1 << 20;
+
+    /** Most words of the array, a little below the largest array a JVM allows. */
+    private static final long MAX_WORDS = Integer.MAX_VALUE - 8;
+
+    private final int nVars;
+    private final int wordsPerCube;
+    private long[] words;
+    private int size = 0;
+
+    public PackedCubeList(int nVars) {
+        this(nVars, 16);
+    }
+
+    /**
+     * @param nVars Number of variables of the cubes.
+     * @param initialCapacity Number of cubes to allocate room for, a hint taken up to {@value #MAX_INITIAL_CUBES}.
+     */
+    public PackedCubeList(int nVars, int initialCapacity) {
+        this.nVars = nVars;
+        this.wordsPerCube = wordsPerCube(nVars);
+        long length = (long) Math.min(Math.max(1, initialCapacity), MAX_INITIAL_CUBES) * wordsPerCube;
+        if (length > MAX_WORDS) {
+            throw new CubeCalculusException("Cubes of " + nVars + " variables are too large for a packed cube list.");
+        }
+        this.words = new long[(int) length];
+    }
+
+    /** Number of longs taken by a cube of {@code nVars} variables. */
+    public static int wordsPerCube(int nVars) {
+        return (int) Math.max(1, (2L * nVars + 63) / 64);
+    }
+
+    /** Per word of a cube of {@code nVars} variables, the low bit of each variable that is in the word. */
+    public static long[] varMasks(int nVars) {
+        long[] masks = new long[wordsPerCube(nVars)];
+        for (int w = 0; w < masks.length; ++w) {
+            int varsInWord = Math.min(32, nVars - 32 * w);
+            masks[w] = varsInWord >= 32 ? LOW_BITS : LOW_BITS & ((1L << (2 * varsInWord)) - 1);
+        }
+        return masks;
+    }
+
+    /** True if the packed cubes {@code a} and {@code b} share a minterm. */
+    public static boolean intersects(long[] a, long[] b, long[] varMasks) {
+        for (int w = 0; w < varMasks.length; ++w) {
+            long x = a[w] & b[w];
+            // A variable with neither bit left has no value in common.
+            if (((x | (x >>> 1)) & varMasks[w]) != varMasks[w]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /** Writes the intersection of packed cubes {@code a} and {@code b} into {@code result}; false if it is empty. */
+    public static boolean intersection(long[] a, long[] b, long[] varMasks, long[] result) {
+        for (int w = 0; w < varMasks.length; ++w) {
+            result[w] = a[w] & b[w];
+        }
+        return intersects(a, b, varMasks);
+    }
+
+    /** True if the packed cube {@code a} contains the packed cube {@code b}. */
+    public static boolean contains(long[] a, long[] b) {
+        for (int w = 0; w < a.length; ++w) {
+            if ((b[w] & ~a[w]) != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Adds the disjoint cubes of {@code a # b} to {@code result}: {@code a} itself if they are disjoint.  For each
+     * variable where {@code a} has values {@code b} has not, the piece has those values for that variable and the
+     * values of both for the variables before it.
+     */
+    public static void disjointSharp(long[] a, long[] b, long[] varMasks, List<long[]> result) {
+        if (!intersects(a, b, varMasks)) {
+            result.add(a);
+            return;
+        }
+        long[] rest = a.clone();
+        for (int w = 0; w < varMasks.length; ++w) {
+            long outside = a[w] & ~b[w];
+            long vars = (outside | (outside >>> 1)) & varMasks[w];
+            while (vars != 0) {
+                int bit = Long.numberOfTrailingZeros(vars);
+                long field = 3L << bit;
+                long[] piece = rest.clone();
+                piece[w] = (piece[w] & ~field) | (outside & field);
+                result.add(piece);
+                rest[w] = (rest[w] & ~field) | (a[w] & b[w] & field);
+                vars &= vars - 1;
+            }
+        }
+    }
+
+    /** Number of DONTCARE variables of a packed cube. */
+    public static int order(long[] cube, long[] varMasks) {
+        int order = 0;
+        for (int w = 0; w < varMasks.length; ++w) {
+            order += Long.bitCount(cube[w] & (cube[w] >>> 1) & varMasks[w]);
+        }
+        return order;
+    }
+
+    /** Packs a cube of {@code nVars} variables into a new array. */
+    public static long[] pack(int nVars, BooleanCube cube) {
+        if (cube.getNumberOfVariables() != nVars) {
+            throw new CubeCalculusException("Cube " + cube + " is not of " + nVars + " variables.");
+        }
+        int wordsPerCube = wordsPerCube(nVars);
+        long[] words = new long[wordsPerCube];
+        cube.toWords(words, 0, wordsPerCube);
+        return words;
+    }
+
+    /** Packs cubes of {@code nVars} variables, each into a new array. */
+    public static List<long[]> pack(int nVars, Collection<BooleanCube> cubes) {
+        List<long[]> packed = new ArrayList<>();
+        for (BooleanCube c : cubes) {
+            packed.add(pack(nVars, c));
+        }
+        return packed;
+    }
+
+    public int getNumberOfVariables() {
+        return nVars;
+    }
+
+    public int getWordsPerCube() {
+        return wordsPerCube;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /** Adds a cube. */
+    public void add(BooleanCube cube) {
+        if (cube.getNumberOfVariables() != nVars) {
+            throw new CubeCalculusException("Cube has " + cube.getNumberOfVariables() + " variables instead of "
+                    + nVars + ".");
+        }
+        ensureCapacity(size + 1);
+        cube.toWords(words, size * wordsPerCube, wordsPerCube);
+        ++size;
+    }
+
+    /**
+     * Adds a cube already packed.
+     * @param cubeWords Array holding the cube.
+     * @param offset Index of its first word.
+     */
+    public void add(long[] cubeWords, int offset) {
+        ensureCapacity(size + 1);
+        System.arraycopy(cubeWords, offset, words, size * wordsPerCube, wordsPerCube);
+        ++size;
+    }
+
+    /** Returns cube {@code index} as a new BooleanCube. */
+    public BooleanCube get(int index) {
+        checkIndex(index);
+        return BooleanCube.fromWords(nVars, words, index * wordsPerCube, wordsPerCube);
+    }
+
+    /**
+     * Returns the two bit code of variable {@code var} of cube {@code index}: {@link #OFF}, {@link #ON} or
+     * {@link #DONTCARE}.
+     */
+    public int getVar(int index, int var) {
+        checkIndex(index);
+        long word = words[index * wordsPerCube + (var >>> 5)];
+        return (int) (word >>> (2 * (var & 31))) & 3;
+    }
+
+    /** Copies the words of cube {@code index} into {@code dest}, starting at {@code destOffset}. */
+    public void copyWords(int index, long[] dest, int destOffset) {
+        checkIndex(index);
+        System.arraycopy(words, index * wordsPerCube, dest, destOffset, wordsPerCube);
+    }
+
+    /** Returns all the cubes as BooleanCubes. */
+    public Set<BooleanCube> toSet() {
+        Set<BooleanCube> cubes = new HashSet<>();
+        for (int i = 0; i < size; ++i) {
+            cubes.add(get(i));
+        }
+        return cubes;
+    }
+
+    private void ensureCapacity(int nCubes) {
+        if (nCubes * (long) wordsPerCube > words.length) {
+            long newLength = Math.max(nCubes * (long) wordsPerCube, 2L * words.length);
+            if (newLength > MAX_WORDS) {
+                throw new CubeCalculusException("Too many cubes for a packed cube list.");
+            }
+            words = Arrays.copyOf(words, (int) newLength);
+        }
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Cube " + index + " of " + size + ".");
+        }
+    }
+}
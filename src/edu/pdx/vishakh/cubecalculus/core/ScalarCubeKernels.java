@@ -0,0 +1,44 @@
+package edu.pdx.vishakh.cubecalculus.core;
+
+/**
+ * The kernels of {@link CubeBatch} as plain loops of long arithmetic with no branches, which HotSpot compiles into
+ * SIMD instructions where it can.
+ */
+class ScalarCubeKernels implements CubeKernels {
+
+    @Override
+    public void intersect(long[] plane, long probe, long mask, long[] miss) {
+        for (int k = 0; k < miss.length; ++k) {
+            long x = plane[k] & probe;
+            // A variable with neither bit left has no value in common.
+            miss[k] |= mask & ~(x | (x >>> 1));
+        }
+    }
+
+    @Override
+    public void contain(long[] plane, long probe, long[] miss) {
+        for (int k = 0; k < miss.length; ++k) {
+            miss[k] |= probe & ~plane[k];
+        }
+    }
+
+    @Override
+    public void containedIn(long[] plane, long probe, long[] miss) {
+        for (int k = 0; k < miss.length; ++k) {
+            miss[k] |= plane[k] & ~probe;
+        }
+    }
+
+    @Override
+    public void adjacent(long[] plane, int from, long probe, long mask, long[] bad, long[] opposite) {
+        for (int k = 0; k < bad.length; ++k) {
+            long d = plane[from + k] ^ probe;
+            // Variables free in one cube only differ in one bit; opposite values differ in both.
+            long both = d & (d >>> 1) & mask;
+            long prior = opposite[k];
+            bad[k] |= ((d ^ (d >>> 1)) & mask) | (both & (both - 1))
+                    | (((prior | -prior) & (both | -both)) >>> 63);
+            opposite[k] = prior | both;
+        }
+    }
+}
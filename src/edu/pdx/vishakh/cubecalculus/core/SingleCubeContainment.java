@@ -0,0 +1,95 @@
+package edu.pdx.vishakh.cubecalculus.core;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Removes the cubes of a cover that are contained in another of its cubes.
+ *
+ * A cube contains another if its literals are a subset of the other's, so after sorting the cubes by order, largest
+ * first, a cube is contained in an earlier one exactly when some earlier cube has none of the literals the cube does
+ * not have.  Each literal has a bit set of the cubes with it, and the earlier cubes are masked by the sets of those
+ * literals until none is left, or one is left that contains the cube.  A cube is removed if any earlier one contains
+ * it, kept or not, since whatever contains that one contains it too; so each cube is checked on its own, in parallel
+ * for large covers.  Of equal cubes, the first is kept.
+ */
+public class SingleCubeContainment {
+
+    /** Smallest number of cubes checked in parallel. */
+    private static final int MIN_PARALLEL_CUBES = 4096;
+
+    private SingleCubeContainment() {
+    }
+
+    /** The cubes of {@code cover} not contained in another. */
+    public static List<BooleanCube> removeContained(int nVars, List<BooleanCube> cover) {
+        int wordsPerCube = PackedCubeList.wordsPerCube(nVars);
+        List<BooleanCube> result = new ArrayList<>();
+        for (long[] c : removeContainedPacked(nVars, PackedCubeList.pack(nVars, cover))) {
+            result.add(BooleanCube.fromWords(nVars, c, 0, wordsPerCube));
+        }
+        return result;
+    }
+
+    /** The cubes of {@code cubes}, packed as in {@link PackedCubeList}, not contained in another, largest first. */
+    public static List<long[]> removeContainedPacked(int nVars, List<long[]> cubes) {
+        long[] varMasks = PackedCubeList.varMasks(nVars);
+        List<long[]> sorted = new ArrayList<>(cubes);
+        sorted.sort(Comparator.comparingInt((long[] c) -> PackedCubeList.order(c, varMasks)).reversed());
+
+        // Per literal, the cubes with it; literal 2v + 1 is variable v being 1.
+        int nCubes = sorted.size();
+        long[][] withLiteral = new long[2 * nVars][(nCubes + 63) >>> 6];
+        for (int k = 0; k < nCubes; ++k) {
+            long[] c = sorted.get(k);
+            for (int v = 0; v < nVars; ++v) {
+                long code = (c[v >>> 5] >>> (2 * (v & 31))) & 3;
+                if (code != 3) {
+                    withLiteral[2 * v + (int) (code >>> 1)][k >>> 6] |= 1L << k;
+                }
+            }
+        }
+
+        IntStream indices = IntStream.range(0, nCubes);
+        if (nCubes >= MIN_PARALLEL_CUBES) {
+            indices = indices.parallel();
+        }
+        return indices.filter(k -> !isContainedInEarlier(sorted.get(k), k, withLiteral, nVars))
+                .mapToObj(sorted::get).collect(Collectors.toList());
+    }
+
+    /** True if one of the first {@code k} cubes has no literal that {@code c} has not. */
+    private static boolean isContainedInEarlier(long[] c, int k, long[][] withLiteral, int nVars) {
+        if (k == 0) {
+            return false;
+        }
+        long[] candidates = new long[(k + 63) >>> 6];
+        Arrays.fill(candidates, -1L);
+        if ((k & 63) != 0) {
+            candidates[candidates.length - 1] = (1L << (k & 63)) - 1;
+        }
+        for (int v = 0; v < nVars; ++v) {
+            long code = (c[v >>> 5] >>> (2 * (v & 31))) & 3;
+            // The literals of the variable that c has not: both if it is free in c, else the opposite one.
+            for (int value = 0; value < 2; ++value) {
+                if (code != 3 && (code >>> 1) == value) {
+                    continue;
+                }
+                long[] excluded = withLiteral[2 * v + value];
+                long left = 0;
+                for (int w = 0; w < candidates.length; ++w) {
+                    candidates[w] &= ~excluded[w];
+                    left |= candidates[w];
+                }
+                if (left == 0) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,81 @@
+package edu.pdx.vishakh.cubecalculus.core;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+public class SingleCubeContainmentTests {
+
+    public static void main(String[] args) {
+        testRandomCovers();
+        testEqualCubes();
+        testLargeCover();
+    }
+
+    /** The cubes kept are those no other cube includes. */
+    private static void testRandomCovers() {
+        Random random = new Random(47);
+        boolean exact = true;
+        for (int t = 0; t < 200; ++t) {
+            int nVars = 1 + random.nextInt(40);
+            Set<BooleanCube> cover = TestUtils.randomCover(random, nVars, random.nextInt(60), "01***");
+            exact &= CubeUtils.removeContainedCubes(cover).equals(naive(cover));
+        }
+        TestUtils.assertTrue(exact, "Cubes contained in others are removed");
+    }
+
+    /** Of equal cubes, one is kept. */
+    private static void testEqualCubes() {
+        List<BooleanCube> cover = new ArrayList<>();
+        for (String s : new String[] {"1*0", "1*0", "100", "*1*", "*1*", "010"}) {
+            cover.add(BooleanCube.fromString(s));
+        }
+        List<BooleanCube> kept = SingleCubeContainment.removeContained(3, cover);
+        TestUtils.assertTrue(kept.size() == 2 && kept.contains(BooleanCube.fromString("1*0"))
+                && kept.contains(BooleanCube.fromString("*1*")), "One of equal cubes is kept");
+    }
+
+    /**
+     * A cover of 6000 cubes of 70 variables, checked in parallel, made of 200 cubes and cubes of theirs with more
+     * literals.  What is kept is checked against itself and against what is removed.
+     */
+    private static void testLargeCover() {
+        Random random = new Random(48);
+        List<BooleanCube> bases = new ArrayList<>(TestUtils.randomCover(random, 70, 200, "01*******"));
+        Set<BooleanCube> cover = new HashSet<>(bases);
+        while (cover.size() < 6000) {
+            char[] trits = bases.get(random.nextInt(bases.size())).toPlainNumericString().toCharArray();
+            for (int k = 0; k < 5; ++k) {
+                int i = random.nextInt(trits.length);
+                if (trits[i] == '*') {
+                    trits[i] = random.nextBoolean() ? '1' : '0';
+                }
+            }
+            cover.add(BooleanCube.fromString(new String(trits)));
+        }
+        Set<BooleanCube> kept = CubeUtils.removeContainedCubes(cover);
+        boolean exact = cover.containsAll(kept) && naive(kept).equals(kept);
+        for (BooleanCube c : cover) {
+            if (!kept.contains(c)) {
+                exact &= kept.stream().anyMatch(d -> d.includes(c));
+            }
+        }
+        TestUtils.assertTrue(exact, "Large covers are cleaned up exactly");
+    }
+
+    private static Set<BooleanCube> naive(Set<BooleanCube> cover) {
+        Set<BooleanCube> result = new HashSet<>();
+        for (BooleanCube c : cover) {
+            boolean contained = false;
+            for (BooleanCube d : cover) {
+                contained |= !d.equals(c) && d.includes(c);
+            }
+            if (!contained) {
+                result.add(c);
+            }
+        }
+        return result;
+    }
+}
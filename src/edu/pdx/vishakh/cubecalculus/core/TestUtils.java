@@ -3,6 +3,8 @@ package edu.pdx.vishakh.cubecalculus.core;
 import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
 import java.io.PrintStream;
+import java.util.HashSet;
+import java.util.Random;
 import java.util.Set;
 
 public class TestUtils {
@@ -176,4 +178,20 @@ public class TestUtils {
         }
 
     }
+
+    /**
+     * A set of at most {@code nCubes} random cubes of {@code nVars} variables, each variable picked from the
+     * characters of {@code values}, such as "01**" for half of them DONTCARE.
+     */
+    public static Set<BooleanCube> randomCover(Random random, int nVars, int nCubes, String values) {
+        Set<BooleanCube> cover = new HashSet<>();
+        for (int k = 0; k < nCubes; ++k) {
+            char[] trits = new char[nVars];
+            for (int i = 0; i < nVars; ++i) {
+                trits[i] = values.charAt(random.nextInt(values.length()));
+            }
+            cover.add(BooleanCube.fromString(new String(trits)));
+        }
+        return cover;
+    }
 }
@@ -0,0 +1,356 @@
+package edu.pdx.vishakh.cubecalculus.core;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * A completely specified boolean function of up to {@link #MAX_VARS} variables, stored as a bit-parallel truth table.
+ *
+ * Bit {@code m} of the table is the value of the function at minterm {@code m}, numbered as in
+ * {@link BooleanCube#numericValue()}: variable 0 is the most significant bit.  So variable {@code i} of an
+ * {@code n} variable function is bit position {@code n - 1 - i} of the minterm number.  Bits of the table beyond
+ * {@code 2^n} are always 0.
+ *
+ * Variable negation and exchange are done on whole 64-bit words with shifts and masks, so they cost
+ * {@code O(2^n / 64)} regardless of the function.
+ */
+public class TruthTable implements Comparable<TruthTable> {
+
+    public static final int MAX_VARS = 20;
+
+    /** LOW_MASKS[p] has the bits whose index has bit p cleared. */
+    private static final long[] LOW_MASKS = {
+            0x5555555555555555L,
+            0x3333333333333333L,
+            0x0F0F0F0F0F0F0F0FL,
+            0x00FF00FF00FF00FFL,
+            0x0000FFFF0000FFFFL,
+            0x00000000FFFFFFFFL,
+    };
+
+    private final int nVars;
+    private final long[] words;
+
+    /** Creates the constant 0 function of {@code nVars} variables. */
+    public TruthTable(int nVars) {
+        if (nVars < 0 || nVars > MAX_VARS) {
+            throw new CubeCalculusException("Truth tables support 0 to " + MAX_VARS + " variables, not " + nVars);
+        }
+        this.nVars = nVars;
+        this.words = new long[nVars <= 6 ? 1 : 1 << (nVars - 6)];
+    }
+
+    /** Copies another truth table. */
+    public TruthTable(TruthTable other) {
+        this.nVars = other.nVars;
+        this.words = other.words.clone();
+    }
+
+    /** Wraps words already in the layout of a table of {@code nVars} variables. */
+    TruthTable(int nVars, long[] words) {
+        this.nVars = nVars;
+        this.words = words;
+    }
+
+    /** Creates the truth table of the union of a set of cubes. */
+    public static TruthTable fromCubes(int nVars, Set<BooleanCube> cubes) {
+        TruthTable t = new TruthTable(nVars);
+        if (cubes != null) {
+            for (BooleanCube c : cubes) {
+                t.addCube(c);
+            }
+        }
+        return t;
+    }
+
+    /** Creates a truth table that is 1 exactly at the given minterms. */
+    public static TruthTable fromMinterms(int nVars, long[] minterms) {
+        TruthTable t = new TruthTable(nVars);
+        for (long m : minterms) {
+            t.set(m);
+        }
+        return t;
+    }
+
+    public int getNumberOfVariables() {
+        return nVars;
+    }
+
+    /** Returns the value of the function at minterm {@code m}. */
+    public boolean get(long m) {
+        return (words[(int) (m >>> 6)] & (1L << m)) != 0;
+    }
+
+    /** Makes the function 1 at minterm {@code m}. */
+    public void set(long m) {
+        words[(int) (m >>> 6)] |= 1L << m;
+    }
+
+    /** Makes the function 0 at minterm {@code m}. */
+    public void clear(long m) {
+        words[(int) (m >>> 6)] &= ~(1L << m);
+    }
+
+    /** Makes the function 1 at every minterm of {@code cube}. */
+    public void addCube(BooleanCube cube) {
+        long fixed = 0;
+        long free = 0;
+        for (int i = 0; i < nVars; ++i) {
+            long bit = 1L << (nVars - 1 - i);
+            if (cube.isOnVar(i)) {
+                fixed |= bit;
+            } else if (cube.isDontCareVar(i)) {
+                free |= bit;
+            }
+        }
+        // Enumerate the subsets of the free bits.
+        long sub = 0;
+        do {
+            set(fixed | sub);
+            sub = (sub - free) & free;
+        } while (sub != 0);
+    }
+
+    /** Number of minterms where the function is 1. */
+    public long countOnes() {
+        long count = 0;
+        for (long w : words) {
+            count += Long.bitCount(w);
+        }
+        return count;
+    }
+
+    /** Number of minterms where the function is 1 and variable {@code var} has the value {@code value}. */
+    public long countOnes(int var, boolean value) {
+        int p = position(var);
+        long count = 0;
+        if (p < 6) {
+            long mask = value ? ~LOW_MASKS[p] : LOW_MASKS[p];
+            for (long w : words) {
+                count += Long.bitCount(w & mask);
+            }
+        } else {
+            int step = 1 << (p - 6);
+            for (int k = 0; k < words.length; ++k) {
+                if (((k & step) != 0) == value) {
+                    count += Long.bitCount(words[k]);
+                }
+            }
+        }
+        return count;
+    }
+
+    /** Mutable method to replace the function by its complement. */
+    public void not() {
+        for (int k = 0; k < words.length; ++k) {
+            words[k] = ~words[k];
+        }
+        words[0] &= validMask();
+    }
+
+    /** Mutable method to replace the function by its AND with {@code other}. */
+    public void and(TruthTable other) {
+        for (int k = 0; k < words.length; ++k) {
+            words[k] &= other.words[k];
+        }
+    }
+
+    /** Mutable method to replace the function by its OR with {@code other}. */
+    public void or(TruthTable other) {
+        for (int k = 0; k < words.length; ++k) {
+            words[k] |= other.words[k];
+        }
+    }
+
+    /** Mutable method to clear every minterm that is 1 in {@code other}. */
+    public void andNot(TruthTable other) {
+        for (int k = 0; k < words.length; ++k) {
+            words[k] &= ~other.words[k];
+        }
+    }
+
+    /** Returns true if the two functions have no minterm in common. */
+    public boolean isDisjointFrom(TruthTable other) {
+        for (int k = 0; k < words.length; ++k) {
+            if ((words[k] & other.words[k]) != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /** Returns true if every minterm of {@code this} is also a minterm of {@code other}. */
+    public boolean isSubsetOf(TruthTable other) {
+        for (int k = 0; k < words.length; ++k) {
+            if ((words[k] & ~other.words[k]) != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public boolean isZero() {
+        for (long w : words) {
+            if (w != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Mutable method to negate an input: afterwards the function at {@code x} is the old function at {@code x} with
+     * variable {@code var} flipped.
+     */
+    public void flipVariable(int var) {
+        int p = position(var);
+        if (p < 6) {
+            int s = 1 << p;
+            long m = LOW_MASKS[p];
+            for (int k = 0; k < words.length; ++k) {
+                long w = words[k];
+                words[k] = ((w & m) << s) | ((w >>> s) & m);
+            }
+        } else {
+            int step = 1 << (p - 6);
+            for (int k = 0; k < words.length; ++k) {
+                if ((k & step) == 0) {
+                    long w = words[k];
+                    words[k] = words[k | step];
+                    words[k | step] = w;
+                }
+            }
+        }
+    }
+
+    /**
+     * Mutable method to exchange two inputs: afterwards the function at {@code x} is the old function at {@code x}
+     * with variables {@code var1} and {@code var2} exchanged.
+     */
+    public void swapVariables(int var1, int var2) {
+        if (var1 == var2) {
+            return;
+        }
+        int a = Math.min(position(var1), position(var2));
+        int b = Math.max(position(var1), position(var2));
+        if (b < 6) {
+            // Delta swap of the bits whose index has a = 1, b = 0 with the ones that have a = 0, b = 1.
+            int d = (1 << b) - (1 << a);
+            long mask = ~LOW_MASKS[a] & LOW_MASKS[b];
+            for (int k = 0; k < words.length; ++k) {
+                long w = words[k];
+                long t = ((w >>> d) ^ w) & mask;
+                words[k] = w ^ t ^ (t << d);
+            }
+        } else if (a < 6) {
+            // Bit a is inside a word, bit b selects the word.
+            int step = 1 << (b - 6);
+            int s = 1 << a;
+            long high = ~LOW_MASKS[a];
+            for (int k = 0; k < words.length; ++k) {
+                if ((k & step) == 0) {
+                    long w0 = words[k];
+                    long w1 = words[k | step];
+                    words[k] = (w0 & ~high) | ((w1 & ~high) << s);
+                    words[k | step] = (w1 & high) | ((w0 & high) >>> s);
+                }
+            }
+        } else {
+            // Both bits select words.
+            int stepA = 1 << (a - 6);
+            int stepB = 1 << (b - 6);
+            for (int k = 0; k < words.length; ++k) {
+                if ((k & stepA) != 0 && (k & stepB) == 0) {
+                    int partner = k - stepA + stepB;
+                    long w = words[k];
+                    words[k] = words[partner];
+                    words[partner] = w;
+                }
+            }
+        }
+    }
+
+    /** Returns the sorted minterms where the function is 1. */
+    public long[] toMintermArray() {
+        long count = countOnes();
+        if (count > Integer.MAX_VALUE) {
+            throw new CubeCalculusException("Too many minterms to list: " + count);
+        }
+        long[] minterms = new long[(int) count];
+        int n = 0;
+        for (int k = 0; k < words.length; ++k) {
+            long w = words[k];
+            while (w != 0) {
+                minterms[n++] = ((long) k << 6) + Long.numberOfTrailingZeros(w);
+                w &= w - 1;
+            }
+        }
+        return minterms;
+    }
+
+    /** Returns the minterms where the function is 1, as 0-order cubes. */
+    public Set<BooleanCube> toMinterms() {
+        Set<BooleanCube> cubes = new HashSet<>();
+        for (long m : toMintermArray()) {
+            cubes.add(BooleanCube.fromMinterm(new Minterm(nVars, m)));
+        }
+        return cubes;
+    }
+
+    /** Direct access to the words of the table, for bit-parallel algorithms.  Must not be modified. */
+    public long[] words() {
+        return words;
+    }
+
+    @Override
+    public int compareTo(TruthTable other) {
+        if (nVars != other.nVars) {
+            return Integer.compare(nVars, other.nVars);
+        }
+        for (int k = words.length - 1; k >= 0; --k) {
+            int c = Long.compareUnsigned(words[k], other.words[k]);
+            if (c != 0) {
+                return c;
+            }
+        }
+        return 0;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return (other instanceof TruthTable) && nVars == ((TruthTable) other).nVars
+                && Arrays.equals(words, ((TruthTable) other).words);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * nVars + Arrays.hashCode(words);
+    }
+
+    /** Hexadecimal representation, most significant minterms first. */
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        int digits = nVars >= 6 ? 16 : Math.max(1, (1 << nVars) / 4);
+        for (int k = words.length - 1; k >= 0; --k) {
+            String hex = Long.toHexString(words[k]);
+            for (int i = hex.length(); i < digits; ++i) {
+                sb.append('0');
+            }
+            sb.append(hex);
+        }
+        return sb.toString();
+    }
+
+    /** Bit position of a variable in the minterm number. */
+    private int position(int var) {
+        assert var >= 0 && var < nVars;
+        return nVars - 1 - var;
+    }
+
+    /** Mask of the bits of word 0 that are part of the table. */
+    private long validMask() {
+        return nVars >= 6 ? -1L : (1L << (1 << nVars)) - 1;
+    }
+}
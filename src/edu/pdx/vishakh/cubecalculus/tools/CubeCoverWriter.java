@@ -0,0 +1,225 @@
+package edu.pdx.vishakh.cubecalculus.tools;
+
+import edu.pdx.vishakh.cubecalculus.core.BooleanCube;
+import edu.pdx.vishakh.cubecalculus.core.CubeCalculusException;
+import edu.pdx.vishakh.cubecalculus.core.PackedCubeList;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Writes cube covers in the binary format read by {@link MappedCubeCover}: fixed width records of packed cubes, after
+ * a header with the number of variables, the number of cubes of each order and where the cover of each output
+ * starts.  The file is written to a temporary file first and then moved in place.
+ */
+public class CubeCoverWriter {
+
+    /** Size of the buffer the file is written through. */
+    private static final int BUFFER_SIZE = 1 << 20;
+
+    private CubeCoverWriter() {
+    }
+
+    /** Writes a single cover. */
+    public static void write(Path path, int nVars, Collection<BooleanCube> cover, boolean withIndex) {
+        List<Collection<BooleanCube>> covers = new ArrayList<>();
+        covers.add(cover);
+        writeCovers(path, nVars, covers, withIndex);
+    }
+
+    /** Writes a cover per output of a function. */
+    public static void writeCovers(Path path, int nVars, List<? extends Collection<BooleanCube>> covers,
+                                   boolean withIndex) {
+        List<PackedCubeList> packed = new ArrayList<>();
+        for (Collection<BooleanCube> cover : covers) {
+            PackedCubeList list = new PackedCubeList(nVars, cover.size());
+            for (BooleanCube cube : cover) {
+                list.add(cube);
+            }
+            packed.add(list);
+        }
+        write(path, packed, withIndex);
+    }
+
+    /**
+     * Writes a cover per output of a function, already packed.
+     * @param path The file.
+     * @param covers Cover of each output.  All must have the same number of variables.
+     * @param withIndex True to add the index that makes lookups binary searches.
+     */
+    public static void write(Path path, List<PackedCubeList> covers, boolean withIndex) {
+        if (covers.isEmpty()) {
+            throw new CubeCalculusException("A cover file needs at least one cover.");
+        }
+        int nVars = covers.get(0).getNumberOfVariables();
+        int wordsPerCube = PackedCubeList.wordsPerCube(nVars);
+        long nCubes = 0;
+        long[] orderHistogram = new long[nVars + 1];
+        long[] words = new long[wordsPerCube];
+        long[] varMasks = PackedCubeList.varMasks(nVars);
+        for (PackedCubeList cover : covers) {
+            if (cover.getNumberOfVariables() != nVars) {
+                throw new CubeCalculusException("Covers have different numbers of variables.");
+            }
+            nCubes += cover.size();
+            for (int i = 0; i < cover.size(); ++i) {
+                cover.copyWords(i, words, 0);
+                ++orderHistogram[PackedCubeList.order(words, varMasks)];
+            }
+        }
+        long headerSize = 48 + 8L * (nVars + 1) + 8L * (covers.size() + 1);
+        long cubesOffset = headerSize;
+        long indexOffset = withIndex ? cubesOffset + 8 * nCubes * wordsPerCube : 0;
+        long size = cubesOffset + 8 * nCubes * wordsPerCube + (withIndex ? 4 * nCubes : 0);
+        if (size > Integer.MAX_VALUE) {
+            throw new CubeCalculusException("Cover file would be larger than 2 GB.");
+        }
+
+        Path tmp = path.resolveSibling(path.getFileName() + ".tmp");
+        boolean moved = false;
+        try {
+            try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING)) {
+                writeContents(channel, covers, withIndex, nCubes, cubesOffset, indexOffset, orderHistogram);
+            }
+            Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            moved = true;
+        } catch (IOException e) {
+            throw new CubeCalculusException("Cannot write " + path + ": " + e.getMessage());
+        } finally {
+            if (!moved) {
+                deleteQuietly(tmp);
+            }
+        }
+    }
+
+    private static void writeContents(FileChannel channel, List<PackedCubeList> covers, boolean withIndex,
+                                      long nCubes, long cubesOffset, long indexOffset, long[] orderHistogram)
+            throws IOException {
+        int nVars = covers.get(0).getNumberOfVariables();
+        int wordsPerCube = PackedCubeList.wordsPerCube(nVars);
+        long[] words = new long[wordsPerCube];
+        ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+        buffer.putInt(MappedCubeCover.MAGIC);
+        buffer.putInt(MappedCubeCover.VERSION);
+        buffer.putInt(nVars);
+        buffer.putInt(covers.size());
+        buffer.putInt(wordsPerCube);
+        buffer.putInt(withIndex ? MappedCubeCover.FLAG_INDEX : 0);
+        buffer.putLong(nCubes);
+        buffer.putLong(cubesOffset);
+        buffer.putLong(indexOffset);
+        for (long n : orderHistogram) {
+            putLong(channel, buffer, n);
+        }
+        long start = 0;
+        for (PackedCubeList cover : covers) {
+            putLong(channel, buffer, start);
+            start += cover.size();
+        }
+        putLong(channel, buffer, start);
+
+        for (PackedCubeList cover : covers) {
+            for (int i = 0; i < cover.size(); ++i) {
+                cover.copyWords(i, words, 0);
+                for (long word : words) {
+                    putLong(channel, buffer, word);
+                }
+            }
+        }
+
+        if (withIndex) {
+            int first = 0;
+            for (PackedCubeList cover : covers) {
+                for (int position : sortedPositions(cover)) {
+                    if (buffer.remaining() < 4) {
+                        flush(channel, buffer);
+                    }
+                    buffer.putInt(first + position);
+                }
+                first += cover.size();
+            }
+        }
+        flush(channel, buffer);
+    }
+
+    /** Deletes a temporary file left by a failed write; a failure to delete it does not hide the first one. */
+    private static void deleteQuietly(Path tmp) {
+        try {
+            Files.deleteIfExists(tmp);
+        } catch (IOException e) {
+            // The error of the write is the one reported.
+        }
+    }
+
+    /** Positions of the cubes of {@code cover}, in increasing unsigned order of their words. */
+    private static int[] sortedPositions(PackedCubeList cover) {
+        int n = cover.size();
+        int wordsPerCube = cover.getWordsPerCube();
+        long[] keys = new long[n * wordsPerCube];
+        for (int i = 0; i < n; ++i) {
+            cover.copyWords(i, keys, i * wordsPerCube);
+        }
+        int[] positions = new int[n];
+        for (int i = 0; i < n; ++i) {
+            positions[i] = i;
+        }
+        mergeSort(positions, new int[n], 0, n, keys, wordsPerCube);
+        return positions;
+    }
+
+    private static void mergeSort(int[] a, int[] tmp, int from, int to, long[] keys, int wordsPerCube) {
+        if (to - from < 2) {
+            return;
+        }
+        int middle = (from + to) >>> 1;
+        mergeSort(a, tmp, from, middle, keys, wordsPerCube);
+        mergeSort(a, tmp, middle, to, keys, wordsPerCube);
+        int i = from;
+        int j = middle;
+        int k = from;
+        while (i < middle && j < to) {
+            tmp[k++] = compare(keys, a[i], a[j], wordsPerCube) <= 0 ? a[i++] : a[j++];
+        }
+        while (i < middle) {
+            tmp[k++] = a[i++];
+        }
+        while (j < to) {
+            tmp[k++] = a[j++];
+        }
+        System.arraycopy(tmp, from, a, from, to - from);
+    }
+
+    private static int compare(long[] keys, int a, int b, int wordsPerCube) {
+        for (int w = 0; w < wordsPerCube; ++w) {
+            int c = Long.compareUnsigned(keys[a * wordsPerCube + w], keys[b * wordsPerCube + w]);
+            if (c != 0) {
+                return c;
+            }
+        }
+        return 0;
+    }
+
+    private static void putLong(FileChannel channel, ByteBuffer buffer, long value) throws IOException {
+        if (buffer.remaining() < 8) {
+            flush(channel, buffer);
+        }
+        buffer.putLong(value);
+    }
+
+    private static void flush(FileChannel channel, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+}
@@ -0,0 +1,248 @@
+package edu.pdx.vishakh.cubecalculus.tools;
+
+import edu.pdx.vishakh.cubecalculus.algorithms.ExactCoverDatabase;
+import edu.pdx.vishakh.cubecalculus.algorithms.SmallFunctionMinimizer;
+import edu.pdx.vishakh.cubecalculus.core.CubeCalculusException;
+import edu.pdx.vishakh.cubecalculus.core.NpnCanonicalizer;
+import edu.pdx.vishakh.cubecalculus.core.TruthTable;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+
+/**
+ * Generates the file read by {@link ExactCoverDatabase}: a minimum cover of the canonical form of every NPN class of
+ * completely specified functions, and of its complement, for 1 to 5 variables.
+ *
+ * For up to 4 variables every function is canonicalized.  The 2^32 functions of 5 variables are first filtered by
+ * the cofactor counts that every canonical form has (no more ON than OFF minterms, each variable with at least as
+ * many ON minterms in its 0-cofactor as in its 1-cofactor, and variables ordered by that count), and only the
+ * survivors are canonicalized.  Generating the full 5 variable database takes a while; it only has to be done once.
+ * The progress of each number of variables is returned as a {@link Report}.
+ *
+ * Usage: {@code ExactCoverDatabaseGenerator <output file> [max variables]}
+ */
+public class ExactCoverDatabaseGenerator {
+
+    private static final long[] LOW_MASKS = {
+            0x55555555L, 0x33333333L, 0x0F0F0F0FL, 0x00FF00FFL, 0x0000FFFFL,
+    };
+
+    private final int maxVars;
+    private final NpnCanonicalizer canonicalizer = new NpnCanonicalizer(2 * 32 * 120);
+
+    /** Classes, cubes and time taken for each number of variables of a generated database. */
+    public static class Report {
+        private final int[] nClasses;
+        private final int[] nCubes;
+        private final long[] millis;
+
+        public Report(int[] nClasses, int[] nCubes, long[] millis) {
+            this.nClasses = nClasses;
+            this.nCubes = nCubes;
+            this.millis = millis;
+        }
+
+        public int getNumberOfClasses(int nVars) {
+            return nClasses[nVars];
+        }
+
+        public int getNumberOfCubes(int nVars) {
+            return nCubes[nVars];
+        }
+
+        public long getMillis(int nVars) {
+            return millis[nVars];
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder sb = new StringBuilder();
+            for (int n = 0; n < nClasses.length; ++n) {
+                sb.append(n).append(" variables: ").append(nClasses[n]).append(" classes, ").append(nCubes[n])
+                        .append(" cubes, ").append(millis[n]).append(" ms\n");
+            }
+            return sb.toString();
+        }
+    }
+
+    public ExactCoverDatabaseGenerator(int maxVars) {
+        if (maxVars < 0 || maxVars > ExactCoverDatabase.MAX_VARS) {
+            throw new CubeCalculusException("Exact cover database supports up to " + ExactCoverDatabase.MAX_VARS
+                    + " variables.");
+        }
+        this.maxVars = maxVars;
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.err.println("Usage: ExactCoverDatabaseGenerator <output file> [max variables]");
+            System.exit(1);
+        }
+        int maxVars = args.length > 1 ? Integer.parseInt(args[1]) : ExactCoverDatabase.MAX_VARS;
+        System.out.print(new ExactCoverDatabaseGenerator(maxVars).generate(Paths.get(args[0])));
+    }
+
+    /** Writes the database to a temporary file next to {@code path}, then moves it into place. */
+    public Report generate(Path path) throws IOException {
+        return generate(path, null);
+    }
+
+    /**
+     * Writes a database whose classes of {@code maxVars} variables are only those of {@code functions}, or all of them
+     * if it is {@code null}.  Lookups of other functions of that many variables fail, but such a database of 5
+     * variables takes moments to generate instead of the whole enumeration.
+     * @param functions Truth tables of {@code maxVars} variables, minterm {@code m} being bit {@code m}.
+     */
+    public Report generate(Path path, long[] functions) throws IOException {
+        int[][] keys = new int[maxVars + 1][];
+        int[][] indexes = new int[maxVars + 1][];
+        short[][] cubes = new short[maxVars + 1][];
+        int[] nClasses = new int[maxVars + 1];
+        int[] nCubes = new int[maxVars + 1];
+        long[] millis = new long[maxVars + 1];
+        for (int n = 0; n <= maxVars; ++n) {
+            long start = System.currentTimeMillis();
+            if (n == 0) {
+                keys[n] = new int[0];
+            } else {
+                keys[n] = n == maxVars && functions != null ? classesOf(n, functions) : findClasses(n);
+            }
+            computeCovers(n, keys[n], indexes, cubes);
+            nClasses[n] = keys[n].length;
+            nCubes[n] = cubes[n].length;
+            millis[n] = System.currentTimeMillis() - start;
+        }
+
+        Path tmp = path.resolveSibling(path.getFileName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+            out.writeInt(ExactCoverDatabase.MAGIC);
+            out.writeInt(ExactCoverDatabase.VERSION);
+            out.writeInt(maxVars);
+            long offset = 12 + 28L * (maxVars + 1);
+            for (int n = 0; n <= maxVars; ++n) {
+                out.writeInt(keys[n].length);
+                out.writeLong(offset);
+                offset += 4L * keys[n].length;
+                out.writeLong(offset);
+                offset += 4L * indexes[n].length;
+                out.writeLong(offset);
+                offset += 2L * cubes[n].length;
+            }
+            for (int n = 0; n <= maxVars; ++n) {
+                for (int k : keys[n]) {
+                    out.writeInt(k);
+                }
+                for (int i : indexes[n]) {
+                    out.writeInt(i);
+                }
+                for (short c : cubes[n]) {
+                    out.writeShort(c);
+                }
+            }
+        }
+        Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return new Report(nClasses, nCubes, millis);
+    }
+
+    /** Returns the canonical truth tables of all NPN classes of {@code n} variables, in increasing unsigned order. */
+    private int[] findClasses(int n) {
+        long nFunctions = 1L << (1 << n);
+        ConcurrentSkipListSet<Integer> classes = new ConcurrentSkipListSet<>(Integer::compareUnsigned);
+        LongStream.range(0, nFunctions).parallel().forEach(f -> {
+            if (n < 5 || mayBeCanonical(f)) {
+                int key = canonicalKey(n, f);
+                if (n < 5 || key == (int) f) {
+                    classes.add(key);
+                }
+            }
+        });
+        return toArray(classes);
+    }
+
+    /** Returns the canonical truth tables of the NPN classes of {@code functions}, in increasing unsigned order. */
+    private int[] classesOf(int n, long[] functions) {
+        long valid = (1L << (1 << n)) - 1;
+        Set<Integer> classes = new TreeSet<>(Integer::compareUnsigned);
+        for (long f : functions) {
+            if ((f & ~valid) != 0) {
+                throw new CubeCalculusException("Truth table " + Long.toHexString(f) + " has minterms beyond " + n
+                        + " variables.");
+            }
+            classes.add(canonicalKey(n, f));
+        }
+        return toArray(classes);
+    }
+
+    private int canonicalKey(int n, long f) {
+        TruthTable t = TruthTable.fromMinterms(n, toMinterms(f));
+        return (int) canonicalizer.canonicalize(t).getOnTable().words()[0];
+    }
+
+    private static int[] toArray(Set<Integer> classes) {
+        int[] result = new int[classes.size()];
+        int i = 0;
+        for (int k : classes) {
+            result[i++] = k;
+        }
+        return result;
+    }
+
+    /** Necessary conditions for a function of 5 variables to be its own canonical form. */
+    private static boolean mayBeCanonical(long f) {
+        int ones = Long.bitCount(f);
+        if (ones > 16) {
+            return false;
+        }
+        int previous = Integer.MAX_VALUE;
+        for (int i = 0; i < 5; ++i) {
+            int zeroCofactor = Long.bitCount(f & LOW_MASKS[4 - i]);
+            if (2 * zeroCofactor < ones || zeroCofactor > previous) {
+                return false;
+            }
+            previous = zeroCofactor;
+        }
+        return true;
+    }
+
+    /** Minimizes every class and its complement, filling the index and cube arrays for {@code n} variables. */
+    private static void computeCovers(int n, int[] keys, int[][] indexes, short[][] cubes) {
+        long valid = (1L << (1 << n)) - 1;
+        long[][] covers = new long[2 * keys.length][];
+        IntStream.range(0, covers.length).parallel().forEach(e -> {
+            long on = keys[e / 2] & 0xFFFFFFFFL;
+            covers[e] = SmallFunctionMinimizer.minimumCover(n, e % 2 == 0 ? on : ~on & valid, 0);
+        });
+
+        int[] index = new int[covers.length + 1];
+        for (int e = 0; e < covers.length; ++e) {
+            index[e + 1] = index[e] + covers[e].length;
+        }
+        short[] packed = new short[index[covers.length]];
+        for (int e = 0; e < covers.length; ++e) {
+            for (int i = 0; i < covers[e].length; ++i) {
+                packed[index[e] + i] = (short) covers[e][i];
+            }
+        }
+        indexes[n] = index;
+        cubes[n] = packed;
+    }
+
+    private static long[] toMinterms(long f) {
+        long[] minterms = new long[Long.bitCount(f)];
+        int i = 0;
+        for (long rest = f; rest != 0; rest &= rest - 1) {
+            minterms[i++] = Long.numberOfTrailingZeros(rest);
+        }
+        return minterms;
+    }
+}
@@ -0,0 +1,280 @@
+package edu.pdx.vishakh.cubecalculus.tools;
+
+import edu.pdx.vishakh.cubecalculus.core.BooleanCube;
+import edu.pdx.vishakh.cubecalculus.core.CubeCalculusException;
+import edu.pdx.vishakh.cubecalculus.core.PackedCubeList;
+
+import java.io.IOException;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractCollection;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Read only collection of the cubes of a cover file written by {@link CubeCoverWriter}.
+ *
+ * Opening a file maps it and reads the header; the cubes stay in the mapped file and a BooleanCube is only created
+ * when one is asked for, so opening takes the same few milliseconds however many cubes there are.  A file holds one
+ * cover per output of a function, one after the other; {@link #getOutput} gives the cover of one output as a set.
+ * The collection of the whole file holds the cubes of all the covers, so it has repeated cubes if the covers share
+ * some, and is not a set.
+ * With the optional index, {@link #contains} is a binary search; without it, a scan.
+ *
+ * The layout, all big-endian, is:
+ * <pre>
+ *   int magic, int version, int nVars, int nOutputs, int wordsPerCube, int flags
+ *   long nCubes, long cubesOffset, long indexOffset (0 without an index)
+ *   long per order 0..nVars, the number of cubes with that many DONTCAREs
+ *   long per output, plus one at the end, the position of the first cube of its cover
+ *   cubes: wordsPerCube longs per cube, in the {@link PackedCubeList} layout
+ *   index: int per cube, the positions of the cubes of each cover in increasing order of their words
+ * </pre>
+ * The file must be smaller than 2 GB.
+ */
+public class MappedCubeCover extends AbstractCollection<BooleanCube> {
+
+    public static final int MAGIC = 0x43434243;
+    public static final int VERSION = 1;
+
+    /** Flag set if the file has an index. */
+    public static final int FLAG_INDEX = 1;
+
+    private final int nVars;
+    private final int nOutputs;
+    private final int wordsPerCube;
+    private final int nCubes;
+    private final long[] orderHistogram;
+    private final int[] outputStarts;
+    private final LongBuffer cubes;
+    private final IntBuffer index;
+
+    private MappedCubeCover(MappedByteBuffer buffer) {
+        if (buffer.limit() < 48 || buffer.getInt(0) != MAGIC) {
+            throw new CubeCalculusException("Not a cube cover file.");
+        }
+        int version = buffer.getInt(4);
+        if (version != VERSION) {
+            throw new CubeCalculusException("Unsupported cube cover file version " + version + ".");
+        }
+        nVars = buffer.getInt(8);
+        nOutputs = buffer.getInt(12);
+        wordsPerCube = buffer.getInt(16);
+        int flags = buffer.getInt(20);
+        long n = buffer.getLong(24);
+        long cubesOffset = buffer.getLong(32);
+        long indexOffset = buffer.getLong(40);
+        long headerSize = 48 + 8L * (nVars + 1) + 8L * (nOutputs + 1);
+        if (nVars < 0 || nOutputs < 1 || wordsPerCube != PackedCubeList.wordsPerCube(nVars)
+                || n < 0 || n > Integer.MAX_VALUE || cubesOffset < headerSize
+                || cubesOffset + 8 * n * wordsPerCube > buffer.limit()
+                || ((flags & FLAG_INDEX) != 0 && (indexOffset < cubesOffset + 8 * n * wordsPerCube
+                        || indexOffset + 4 * n > buffer.limit()))) {
+            throw corrupt();
+        }
+        nCubes = (int) n;
+        orderHistogram = new long[nVars + 1];
+        int position = 48;
+        long total = 0;
+        for (int i = 0; i <= nVars; ++i, position += 8) {
+            orderHistogram[i] = buffer.getLong(position);
+            if (orderHistogram[i] < 0) {
+                throw corrupt();
+            }
+            total += orderHistogram[i];
+        }
+        if (total != nCubes) {
+            throw corrupt();
+        }
+        outputStarts = new int[nOutputs + 1];
+        long previous = 0;
+        for (int i = 0; i <= nOutputs; ++i, position += 8) {
+            long start = buffer.getLong(position);
+            // The covers follow each other from the first cube to the last.
+            if (start < previous || start > nCubes || (i == 0 && start != 0) || (i == nOutputs && start != nCubes)) {
+                throw corrupt();
+            }
+            outputStarts[i] = (int) start;
+            previous = start;
+        }
+        cubes = buffer.slice((int) cubesOffset, 8 * nCubes * wordsPerCube).asLongBuffer();
+        index = (flags & FLAG_INDEX) == 0 ? null : buffer.slice((int) indexOffset, 4 * nCubes).asIntBuffer();
+    }
+
+    /** Maps a cover file. */
+    public static MappedCubeCover open(Path path) {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new CubeCalculusException("Cube cover file " + path + " is larger than 2 GB.");
+            }
+            return new MappedCubeCover(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        } catch (IOException e) {
+            throw new CubeCalculusException("Cannot open " + path + ": " + e.getMessage());
+        }
+    }
+
+    public int getNumberOfVariables() {
+        return nVars;
+    }
+
+    public int getNumberOfOutputs() {
+        return nOutputs;
+    }
+
+    public boolean hasIndex() {
+        return index != null;
+    }
+
+    /** Number of cubes with each number of DONTCAREs, from 0 to nVars. */
+    public long[] getOrderHistogram() {
+        return orderHistogram.clone();
+    }
+
+    /** The cover of {@code output}, sharing the mapped file. */
+    public Set<BooleanCube> getOutput(int output) {
+        if (output < 0 || output >= nOutputs) {
+            throw new CubeCalculusException("No output " + output + " in a file with " + nOutputs + " outputs.");
+        }
+        return new OutputCover(output);
+    }
+
+    /** Position in the file of the first cube of the cover of {@code output}. */
+    public int getFirstCube(int output) {
+        return outputStarts[output];
+    }
+
+    /** Cube at {@code position} in the file, as a new BooleanCube. */
+    public BooleanCube get(int position) {
+        if (position < 0 || position >= nCubes) {
+            throw new IndexOutOfBoundsException("Cube " + position + " of " + nCubes + ".");
+        }
+        long[] words = new long[wordsPerCube];
+        cubes.get(position * wordsPerCube, words);
+        return BooleanCube.fromWords(nVars, words, 0, wordsPerCube);
+    }
+
+    /** Word {@code word} of the cube at {@code position} in the file, without creating the cube. */
+    public long getWord(int position, int word) {
+        return cubes.get(position * wordsPerCube + word);
+    }
+
+    /** True if the cover of {@code output} has {@code cube}. */
+    public boolean contains(int output, BooleanCube cube) {
+        if (cube.getNumberOfVariables() != nVars) {
+            return false;
+        }
+        long[] words = new long[wordsPerCube];
+        cube.toWords(words, 0, wordsPerCube);
+        int low = outputStarts[output];
+        int high = outputStarts[output + 1] - 1;
+        if (index == null) {
+            for (int p = low; p <= high; ++p) {
+                if (compare(p, words) == 0) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int c = compare(index.get(middle), words);
+            if (c == 0) {
+                return true;
+            } else if (c < 0) {
+                low = middle + 1;
+            } else {
+                high = middle - 1;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        if (!(o instanceof BooleanCube)) {
+            return false;
+        }
+        for (int i = 0; i < nOutputs; ++i) {
+            if (contains(i, (BooleanCube) o)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public int size() {
+        return nCubes;
+    }
+
+    @Override
+    public Iterator<BooleanCube> iterator() {
+        return iterator(0, nCubes);
+    }
+
+    /** The cover of one output, whose cubes are all different. */
+    private class OutputCover extends AbstractSet<BooleanCube> {
+        private final int output;
+
+        OutputCover(int output) {
+            this.output = output;
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            return o instanceof BooleanCube && MappedCubeCover.this.contains(output, (BooleanCube) o);
+        }
+
+        @Override
+        public int size() {
+            return outputStarts[output + 1] - outputStarts[output];
+        }
+
+        @Override
+        public Iterator<BooleanCube> iterator() {
+            return MappedCubeCover.this.iterator(outputStarts[output], outputStarts[output + 1]);
+        }
+    }
+
+    /** The cubes at positions {@code first} to {@code end} in the file. */
+    private Iterator<BooleanCube> iterator(int first, int end) {
+        return new Iterator<BooleanCube>() {
+            private int next = first;
+
+            @Override
+            public boolean hasNext() {
+                return next < end;
+            }
+
+            @Override
+            public BooleanCube next() {
+                if (next >= end) {
+                    throw new NoSuchElementException();
+                }
+                return get(next++);
+            }
+        };
+    }
+
+    /** Compares the words of the cube at {@code position} with {@code words}, in the order of the index. */
+    private int compare(int position, long[] words) {
+        int base = position * wordsPerCube;
+        for (int w = 0; w < wordsPerCube; ++w) {
+            int c = Long.compareUnsigned(cubes.get(base + w), words[w]);
+            if (c != 0) {
+                return c;
+            }
+        }
+        return 0;
+    }
+
+    private static CubeCalculusException corrupt() {
+        return new CubeCalculusException("Corrupt cube cover file.");
+    }
+}
@@ -0,0 +1,238 @@
+package edu.pdx.vishakh.cubecalculus.tools;
+
+import edu.pdx.vishakh.cubecalculus.core.BooleanCube;
+import edu.pdx.vishakh.cubecalculus.core.CubeCalculusException;
+import edu.pdx.vishakh.cubecalculus.core.PackedCubeList;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * A multiple output function in the Berkeley (Espresso) PLA format: a list of rows, each an input cube and an output
+ * part with one symbol per output.
+ *
+ * Both parts are kept packed, two bits per symbol, so that files with millions of rows fit in memory.  The input part
+ * is in the layout of {@link PackedCubeList}.  In the output part {@link PackedCubeList#ON} stands for '1',
+ * {@link PackedCubeList#OFF} for '0', {@link PackedCubeList#DONTCARE} for '-' and 0 for '~'.  What the symbols mean
+ * depends on the {@link Type} of the file.
+ */
+public class PlaFile {
+
+    /** Which sets of each output the rows describe. */
+    public enum Type {
+        /** ON sets; everything else is OFF. */
+        F,
+        /** ON and DONTCARE sets; everything else is OFF.  The default. */
+        FD,
+        /** ON and OFF sets; everything else is DONTCARE. */
+        FR,
+        /** ON, DONTCARE and OFF sets. */
+        FDR;
+
+        /** Parses the argument of a {@code .type} line. */
+        public static Type fromString(String s) {
+            try {
+                return valueOf(s.toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new CubeCalculusException("Unknown PLA type " + s + ".");
+            }
+        }
+
+        /** True if '-' outputs are DONTCAREs. */
+        public boolean hasDontCares() {
+            return this == FD || this == FDR;
+        }
+
+        /** True if '0' outputs are OFFs. */
+        public boolean hasOffSet() {
+            return this == FR || this == FDR;
+        }
+
+        @Override
+        public String toString() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+    }
+
+    private final int nInputs;
+    private final int nOutputs;
+    private final Type type;
+    private final PackedCubeList inputCubes;
+    private final PackedCubeList outputParts;
+    private List<String> inputLabels = null;
+    private List<String> outputLabels = null;
+
+    /**
+     * @param nInputs Number of inputs.
+     * @param nOutputs Number of outputs.
+     * @param type Meaning of the output symbols.
+     * @param expectedRows Number of rows to allocate room for.
+     */
+    public PlaFile(int nInputs, int nOutputs, Type type, int expectedRows) {
+        if (nInputs <= 0 || nOutputs <= 0) {
+            throw new CubeCalculusException("A PLA needs at least one input and one output.");
+        }
+        this.nInputs = nInputs;
+        this.nOutputs = nOutputs;
+        this.type = type;
+        this.inputCubes = new PackedCubeList(nInputs, expectedRows);
+        this.outputParts = new PackedCubeList(nOutputs, expectedRows);
+    }
+
+    /** A single output PLA of type f with the cubes of a cover, such as a minimized one. */
+    public static PlaFile fromCover(int nVars, Collection<BooleanCube> cover) {
+        List<Collection<BooleanCube>> covers = new ArrayList<>();
+        covers.add(cover);
+        return fromCovers(nVars, covers);
+    }
+
+    /** A PLA of type f with an output per cover.  Each cube gets a row of its own. */
+    public static PlaFile fromCovers(int nVars, List<? extends Collection<BooleanCube>> covers) {
+        int size = 0;
+        for (Collection<BooleanCube> cover : covers) {
+            size += cover.size();
+        }
+        PlaFile pla = new PlaFile(nVars, covers.size(), Type.F, size);
+        long[] outputWords = new long[PackedCubeList.wordsPerCube(covers.size())];
+        for (int output = 0; output < covers.size(); ++output) {
+            outputWords[output >>> 5] = (long) PackedCubeList.ON << (2 * (output & 31));
+            for (BooleanCube cube : covers.get(output)) {
+                pla.inputCubes.add(cube);
+                pla.outputParts.add(outputWords, 0);
+            }
+            outputWords[output >>> 5] = 0;
+        }
+        return pla;
+    }
+
+    public int getNumberOfInputs() {
+        return nInputs;
+    }
+
+    public int getNumberOfOutputs() {
+        return nOutputs;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public int getNumberOfRows() {
+        return inputCubes.size();
+    }
+
+    /** Names of the inputs, from {@code .ilb}.  {@code null} if not given. */
+    public List<String> getInputLabels() {
+        return inputLabels;
+    }
+
+    public void setInputLabels(List<String> inputLabels) {
+        checkLabels(inputLabels, nInputs);
+        this.inputLabels = inputLabels;
+    }
+
+    /** Names of the outputs, from {@code .ob}.  {@code null} if not given. */
+    public List<String> getOutputLabels() {
+        return outputLabels;
+    }
+
+    public void setOutputLabels(List<String> outputLabels) {
+        checkLabels(outputLabels, nOutputs);
+        this.outputLabels = outputLabels;
+    }
+
+    /** Input cubes of all rows. */
+    public PackedCubeList getInputCubes() {
+        return inputCubes;
+    }
+
+    /** Output parts of all rows. */
+    public PackedCubeList getOutputParts() {
+        return outputParts;
+    }
+
+    /**
+     * Adds a row already packed.
+     * @param inputWords Input cube, {@link PackedCubeList#wordsPerCube}({@code nInputs}) words from {@code inOffset}.
+     * @param outputWords Output part, {@link PackedCubeList#wordsPerCube}({@code nOutputs}) words from
+     *                    {@code outOffset}.
+     */
+    public void addRow(long[] inputWords, int inOffset, long[] outputWords, int outOffset) {
+        inputCubes.add(inputWords, inOffset);
+        outputParts.add(outputWords, outOffset);
+    }
+
+    /**
+     * Adds a row.
+     * @param input Input cube.
+     * @param outputs Output part, with a symbol per output: 1, 0, - or ~.
+     */
+    public void addRow(BooleanCube input, String outputs) {
+        if (outputs.length() != nOutputs) {
+            throw new CubeCalculusException("Output part " + outputs + " does not have " + nOutputs + " symbols.");
+        }
+        long[] outputWords = new long[outputParts.getWordsPerCube()];
+        for (int i = 0; i < nOutputs; ++i) {
+            outputWords[i >>> 5] |= (long) outputCode(outputs.charAt(i)) << (2 * (i & 31));
+        }
+        inputCubes.add(input);
+        outputParts.add(outputWords, 0);
+    }
+
+    /** Code of an output symbol, or -1 if it is not one. */
+    static int outputCode(int symbol) {
+        switch (symbol) {
+            case '1':
+            case '4':
+                return PackedCubeList.ON;
+            case '0':
+                return PackedCubeList.OFF;
+            case '-':
+            case '2':
+                return PackedCubeList.DONTCARE;
+            case '~':
+            case '3':
+                return 0;
+            default:
+                return -1;
+        }
+    }
+
+    /** Cubes of the ON set of {@code output}.  They are cubes, not minterms, and may overlap. */
+    public Set<BooleanCube> getOnSet(int output) {
+        return cubesWithOutput(output, PackedCubeList.ON);
+    }
+
+    /** Cubes of the DONTCARE set of {@code output}, if the type has one.  Empty otherwise. */
+    public Set<BooleanCube> getDcSet(int output) {
+        return type.hasDontCares() ? cubesWithOutput(output, PackedCubeList.DONTCARE) : new HashSet<>();
+    }
+
+    /** Cubes of the OFF set of {@code output}, if the type has one.  Empty otherwise. */
+    public Set<BooleanCube> getOffSet(int output) {
+        return type.hasOffSet() ? cubesWithOutput(output, PackedCubeList.OFF) : new HashSet<>();
+    }
+
+    private Set<BooleanCube> cubesWithOutput(int output, int code) {
+        if (output < 0 || output >= nOutputs) {
+            throw new CubeCalculusException("No output " + output + " in a PLA with " + nOutputs + " outputs.");
+        }
+        Set<BooleanCube> cubes = new HashSet<>();
+        for (int row = 0; row < getNumberOfRows(); ++row) {
+            if (outputParts.getVar(row, output) == code) {
+                cubes.add(inputCubes.get(row));
+            }
+        }
+        return cubes;
+    }
+
+    private static void checkLabels(List<String> labels, int n) {
+        if (labels != null && labels.size() != n) {
+            throw new CubeCalculusException("Expected " + n + " labels but got " + labels.size() + ".");
+        }
+    }
+}
@@ -0,0 +1,299 @@
+package edu.pdx.vishakh.cubecalculus.tools;
+
+import edu.pdx.vishakh.cubecalculus.core.CubeCalculusException;
+import edu.pdx.vishakh.cubecalculus.core.PackedCubeList;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Reads Berkeley (Espresso) PLA files: {@code .i}, {@code .o}, {@code .ilb}, {@code .ob}, {@code .type}, {@code .p}
+ * and {@code .e}, with rows of 0, 1 and - inputs and 1, 0, - and ~ outputs.  Multiple valued and symbolic variables
+ * are not supported.
+ *
+ * The file is memory mapped a window at a time, and rows are packed straight from the mapped bytes into a
+ * {@link PlaFile}, so reading does not create a String or a BooleanCube per row.  Only directive lines are decoded
+ * into Strings.
+ */
+public class PlaReader {
+
+    /** Size of the mapped window.  A row or directive must fit in it. */
+    private static final long DEFAULT_WINDOW = 1L << 26;
+
+    /** Codes of the symbols of a row, by byte. */
+    private static final int SKIP = -2;
+    private static final int COMMENT = -3;
+    private static final int[] INPUT_CODES = new int[256];
+    private static final int[] OUTPUT_CODES = new int[256];
+
+    static {
+        Arrays.fill(INPUT_CODES, -1);
+        for (int c = 0; c < 256; ++c) {
+            OUTPUT_CODES[c] = PlaFile.outputCode(c);
+        }
+        INPUT_CODES['0'] = PackedCubeList.OFF;
+        INPUT_CODES['1'] = PackedCubeList.ON;
+        INPUT_CODES['-'] = PackedCubeList.DONTCARE;
+        INPUT_CODES['2'] = PackedCubeList.DONTCARE;
+        for (int[] codes : new int[][] {INPUT_CODES, OUTPUT_CODES}) {
+            codes[' '] = SKIP;
+            codes['\t'] = SKIP;
+            codes['\r'] = SKIP;
+            codes['|'] = SKIP;
+            codes['#'] = COMMENT;
+        }
+    }
+
+    /** Directives that describe the rows, and so must come before them. */
+    private static final Set<String> HEADER_DIRECTIVES = new HashSet<>(Arrays.asList(".i", ".o", ".type", ".ilb",
+            ".ob"));
+
+    private final long window;
+
+    // State of the file being read.
+    private int lineNumber;
+    private int nInputs;
+    private int nOutputs;
+    private PlaFile.Type type;
+    private int expectedRows;
+    private List<String> inputLabels;
+    private List<String> outputLabels;
+    private PlaFile pla;
+    private boolean ended;
+    private long[] inputWords;
+    private long[] outputWords;
+
+    public PlaReader() {
+        this(DEFAULT_WINDOW);
+    }
+
+    /** @param window Number of bytes of the file mapped at a time. */
+    public PlaReader(long window) {
+        if (window <= 0 || window > Integer.MAX_VALUE) {
+            throw new CubeCalculusException("Window must be between 1 byte and 2 GB.");
+        }
+        this.window = window;
+    }
+
+    /** Reads a PLA file. */
+    public PlaFile read(Path path) {
+        lineNumber = 0;
+        nInputs = -1;
+        nOutputs = -1;
+        type = PlaFile.Type.FD;
+        expectedRows = 16;
+        inputLabels = null;
+        outputLabels = null;
+        pla = null;
+        ended = false;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            long position = 0;
+            while (position < size && !ended) {
+                long length = Math.min(window, size - position);
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+                int consumed = parse(buffer, position + length == size);
+                if (consumed == 0) {
+                    throw error("Line longer than " + window + " bytes");
+                }
+                position += consumed;
+            }
+        } catch (IOException e) {
+            throw new CubeCalculusException("Cannot read " + path + ": " + e.getMessage());
+        }
+        createPla();
+        return pla;
+    }
+
+    /**
+     * Parses the whole lines of the buffer, and the last partial one if {@code last}.
+     * @return Number of bytes parsed.
+     */
+    private int parse(MappedByteBuffer buffer, boolean last) {
+        int limit = buffer.limit();
+        int start = 0;
+        while (start < limit && !ended) {
+            int i = skipBlanks(buffer, start, limit);
+            int end;
+            if (i < limit && buffer.get(i) != '.' && buffer.get(i) != '#' && buffer.get(i) != '\n') {
+                // Rows are parsed in the same pass that looks for the end of the line.
+                end = parseRow(buffer, i, limit, last);
+            } else {
+                end = i;
+                while (end < limit && buffer.get(end) != '\n') {
+                    ++end;
+                }
+                if (end < limit || last) {
+                    ++lineNumber;
+                    if (end > i && buffer.get(i) == '.') {
+                        parseDirective(new String(bytes(buffer, i, end), StandardCharsets.US_ASCII).trim());
+                    }
+                }
+            }
+            if (end == limit && !last) {
+                return start;
+            }
+            start = end + 1;
+        }
+        return Math.min(start, limit);
+    }
+
+    private void parseDirective(String line) {
+        String[] tokens = line.split("\\s+");
+        String keyword = tokens[0];
+        if (pla != null && HEADER_DIRECTIVES.contains(keyword)) {
+            throw error(keyword + " after the first row");
+        }
+        switch (keyword) {
+            case ".i":
+                nInputs = intArgument(tokens);
+                break;
+            case ".o":
+                nOutputs = intArgument(tokens);
+                break;
+            case ".p":
+                expectedRows = intArgument(tokens);
+                break;
+            case ".type":
+                if (tokens.length != 2) {
+                    throw error(".type needs one argument");
+                }
+                type = PlaFile.Type.fromString(tokens[1]);
+                break;
+            case ".ilb":
+                inputLabels = new ArrayList<>(Arrays.asList(tokens).subList(1, tokens.length));
+                break;
+            case ".ob":
+                outputLabels = new ArrayList<>(Arrays.asList(tokens).subList(1, tokens.length));
+                break;
+            case ".e":
+            case ".end":
+                ended = true;
+                break;
+            case ".mv":
+            case ".symbolic":
+            case ".symbolic-output":
+            case ".kiss":
+                throw error(keyword + " is not supported");
+            default:
+                // Directives that do not change the function, such as .phase and .pair hints, are ignored.
+                break;
+        }
+    }
+
+    /**
+     * Parses a row up to the end of its line, and adds it unless the line goes on beyond the buffer.
+     * @return Index of the end of the line, or {@code limit} if it was not found.
+     */
+    private int parseRow(MappedByteBuffer buffer, int start, int limit, boolean last) {
+        if (pla == null) {
+            if (nInputs < 0) {
+                throw error("Missing .i", 1);
+            }
+            createPla();
+        }
+        long[] in = inputWords;
+        long[] out = outputWords;
+        Arrays.fill(in, 0);
+        Arrays.fill(out, 0);
+        int nSymbols = nInputs + nOutputs;
+        int n = 0;
+        int i = start;
+        for (; i < limit; ++i) {
+            int c = buffer.get(i) & 0xFF;
+            if (c == '\n') {
+                break;
+            }
+            int code = n < nInputs ? INPUT_CODES[c] : OUTPUT_CODES[c];
+            if (code == SKIP) {
+                continue;
+            }
+            if (code == COMMENT) {
+                while (i + 1 < limit && buffer.get(i + 1) != '\n') {
+                    ++i;
+                }
+                continue;
+            }
+            if (code < 0 || n == nSymbols) {
+                throw error(n == nSymbols ? "Row has more than " + nSymbols + " symbols"
+                        : "Bad " + (n < nInputs ? "input" : "output") + " symbol '" + (char) c + "'", 1);
+            }
+            if (n < nInputs) {
+                in[n >>> 5] |= (long) code << (2 * (n & 31));
+            } else {
+                int output = n - nInputs;
+                out[output >>> 5] |= (long) code << (2 * (output & 31));
+            }
+            ++n;
+        }
+        if (i == limit && !last) {
+            return limit;
+        }
+        ++lineNumber;
+        if (n != nSymbols) {
+            throw error("Row has " + n + " symbols instead of " + nSymbols);
+        }
+        pla.addRow(in, 0, out, 0);
+        return i;
+    }
+
+    /** Creates the PLA once the header is read. */
+    private void createPla() {
+        if (pla != null) {
+            return;
+        }
+        if (nInputs < 0) {
+            throw error("Missing .i");
+        }
+        if (nOutputs < 0) {
+            nOutputs = 1;
+        }
+        pla = new PlaFile(nInputs, nOutputs, type, expectedRows);
+        pla.setInputLabels(inputLabels);
+        pla.setOutputLabels(outputLabels);
+        inputWords = new long[PackedCubeList.wordsPerCube(nInputs)];
+        outputWords = new long[PackedCubeList.wordsPerCube(nOutputs)];
+    }
+
+    private int intArgument(String[] tokens) {
+        try {
+            if (tokens.length == 2) {
+                return Integer.parseInt(tokens[1]);
+            }
+        } catch (NumberFormatException e) {
+            // Reported below.
+        }
+        throw error(tokens[0] + " needs a number");
+    }
+
+    private CubeCalculusException error(String message) {
+        return error(message, 0);
+    }
+
+    /** Error in the line {@code ahead} lines after the last one counted. */
+    private CubeCalculusException error(String message, int ahead) {
+        return new CubeCalculusException(message + " at line " + (lineNumber + ahead) + ".");
+    }
+
+    private static int skipBlanks(MappedByteBuffer buffer, int i, int end) {
+        while (i < end && (buffer.get(i) == ' ' || buffer.get(i) == '\t' || buffer.get(i) == '\r')) {
+            ++i;
+        }
+        return i;
+    }
+
+    private static byte[] bytes(MappedByteBuffer buffer, int start, int end) {
+        byte[] bytes = new byte[end - start];
+        buffer.get(start, bytes);
+        return bytes;
+    }
+}
@@ -0,0 +1,76 @@
+package edu.pdx.vishakh.cubecalculus.tools;
+
+import edu.pdx.vishakh.cubecalculus.core.CubeCalculusException;
+import edu.pdx.vishakh.cubecalculus.core.PackedCubeList;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Writes {@link PlaFile}s in the Berkeley (Espresso) PLA format read by {@link PlaReader}, for example minimized
+ * covers made with {@link PlaFile#fromCover}.  Rows are written from the packed cubes through one reused character
+ * buffer.
+ */
+public class PlaWriter {
+
+    private PlaWriter() {
+    }
+
+    /** Writes a PLA file. */
+    public static void write(PlaFile pla, Path path) {
+        try (BufferedWriter writer = Files.newBufferedWriter(path, StandardCharsets.US_ASCII)) {
+            write(pla, writer);
+        } catch (IOException e) {
+            throw new CubeCalculusException("Cannot write " + path + ": " + e.getMessage());
+        }
+    }
+
+    /** Writes a PLA to {@code writer}, which should be buffered. */
+    public static void write(PlaFile pla, Writer writer) throws IOException {
+        int nInputs = pla.getNumberOfInputs();
+        int nOutputs = pla.getNumberOfOutputs();
+        writer.write(".i " + nInputs + "\n");
+        writer.write(".o " + nOutputs + "\n");
+        writeLabels(writer, ".ilb", pla.getInputLabels());
+        writeLabels(writer, ".ob", pla.getOutputLabels());
+        writer.write(".type " + pla.getType() + "\n");
+        writer.write(".p " + pla.getNumberOfRows() + "\n");
+
+        // In types without an OFF set, a '0' output just means the row is not in that output.
+        char none = pla.getType().hasOffSet() ? '~' : '0';
+        char[] row = new char[nInputs + 1 + nOutputs + 1];
+        row[nInputs] = ' ';
+        row[row.length - 1] = '\n';
+        PackedCubeList inputs = pla.getInputCubes();
+        PackedCubeList outputs = pla.getOutputParts();
+        for (int r = 0; r < pla.getNumberOfRows(); ++r) {
+            for (int i = 0; i < nInputs; ++i) {
+                int code = inputs.getVar(r, i);
+                row[i] = code == PackedCubeList.ON ? '1' : code == PackedCubeList.OFF ? '0' : '-';
+            }
+            for (int o = 0; o < nOutputs; ++o) {
+                int code = outputs.getVar(r, o);
+                row[nInputs + 1 + o] = code == PackedCubeList.ON ? '1' : code == PackedCubeList.OFF ? '0'
+                        : code == PackedCubeList.DONTCARE ? '-' : none;
+            }
+            writer.write(row);
+        }
+        writer.write(".e\n");
+    }
+
+    private static void writeLabels(Writer writer, String directive, List<String> labels) throws IOException {
+        if (labels != null) {
+            writer.write(directive);
+            for (String label : labels) {
+                writer.write(' ');
+                writer.write(label);
+            }
+            writer.write('\n');
+        }
+    }
+}
@@ -0,0 +1,168 @@
+package edu.pdx.vishakh.cubecalculus.tooltests;
+
+import edu.pdx.vishakh.cubecalculus.core.BooleanCube;
+import edu.pdx.vishakh.cubecalculus.core.CubeCalculusException;
+import edu.pdx.vishakh.cubecalculus.core.CubeUtils;
+import edu.pdx.vishakh.cubecalculus.core.PackedCubeList;
+import edu.pdx.vishakh.cubecalculus.core.TestUtils;
+import edu.pdx.vishakh.cubecalculus.tools.CubeCoverWriter;
+import edu.pdx.vishakh.cubecalculus.tools.MappedCubeCover;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+public class CubeCoverFileTests {
+
+    public static void main(String[] args) throws IOException {
+        Path path = Files.createTempFile("cubecalculus", ".cover");
+        try {
+            testSingleCover(path);
+            testMultipleOutputs(path);
+            testWideCubes(path);
+            testBadFile(path);
+            testLargeCover(path);
+        } finally {
+            Files.deleteIfExists(path);
+        }
+    }
+
+    private static void testSingleCover(Path path) {
+        Set<BooleanCube> cover = CubeUtils.cubeSetFromStringArray(new String[] {"0*01", "1*1*", "0111", "****"});
+        for (boolean withIndex : new boolean[] {false, true}) {
+            CubeCoverWriter.write(path, 4, cover, withIndex);
+            MappedCubeCover mapped = MappedCubeCover.open(path);
+            TestUtils.assertTrue(mapped.getOutput(0).equals(cover) && mapped.size() == cover.size()
+                    && mapped.hasIndex() == withIndex
+                    && mapped.contains(BooleanCube.fromString("1*1*"))
+                    && !mapped.contains(BooleanCube.fromString("1*10")),
+                    "Cover reads back the same, index " + withIndex);
+            TestUtils.assertTrue(Arrays.equals(mapped.getOrderHistogram(), new long[] {1, 1, 1, 0, 1}),
+                    "Order histogram is stored");
+        }
+    }
+
+    private static void testMultipleOutputs(Path path) {
+        Set<BooleanCube> f = CubeUtils.cubeSetFromStringArray(new String[] {"0*1", "11*"});
+        Set<BooleanCube> g = CubeUtils.cubeSetFromStringArray(new String[] {"*00"});
+        Set<BooleanCube> h = CubeUtils.cubeSetFromStringArray(new String[] {"11*", "010", "1*0"});
+        CubeCoverWriter.writeCovers(path, 3, Arrays.asList(f, g, h), true);
+        MappedCubeCover mapped = MappedCubeCover.open(path);
+        TestUtils.assertTrue(mapped.getNumberOfOutputs() == 3 && mapped.size() == 6
+                && mapped.getOutput(0).equals(f) && mapped.getOutput(1).equals(g) && mapped.getOutput(2).equals(h)
+                && !mapped.getOutput(1).contains(BooleanCube.fromString("11*"))
+                && mapped.contains(BooleanCube.fromString("010")), "Each output has its own cover");
+    }
+
+    private static void testWideCubes(Path path) {
+        Random random = new Random(37);
+        int nVars = 70;
+        List<BooleanCube> cover = new ArrayList<>();
+        for (int i = 0; i < 200; ++i) {
+            cover.add(randomCube(random, nVars));
+        }
+        CubeCoverWriter.write(path, nVars, cover, true);
+        MappedCubeCover mapped = MappedCubeCover.open(path);
+        boolean found = true;
+        for (BooleanCube c : cover) {
+            found &= mapped.contains(c);
+        }
+        TestUtils.assertTrue(found && mapped.containsAll(cover) && cover.containsAll(mapped),
+                "Cubes of several words are stored");
+    }
+
+    private static void testBadFile(Path path) throws IOException {
+        Files.write(path, "not a cover file, but long enough to have a header..".getBytes());
+        boolean thrown = false;
+        try {
+            MappedCubeCover.open(path);
+        } catch (CubeCalculusException e) {
+            thrown = true;
+        }
+        TestUtils.assertTrue(thrown, "Other files are rejected");
+
+        // Output starts of 0, 2, 3 and 6 cubes, after a header of 48 bytes and 4 orders; and a truncated file.
+        Set<BooleanCube> f = CubeUtils.cubeSetFromStringArray(new String[] {"0*1", "11*"});
+        Set<BooleanCube> g = CubeUtils.cubeSetFromStringArray(new String[] {"*00"});
+        Set<BooleanCube> h = CubeUtils.cubeSetFromStringArray(new String[] {"11*", "010", "1*0"});
+        boolean allThrown = true;
+        for (int damage = 0; damage < 3; ++damage) {
+            CubeCoverWriter.writeCovers(path, 3, Arrays.asList(f, g, h), true);
+            ByteBuffer bytes = ByteBuffer.wrap(Files.readAllBytes(path));
+            if (damage == 0) {
+                bytes.putLong(88, 4);
+            } else if (damage == 1) {
+                bytes.putLong(96, 7);
+            }
+            int length = damage == 2 ? bytes.capacity() - 30 : bytes.capacity();
+            Files.write(path, Arrays.copyOf(bytes.array(), length));
+            try {
+                MappedCubeCover.open(path);
+                allThrown = false;
+            } catch (CubeCalculusException e) {
+                // Expected.
+            }
+        }
+        TestUtils.assertTrue(allThrown, "Damaged cover files are rejected");
+
+        // The file cannot replace a directory that is not empty, and the temporary file is removed.
+        Path dir = Files.createTempDirectory("cubecalculus");
+        Path inside = Files.createFile(dir.resolve("inside"));
+        thrown = false;
+        try {
+            CubeCoverWriter.write(dir, 3, f, false);
+        } catch (CubeCalculusException e) {
+            thrown = true;
+        }
+        Path tmp = dir.resolveSibling(dir.getFileName() + ".tmp");
+        TestUtils.assertTrue(thrown && !Files.exists(tmp), "Failed write leaves no temporary file");
+        Files.delete(inside);
+        Files.delete(dir);
+    }
+
+    private static void testLargeCover(Path path) {
+        int nVars = 30;
+        int nCubes = 1000000;
+        Random random = new Random(38);
+        PackedCubeList cover = new PackedCubeList(nVars, nCubes);
+        long[] words = new long[1];
+        for (int i = 0; i < nCubes; ++i) {
+            long word = 0;
+            for (int v = 0; v < nVars; ++v) {
+                word |= (long) (1 + random.nextInt(3)) << (2 * v);
+            }
+            words[0] = word;
+            cover.add(words, 0);
+        }
+        CubeCoverWriter.write(path, Collections.singletonList(cover), true);
+
+        long start = System.nanoTime();
+        MappedCubeCover mapped = MappedCubeCover.open(path);
+        long openMicros = (System.nanoTime() - start) / 1000;
+        start = System.nanoTime();
+        boolean found = true;
+        for (int i = 0; i < 10000; ++i) {
+            found &= mapped.contains(cover.get(random.nextInt(nCubes)));
+        }
+        long lookupMicros = (System.nanoTime() - start) / 1000;
+        System.out.println("Opened " + nCubes + " cubes in " + openMicros + " us, 10000 lookups in "
+                + lookupMicros + " us");
+        TestUtils.assertTrue(mapped.size() == nCubes && found
+                && mapped.get(nCubes - 1).equals(cover.get(nCubes - 1)), "Large cover is mapped");
+    }
+
+    private static BooleanCube randomCube(Random random, int nVars) {
+        char[] trits = new char[nVars];
+        for (int i = 0; i < nVars; ++i) {
+            trits[i] = "01*".charAt(random.nextInt(3));
+        }
+        return BooleanCube.fromString(new String(trits));
+    }
+}
@@ -0,0 +1,149 @@
+package edu.pdx.vishakh.cubecalculus.tooltests;
+
+import edu.pdx.vishakh.cubecalculus.algorithms.QuineMcCluskeyAlgorithm;
+import edu.pdx.vishakh.cubecalculus.core.BooleanCube;
+import edu.pdx.vishakh.cubecalculus.core.CubeCalculusException;
+import edu.pdx.vishakh.cubecalculus.core.CubeUtils;
+import edu.pdx.vishakh.cubecalculus.core.TestUtils;
+import edu.pdx.vishakh.cubecalculus.core.TruthTable;
+import edu.pdx.vishakh.cubecalculus.tools.PlaFile;
+import edu.pdx.vishakh.cubecalculus.tools.PlaReader;
+import edu.pdx.vishakh.cubecalculus.tools.PlaWriter;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.Set;
+
+public class PlaTests {
+
+    private static final String EXAMPLE = "# Example from the Espresso manual\n"
+            + ".i 4\n"
+            + ".o 2\n"
+            + ".ilb a b c d\n"
+            + ".ob f g\n"
+            + ".type fd\n"
+            + ".p 5\n"
+            + "0-01 10\n"
+            + "1-1- 1-\n"
+            + "0111 01\n"
+            + "11 00 -1\n"
+            + "1000|~1\n"
+            + ".e\n";
+
+    public static void main(String[] args) throws IOException {
+        Path path = Files.createTempFile("cubecalculus", ".pla");
+        try {
+            testRead(path);
+            testRoundTrip(path);
+            testMinimizedCover(path);
+            testErrors(path);
+            testLargeFile(path);
+        } finally {
+            Files.deleteIfExists(path);
+        }
+    }
+
+    private static void testRead(Path path) throws IOException {
+        Files.write(path, EXAMPLE.getBytes(StandardCharsets.US_ASCII));
+        // A window smaller than the file makes the reader map it several times.
+        for (long window : new long[] {40, 1 << 20}) {
+            PlaFile pla = new PlaReader(window).read(path);
+            TestUtils.assertTrue(pla.getNumberOfInputs() == 4 && pla.getNumberOfOutputs() == 2
+                    && pla.getType() == PlaFile.Type.FD && pla.getNumberOfRows() == 5
+                    && pla.getInputLabels().equals(Arrays.asList("a", "b", "c", "d"))
+                    && pla.getOutputLabels().equals(Arrays.asList("f", "g")), "Header is read, window " + window);
+            TestUtils.assertTrue(pla.getOnSet(0).equals(cubes("0*01", "1*1*"))
+                    && pla.getDcSet(0).equals(cubes("1100")) && pla.getOffSet(0).isEmpty()
+                    && pla.getOnSet(1).equals(cubes("0111", "1100", "1000"))
+                    && pla.getDcSet(1).equals(cubes("1*1*")), "Rows are read, window " + window);
+        }
+    }
+
+    private static void testRoundTrip(Path path) throws IOException {
+        Files.write(path, EXAMPLE.getBytes(StandardCharsets.US_ASCII));
+        PlaFile pla = new PlaReader().read(path);
+        PlaWriter.write(pla, path);
+        PlaFile again = new PlaReader().read(path);
+        boolean same = again.getNumberOfRows() == pla.getNumberOfRows()
+                && again.getInputLabels().equals(pla.getInputLabels());
+        for (int o = 0; o < 2; ++o) {
+            same &= again.getOnSet(o).equals(pla.getOnSet(o)) && again.getDcSet(o).equals(pla.getDcSet(o));
+        }
+        TestUtils.assertTrue(same, "Written PLA reads back the same");
+    }
+
+    private static void testMinimizedCover(Path path) {
+        Set<BooleanCube> on = CubeUtils.cubeSetFromNumberArray(4, new long[] {0, 1, 2, 5, 7, 8, 10, 13, 15});
+        Set<BooleanCube> cover = new QuineMcCluskeyAlgorithm(null, null).minimize(4, on, null, null, null, false);
+        PlaWriter.write(PlaFile.fromCover(4, cover), path);
+        PlaFile pla = new PlaReader().read(path);
+        TestUtils.assertTrue(pla.getType() == PlaFile.Type.F && pla.getOnSet(0).equals(cover)
+                && TruthTable.fromCubes(4, pla.getOnSet(0)).equals(TruthTable.fromCubes(4, on)),
+                "Minimized cover is written as a PLA");
+    }
+
+    private static void testErrors(Path path) throws IOException {
+        String[] bad = {
+                ".o 1\n01 1\n",
+                ".i 2\n.o 1\n0x 1\n",
+                ".i 2\n.o 1\n01 11\n",
+                ".i 2\n.o 1\n.mv 3 0 2 1\n",
+                ".i 2\n.o 1\n01 1\n.type fr\n",
+                ".i 2\n.o 1\n01 1\n.ilb a b\n",
+        };
+        boolean allThrown = true;
+        for (String text : bad) {
+            Files.write(path, text.getBytes(StandardCharsets.US_ASCII));
+            try {
+                new PlaReader().read(path);
+                allThrown = false;
+            } catch (CubeCalculusException e) {
+                System.out.println(e.getMessage());
+            }
+        }
+        TestUtils.assertTrue(allThrown, "Malformed PLAs are rejected");
+
+        // A huge .p is only a hint, so it does not allocate room for that many rows.
+        char[] row = new char[70];
+        Arrays.fill(row, '-');
+        Files.write(path, (".i 70\n.o 1\n.p 2000000000\n" + new String(row) + " 1\n")
+                .getBytes(StandardCharsets.US_ASCII));
+        TestUtils.assertTrue(new PlaReader().read(path).getNumberOfRows() == 1, "Row count hint is bounded");
+    }
+
+    private static void testLargeFile(Path path) throws IOException {
+        int nInputs = 40;
+        int nRows = 200000;
+        Random random = new Random(36);
+        char[] row = new char[nInputs + 3];
+        row[nInputs] = ' ';
+        row[nInputs + 1] = '1';
+        row[nInputs + 2] = '\n';
+        try (BufferedWriter writer = Files.newBufferedWriter(path, StandardCharsets.US_ASCII)) {
+            writer.write(".i " + nInputs + "\n.o 1\n.p " + nRows + "\n");
+            for (int r = 0; r < nRows; ++r) {
+                for (int i = 0; i < nInputs; ++i) {
+                    row[i] = "01-".charAt(random.nextInt(3));
+                }
+                writer.write(row);
+            }
+            writer.write(".e\n");
+        }
+        long start = System.nanoTime();
+        PlaFile pla = new PlaReader(1 << 20).read(path);
+        long millis = (System.nanoTime() - start) / 1000000;
+        System.out.println("Read " + nRows + " rows of " + nInputs + " inputs in " + millis + " ms");
+        TestUtils.assertTrue(pla.getNumberOfRows() == nRows
+                && pla.getInputCubes().get(nRows - 1).toPlainNumericString().equals(
+                        new String(row, 0, nInputs).replace('-', '*')), "Large PLA is read");
+    }
+
+    private static Set<BooleanCube> cubes(String... cubes) {
+        return CubeUtils.cubeSetFromStringArray(cubes);
+    }
+}